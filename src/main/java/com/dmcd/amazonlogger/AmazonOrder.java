@@ -13,7 +13,7 @@ import java.util.ArrayList;
  */
 public class AmazonOrder {
 
-    private static final String CLASS_NAME = AmazonOrder.class.getSimpleName();
+    private static final String CLASS_NAME = "AmazonOrder";
     
     private boolean     bOldDate;       // the date is from last year or is already included in spreadsheet
     private String      order_num;      // the Amazon order number
@@ -75,7 +75,7 @@ public class AmazonOrder {
 
     // this copies the extra info gathered  from an invoice and adds it to the setting
     public void addDetails (AmazonOrder details) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".addDetails: ";
         
         // first, verify the order number matches and the number of items also matches
         if (! this.order_num.contentEquals(details.order_num)) {
@@ -18,7 +18,7 @@ import java.util.Objects;
  */
 public class AmazonParser {
     
-    private static final String CLASS_NAME = AmazonParser.class.getSimpleName();
+    private static final String CLASS_NAME = "AmazonParser";
     
     private ClipboardReader clipReader = null;
     private static String strSheetSel = null;
@@ -54,7 +54,38 @@ public class AmazonParser {
      * @throws IOException
      */
     public void parseWebData () throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        FlightEvents.ParseEvent event = new FlightEvents.ParseEvent();
+        event.begin();
+        try {
+            parseClipData();
+        } finally {
+            commitEvent (event, "Parse");
+        }
+    }
+
+    /**
+     * fills in the parse event info and records it.
+     * 
+     * @param event     - the event
+     * @param operation - the operation performed
+     */
+    private static void commitEvent (FlightEvents.ParseEvent event, String operation) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.orders = amazonList.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * parses the clipboard data (see parseWebData).
+     * 
+     * @throws ParserException
+     * @throws IOException
+     */
+    private void parseClipData () throws ParserException, IOException {
+        String functionId = CLASS_NAME + ".parseWebData: ";
         
         String line;
         Keyword.KeyTyp eKeyId;
@@ -186,7 +217,23 @@ public class AmazonParser {
      * @throws IOException
      */
     public static void updateSpreadsheet () throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        FlightEvents.ParseEvent event = new FlightEvents.ParseEvent();
+        event.begin();
+        try {
+            updateSheet();
+        } finally {
+            commitEvent (event, "Update");
+        }
+    }
+
+    /**
+     * updates the spreadsheet file (see updateSpreadsheet).
+     * 
+     * @throws ParserException
+     * @throws IOException
+     */
+    private static void updateSheet () throws ParserException, IOException {
+        String functionId = CLASS_NAME + ".updateSpreadsheet: ";
         
         if (strSheetSel == null) {
             throw new ParserException(functionId + "spreadsheet sheet selection not made");
@@ -334,7 +381,7 @@ public class AmazonParser {
      * @return 
      */
     private ArrayList<AmazonOrder> addOrdersToList (ArrayList<AmazonOrder> oldList, ArrayList<AmazonOrder> newList) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".addOrdersToList: ";
         
         ArrayList<AmazonOrder> finalList, appendList;
         
@@ -8,12 +8,14 @@ package com.dmcd.amazonlogger;
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import org.apache.tika.exception.TikaException;
 import org.xml.sax.SAXException;
 
 public class AmazonReader {
 
-    private static final String CLASS_NAME = AmazonReader.class.getSimpleName();
+    private static final String CLASS_NAME = "AmazonReader";
     
     private static boolean bCompileOnly = false;
     private static OperatingMode opMode;
@@ -74,7 +76,7 @@ public class AmazonReader {
     
     // Main driver method
     public static void main(String[] args) {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".main: ";
 
         // check for arguments passed (non-GUI interface for testing):
         if (args.length == 0) {
@@ -97,10 +99,19 @@ public class AmazonReader {
          
             // run the command line arguments
             try {
+                // check for the option to always compile the script instead of using the cached copy
+                if (args[0].contentEquals("-nocache")) {
+                    ScriptCache.setEnable(false);
+                    args = Arrays.copyOfRange(args, 1, args.length);
+                    if (args.length == 0) {
+                        throw new ParserException(functionId + "missing option following: -nocache");
+                    }
+                }
                 String firstArg = args[0];
                 switch (firstArg) {
-                    case "-script" ->  {
+                    case "-script", "-profile" ->  {
                         setOpMode (OperatingMode.SCRIPT);
+                        Profiler.setEnable(firstArg.contentEquals("-profile"));
                         if (args.length != 2) {
                             throw new ParserException(functionId + "missing filename argument for option: " + firstArg);
                         }
@@ -108,6 +119,28 @@ public class AmazonReader {
                         selectScriptFile(fname);
                         compileScript();
                         runScript();
+                        if (Profiler.isEnabled()) {
+                            Profiler.printReport();
+                        }
+                    }
+                    case "-sample" -> {
+                        setOpMode (OperatingMode.SCRIPT);
+                        if (args.length < 2 || args.length > 3) {
+                            throw new ParserException(functionId + "missing filename argument for option: " + firstArg);
+                        }
+                        int interval = SampleProfiler.DEFAULT_INTERVAL;
+                        if (args.length == 3) {
+                            interval = Utils.getIntValue(args[2]).intValue();
+                        }
+                        String fname = args[1];
+                        selectScriptFile(fname);
+                        compileScript();
+                        SampleProfiler.start(interval);
+                        try {
+                            runScript();
+                        } finally {
+                            SampleProfiler.stop();
+                        }
                     }
                     case "-compile" -> {
                         bCompileOnly = true;
@@ -118,6 +151,7 @@ public class AmazonReader {
                         String fname = args[1];
                         selectScriptFile(fname);
                         compileScript();
+                        ScriptCompile.printProgram();
                     }
                     case "-network" -> {
                         setOpMode (OperatingMode.NETWORK);
@@ -129,6 +163,13 @@ public class AmazonReader {
                         server = new TCPServerMain (port);
                         ScriptThread.enableRun();
                     }
+                    case "-logextract" -> {
+                        // convert a binary log file to text
+                        setOpMode (OperatingMode.COMMAND_LINE);
+                        ArrayList<String> argList = new ArrayList<>(Arrays.asList(args));
+                        argList.remove(0);
+                        BinaryLog.extract(argList);
+                    }
                     default -> {
                         setOpMode (OperatingMode.COMMAND_LINE);
                         CmdOptions cmdLine = new CmdOptions();
@@ -161,7 +202,7 @@ public class AmazonReader {
      * @throws ParserException
      */
     public static void selectScriptFile (String fname) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".selectScriptFile: ";
         
         // verify file name
         if (fname.charAt(0) != '/') {
@@ -200,7 +241,7 @@ public class AmazonReader {
      * @throws TikaException 
      */
     public static void compileScript () throws ParserException, IOException, SAXException, TikaException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".compileScript: ";
         
         if (scriptFile == null) {
             throw new ParserException(functionId + "No script file selected");
@@ -212,15 +253,54 @@ public class AmazonReader {
         ScriptThread.initBreakpoint();
 
         try {
-            // do the Pre-compile operation
-            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "===== BEGINING PROGRAM PRE-COMPILE =====");
+            // read the script and run its STARTUP section, which sets up the paths
+            //  that are part of the key for the compiled script cache.
+            // (the script file is read once here and both compile passes run from its lines)
+            ScriptSource source = new ScriptSource(scriptFile);
             PreCompile preCompile = new PreCompile();
-            preCompile.build(scriptFile);
+            preCompile.runStartup(source);
+
+            // in network mode, the script is usually compiled again after an edit,
+            //  so only recompile the subroutines that have changed since the last compile.
+            // otherwise, use the cached copy of the compiled script if nothing has changed since it was saved
+            String cacheKey = ScriptCache.getKey(source, preCompile.getStartupInputs());
+            if (isOpModeNetwork() && compileIncremental(source)) {
+                ScriptCache.save(source, cacheKey);
+            } else if (! ScriptCache.load(source, cacheKey)) {
+                // do the Pre-compile operation
+                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "===== BEGINING PROGRAM PRE-COMPILE =====");
+                FlightEvents.CompileEvent preEvent = new FlightEvents.CompileEvent();
+                preEvent.begin();
+                preCompile.build(source);
+                preEvent.end();
+                if (preEvent.shouldCommit()) {
+                    preEvent.phase  = "PreCompile";
+                    preEvent.script = scriptName;
+                    preEvent.lines  = PreCompile.getLineCount();
+                    preEvent.commit();
+                }
 
-            // compile the program
-            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "\"===== BEGINING PROGRAM COMPILE =====");
-            ScriptCompile compiler = new ScriptCompile();
-            compiler.build(scriptFile);
+                // compile the program
+                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "\"===== BEGINING PROGRAM COMPILE =====");
+                FlightEvents.CompileEvent event = new FlightEvents.CompileEvent();
+                event.begin();
+                ScriptCompile compiler = new ScriptCompile();
+                compiler.build(source);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.phase    = "Compile";
+                    event.script   = scriptName;
+                    event.lines    = ScriptCompile.getMaxLines();
+                    event.commands = ScriptCompile.getCompiledSize();
+                    event.commit();
+                }
+
+                // save the compiled script for the next run
+                // (not if only compiling, since the errors are logged and the compile continues)
+                if (! bCompileOnly) {
+                    ScriptCache.save(source, cacheKey);
+                }
+            }
 
             if (isOpModeNetwork()) {
                 Variables.sendVarAlloc();
@@ -231,6 +311,7 @@ public class AmazonReader {
         }
 
         GUIMain.elapsedTimerDisable();
+        Profiler.init(ScriptCompile.getCompiledSize());
         VarReserved.putScriptNameValue(scriptName);
         VarReserved.putCurDirValue(FileIO.getCurrentFilePath());
 
@@ -246,6 +327,33 @@ public class AmazonReader {
         Subroutine.beginExecution();
     }
     
+    /**
+     * compiles the currently selected script using the program from the last compile.
+     * 
+     * @param source - the script file lines
+     * 
+     * @return true if compiled, false if the whole script must be compiled
+     * 
+     * @throws ParserException
+     */
+    private static boolean compileIncremental (ScriptSource source) throws ParserException {
+        FlightEvents.CompileEvent event = new FlightEvents.CompileEvent();
+        event.begin();
+        ScriptCompile compiler = new ScriptCompile();
+        if (! compiler.buildIncremental(source)) {
+            return false;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase    = "Incremental";
+            event.script   = scriptName;
+            event.lines    = ScriptCompile.getMaxLines();
+            event.commands = ScriptCompile.getCompiledSize();
+            event.commit();
+        }
+        return true;
+    }
+    
     /**
      * runs the currently compiled script.
      * 
@@ -255,7 +363,7 @@ public class AmazonReader {
      * @throws TikaException 
      */
     public static void runScript () throws ParserException, IOException, SAXException, TikaException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".runScript: ";
         
         int compileSize = ScriptCompile.getCompiledSize();
         if (compileSize <= 0 || exec == null) {
@@ -267,17 +375,23 @@ public class AmazonReader {
         try {
             // execute the program by running each 'cmdList' entry
             GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "===== BEGINING PROGRAM EXECUTION =====");
+            SampleProfiler.setActive(true);
             while (commandIndex >= 0 && commandIndex < compileSize) {
                 commandIndex = exec.executeProgramCommand (commandIndex, ScriptCompile.getExecCommand(commandIndex));
             }
         } catch (ParserException exMsg) {
             Utils.throwAddendum (exMsg.getMessage(), functionId);
+        } finally {
+            SampleProfiler.setActive(false);
+            Profiler.finish();
         }
     }
 }
     
 class ParserException extends Exception {
-    
+
+    private static final long serialVersionUID = 1L;
+
     // Parameterless Constructor
     public ParserException() {}
 
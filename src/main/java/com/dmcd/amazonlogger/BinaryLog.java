@@ -0,0 +1,592 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * This handles the compact binary format for the network log file.
+ *
+ * The binary format is selected by giving the log file a '.blog' extension.
+ *  Each log line is saved as a record containing the log counter, the elapsed
+ *  time in msec, the message type, the script line number and the message text.
+ *  A new session record is written each time the file is opened, which holds
+ *  the date and time it was opened.
+ *
+ * A sidecar index file (same name with a '.bidx' extension) is written along
+ *  with the log. Each index entry covers a block of records and holds the file
+ *  offsets of the block, the range of counter and time values it contains and
+ *  a bit mask of the message types in it. This allows the extract function to
+ *  skip over any blocks that don't contain the records being searched for.
+ *  Since the counter and time values restart on each script run, the index
+ *  entries are not sorted, so the (small) index is scanned rather than searched.
+ *
+ * @author dan
+ */
+public class BinaryLog {
+
+    private static final String CLASS_NAME = "BinaryLog";
+
+    public  static final String LOG_EXTENSION   = ".blog";
+    public  static final String INDEX_EXTENSION = ".bidx";
+
+    private static final int    LOG_MAGIC    = 0x414C4F47;  // "ALOG"
+    private static final int    INDEX_MAGIC  = 0x41494458;  // "AIDX"
+    private static final int    VERSION      = 2;
+    private static final int    HEADER_SIZE  = 8;           // magic + version
+    private static final int    RECORD_FIXED = 25;          // record size not including message text
+    private static final int    BLOCK_SIZE   = 256;         // number of records per index entry
+    private static final int    TYPE_SESSION = 0xFF;        // record type for the session header
+    private static final int    SESSION_BIT  = 0x80000000;  // type mask bit for the session header
+
+    private final DataOutputStream logOut;
+    private final DataOutputStream indexOut;
+    private long    offset;         // current file offset of the log
+
+    // the info for the index block currently being written
+    private long    blockStart;     // file offset of the 1st record in the block
+    private int     blockCount;     // number of records in the block
+    private long    blockFirst;     // first counter value in the block
+    private long    blockLast;      // last counter value in the block
+    private long    blockMinTime;   // min elapsed time in the block
+    private long    blockMaxTime;   // max elapsed time in the block
+    private int     blockTypes;     // bit mask of the message types in the block
+
+    /**
+     * this defines an entry in the index file.
+     */
+    private static class IndexEntry {
+        long    start;      // file offset of the 1st record in the block
+        long    end;        // file offset following the last record in the block
+        long    first;      // first counter value in the block
+        long    last;       // last counter value in the block
+        long    minTime;    // min elapsed time in the block (Long.MAX_VALUE if none)
+        long    maxTime;    // max elapsed time in the block (-1 if none)
+        int     types;      // bit mask of the message types in the block
+    }
+
+    /**
+     * this defines the selections for extracting records from the log.
+     */
+    private static class Filter {
+        long    first   = Long.MIN_VALUE;
+        long    last    = Long.MAX_VALUE;
+        long    minTime = Long.MIN_VALUE;
+        long    maxTime = Long.MAX_VALUE;
+        int     minLine = Integer.MIN_VALUE;
+        int     maxLine = Integer.MAX_VALUE;
+        int     types   = ~SESSION_BIT;
+
+        boolean isBlockSelected (IndexEntry entry) {
+            // session headers are always output to separate the script runs
+            if ((entry.types & SESSION_BIT) != 0) {
+                return true;
+            }
+            if ((entry.types & types) == 0) {
+                return false;
+            }
+            if (entry.last < first || entry.first > last) {
+                return false;
+            }
+            if (minTime != Long.MIN_VALUE || maxTime != Long.MAX_VALUE) {
+                return entry.maxTime >= minTime && entry.minTime <= maxTime;
+            }
+            return true;
+        }
+
+        boolean isRecordSelected (long counter, long elapsed, int type, int line) {
+            if (type == TYPE_SESSION) {
+                return true;
+            }
+            if ((types & (1 << type)) == 0) {
+                return false;
+            }
+            if (counter < first || counter > last) {
+                return false;
+            }
+            if (line < minLine || line > maxLine) {
+                return false;
+            }
+            if (minTime != Long.MIN_VALUE || maxTime != Long.MAX_VALUE) {
+                return elapsed >= minTime && elapsed <= maxTime;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * opens a binary log file for writing.
+     *
+     * @param fname   - the name of the log file (absolute path)
+     * @param bAppend - true to append to existing file, false to create new file
+     *
+     * @throws IOException
+     */
+    BinaryLog (String fname, boolean bAppend) throws IOException {
+        String functionId = CLASS_NAME + " (new): ";
+
+        File logFile = new File(fname);
+        File indexFile = new File(getIndexName(fname));
+
+        // only append if the file is a valid binary log that has an index
+        if (bAppend && logFile.isFile() && indexFile.isFile() && logFile.length() >= HEADER_SIZE) {
+            try (DataInputStream in = new DataInputStream(new FileInputStream(logFile))) {
+                bAppend = in.readInt() == LOG_MAGIC && in.readInt() == VERSION;
+            }
+            if (! bAppend) {
+                GUILogPanel.outputInfoMsg(MsgType.WARN, functionId + "not a valid binary log, replacing: " + fname);
+            }
+        } else {
+            bAppend = false;
+        }
+
+        logOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, bAppend), 65536));
+        indexOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, bAppend)));
+        if (bAppend) {
+            // any records following the last index entry will be found by the extract
+            offset = logFile.length();
+        } else {
+            logOut.writeInt(LOG_MAGIC);
+            logOut.writeInt(VERSION);
+            indexOut.writeInt(INDEX_MAGIC);
+            indexOut.writeInt(VERSION);
+            offset = HEADER_SIZE;
+        }
+        startBlock();
+    }
+
+    /**
+     * indicates if the specified file name is for a binary log file.
+     *
+     * @param fname - name of the log file
+     *
+     * @return true if binary format
+     */
+    public static boolean isBinaryLogName (String fname) {
+        return fname != null && fname.endsWith(LOG_EXTENSION);
+    }
+
+    /**
+     * gets the name of the index file associated with a binary log file.
+     *
+     * @param fname - name of the log file
+     *
+     * @return the name of the index file
+     */
+    public static String getIndexName (String fname) {
+        if (isBinaryLogName(fname)) {
+            fname = fname.substring(0, fname.length() - LOG_EXTENSION.length());
+        }
+        return fname + INDEX_EXTENSION;
+    }
+
+    /**
+     * writes a session header record to mark the start of a new log session.
+     * This always begins a new index block.
+     *
+     * @param header - the header text (date and time the log was opened)
+     *
+     * @throws IOException
+     */
+    public void writeSession (String header) throws IOException {
+        endBlock();
+        writeRecord (-1, -1, TYPE_SESSION, 0, header);
+        blockTypes |= SESSION_BIT;
+    }
+
+    /**
+     * writes a log line to the file.
+     *
+     * @param counter - the log counter value
+     * @param elapsed - the elapsed time in msec (-1 if timer not running)
+     * @param msgType - the message type
+     * @param line    - the script line number (0 if none)
+     * @param text    - the message text (without counter, time or type prefix)
+     *
+     * @throws IOException
+     */
+    public void write (long counter, long elapsed, MsgType msgType, int line, String text) throws IOException {
+        int type = msgType.ordinal();
+        writeRecord (counter, elapsed, type, line, text);
+        blockFirst = Math.min(blockFirst, counter);
+        blockLast  = Math.max(blockLast, counter);
+        if (elapsed >= 0) {
+            blockMinTime = Math.min(blockMinTime, elapsed);
+            blockMaxTime = Math.max(blockMaxTime, elapsed);
+        }
+        blockTypes |= 1 << type;
+        if (blockCount >= BLOCK_SIZE) {
+            endBlock();
+        }
+    }
+
+    /**
+     * gets the current size of the log file.
+     *
+     * @return the size in bytes (including any buffered records)
+     */
+    public long getSize () {
+        return offset;
+    }
+
+    /**
+     * writes any buffered records out to the log file.
+     *
+     * @throws IOException
+     */
+    public void flush () throws IOException {
+        logOut.flush();
+    }
+
+    /**
+     * closes the log file, completing the index for the final block.
+     *
+     * @throws IOException
+     */
+    public void close () throws IOException {
+        try {
+            endBlock();
+        } finally {
+            logOut.close();
+            indexOut.close();
+        }
+    }
+
+    private void writeRecord (long counter, long elapsed, int type, int line, String text) throws IOException {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        logOut.writeLong(counter);
+        logOut.writeLong(elapsed);
+        logOut.writeByte(type);
+        logOut.writeInt(line);
+        logOut.writeInt(data.length);
+        logOut.write(data);
+        offset += RECORD_FIXED + data.length;
+        blockCount++;
+    }
+
+    private void startBlock () {
+        blockStart   = offset;
+        blockCount   = 0;
+        blockFirst   = Long.MAX_VALUE;
+        blockLast    = Long.MIN_VALUE;
+        blockMinTime = Long.MAX_VALUE;
+        blockMaxTime = -1;
+        blockTypes   = 0;
+    }
+
+    private void endBlock () throws IOException {
+        if (blockCount > 0) {
+            // the index is only written on block boundaries, so flush the log
+            //  first to make sure the index never refers to data not yet written.
+            logOut.flush();
+            indexOut.writeLong(blockStart);
+            indexOut.writeLong(offset);
+            indexOut.writeLong(blockFirst);
+            indexOut.writeLong(blockLast);
+            indexOut.writeLong(blockMinTime);
+            indexOut.writeLong(blockMaxTime);
+            indexOut.writeInt(blockTypes);
+            indexOut.flush();
+        }
+        startBlock();
+    }
+
+    /**
+     * extracts records from a binary log file and outputs them in text format.
+     *
+     * The arguments are: <logfile> [options]
+     *   -count <first> <last> - only the records having a counter value in this range
+     *   -time  <start> <end>  - only the records in this elapsed time range,
+     *                           either in msec or in MM:SS.mmm format
+     *   -line  <first> <last> - only the records output while running the
+     *                           script lines in this range
+     *   -type  <list>         - only the records of the specified message types
+     *                           (comma-separated list of MsgType names)
+     *   -out   <file>         - write the output to the specified text file
+     *                           instead of stdout
+     * The session headers are always output to separate the script runs.
+     * The script line number of each record is output following its time.
+     *
+     * @param args - the argument list (not including the '-logextract' option)
+     *
+     * @throws IOException
+     */
+    public static void extract (ArrayList<String> args) throws IOException {
+        String functionId = CLASS_NAME + ".extract: ";
+
+        if (args.isEmpty()) {
+            throw new IOException(functionId + "missing log file name");
+        }
+        String fname = args.get(0);
+        if (fname.isBlank()) {
+            throw new IOException(functionId + "missing log file name");
+        }
+        if (fname.charAt(0) != '/') {
+            fname = Utils.getDefaultPath(Utils.PathType.Test) + "/" + fname;
+        }
+        File logFile = new File(fname);
+        if (! logFile.canRead()) {
+            throw new IOException(functionId + "Invalid file - no read access: " + fname);
+        }
+
+        // get the filter selections
+        Filter filter = new Filter();
+        String outName = null;
+        for (int ix = 1; ix < args.size(); ix++) {
+            String option = args.get(ix);
+            switch (option) {
+                case "-count" -> {
+                    checkArgCount (args, ix, 2, option);
+                    filter.first = parseLong(args.get(++ix));
+                    filter.last  = parseLong(args.get(++ix));
+                }
+                case "-line" -> {
+                    checkArgCount (args, ix, 2, option);
+                    filter.minLine = (int) parseLong(args.get(++ix));
+                    filter.maxLine = (int) parseLong(args.get(++ix));
+                }
+                case "-time" -> {
+                    checkArgCount (args, ix, 2, option);
+                    filter.minTime = parseTime(args.get(++ix));
+                    filter.maxTime = parseTime(args.get(++ix));
+                }
+                case "-type" -> {
+                    checkArgCount (args, ix, 1, option);
+                    filter.types = 0;
+                    for (String name : args.get(++ix).split(",")) {
+                        try {
+                            filter.types |= 1 << MsgType.valueOf(name.strip().toUpperCase()).ordinal();
+                        } catch (IllegalArgumentException ex) {
+                            throw new IOException(functionId + "Invalid message type: " + name);
+                        }
+                    }
+                }
+                case "-out" -> {
+                    checkArgCount (args, ix, 1, option);
+                    outName = args.get(++ix);
+                    if (outName.isBlank()) {
+                        throw new IOException(functionId + "missing file name for option: " + option);
+                    }
+                }
+                default -> throw new IOException(functionId + "Invalid option: " + option);
+            }
+        }
+
+        PrintWriter out;
+        if (outName != null) {
+            if (outName.charAt(0) != '/') {
+                outName = Utils.getDefaultPath(Utils.PathType.Test) + "/" + outName;
+            }
+            out = new PrintWriter(new FileWriter(outName));
+        } else {
+            out = new PrintWriter(System.out);
+        }
+
+        try (FileInputStream fis = new FileInputStream(logFile)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(fis));
+            if (in.readInt() != LOG_MAGIC || in.readInt() != VERSION) {
+                throw new IOException(functionId + "Not a binary log file: " + fname);
+            }
+
+            // read the blocks selected by the index. Any records that are not
+            //  covered by the index (file was not closed or has no index) are
+            //  always read.
+            long fileEnd = logFile.length();
+            long position = HEADER_SIZE;
+            int  count = 0;
+            for (IndexEntry entry : readIndex (getIndexName(fname))) {
+                if (entry.start > position) {
+                    count += readRecords (fis, position, entry.start, filter, out);
+                }
+                if (filter.isBlockSelected(entry)) {
+                    count += readRecords (fis, entry.start, entry.end, filter, out);
+                }
+                position = Math.max(position, entry.end);
+            }
+            if (position < fileEnd) {
+                count += readRecords (fis, position, fileEnd, filter, out);
+            }
+            out.flush();
+            GUILogPanel.outputInfoMsg(MsgType.INFO, functionId + "extracted " + count + " records from " + fname);
+        } finally {
+            if (outName != null) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        }
+    }
+
+    private static void checkArgCount (ArrayList<String> args, int ix, int count, String option) throws IOException {
+        String functionId = CLASS_NAME + ".checkArgCount: ";
+
+        if (ix + count >= args.size()) {
+            throw new IOException(functionId + "missing argument for option: " + option);
+        }
+    }
+
+    /**
+     * converts a counter or line number value.
+     *
+     * @param value - the numeric value
+     *
+     * @return the value
+     *
+     * @throws IOException
+     */
+    private static long parseLong (String value) throws IOException {
+        String functionId = CLASS_NAME + ".parseLong: ";
+
+        try {
+            return Long.parseLong(value.strip());
+        } catch (NumberFormatException ex) {
+            throw new IOException(functionId + "Invalid numeric value: " + value);
+        }
+    }
+
+    /**
+     * converts a time value to msec.
+     *
+     * @param value - the time in msec or in MM:SS.mmm format
+     *
+     * @return the time in msec
+     *
+     * @throws IOException
+     */
+    private static long parseTime (String value) throws IOException {
+        String functionId = CLASS_NAME + ".parseTime: ";
+
+        try {
+            int offset = value.indexOf(':');
+            if (offset < 0) {
+                return Long.parseLong(value);
+            }
+            long mins = Long.parseLong(value.substring(0, offset));
+            double secs = Double.parseDouble(value.substring(offset + 1));
+            return (mins * 60000) + Math.round(secs * 1000);
+        } catch (NumberFormatException ex) {
+            throw new IOException(functionId + "Invalid time value: " + value);
+        }
+    }
+
+    /**
+     * reads the index file entries.
+     *
+     * @param fname - name of the index file
+     *
+     * @return the list of index entries (empty if no index file)
+     *
+     * @throws IOException
+     */
+    private static ArrayList<IndexEntry> readIndex (String fname) throws IOException {
+        String functionId = CLASS_NAME + ".readIndex: ";
+
+        ArrayList<IndexEntry> list = new ArrayList<>();
+        File file = new File(fname);
+        if (! file.isFile()) {
+            GUILogPanel.outputInfoMsg(MsgType.WARN, functionId + "no index file, reading entire log: " + fname);
+            return list;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != VERSION) {
+                GUILogPanel.outputInfoMsg(MsgType.WARN, functionId + "invalid index file, reading entire log: " + fname);
+                return list;
+            }
+            while (true) {
+                IndexEntry entry = new IndexEntry();
+                entry.start   = in.readLong();
+                entry.end     = in.readLong();
+                entry.first   = in.readLong();
+                entry.last    = in.readLong();
+                entry.minTime = in.readLong();
+                entry.maxTime = in.readLong();
+                entry.types   = in.readInt();
+                list.add(entry);
+            }
+        } catch (EOFException ex) {
+            // end of index (a partial entry is ignored)
+        }
+        return list;
+    }
+
+    /**
+     * reads the records in the specified section of the log and outputs the
+     *  ones that are selected by the filter.
+     *
+     * @param fis    - the log file input stream
+     * @param start  - the file offset to begin reading
+     * @param end    - the file offset to stop reading
+     * @param filter - the record selections
+     * @param out    - the text output
+     *
+     * @return the number of records output
+     *
+     * @throws IOException
+     */
+    private static int readRecords (FileInputStream fis, long start, long end, Filter filter, PrintWriter out) throws IOException {
+        fis.getChannel().position(start);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(fis, 65536));
+        int count = 0;
+        long position = start;
+        try {
+            while (position < end) {
+                long counter = in.readLong();
+                long elapsed = in.readLong();
+                int  type    = in.readUnsignedByte();
+                int  line    = in.readInt();
+                int  length  = in.readInt();
+                byte[] data = new byte[length];
+                in.readFully(data);
+                position += RECORD_FIXED + length;
+                if (filter.isRecordSelected(counter, elapsed, type, line)) {
+                    out.println(formatRecord (counter, elapsed, type, line, new String(data, StandardCharsets.UTF_8)));
+                    count++;
+                }
+            }
+        } catch (EOFException ex) {
+            // the last record was only partially written
+        }
+        return count;
+    }
+
+    /**
+     * formats a record in the same manner as the text log file.
+     *
+     * @param counter - the log counter value
+     * @param elapsed - the elapsed time in msec (-1 if timer not running)
+     * @param type    - the message type
+     * @param line    - the script line number being run when the message was logged
+     * @param text    - the message text
+     *
+     * @return the formatted line
+     */
+    private static String formatRecord (long counter, long elapsed, int type, int line, String text) {
+        if (type == TYPE_SESSION) {
+            return "\n=== " + text + " ============================================================";
+        }
+        String prefix = "";
+        MsgType[] types = MsgType.values();
+        if (type < types.length) {
+            prefix = GUILogPanel.getMsgPrefix(types[type]);
+        }
+        String countstr = GUILogPanel.formatCounter(counter);
+        String time = elapsed < 0 ? "" : GUIMain.elapsedTimeFormat(elapsed);
+        return countstr + " " + time + "[" + line + "] " + prefix + text;
+    }
+
+}
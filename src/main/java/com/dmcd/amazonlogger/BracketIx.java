@@ -4,13 +4,16 @@
  */
 package com.dmcd.amazonlogger;
 
+import java.io.Serializable;
+
 /**
  *
  * @author dan
  */
-public class BracketIx {
+public class BracketIx implements Serializable {
     
-    private static final String CLASS_NAME = BracketIx.class.getSimpleName();
+    private static final String CLASS_NAME = "BracketIx";
+    private static final long serialVersionUID = 1L;
 
     private Integer value;              // if index was a discreet value
     private String  var;                // if index was a variable
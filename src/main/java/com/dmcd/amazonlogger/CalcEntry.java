@@ -4,18 +4,23 @@
  */
 package com.dmcd.amazonlogger;
 
+import java.io.Serializable;
+
 /**
  *
  * @author dan
  */
-public class CalcEntry {
+public class CalcEntry implements Serializable {
 
-    private static final String CLASS_NAME = CalcEntry.class.getSimpleName();
+    private static final String CLASS_NAME = "CalcEntry";
+    private static final long serialVersionUID = 1L;
 
-    private Calculation.EntryType type; // classification of the entry
-    private Long    value;              // calc value (if value given)
-    private String  paramName;          // parameter name (if parameter)
-    private boolean bInvert;            // true if param or parenthesis group is negated
+    private final Calculation.EntryType type; // classification of the entry
+    private final Long    value;        // calc value (if value given)
+    private final String  paramName;    // parameter name (if parameter)
+    private final boolean bInvert;      // true if param or parenthesis group is negated
+    private final int     slot;         // Variable slot of an Integer or Unsigned param (else -1)
+    private final LoopStruct loop;      // the loop of a loop Variable param (else null)
 
     CalcEntry (Calculation.EntryType type, String entry, boolean bNot) throws ParserException {
         this.type    = type;
@@ -37,6 +42,8 @@ public class CalcEntry {
                 this.paramName = null;
                 break;
         }
+        this.slot = Variables.getIntegerSlot (this.paramName);
+        this.loop = (this.paramName == null) ? null : LoopStruct.getActiveLoop(getBaseName (this.paramName));
     }
         
     CalcEntry (Long value) throws ParserException {
@@ -44,6 +51,12 @@ public class CalcEntry {
         this.value = value;
         this.paramName = null;
         this.bInvert = false;
+        this.slot = -1;
+        this.loop = null;
+    }
+
+    private static String getBaseName (String name) {
+        return (! name.isEmpty() && name.charAt(0) == '$') ? name.substring(1) : name;
     }
         
     public boolean isInverted() {
@@ -58,8 +71,16 @@ public class CalcEntry {
         return this.paramName;
     }
 
-    public Long getValue() throws ParserException {
+    public long getValue() throws ParserException {
         // if entry is parameter, do the parameter conversion to Integer value first
+        // (the value is not saved in the entry, since the entry is part of the compiled script)
+        Long result = this.value;
+        if (this.slot >= 0) {
+            return Variables.getSlotInteger(this.slot);
+        }
+        if (this.loop != null) {
+            return this.loop.getLoopValue();
+        }
         if (this.type == Calculation.EntryType.Param) {
             if (this.paramName == null) {
                 throw new ParserException ("CalcEntry.getValue: Parameter name not found (null)");
@@ -69,12 +90,12 @@ public class CalcEntry {
                                      ParameterStruct.ParamClass.Reference, 
                                     ParameterStruct.ParamType.Integer);
             param.updateFromReference();
-            this.value = param.getIntegerValue();
+            result = param.getIntegerValue();
         }
-        if (this.value == null) {
+        if (result == null) {
             throw new ParserException ("CalcEntry.getValue: Integer value not found (null)");
         }
-        return this.value;
+        return result;
     }
     
 }
@@ -5,19 +5,41 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  *
  * @author dan
  */
-public class Calculation {
+public class Calculation implements Serializable {
 
-    private static final String CLASS_NAME = Calculation.class.getSimpleName();
+    private static final String CLASS_NAME = "Calculation";
+    private static final long serialVersionUID = 1L;
     
-    // this holds the array of operands (values/params), operations, and parenthesis
-    private static ArrayList<CalcEntry> calcList;
-    private static int opCount; // number of operands in calcList
+    // the stack the Calculations are run on. This is kept for each thread
+    //  rather than in the Calculation, so a compiled Calculation can be run
+    //  by more than one script at a time. A Calculation that is run while
+    //  another is in progress (from a parameter lookup) uses the entries
+    //  above the ones in use.
+    private static final ThreadLocal<EvalStack> evalStack = ThreadLocal.withInitial(EvalStack::new);
+    
+    private static final class EvalStack {
+        private long[] entries = new long[16];
+        private int    top = 0;     // the index of the 1st unused entry
+    }
+    
+    // the formula is compiled into a postfix program of instructions that are
+    //  run on a stack of long values. Each instruction is either an operand
+    //  (Value or Param), which is pushed on the stack, or an operation, which
+    //  replaces the top entries of the stack with its result.
+    private final EntryType[] code;     // the postfix instructions
+    private final long[]      values;   // the value for each Value instruction
+    private final CalcEntry[] params;   // the parameter for each Param instruction
+    private final int         stackSize; // the number of stack entries needed to run the instructions
+    
+    private final int         opCount;  // number of operands in the formula (after folding constants)
     
     
     public enum EntryType {
@@ -42,7 +64,8 @@ public class Calculation {
     };
     
     /**
-     * Extracts the pertinent parts of a formula into an array of CalcEntry objects.
+     * Extracts the pertinent parts of a formula into an array of CalcEntry objects
+     *  and compiles them into the postfix instructions to run.
      * 
      * This is only used in the Compilation phase, so we are creating the parameter
      *   entry and verifying the type is valid, but if it is a Variable reference,
@@ -65,7 +88,7 @@ public class Calculation {
             throw new ParserException (functionId + "Calculation not permitted for type: " + resultType.toString());
         }
         
-        calcList = new ArrayList<>();
+        ArrayList<CalcEntry> calcList = new ArrayList<>();
         boolean bNot = false;
         while (!formula.isBlank()) {
             // strip off any leading whitespace
@@ -113,24 +136,41 @@ public class Calculation {
 
             }
         }
-        verify();
-    }
+        verify(calcList);
 
-    /**
-     * copies a saved calculation array to this class to be executed.
-     * 
-     * This is used when executing a saved calculation without changing
-     *  the saved value, since running the compute() method will modify
-     *  the calculation contents.
-     * 
-     * @param savedValue - the saved calculation value to process
-     */
-    Calculation (ArrayList<CalcEntry> savedValue) throws ParserException {
-        calcList = new ArrayList<>();
-        for (int ix = 0; ix < savedValue.size(); ix++) {
-            calcList.add(savedValue.get(ix));
+        // now convert the formula into the postfix instructions and replace
+        //  any operations that only use constant values with their result
+        ArrayList<CalcEntry> program = foldConstants (toPostfix (calcList));
+        int count = 0;
+        code   = new EntryType[program.size()];
+        values = new long[program.size()];
+        params = new CalcEntry[program.size()];
+        int depth = 0;
+        int maxDepth = 1;
+        for (int ix = 0; ix < program.size(); ix++) {
+            CalcEntry entry = program.get(ix);
+            code[ix] = entry.getType();
+            switch (code[ix]) {
+                case Value:
+                    values[ix] = entry.getValue();
+                    depth++;
+                    count++;
+                    break;
+                case Param:
+                    params[ix] = entry;
+                    depth++;
+                    count++;
+                    break;
+                case NOT:
+                    break;
+                default:
+                    depth--;
+                    break;
+            }
+            maxDepth = Math.max(maxDepth, depth);
         }
-        verify();
+        opCount = count;
+        stackSize = maxDepth;
     }
 
     /**
@@ -150,8 +190,8 @@ public class Calculation {
      * @throws ParserException
      */
     public Long getCalcValue() throws ParserException {
-        if (opCount == 1 && calcList.getFirst().getType() == EntryType.Value) {
-            return calcList.getFirst().getValue();
+        if (code.length == 1 && code[0] == EntryType.Value) {
+            return values[0];
         }
         return null;
     }
@@ -164,30 +204,35 @@ public class Calculation {
      * @throws ParserException
      */
     public String getCalcParam() throws ParserException {
-        if (opCount == 1 && calcList.getFirst().getType() == EntryType.Param) {
-            return calcList.getFirst().getParam();
+        if (code.length == 1 && code[0] == EntryType.Param) {
+            return params[0].getParam();
         }
         return null;
     }
     
     /**
-     * copies a saved calculation array to this class to be executed.
-     * This is used when executing a saved calculation without changing
-     *  the saved value, since running the compute() method will modify
-     *  the calculation contents.
+     * returns the postfix instructions of the formula for display.
      * 
-     * @return the calculation array
+     * @return the instructions, with the operands shown by value or name
      */
-    public ArrayList<CalcEntry> copyCalc () {
-        ArrayList<CalcEntry> savedValue = new ArrayList<>();
-        for (int ix = 0; ix < calcList.size(); ix++) {
-            savedValue.add(calcList.get(ix));
+    @Override
+    public String toString() {
+        StringBuilder strProgram = new StringBuilder();
+        for (int ix = 0; ix < code.length; ix++) {
+            if (ix > 0) {
+                strProgram.append(" ");
+            }
+            switch (code[ix]) {
+                case Value -> strProgram.append(values[ix]);
+                case Param -> strProgram.append(params[ix].getParam());
+                default    -> strProgram.append(code[ix]);
+            }
         }
-        return savedValue;
+        return strProgram.toString();
     }
     
-/**
-     * computes the Integer value of the calcList formula.
+    /**
+     * computes the Integer value of the formula.
      * Does any parameter lookup necessary to convert to Integer values.
      * 
      * @param type - the data type being calculated
@@ -196,296 +241,288 @@ public class Calculation {
      * 
      * @throws ParserException
      */    
-    public Long compute (ParameterStruct.ParamType type) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public long compute (ParameterStruct.ParamType type) throws ParserException {
+        // the stack is only enlarged if the Calculations in progress need more
+        //  entries than it has. The one that is enlarging it copies the entries
+        //  in use, but those keep on using the array they started with.
+        EvalStack stk = evalStack.get();
+        int base = stk.top;
+        if (base + stackSize > stk.entries.length) {
+            stk.entries = Arrays.copyOf(stk.entries, Math.max(base + stackSize, stk.entries.length * 2));
+        }
+        stk.top = base + stackSize;
+        long result;
+        try {
+            result = run (stk.entries, base);
+        } finally {
+            stk.top = base;
+        }
+        if (type == ParameterStruct.ParamType.Unsigned) {
+            result &= 0xFFFFFFFF; // truncate result to 32 bits if unsigned
+        }
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "      Calc Result: " + result);
+        }
+        return result;
+    }
 
-        // should repeat this process until only 1 entry remains, and it
-        //  should be a Value, which is the final calculation result.
-        boolean bBrackets = true;
-        while (bBrackets) {
-            // find the starting locations of each lowest level of parenthesis blocks.
-            // This way the highest priority of operations is the Parenthesis.
-            int left = 0;
-            bBrackets = false;
-            for (int ix = 0; ix < calcList.size(); ix++) {
-                CalcEntry entry  = calcList.get(ix);
-                if (entry.getType() == EntryType.Lbracket) {
-                    bBrackets = true;
-                    left = ix;
-                } else if (entry.getType() == EntryType.Rbracket) {
-                    bBrackets = true;
-                    int right = ix;
-                    Long value = computeBracket (left, right);
-                    // if the bracketed section was NOTted, invert the result now.
-                    if (entry.isInverted()) {
-                        Long newValue = ~value & 0xFFFFFFFF;
-                        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "      Calc: ! " + value + " = " + newValue);
-                        value = newValue;
+    /**
+     * runs the postfix instructions on the specified stack.
+     * 
+     * @param stk  - the stack to use
+     * @param base - the index of the 1st stack entry to use
+     * 
+     * @return the computed value
+     * 
+     * @throws ParserException 
+     */
+    private long run (long[] stk, int base) throws ParserException {
+        String functionId = CLASS_NAME + ".run: ";
+
+        // (the debug display of the formula is only built if it will be output)
+        StringBuilder strDebug = GUILogPanel.isEnabled(MsgType.PROGRAM) ? new StringBuilder() : null;
+        boolean bDebug = GUILogPanel.isEnabled(MsgType.DEBUG);
+        int sp = base;
+        for (int ix = 0; ix < code.length; ix++) {
+            EntryType curOp = code[ix];
+            switch (curOp) {
+                case Value:
+                    stk[sp++] = values[ix];
+                    break;
+                case Param:
+                    stk[sp++] = params[ix].getValue();
+                    break;
+                case NOT:
+                    long opValue = stk[sp-1];
+                    stk[sp-1] = ~opValue & 0xFFFFFFFF;
+                    if (bDebug) {
+                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "      Calc: ! " + opValue + " = " + stk[sp-1]);
                     }
-                    CalcEntry param = new CalcEntry(value);
-                    // now replace this bracketed section with its computed value
-                    // (remove all the entries from the opening to closing parenthesis
-                    //  and replace with a single value entry that is the calculation result)
-                    calcList.set(left, param);
-                    for (int remix = left+1; remix <= right; remix++) {
-                        calcList.remove(left+1);
+                    break;
+                default:
+                    long op2 = stk[--sp];
+                    long op1 = stk[sp-1];
+                    stk[sp-1] = calcOperation (curOp, op1, op2);
+                    if (bDebug) {
+                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "      Calc: " + op1 + " " + getOpString(curOp) + " " + op2 + " = " + stk[sp-1]);
                     }
                     break;
-                }
             }
-        }
-        
-        // may still have operations to perform, but should not have anymore parenthesis,
-        // so perform any remaining operations from left-to-right.
-        if (calcList.size() != 1) {
-            Long value = computeBracket (0, calcList.size()-1);
-            CalcEntry param = new CalcEntry(value);
-            calcList.set(0, param);
-            int count = calcList.size() - 1;
-            for (int remix = 0; remix < count; remix++) {
-                calcList.remove(1);
+            if (strDebug != null) {
+                strDebug.append((curOp == EntryType.Value || curOp == EntryType.Param) ? stk[sp-1] : curOp).append(" ");
             }
         }
         
         // check for errors
-        if (calcList.size() != 1) {
-            throw new ParserException (functionId + "calc did not complete correctly. " + calcList.size()
-                    + " entries still found");
+        if (sp != base + 1) {
+            throw new ParserException (functionId + "calc did not complete correctly. " + (sp - base) + " entries still found");
         }
-        CalcEntry entry = calcList.getFirst();
-        if (entry.getType() != EntryType.Value) {
-            throw new ParserException (functionId + "calc did not complete correctly. Entry is of type: " + entry.getType().toString());
-        }
-        
-        Long result = entry.getValue();
-        if (type == ParameterStruct.ParamType.Unsigned) {
-            result &= 0xFFFFFFFF; // truncate result to 32 bits if unsigned
+        if (strDebug != null) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Calc block (" + strDebug + ") converted to: " + stk[base]);
         }
-        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "      Calc Result: " + result);
-        return result;
+        return stk[base];
     }
 
     /**
-     * computes the value of the bracket in calcList enclosed by the specified indicies.
-     * Does any parameter lookup necessary to convert to Integer values.
+     * performs a single operation on 2 operands.
      * 
-     * @param startix - index of left parenthesis of block to compute
-     * @param endix   - index of matching right parenthesis of block
+     * @param curOp - the operation to perform
+     * @param op1   - the left  operand
+     * @param op2   - the right operand
      * 
-     * @return the computed value of the block
-     */    
-    private Long computeBracket (int startix, int endix) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+     * @return the result of the operation
+     * 
+     * @throws ParserException 
+     */
+    private static long calcOperation (EntryType curOp, long op1, long op2) throws ParserException {
+        String functionId = CLASS_NAME + ".calcOperation: ";
 
-        if (endix >= calcList.size()) {
-            throw new ParserException (functionId + "invalid index for parenthesis: " + endix + ", array size is " + calcList.size());
+        switch (curOp) {
+            case EntryType.MUL:
+                return op1 * op2;
+            case EntryType.DIV:
+                if (op2 == 0) {
+                    throw new ParserException (functionId + "Division by 0 in calc: " + op1 + " / " + op2);
+                }
+                return op1 / op2;
+            case EntryType.MOD:
+                if (op2 == 0) {
+                    throw new ParserException (functionId + "Division by 0 in calc: " + op1 + " % " + op2);
+                }
+                return op1 % op2;
+            case EntryType.ADD:
+                return op1 + op2;
+            case EntryType.SUB:
+                return op1 - op2;
+            case EntryType.AND:
+                return (int) op1 & (int) op2;
+            case EntryType.OR:
+                return (int) op1 | (int) op2;
+            case EntryType.XOR:
+                return (int) op1 ^ (int) op2;
+            case EntryType.ROR:
+                return Integer.rotateRight((int) op1, (int) op2);
+            case EntryType.ROL:
+                return Integer.rotateLeft((int) op1, (int) op2);
+            default:
+                throw new ParserException (functionId + "Invalid operation in calc: " + curOp);
         }
-        if (endix < startix + 2) {
-            throw new ParserException (functionId + "parenthesis end index " + endix + " < start index + 2: " + startix);
+    }
+
+    /**
+     * returns the display string for an operation.
+     * 
+     * @param curOp - the operation
+     * 
+     * @return the operation symbol
+     */
+    private static String getOpString (EntryType curOp) {
+        switch (curOp) {
+            case MUL: return "*";
+            case DIV: return "/";
+            case MOD: return "%";
+            case ADD: return "+";
+            case SUB: return "-";
+            default:  return curOp.toString();
+        }
+    }
+
+    /**
+     * returns the priority of an operation.
+     * Parenthesis have the highest priority, followed by the multiplication
+     *  and division operations, then addition and subtraction, and lastly
+     *  the bitwise operations. Operations of the same priority are done from
+     *  left-to-right.
+     * 
+     * @param curOp - the operation
+     * 
+     * @return the priority (higher value is done first)
+     */
+    private static int getPriority (EntryType curOp) {
+        switch (curOp) {
+            case MUL:
+            case DIV:
+            case MOD:
+                return 3;
+            case ADD:
+            case SUB:
+                return 2;
+            default:
+                return 1;
         }
+    }
 
-        // first get each entry from the bracket range and compile into a list
-        //  of values and a list of operations, converting parameter references
-        //  to their current values.
-        String strDebug = "";
-        ArrayList<Long>  bracket = new ArrayList<>();
-        ArrayList<EntryType> ops = new ArrayList<>();
-        // this may contain the opening and ending parenthesis and may not.
-        // compensate accordingly.
-        for (int ix = startix; ix <= endix; ix++) {
-            CalcEntry entry  = calcList.get(ix);
+    /**
+     * converts the (verified) list of formula entries to postfix order.
+     * A NOT instruction is added after each operand or closing parenthesis
+     *  that was negated.
+     * 
+     * @param calcList - the formula entries
+     * 
+     * @return the entries in the order to execute them (without parenthesis)
+     * 
+     * @throws ParserException 
+     */
+    private static ArrayList<CalcEntry> toPostfix (ArrayList<CalcEntry> calcList) throws ParserException {
+        ArrayList<CalcEntry> program = new ArrayList<>();
+        ArrayList<CalcEntry> pending = new ArrayList<>();   // the operations and opening parenthesis waiting
+        CalcEntry invert = new CalcEntry (EntryType.NOT, null, false);
+        for (int ix = 0; ix < calcList.size(); ix++) {
+            CalcEntry entry = calcList.get(ix);
             switch (entry.getType()) {
-                case Param:
                 case Value:
-                    // add Integer value to array of operands
-                    // (if the value was negated, do it here
-                    Long opValue = entry.getValue();
+                case Param:
+                    program.add(entry);
                     if (entry.isInverted()) {
-                        Long newValue = ~opValue & 0xFFFFFFFF;
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "      Calc: ! " + opValue + " = " + newValue);
-                        opValue = newValue;
+                        program.add(invert);
                     }
-                    bracket.add(opValue);
-                    strDebug += entry.getValue() + " ";
                     break;
                 case Lbracket:
+                    pending.add(entry);
+                    break;
                 case Rbracket:
-                    // do nothing for parenthesis
+                    while (pending.getLast().getType() != EntryType.Lbracket) {
+                        program.add(pending.removeLast());
+                    }
+                    if (pending.removeLast().isInverted()) {
+                        program.add(invert);
+                    }
                     break;
                 default:
-                    // add operation to array of operations
-                    ops.add(entry.getType());
-                    strDebug += entry.getType().toString() + " ";
+                    int priority = getPriority(entry.getType());
+                    while (!pending.isEmpty() && pending.getLast().getType() != EntryType.Lbracket &&
+                            getPriority(pending.getLast().getType()) >= priority) {
+                        program.add(pending.removeLast());
+                    }
+                    pending.add(entry);
                     break;
             }
         }
-        
-        // now loop through the operations, executing only the highest priority ones first
-        // followed by lower and lower priorities.
-        ArrayList<EntryType> filter = new ArrayList<>();
-        filter.add(EntryType.MUL);
-        filter.add(EntryType.DIV);
-        filter.add(EntryType.MOD);
-        computeOperationType (bracket, ops, filter);
-        filter.clear();
-        filter.add(EntryType.ADD);
-        filter.add(EntryType.SUB);
-        computeOperationType (bracket, ops, filter);
-        filter.clear();
-        filter.add(EntryType.AND);
-        filter.add(EntryType.OR);
-        filter.add(EntryType.XOR);
-        filter.add(EntryType.ROR);
-        filter.add(EntryType.ROL);
-        computeOperationType (bracket, ops, filter);
-
-        // we should only have a single entry in the bracket array and the ops array
-        // should be empty. verify this and if no problems, the result is the last
-        // entry in bracket.
-        if (!ops.isEmpty() || bracket.size() != 1) {
-            throw new ParserException (functionId + "calc did not complete correctly. " + ops.size()
-                    + " operations still found and " + bracket.size() + " operands");
+        while (!pending.isEmpty()) {
+            program.add(pending.removeLast());
         }
-        
-        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Calc block (" + strDebug + ") converted to: " + bracket.getFirst());
-        return bracket.getFirst();
+        return program;
     }
-
+    
     /**
-     * computes a selected list of operations on the bracket in calcLists.
-     * The bracket and ops lists are modified to remove the operations performed
-     * and get replaced by the resultant value of the operations.
+     * replaces the operations in the postfix instructions that only have constant
+     *  operands with the constant result.
+     * This is done when the formula is compiled, so something like 0x10 * 4 + $X
+     *  will only have the addition to perform when it is run.
      * 
-     * @param bracket - list of operands to perform action on
-     * @param ops     - list of operations to perform
-     * @param filter  - list of operations that are allowed on this iteration
+     * @param program - the postfix instructions
      * 
-     * @throws ParserException
+     * @return the instructions with the constant operations folded
      * 
-     */    
-    private void computeOperationType (ArrayList<Long> bracket, ArrayList<EntryType> ops, ArrayList<EntryType> filter) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
-
-        // first determine if any of the allowed operations is in the formula
-        int count = 0;
-        for (int ix = 0; ix < filter.size(); ix++) {
-            for (int iy = 0; iy < ops.size(); iy++) {
-                if (filter.get(ix) == ops.get(iy)) {
-                    count++;
-                }
-            }
-        }
-        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    Calc ops for " + filter.toString() + ": " + count);
-        if (count == 0) {
-            return;
-        }
-        
-        // now perform the allowed operations one at a time in a left-to-right direction,
-        //  replacing the 2 operands with the single result & eliminating the operation performed.
-        boolean bRanCalc = true;
-        while (bRanCalc) {
-            bRanCalc = false;
-            for (int ix = 0; ix < ops.size(); ix++) {
-                EntryType curOp = ops.get(ix);
-                Long value = null;
-                Long op1 = bracket.get(ix);
-                Long op2 = bracket.get(ix+1);
-                Integer intVal;
-                String strOp = "?";
-                switch (curOp) {
-                    case EntryType.MUL:
-                        strOp = "*";
-                        if (filter.contains(curOp)) {
-                            value = op1 * op2;
-                        }
-                        break;
-                    case EntryType.DIV:
-                        if (op2 == 0) {
-                            throw new ParserException (functionId + "Division by 0 in calc: " + op1 + " / " + op2);
-                        }
-                        strOp = "/";
-                        if (filter.contains(curOp)) {
-                            value = op1 / op2;
-                        }
-                        break;
-                    case EntryType.MOD:
-                        strOp = "%";
-                        if (filter.contains(curOp)) {
-                            value = op1 % op2;
-                        }
-                        break;
-                    case EntryType.ADD:
-                        strOp = "+";
-                        if (filter.contains(curOp)) {
-                            value = op1 + op2;
-                        }
-                        break;
-                    case EntryType.SUB:
-                        strOp = "-";
-                        if (filter.contains(curOp)) {
-                            value = op1 - op2;
-                        }
-                        break;
-                    case EntryType.AND:
-                        strOp = "AND";
-                        if (filter.contains(curOp)) {
-                            intVal = op1.intValue() & op2.intValue();
-                            value = intVal.longValue();
-                        }
-                        break;
-                    case EntryType.OR:
-                        strOp = "OR";
-                        if (filter.contains(curOp)) {
-                            intVal = op1.intValue() | op2.intValue();
-                            value = intVal.longValue();
-                        }
-                        break;
-                    case EntryType.XOR:
-                        strOp = "XOR";
-                        if (filter.contains(curOp)) {
-                            intVal = op1.intValue() ^ op2.intValue();
-                            value = intVal.longValue();
-                        }
-                        break;
-                    case EntryType.ROR:
-                        strOp = "ROR";
-                        if (filter.contains(curOp)) {
-                            intVal = Integer.rotateRight(op1.intValue(), op2.intValue());
-                            value = intVal.longValue();
-                        }
-                        break;
-                    case EntryType.ROL:
-                        strOp = "ROL";
-                        if (filter.contains(curOp)) {
-                            intVal = Integer.rotateLeft(op1.intValue(), op2.intValue());
-                            value = intVal.longValue();
-                        }
-                        break;
-                    default:
-                        break;
-                }
-
-                // if an entry was found, replace the 1st operand with the result
-                // and remove the second operand and the operator.
-                if (value != null) {
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, "      Calc: " + op1 + " " + strOp + " " + op2 + " = " + value);
-                    bracket.set(ix, value);
-                    bracket.remove(ix+1);
-                    ops.remove(ix);
-                    bRanCalc = true;
+     * @throws ParserException 
+     */
+    private static ArrayList<CalcEntry> foldConstants (ArrayList<CalcEntry> program) throws ParserException {
+        ArrayList<CalcEntry> folded = new ArrayList<>();
+        for (int ix = 0; ix < program.size(); ix++) {
+            CalcEntry entry = program.get(ix);
+            int last = folded.size() - 1;
+            switch (entry.getType()) {
+                case Value:
+                case Param:
+                    folded.add(entry);
+                    break;
+                case NOT:
+                    if (last >= 0 && folded.get(last).getType() == EntryType.Value) {
+                        long opValue = folded.get(last).getValue();
+                        folded.set(last, new CalcEntry (~opValue & 0xFFFFFFFF));
+                    } else {
+                        folded.add(entry);
+                    }
+                    break;
+                default:
+                    if (last >= 1 && folded.get(last).getType() == EntryType.Value &&
+                                     folded.get(last-1).getType() == EntryType.Value) {
+                        long op1 = folded.get(last-1).getValue();
+                        long op2 = folded.get(last).getValue();
+                        folded.removeLast();
+                        folded.set(last-1, new CalcEntry (calcOperation (entry.getType(), op1, op2)));
+                    } else {
+                        folded.add(entry);
+                    }
                     break;
-                }
             }
         }
+        if (folded.size() != program.size() && GUILogPanel.isEnabled(MsgType.COMPILE)) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     Calc folded " + (program.size() - folded.size())
+                    + " constant entries: " + folded.size() + " instructions remain");
+        }
+        return folded;
     }
     
     /**
      * Verifies the format of the Calculation entries.
      * 
+     * @param calcList - the formula entries
+     * 
      * @throws ParserException 
      */    
-    private void verify () throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    private static void verify (ArrayList<CalcEntry> calcList) throws ParserException {
+        String functionId = CLASS_NAME + ".verify: ";
 
         // first, verify parenthesis match
         int left = 0;
@@ -534,8 +571,6 @@ public class Calculation {
             throw new ParserException (functionId + "mismatch of values & operations: " + valcnt + " values, " + opcnt + "ops");
         }
         
-        // save the number of operands
-        Calculation.opCount = valcnt;
     }
 
     /**
@@ -551,7 +586,7 @@ public class Calculation {
      * @throws ParserException 
      */
     private EntryType classifyEntry (String formula, ParameterStruct.ParamType ptype) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".classifyEntry: ";
 
         EntryType type;
         int strlen = formula.length();
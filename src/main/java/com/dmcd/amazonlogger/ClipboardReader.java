@@ -21,7 +21,7 @@ import java.util.StringTokenizer;
  */
 public class ClipboardReader {
     
-    private static final String CLASS_NAME = ClipboardReader.class.getSimpleName();
+    private static final String CLASS_NAME = "ClipboardReader";
 
     private static StringTokenizer clipReader = null;
     private static BufferedReader  fileReader = null;
@@ -19,7 +19,7 @@ import org.xml.sax.SAXException;
  */
 public class CmdOptions {
     
-    private static final String CLASS_NAME = CmdOptions.class.getSimpleName();
+    private static final String CLASS_NAME = "CmdOptions";
     
     // List of all the command line options and the argument types each takes
     // S = String, L = String array, U = Unsigned Int, I = Int, A = Int array, B = Boolean
@@ -140,7 +140,7 @@ public class CmdOptions {
      * @throws ParserException if not value Unsigned value
      */
     private Integer getUnsignedValue (CommandStruct cmdStruct, int index) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getUnsignedValue: ";
         
         if (index > cmdStruct.getParamSize()) {
             throw new ParserException(functionId + "Index " + index + " exceeds max arg list of " + cmdStruct.getParamSize());
@@ -161,7 +161,7 @@ public class CmdOptions {
      * @throws ParserException if not value Unsigned value
      */
     private Boolean getBooleanValue (CommandStruct cmdStruct, int index) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getBooleanValue: ";
         
         if (index > cmdStruct.getParamSize()) {
             throw new ParserException(functionId + "Index " + index + " exceeds max arg list of " + cmdStruct.getParamSize());
@@ -182,7 +182,7 @@ public class CmdOptions {
      * @throws ParserException if not value Unsigned value
      */
     private String getStringValue (CommandStruct cmdStruct, int index) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getStringValue: ";
         
         if (index > cmdStruct.getParamSize()) {
             throw new ParserException(functionId + "Index " + index + " exceeds max arg list of " + cmdStruct.getParamSize());
@@ -207,14 +207,14 @@ public class CmdOptions {
      * @throws ParserException if not value Unsigned value
      */
     private ArrayList<String> getStringArray (CommandStruct cmdStruct, int index) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getStringArray: ";
         
         if (index > cmdStruct.getParamSize()) {
             throw new ParserException(functionId + "Index " + index + " exceeds max arg list of " + cmdStruct.getParamSize());
         }
         ParameterStruct parmVal = cmdStruct.getParamEntry(index);
         ParameterStruct param = ParameterStruct.verifyArgEntry (parmVal, ParameterStruct.ParamType.StrArray);
-        return param.getStrArray();
+        return param.getStrArray().toList();
     }
         
     /**
@@ -227,8 +227,8 @@ public class CmdOptions {
      * 
      * @throws ParserException if not value Unsigned value
      */
-    private ArrayList<Long> getIntegerArray (CommandStruct cmdStruct, int index) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    private LongArray getIntegerArray (CommandStruct cmdStruct, int index) throws ParserException {
+        String functionId = CLASS_NAME + ".getIntegerArray: ";
         
         if (index > cmdStruct.getParamSize()) {
             throw new ParserException(functionId + "Index " + index + " exceeds max arg list of " + cmdStruct.getParamSize());
@@ -281,6 +281,7 @@ public class CmdOptions {
         } else {
             text = "<" + String.join(",", response) + ">";
         }
+        GUILogPanel.flushLog();
         System.out.println(text);
         if (AmazonReader.isOpModeNetwork()) {
             TCPServerThread.sendUserOutputInfo(text);
@@ -299,7 +300,7 @@ public class CmdOptions {
      * @throws TikaException 
      */
     public void runCmdOption (CommandStruct cmdOption) throws ParserException, IOException, SAXException, TikaException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": " + showLineNumberInfo(cmdOption.getLine());
+        String functionId = CLASS_NAME + ".runCmdOption: " + showLineNumberInfo(cmdOption.getLine());
         
         if (cmdOption.isParamNull()) {
             throw new ParserException(functionId + "Null or empty param list for command: " + cmdOption.getCmdOption());
@@ -328,7 +329,7 @@ public class CmdOptions {
      * @throws ParserException 
      */
     public ArrayList<CommandStruct> formatCmdOptions (ArrayList<String> argList, int lineNum) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": " + showLineNumberInfo(lineNum);
+        String functionId = CLASS_NAME + ".formatCmdOptions: " + showLineNumberInfo(lineNum);
 
         if (argList == null || argList.isEmpty()) {
             throw new ParserException(functionId + showLineNumberInfo(lineNum) + "Null command line");
@@ -451,7 +452,7 @@ public class CmdOptions {
      * @throws ParserException 
      */
     public void checkCmdOptions (String command, ArrayList<ParameterStruct> argList, int lineNum) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": " + showLineNumberInfo(lineNum);
+        String functionId = CLASS_NAME + ".checkCmdOptions: " + showLineNumberInfo(lineNum);
 
         if (argList == null || command == null) {
             throw new ParserException(functionId + showLineNumberInfo(lineNum) + "Null command line");
@@ -543,7 +544,7 @@ public class CmdOptions {
      * @throws ParserException 
      */
     private static void checkArgTypes (CommandStruct command, String validTypes) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkArgTypes: ";
         
         // determine the min and max number of arguments
         int min = 0;
@@ -590,7 +591,7 @@ public class CmdOptions {
      * @throws TikaException 
      */
     private ArrayList<String> executeCmdOption (CommandStruct cmdLine) throws ParserException, IOException, SAXException, TikaException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": " + showLineNumberInfo(cmdLine.getLine());
+        String functionId = CLASS_NAME + ".executeCmdOption: " + showLineNumberInfo(cmdLine.getLine());
 
         ArrayList<String> response = new ArrayList<>();
         Utils.PathType pathtype;
@@ -918,7 +919,7 @@ public class CmdOptions {
                     Spreadsheet.putSpreadsheetCol(iCol, iRow, arrList);
                     break;
                 case "-rowcolor":
-                    ArrayList<Long> arrLong;
+                    LongArray arrLong;
                     iCol    = getUnsignedValue(cmdLine, 0);
                     iRow    = getUnsignedValue(cmdLine, 1);
                     arrLong = getIntegerArray (cmdLine, 2);
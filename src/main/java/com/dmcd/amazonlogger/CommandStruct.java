@@ -5,21 +5,33 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.Serializable;
 import java.util.ArrayList;
 
 /**
  *
  * @author dan
  */
-public class CommandStruct {
+public class CommandStruct implements Serializable {
     
-    private static final String CLASS_NAME = CommandStruct.class.getSimpleName();
+    private static final String CLASS_NAME = "CommandStruct";
+    private static final long serialVersionUID = 1L;
     
     // defines the structure for file commands
     private int          line;       // source code line number for the command
     private CommandTable command;    // the command to execute
     private String       option;     // the command option for command line usage
     private ArrayList<ParameterStruct> params;   // the arguments associated with the command
+    
+    // the branch info that the compiler binds to the IF and loop commands, so
+    //  that the execution can jump to the next command without searching for it.
+    private IFStruct     ifInfo;     // the IF structure for IF, ELSE, ELSEIF and ENDIF commands
+    private int          ixElse;     // index of the next ELSE, ELSEIF or ENDIF for IF and ELSEIF commands
+    private int          ixEndIf;    // index of the ENDIF for IF, ELSE and ELSEIF commands
+    private LoopStruct   loopInfo;   // the loop for FOR, BREAK, BREAKIF, SKIP, SKIPIF, NEXT and ENDFOR commands
+    private CompiledComparison compare; // the condition for IF, ELSEIF, BREAKIF and SKIPIF (null if not compiled)
+    private VarFrames.SubLocals subInfo; // the subroutine called by a GOSUB command (null if found by name)
+    private CompiledAssignment assign;   // the assignment for a SET command (null if not compiled)
         
     public static enum CommandTable {
         EXIT,       // this command is added automatically by the compiler
@@ -107,10 +119,56 @@ public class CommandStruct {
         params  = new ArrayList<>();
     }
 
+    /**
+     * this is used for creating the execution frame of a compiled command.
+     * The frame has the same command, but its own copies of the parameters,
+     *  so the values can be resolved without modifying the compiled command.
+     *  It is created once for each run and reused each time the command is run.
+     *
+     * @param compiled - the compiled command
+     */
+    CommandStruct(CommandStruct compiled) {
+        line    = compiled.line;
+        command = compiled.command;
+        option  = compiled.option;
+        ifInfo  = compiled.ifInfo;
+        ixElse  = compiled.ixElse;
+        ixEndIf = compiled.ixEndIf;
+        loopInfo = compiled.loopInfo;
+        compare  = compiled.compare;
+        subInfo  = compiled.subInfo;
+        assign   = compiled.assign;
+        params  = new ArrayList<>(compiled.getParamSize());
+        for (int ix = 0; ix < compiled.getParamSize(); ix++) {
+            params.add(new ParameterStruct(compiled.params.get(ix)));
+        }
+    }
+
+    /**
+     * sets the parameters of the execution frame back to their compiled values.
+     * 
+     * @param compiled - the compiled command that the frame was created from
+     */
+    void resetParams (CommandStruct compiled) {
+        for (int ix = 0; ix < params.size(); ix++) {
+            params.get(ix).reset(compiled.params.get(ix));
+        }
+    }
+
     public int getLine() {
         return line;
     }
-    
+
+    /**
+     * moves the command to a new script line number.
+     * This is used by the incremental compile when the lines above it changed.
+     *
+     * @param linenum - the script file line number associated with the command
+     */
+    void setLine (int linenum) {
+        line = linenum;
+    }
+
     public CommandTable getCommand() {
         return command;
     }
@@ -123,6 +181,91 @@ public class CommandStruct {
         option = opt;
     }
 
+    /**
+     * binds the IF structure to an IF, ELSE, ELSEIF or ENDIF command.
+     * 
+     * @param info - the IF structure the command belongs to
+     */
+    public void setIfInfo (IFStruct info) {
+        ifInfo = info;
+    }
+
+    public IFStruct getIfInfo() {
+        return ifInfo;
+    }
+    
+    /**
+     * sets the command indices to branch to for an IF, ELSE or ELSEIF command.
+     * This is done once the ENDIF has been compiled, so all the branches are known.
+     * 
+     * @param elseIndex - index of the next ELSE, ELSEIF or ENDIF (when the condition is not met)
+     * @param endIndex  - index of the ENDIF (when a previous condition was met)
+     */
+    public void setBranchIndex (int elseIndex, int endIndex) {
+        ixElse  = elseIndex;
+        ixEndIf = endIndex;
+    }
+    
+    public int getElseIndex() {
+        return ixElse;
+    }
+    
+    public int getEndIfIndex() {
+        return ixEndIf;
+    }
+    
+    /**
+     * binds the loop to a FOR, BREAK, BREAKIF, SKIP, SKIPIF, NEXT or ENDFOR command.
+     * 
+     * @param info - the loop the command belongs to
+     */
+    public void setLoopInfo (LoopStruct info) {
+        loopInfo = info;
+    }
+
+    public LoopStruct getLoopInfo() {
+        return loopInfo;
+    }
+    
+    /**
+     * sets the compiled condition for an IF, ELSEIF, BREAKIF or SKIPIF command.
+     * 
+     * @param condition - the compiled condition (null if it must be run by Comparison)
+     */
+    public void setCompare (CompiledComparison condition) {
+        compare = condition;
+    }
+
+    public CompiledComparison getCompare() {
+        return compare;
+    }
+    
+    /**
+     * binds the subroutine that a GOSUB command calls.
+     * 
+     * @param info - the subroutine (null if it must be found by name when run)
+     */
+    void setSubInfo (VarFrames.SubLocals info) {
+        subInfo = info;
+    }
+
+    VarFrames.SubLocals getSubInfo() {
+        return subInfo;
+    }
+    
+    /**
+     * sets the compiled assignment for a SET command.
+     * 
+     * @param assignment - the compiled assignment (null if it must be run by the SET command)
+     */
+    void setAssign (CompiledAssignment assignment) {
+        assign = assignment;
+    }
+
+    CompiledAssignment getAssign() {
+        return assign;
+    }
+    
     public boolean isParamNull() {
         return params == null; // this should never be the case
     }
@@ -182,7 +325,9 @@ public class CommandStruct {
 
         for (int ix = 0; ix < params.size(); ix++) {
             ParameterStruct parStc = params.get(ix);
-            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "        " + parStc.showParam(ix));
+            if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "        " + parStc.showParam(ix));
+            }
         }
     }
 
@@ -190,6 +335,9 @@ public class CommandStruct {
      * displays the list of parameters
      */
     public void showParams () {
+        if (! GUILogPanel.isEnabled(MsgType.COMPILE)) {
+            return;
+        }
         for (int ix = 0; ix < params.size(); ix++) {
             ParameterStruct paramValue = params.get(ix);
             GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + ix + "]: " +
@@ -203,6 +351,9 @@ public class CommandStruct {
      * @param params - the parameter list
      */
     public static void showParams (ArrayList<ParameterStruct> params) {
+        if (! GUILogPanel.isEnabled(MsgType.COMPILE)) {
+            return;
+        }
         for (int ix = 0; ix < params.size(); ix++) {
             ParameterStruct paramValue = params.get(ix);
             GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + ix + "]: " +
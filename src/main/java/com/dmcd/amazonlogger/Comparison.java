@@ -5,7 +5,6 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
-import java.util.ArrayList;
 import java.util.Objects;
 
 /**
@@ -14,7 +13,7 @@ import java.util.Objects;
  */
 public class Comparison {
 
-    private static final String CLASS_NAME = Comparison.class.getSimpleName();
+    private static final String CLASS_NAME = "Comparison";
 
     private static boolean bStatus = false;
 
@@ -26,12 +25,14 @@ public class Comparison {
     private static final int SARRAY  = 0x10;
 
     Comparison (ParameterStruct value1, ParameterStruct value2, String compSign) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + " (S): ";
+        String functionId = CLASS_NAME + " (new): ";
 
         // check what value types we have to compare to determine if it is valid and what to compare.
         int types1 = getValidTypes(value1);
         int types2 = getValidTypes(value2);
-        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    Compare types: param1 = " + types1 + ", param2 = " + types2);
+        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    Compare types: param1 = " + types1 + ", param2 = " + types2);
+        }
         if (types1 == 0) {
             throw new ParserException(functionId + "No valid values in argument 1 of Comparison");
         }
@@ -52,7 +53,9 @@ public class Comparison {
             else
                 size2 = value2.getStrArraySize();
             bStatus = Utils.compareParameterValues (size1, size2, compSign);
-            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Array Size Compare: " + size1 + " " + compSign + " " + size2 + " => " + bStatus);
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Array Size Compare: " + size1 + " " + compSign + " " + size2 + " => " + bStatus);
+            }
             return;
         }
         
@@ -82,7 +85,9 @@ public class Comparison {
             }
 
             bStatus = Utils.compareParameterValues (strval1, strval2, compSign);
-            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    String Compare: " + strval1 + " " + compSign + " " + strval2 + " => " + bStatus);
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    String Compare: " + strval1 + " " + compSign + " " + strval2 + " => " + bStatus);
+            }
             return;
         }
 
@@ -99,7 +104,9 @@ public class Comparison {
                 calc2 = value2.getIntegerValue();
             }
             bStatus = Utils.compareParameterValues (calc1, calc2, compSign);
-            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Numeric Compare: " + calc1 + " " + compSign + " " + calc2 + " => " + bStatus);
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Numeric Compare: " + calc1 + " " + compSign + " " + calc2 + " => " + bStatus);
+            }
             return;
         }
         
@@ -108,10 +115,12 @@ public class Comparison {
                 throw new ParserException(functionId + "Attempting to compare Booleans with > or <");
             }
             boolean boo1 = value1.getBooleanValue();
-            boolean boo2 = value1.getBooleanValue();
+            boolean boo2 = value2.getBooleanValue();
             boolean bComp = Objects.equals(boo1, boo2);
             bStatus = compSign.contentEquals("==") ? bComp : ! bComp;
-            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Boolean Compare: " + boo1 + " " + compSign + " " + boo2 + " => " + bStatus);
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Boolean Compare: " + boo1 + " " + compSign + " " + boo2 + " => " + bStatus);
+            }
             return;
         }
         
@@ -121,22 +130,30 @@ public class Comparison {
             String strval2 = value2.getStringValue();
             if ((types2 & SARRAY) == 0) {
                 bStatus = Utils.compareParameterValues (strval1, strval2, compSign);
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    String Compare: " + strval1 + " " + compSign + " " + strval2 + " => " + bStatus);
+                if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    String Compare: " + strval1 + " " + compSign + " " + strval2 + " => " + bStatus);
+                }
                 return;
             } else {
                 // we are comparing a String to a list of Strings, but we can only use == or != comparison
                 if (! compSign.contentEquals("==") && ! compSign.contentEquals("!=")) {
                     throw new ParserException(functionId + "Invalid Comparison of String to StrArray using " + compSign);
                 }
-                ArrayList<String> arrval = value2.getStrArray();
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Comparing String to an array of values of size: " + arrval.size());
+                StringArray arrval = value2.getStrArray();
+                if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Comparing String to an array of values of size: " + arrval.size());
+                }
                 bStatus = false;
                 for (int ix = 0; ix < arrval.size() && !bStatus; ix++) {
                     strval2 = arrval.get(ix);
                     bStatus = Utils.compareParameterValues (strval1, strval2, compSign);
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    String Compare ix[" + ix + "]: " + strval1 + " " + compSign + " " + strval2 + " => " + bStatus);
+                    if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    String Compare ix[" + ix + "]: " + strval1 + " " + compSign + " " + strval2 + " => " + bStatus);
+                    }
+                }
+                if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    String Compare result: " + bStatus);
                 }
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    String Compare result: " + bStatus);
                 return;
             }
         }
@@ -154,7 +171,9 @@ public class Comparison {
             calc2 = value2.getIntegerValue();
         }
         bStatus = Utils.compareParameterValues (calc1, calc2, compSign);
-        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Numeric Compare: " + calc1 + " " + compSign + " " + calc2 + " => " + bStatus);
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Numeric Compare: " + calc1 + " " + compSign + " " + calc2 + " => " + bStatus);
+        }
     }
     
     public boolean getStatus() {
@@ -164,6 +183,7 @@ public class Comparison {
     private static int getValidTypes (ParameterStruct value) {
         int types = 0;
         if (value.getIntegerValue() != null)    types |= INTEGER;
+        if (value.isCalculation())              types |= INTEGER;   // (the value is computed when compared)
         if (value.getBooleanValue() != null)    types |= BOOLEAN;
         if (value.getStringValue()  != null)    types |= STRING;
         if (value.getIntArray()     != null)    types |= IARRAY;
@@ -0,0 +1,150 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * This is the assignment of a SET command that the compiler has specialized
+ *  for the type of its Variable and value.
+ *
+ * The SET command has to resolve all of its parameters and check the type of
+ *  the Variable each time it is run. When the Variable has a slot and is an
+ *  Integer, Unsigned or String, and the value is an Integer operand or a
+ *  discrete String, the assignment is built here with the slot and the value
+ *  already resolved, so it only has to read the value and write it to the slot.
+ *  The other assignments are still run by the SET command.
+ *
+ * @author dan
+ */
+public abstract class CompiledAssignment implements Serializable {
+
+    private static final String CLASS_NAME = "CompiledAssignment";
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * sets the Variable to the value.
+     *
+     * @throws ParserException
+     */
+    public abstract void assign () throws ParserException;
+
+    /**
+     * creates the compiled assignment for the parameters of a SET command.
+     * The parameters are: the Variable reference, the equate sign and the value.
+     *
+     * @param params - the command parameters
+     *
+     * @return the compiled assignment (null if it can't be specialized)
+     *
+     * @throws ParserException
+     */
+    public static CompiledAssignment compile (ArrayList<ParameterStruct> params) throws ParserException {
+        if (params == null || params.size() != 3) {
+            return null;
+        }
+        ParameterStruct parmRef = params.get(0);
+        ParameterStruct parmValue = params.get(2);
+        VarExtensions varRef = parmRef.getVariableRef();
+        if (parmRef.getVariableRefName() == null || varRef.getSlot() < 0 || ! varRef.isPlainName()) {
+            return null;
+        }
+        String name = varRef.getName();
+        int slot = varRef.getSlot();
+        ParameterStruct.ParamType type = parmRef.getVariableRefType();
+        if (type == null) {
+            return null;
+        }
+        switch (type) {
+            case Integer:
+            case Unsigned:
+                CompiledComparison.IntOperand value = CompiledComparison.getIntOperand (parmValue);
+                if (value == null) {
+                    return null;
+                }
+                return new IntAssign (name, slot, value, type == ParameterStruct.ParamType.Unsigned);
+            case String:
+                if (parmValue.getParamClass() != ParameterStruct.ParamClass.Discrete ||
+                    parmValue.getParamType()  != ParameterStruct.ParamType.String ||
+                    parmValue.getStringValue() == null) {
+                    return null;
+                }
+                StringTemplate template = parmValue.getTemplate();
+                if (template == null) {
+                    template = StringTemplate.compile(parmValue.getStringValue());
+                }
+                return new StrAssign (name, slot, parmValue.getStringValue(), template);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * assigns an Integer operand to an Integer or Unsigned Variable.
+     */
+    private static final class IntAssign extends CompiledAssignment {
+        private static final long serialVersionUID = 1L;
+
+        private final String  name;
+        private final int     slot;
+        private final CompiledComparison.IntOperand value;
+        private final boolean bUnsigned;
+
+        IntAssign (String name, int slot, CompiledComparison.IntOperand value, boolean bUnsigned) {
+            this.name      = name;
+            this.slot      = slot;
+            this.value     = value;
+            this.bUnsigned = bUnsigned;
+        }
+
+        @Override
+        public void assign () throws ParserException {
+            long result = value.getValue();
+            if (bUnsigned) {
+                result &= 0xFFFFFFFF;
+                Variables.setUnsignedVariable(name, slot, result);
+            } else {
+                Variables.setIntegerVariable(name, slot, result);
+            }
+        }
+
+        @Override
+        public String toString () {
+            return bUnsigned ? "Unsigned" : "Integer";
+        }
+    }
+
+    /**
+     * assigns a discrete String (that may have embedded Variables) to a String Variable.
+     */
+    private static final class StrAssign extends CompiledAssignment {
+        private static final long serialVersionUID = 1L;
+
+        private final String         name;
+        private final int            slot;
+        private final String         text;      // the String value if it has no references
+        private final StringTemplate template;  // the template if it has references (else null)
+
+        StrAssign (String name, int slot, String text, StringTemplate template) {
+            this.name     = name;
+            this.slot     = slot;
+            this.text     = text;
+            this.template = template.hasReferences() ? template : null;
+        }
+
+        @Override
+        public void assign () throws ParserException {
+            String result = (template == null) ? text : template.render();
+            Variables.setStringVariable(name, slot, result);
+        }
+
+        @Override
+        public String toString () {
+            return (template == null) ? "String" : "String " + template;
+        }
+    }
+
+}
@@ -0,0 +1,518 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * This is the condition of an IF, ELSEIF, BREAKIF or SKIPIF command that the
+ *  compiler has specialized for the types of its operands.
+ *
+ * Comparison has to check what types of values it has each time it is run,
+ *  since the value of a Variable can change what it can be compared as. When
+ *  the compiler can tell from the parameters that the operands will always be
+ *  Integers, Strings or a Boolean, the condition is built here as a predicate
+ *  that reads its operands directly and does a single compare on them. The
+ *  conditions that can't be typed at compile time are still run by Comparison.
+ *
+ * @author dan
+ */
+public abstract class CompiledComparison implements Serializable {
+
+    private static final String CLASS_NAME = "CompiledComparison";
+    private static final long serialVersionUID = 1L;
+
+    // the comparison signs
+    private enum CompSign {
+        EQ ("=="),
+        NE ("!="),
+        GE (">="),
+        LE ("<="),
+        GT (">"),
+        LT ("<");
+
+        private final String symbol;
+
+        CompSign (String symbol) {
+            this.symbol = symbol;
+        }
+
+        static CompSign find (String symbol) {
+            for (CompSign entry : CompSign.values()) {
+                if (entry.symbol.equals(symbol)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+
+    // the operand types that can be determined at compile time.
+    // (these are Serializable so the compiled condition can be saved in the compiled script cache.
+    //  They are implemented by the named classes below rather than lambdas, since the cache
+    //  file only accepts the classes of the compiled script when it is read.
+    //  The Integer operand is also used by CompiledAssignment)
+    interface IntOperand extends Serializable {
+        long getValue () throws ParserException;
+    }
+
+    private interface StrOperand extends Serializable {
+        String getValue () throws ParserException;
+    }
+
+    private interface BoolOperand extends Serializable {
+        boolean getValue () throws ParserException;
+    }
+
+    /**
+     * evaluates the condition.
+     *
+     * @return true if the condition is met
+     *
+     * @throws ParserException
+     */
+    public abstract boolean test () throws ParserException;
+
+    /**
+     * creates the compiled condition for the parameters of a conditional command.
+     * The parameters are in the format created by ParseScript.packComparison.
+     *
+     * @param params - the command parameters
+     *
+     * @return the compiled condition (null if the operand types are not known until run)
+     *
+     * @throws ParserException
+     */
+    public static CompiledComparison compile (ArrayList<ParameterStruct> params) throws ParserException {
+        if (params == null) {
+            return null;
+        }
+        switch (params.size()) {
+            case 1:
+            case 2:
+                // a single Boolean value (the 2nd entry is the NOT modifier)
+                BoolOperand bool = getBoolOperand (params.get(0));
+                if (bool == null) {
+                    return null;
+                }
+                return new BoolCompare (bool, params.size() == 2);
+            case 3:
+                CompSign sign = CompSign.find(params.get(1).getStringValue());
+                if (sign == null) {
+                    return null;
+                }
+                ParameterStruct parm1 = params.get(0);
+                ParameterStruct parm2 = params.get(2);
+                IntOperand int1 = getIntOperand (parm1);
+                IntOperand int2 = getIntOperand (parm2);
+                if (int1 != null && int2 != null) {
+                    return new IntCompare (int1, sign, int2);
+                }
+                // a String Variable can hold a value that converts to an Integer or Boolean,
+                //  so it is only known to be a String compare if compared to a discrete String.
+                StrOperand str1 = getStrOperand (parm1);
+                StrOperand str2 = getStrOperand (parm2);
+                if (str1 != null && str2 != null && (isDiscreteString (parm1) || isDiscreteString (parm2))) {
+                    return new StrCompare (str1, sign, str2);
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * returns the operand for a parameter that is always an Integer value.
+     * These are the discrete Integers, the Calculations, the Integer and
+     *  Unsigned user Variables, the loop Variables and the SIZE of a user Variable.
+     *
+     * @param param - the parameter
+     *
+     * @return the operand (null if the parameter may not be an Integer)
+     *
+     * @throws ParserException
+     */
+    static IntOperand getIntOperand (ParameterStruct param) throws ParserException {
+        switch (param.getParamClass()) {
+            case Discrete:
+                Long value = param.getIntegerValue();
+                if (value == null || (param.getParamType() != ParameterStruct.ParamType.Integer &&
+                                      param.getParamType() != ParameterStruct.ParamType.Unsigned)) {
+                    return null;
+                }
+                return new IntConst (value);
+            case Calculation:
+                Calculation calc = param.getCalculation();
+                if (calc == null) {
+                    return null;
+                }
+                return new IntCalc (calc);
+            case Reference:
+                VarExtensions varRef = param.getVariableRef();
+                int slot = varRef.getSlot();
+                if (slot >= 0) {
+                    ParameterStruct.ParamType varType = VarSlots.getInfo(slot).getType();
+                    if (varRef.isPlainName() && (varType == ParameterStruct.ParamType.Integer ||
+                                                 varType == ParameterStruct.ParamType.Unsigned)) {
+                        return new IntSlot (slot);
+                    }
+                    if (varRef.isTraitOnly() && (varRef.getTrait() == TraitInfo.Trait.SIZE ||
+                                                 varRef.getTrait() == TraitInfo.Trait.LENGTH)) {
+                        switch (varType) {
+                            case String:
+                            case StrArray:
+                            case IntArray:
+                                return new IntSize (slot);
+                            default:
+                                return null;
+                        }
+                    }
+                    return null;
+                }
+                // the loop Variable is read from the loop it belongs to
+                String name = varRef.getName();
+                LoopStruct loopInfo = (name == null || ! varRef.isPlainName()) ? null : LoopStruct.getActiveLoop(getBaseName (name));
+                if (loopInfo == null) {
+                    return null;
+                }
+                return new IntLoop (loopInfo);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * returns the operand for a parameter that is always a String value.
+     * These are the discrete Strings (that have no embedded Variables) and the
+     *  String user Variables.
+     *
+     * @param param - the parameter
+     *
+     * @return the operand (null if the parameter may not be a String)
+     *
+     * @throws ParserException
+     */
+    private static StrOperand getStrOperand (ParameterStruct param) throws ParserException {
+        if (isDiscreteString (param)) {
+            return new StrConst (param.getStringValue());
+        }
+        if (param.getParamClass() == ParameterStruct.ParamClass.Reference) {
+            VarExtensions varRef = param.getVariableRef();
+            int slot = varRef.getSlot();
+            if (slot >= 0 && varRef.isPlainName() && VarSlots.getInfo(slot).getType() == ParameterStruct.ParamType.String) {
+                return new StrSlot (slot, varRef.getName());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * returns the operand for a parameter that is always a Boolean value.
+     * These are the discrete Booleans and the Boolean user Variables.
+     *
+     * @param param - the parameter
+     *
+     * @return the operand (null if the parameter may not be a Boolean)
+     *
+     * @throws ParserException
+     */
+    private static BoolOperand getBoolOperand (ParameterStruct param) throws ParserException {
+        switch (param.getParamClass()) {
+            case Discrete:
+                Boolean value = param.getBooleanValue();
+                if (value == null) {
+                    return null;
+                }
+                return new BoolConst (value);
+            case Reference:
+                VarExtensions varRef = param.getVariableRef();
+                int slot = varRef.getSlot();
+                if (slot >= 0 && varRef.isPlainName() && VarSlots.getInfo(slot).getType() == ParameterStruct.ParamType.Boolean) {
+                    return new BoolSlot (slot);
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * indicates if the parameter is a discrete String that is used as is.
+     * (Strings with an embedded Variable reference are modified when run)
+     *
+     * @param param - the parameter
+     *
+     * @return true if the parameter is a discrete String value
+     */
+    private static boolean isDiscreteString (ParameterStruct param) {
+        String value = param.getStringValue();
+        return param.getParamClass() == ParameterStruct.ParamClass.Discrete &&
+               param.getParamType()  == ParameterStruct.ParamType.String &&
+               value != null && ! value.contains("<$");
+    }
+
+    private static String getBaseName (String name) {
+        return (name.charAt(0) == '$') ? name.substring(1) : name;
+    }
+
+    /**
+     * a discrete Integer operand.
+     */
+    private static final class IntConst implements IntOperand {
+        private static final long serialVersionUID = 1L;
+        private final long value;
+
+        IntConst (long value) {
+            this.value = value;
+        }
+
+        @Override
+        public long getValue () {
+            return value;
+        }
+    }
+
+    /**
+     * an Integer operand from a Calculation.
+     */
+    private static final class IntCalc implements IntOperand {
+        private static final long serialVersionUID = 1L;
+        private final Calculation calc;
+
+        IntCalc (Calculation calc) {
+            this.calc = calc;
+        }
+
+        @Override
+        public long getValue () throws ParserException {
+            return calc.compute(ParameterStruct.ParamType.Integer);
+        }
+    }
+
+    /**
+     * an Integer operand from an Integer or Unsigned user Variable.
+     */
+    private static final class IntSlot implements IntOperand {
+        private static final long serialVersionUID = 1L;
+        private final int slot;
+
+        IntSlot (int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public long getValue () throws ParserException {
+            return Variables.getSlotInteger(slot);
+        }
+    }
+
+    /**
+     * an Integer operand from the SIZE of a user Variable.
+     */
+    private static final class IntSize implements IntOperand {
+        private static final long serialVersionUID = 1L;
+        private final int slot;
+
+        IntSize (int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public long getValue () throws ParserException {
+            return Variables.getSlotSize(slot);
+        }
+    }
+
+    /**
+     * an Integer operand from a loop Variable.
+     */
+    private static final class IntLoop implements IntOperand {
+        private static final long serialVersionUID = 1L;
+        private final LoopStruct loopInfo;
+
+        IntLoop (LoopStruct loopInfo) {
+            this.loopInfo = loopInfo;
+        }
+
+        @Override
+        public long getValue () {
+            return loopInfo.getLoopValue();
+        }
+    }
+
+    /**
+     * a discrete String operand.
+     */
+    private static final class StrConst implements StrOperand {
+        private static final long serialVersionUID = 1L;
+        private final String value;
+
+        StrConst (String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String getValue () {
+            return value;
+        }
+    }
+
+    /**
+     * a String operand from a String user Variable.
+     */
+    private static final class StrSlot implements StrOperand {
+        private static final long serialVersionUID = 1L;
+        private final int    slot;
+        private final String name;
+
+        StrSlot (int slot, String name) {
+            this.slot = slot;
+            this.name = name;
+        }
+
+        @Override
+        public String getValue () throws ParserException {
+            String functionId = CLASS_NAME + ".getStrOperand: ";
+
+            String value = Variables.getSlotString(slot);
+            if (value == null) {
+                throw new ParserException(functionId + "No valid value for Comparison in Variable " + name);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * a discrete Boolean operand.
+     */
+    private static final class BoolConst implements BoolOperand {
+        private static final long serialVersionUID = 1L;
+        private final boolean value;
+
+        BoolConst (boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean getValue () {
+            return value;
+        }
+    }
+
+    /**
+     * a Boolean operand from a Boolean user Variable.
+     */
+    private static final class BoolSlot implements BoolOperand {
+        private static final long serialVersionUID = 1L;
+        private final int slot;
+
+        BoolSlot (int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean getValue () throws ParserException {
+            return Variables.getSlotBoolean(slot);
+        }
+    }
+
+    /**
+     * compares 2 Integer operands.
+     */
+    private static final class IntCompare extends CompiledComparison {
+        private static final long serialVersionUID = 1L;
+
+        private final IntOperand op1;
+        private final IntOperand op2;
+        private final CompSign   sign;
+
+        IntCompare (IntOperand op1, CompSign sign, IntOperand op2) {
+            this.op1  = op1;
+            this.op2  = op2;
+            this.sign = sign;
+        }
+
+        @Override
+        public boolean test () throws ParserException {
+            long value1 = op1.getValue();
+            long value2 = op2.getValue();
+            switch (sign) {
+                case EQ:    return value1 == value2;
+                case NE:    return value1 != value2;
+                case GE:    return value1 >= value2;
+                case LE:    return value1 <= value2;
+                case GT:    return value1 >  value2;
+                default:    return value1 <  value2;
+            }
+        }
+
+        @Override
+        public String toString () {
+            return "Integer " + sign.symbol;
+        }
+    }
+
+    /**
+     * compares 2 String operands.
+     */
+    private static final class StrCompare extends CompiledComparison {
+        private static final long serialVersionUID = 1L;
+
+        private final StrOperand op1;
+        private final StrOperand op2;
+        private final CompSign   sign;
+
+        StrCompare (StrOperand op1, CompSign sign, StrOperand op2) {
+            this.op1  = op1;
+            this.op2  = op2;
+            this.sign = sign;
+        }
+
+        @Override
+        public boolean test () throws ParserException {
+            int result = op1.getValue().compareTo(op2.getValue());
+            switch (sign) {
+                case EQ:    return result == 0;
+                case NE:    return result != 0;
+                case GE:    return result >= 0;
+                case LE:    return result <= 0;
+                case GT:    return result >  0;
+                default:    return result <  0;
+            }
+        }
+
+        @Override
+        public String toString () {
+            return "String " + sign.symbol;
+        }
+    }
+
+    /**
+     * tests a single Boolean operand.
+     */
+    private static final class BoolCompare extends CompiledComparison {
+        private static final long serialVersionUID = 1L;
+
+        private final BoolOperand op1;
+        private final boolean     bNot;
+
+        BoolCompare (BoolOperand op1, boolean bNot) {
+            this.op1  = op1;
+            this.bNot = bNot;
+        }
+
+        @Override
+        public boolean test () throws ParserException {
+            return op1.getValue() != bNot;
+        }
+
+        @Override
+        public String toString () {
+            return bNot ? "Boolean NOT" : "Boolean";
+        }
+    }
+
+}
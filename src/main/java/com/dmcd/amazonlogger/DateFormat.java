@@ -15,7 +15,7 @@ import java.util.Locale;
  */
 public class DateFormat {
     
-    private static final String CLASS_NAME = DateFormat.class.getSimpleName();
+    private static final String CLASS_NAME = "DateFormat";
 
     private static final String DATE_SEP = "-";  // the separator char used in dates
 
@@ -178,7 +178,7 @@ public class DateFormat {
     *  @throws ParserException - if invalid date format
     */
     public static Integer cvtSSDateToInteger (String strDate, boolean bInclYear) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".cvtSSDateToInteger: ";
 
         Integer iDate = null;
         
@@ -12,7 +12,6 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.ArrayList;
 import org.apache.commons.io.FileUtils;
 
 /**
@@ -21,7 +20,7 @@ import org.apache.commons.io.FileUtils;
  */
 public class FileIO {
     
-    private static final String CLASS_NAME = FileIO.class.getSimpleName();
+    private static final String CLASS_NAME = "FileIO";
     private static final String INDENT = "       ";
     
     // the map of column names to column indices in the sheet
@@ -77,7 +76,7 @@ public class FileIO {
      * @throws ParserException
      */
     private static String backupPath (String curpath) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".backupPath: ";
 
         // if there is a '/' char at end of path, remove it
         if (curpath.charAt(curpath.length()-1) == '/') {
@@ -111,7 +110,7 @@ public class FileIO {
      * @throws ParserException 
      */
     public static String getAbsPath (String path) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getAbsPath: ";
 
         if (path.startsWith("..")) {
             String newpath = fileDir;
@@ -158,7 +157,7 @@ public class FileIO {
      * @throws ParserException 
      */    
     public static void setBaseTestPath(String path) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setBaseTestPath: ";
 
         path = getAbsPath(path);
         if (! isWithinTestPath(path)) {
@@ -210,7 +209,7 @@ public class FileIO {
      * @throws ParserException
      */
     public static void getDirFileList (String path, String type) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getDirFileList: ";
 
         java.io.File file = getFilePath(path);
         if (! file.isDirectory()) {
@@ -260,7 +259,7 @@ public class FileIO {
      * @throws ParserException
      */
     public static void setFilePath (String path) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setFilePath: ";
 
         path = getAbsPath(path);
         if (! isWithinTestPath(path)) {
@@ -284,7 +283,7 @@ public class FileIO {
      * @throws ParserException 
      */
     public static void createDir (String fname) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".createDir: ";
 
         File file = getFilePath(fname);
         if (file.exists()) {
@@ -311,7 +310,7 @@ public class FileIO {
      * @throws IOException 
      */
     public static void removeDir (String fname, boolean force) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".removeDir: ";
 
         File file = FileIO.getFilePath(fname);
         if (! file.isDirectory()) {
@@ -341,7 +340,7 @@ public class FileIO {
      * @throws IOException 
      */
     public static void createFile (String fname, boolean writable) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".createFile: ";
 
         if (fileReader != null && ! writable) {
             throw new ParserException(functionId + "File reader already open: " + fileReadName);
@@ -393,7 +392,7 @@ public class FileIO {
      * @throws IOException 
      */
     public static void openFile (String fname, boolean writable) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".openFile: ";
 
         if (fileReader != null && ! writable) {
             throw new ParserException(functionId + "File reader already open: " + fileReadName);
@@ -443,7 +442,7 @@ public class FileIO {
      * @throws ParserException 
      */
     public static void delete (String fname) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".delete: ";
 
         File file = FileIO.getFilePath(fname);
         if (! file.isFile()) {
@@ -473,7 +472,7 @@ public class FileIO {
      * @throws IOException 
      */
     public static void close (String fname) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".close: ";
         
         if (fileWriteName != null && fname.contentEquals(fileWriteName)) {
             fileWriteName = null;
@@ -502,7 +501,7 @@ public class FileIO {
      * @throws IOException 
      */
     public static void read (Integer count) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".read: ";
 
         if (fileReader == null) {
             throw new ParserException(functionId + "File reader not open");
@@ -534,7 +533,7 @@ public class FileIO {
      * @throws ParserException 
      */
     public static void write (String text) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".write: ";
 
         if (fileWriter == null) {
             throw new ParserException(functionId + "File writer not open");
@@ -551,14 +550,14 @@ public class FileIO {
      * 
      * @throws ParserException 
      */
-    public static void write (ArrayList<String> array) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public static void write (StringArray array) throws ParserException {
+        String functionId = CLASS_NAME + ".write: ";
 
         if (fileWriter == null) {
             throw new ParserException(functionId + "File writer not open");
         }
         if (array == null) {
-            throw new ParserException(functionId + "Text ArrayList to write is null");
+            throw new ParserException(functionId + "Text array to write is null");
         }
         for (int ix = 0; ix < array.size(); ix++) {
             String text = array.get(ix);
@@ -577,7 +576,7 @@ public class FileIO {
      * @throws ParserException 
      */
     public static long fileGetSize (String fname) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".fileGetSize: ";
 
         File file = FileIO.getFilePath(fname);
         if (! file.isFile()) {
@@ -598,7 +597,7 @@ public class FileIO {
      * @throws IOException
      */
     public static int fileGetLines (String fname) throws ParserException, FileNotFoundException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".fileGetLines: ";
 
         File file = FileIO.getFilePath(fname);
         if (! file.isFile()) {
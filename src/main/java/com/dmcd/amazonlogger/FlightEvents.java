@@ -0,0 +1,139 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This defines the Java Flight Recorder events for the major phases of the program.
+ *
+ * These allow a recording made with -XX:StartFlightRecording to show the time
+ *  spent compiling and executing the script, and in accessing the spreadsheet,
+ *  PDF and clipboard data, so they can be compared with the GC and IO activity
+ *  in the same recording. The events cost next to nothing when not recording.
+ *
+ * The command event is only recorded for commands that take longer than its
+ *  threshold (1 msec by default), which can be changed in the recording
+ *  settings (e.g. com.dmcd.amazonlogger.Command#threshold=0 ms).
+ *
+ * @author dan
+ */
+public class FlightEvents {
+
+    private static final String CATEGORY = "AmazonReader";
+
+    private static final EventType COMMAND_TYPE = EventType.getEventType(CommandEvent.class);
+
+    /**
+     * indicates if the command events are being recorded.
+     * This allows the command execution to skip creating the event when not recording.
+     *
+     * @return true if recording command events
+     */
+    public static boolean isCommandEnabled () {
+        return COMMAND_TYPE.isEnabled();
+    }
+
+    @Name("com.dmcd.amazonlogger.Compile")
+    @Label("Script Compile")
+    @Description("Pre-compile or compile of the script file")
+    @Category({ CATEGORY, "Script" })
+    @StackTrace(false)
+    public static class CompileEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Script")
+        String script;
+
+        @Label("Lines")
+        int lines;
+
+        @Label("Commands")
+        int commands;
+    }
+
+    @Name("com.dmcd.amazonlogger.Command")
+    @Label("Script Command")
+    @Description("Execution of a script command")
+    @Category({ CATEGORY, "Script" })
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class CommandEvent extends Event {
+        @Label("Command")
+        String command;
+
+        @Label("Line")
+        int line;
+
+        @Label("Command Index")
+        int cmdIndex;
+
+        @Label("Subroutine")
+        String subroutine;
+    }
+
+    @Name("com.dmcd.amazonlogger.Spreadsheet")
+    @Label("Spreadsheet Access")
+    @Description("Loading or saving of the spreadsheet file")
+    @Category({ CATEGORY, "Spreadsheet" })
+    public static class SpreadsheetEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("File")
+        String file;
+
+        @Label("Sheets")
+        int sheets;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Columns")
+        long cols;
+
+        @Label("File Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.dmcd.amazonlogger.DocumentRead")
+    @Label("Document Read")
+    @Description("Reading of a PDF file, either as text or by OCR")
+    @Category({ CATEGORY, "Document" })
+    public static class DocumentEvent extends Event {
+        @Label("Reader")
+        String reader;
+
+        @Label("File")
+        String file;
+
+        @Label("File Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.dmcd.amazonlogger.OrderParse")
+    @Label("Order Parse")
+    @Description("Parsing of the Amazon order data or updating the spreadsheet with it")
+    @Category({ CATEGORY, "Orders" })
+    public static class ParseEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Orders")
+        int orders;
+    }
+
+}
@@ -13,15 +13,19 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 import javax.swing.JTextPane;
+import javax.swing.Timer;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
+import javax.swing.text.Element;
 import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
 
@@ -31,17 +35,59 @@ import javax.swing.text.StyleConstants;
  */
 public class GUILogPanel {
 
-    private static final String CLASS_NAME = GUILogPanel.class.getSimpleName();
+    private static final String CLASS_NAME = "GUILogPanel";
 
     private static JTextPane    txtPane = null;
     private static PrintWriter  testFile = null;        // the log file for network use
     private static String       testFname = "";         // name of the log file in network mode
+    private static BinaryLog    binFile = null;         // the binary log file for network use (if selected)
+    private static final int    ALWAYS_ENABLED = (1 << MsgType.ERROR.ordinal()) | (1 << MsgType.WARN.ordinal());
     private static int          msgEnable;              // the cumulative bits that are enabled for logging
-    private static int          logCounter = 0;
+    private static int          enabledTypes = ALWAYS_ENABLED; // the enabled message types (bit = MsgType ordinal)
+    private static long         logCounter = 0;
     private static boolean      bNetPrintEnable = true; // true if network receives all enabled msgs, false for just errors & warnings
 
+    // non-GUI log messages are queued here and written out by the log drain thread
+    private static final int    LOG_QUEUE_SIZE = 8192;  // max number of messages that can be queued
+    private static final int    DEFAULT_FLUSH_INTERVAL = 50; // default msec between log drains
+    private static final Object LOG_LOCK = new Object(); // held while writing to the log outputs
+    private static final StringBuilder lineBuilder = new StringBuilder(256); // for building output lines (log lock held)
+    private static final LogRingBuffer logQueue = new LogRingBuffer(LOG_QUEUE_SIZE);
+    private static volatile Thread drainThread = null;
+    private static volatile int flushInterval = DEFAULT_FLUSH_INTERVAL; // msec between drains (0 = no queuing)
+
+    // log file rotation (non-GUI use)
+    private static long         logMaxSize = 0;         // size in bytes at which the log is rotated (0 = no limit)
+    private static long         logMaxAge = 0;          // msec after which the log is rotated (0 = no limit)
+    private static long         testFileSize = 0;       // current size of the text log file
+    private static long         testFileStart = 0;      // time the current log file was started
+
+    // GUI log messages are collected here and added to the display by the GUI update timer
+    private static final int    GUI_UPDATE_INTERVAL = 100;  // msec between GUI display updates
+    private static final int    DEFAULT_MAX_LINES = 20000;  // default max lines to keep in GUI display
+    private static final ArrayDeque<GuiMessage> guiPending = new ArrayDeque<>();
+    private static Timer        guiTimer = null;
+    private static int          maxGuiLines = DEFAULT_MAX_LINES; // max lines retained in the display
+    private static boolean      bDebugHeader = false;   // true if header was written to debug file for trimmed lines
+
     // this holds the font color, type, etc for the message types
-    private static final HashMap<MsgType, MsgControl> fontInfo  = new HashMap<>();
+    private static final EnumMap<MsgType, MsgControl> fontInfo  = new EnumMap<>(MsgType.class);
+
+    // this holds the display attributes for the message types (built from fontInfo)
+    private static final EnumMap<MsgType, SimpleAttributeSet> fontAttrib = new EnumMap<>(MsgType.class);
+
+    /**
+     * this defines a message waiting to be added to the GUI display.
+     */
+    private static class GuiMessage {
+        final MsgType msgType;  // the message type
+        final String  msg;      // the message (with prefix)
+        
+        GuiMessage (MsgType msgType, String msg) {
+            this.msgType = msgType;
+            this.msg     = msg;
+        }
+    }
 
     public final class MsgControl {
         int       bitValue;     // corresponding bit value for the message
@@ -95,17 +141,34 @@ public class GUILogPanel {
         fontInfo.put(MsgType.PARSER  , new MsgControl (0x0002, "[PARSER] ", "I", TextColor.Blue));
         fontInfo.put(MsgType.NORMAL  , new MsgControl (0x0001, "[NORMAL] ", "N", TextColor.Black));
 
-        msgEnable = 0;
+        // create the display attributes for each message type
+        fontAttrib.clear();
+        for (MsgType type : MsgType.values()) {
+            fontAttrib.put(type, createAttributes (fontInfo.get(type)));
+        }
+
+        // start the timer that updates the display with the queued messages
+        if (guiTimer == null && GUIMain.isGUIMode()) {
+            guiTimer = new Timer(GUI_UPDATE_INTERVAL, evt -> updateGuiDisplay());
+            guiTimer.setCoalesce(true);
+            guiTimer.start();
+        }
+
+        setMsgEnable (0);
         testFile = null;
         testFname = "";
         logCounter = 0;
     }
 
     public static void init() {
-        msgEnable = 0;
-        testFile = null;
-        testFname = "";
-        logCounter = 0;
+        synchronized (LOG_LOCK) {
+            drainLog();
+            closeBinaryFile();
+            setMsgEnable (0);
+            testFile = null;
+            testFname = "";
+            logCounter = 0;
+        }
     }
     
     /**
@@ -113,16 +176,64 @@ public class GUILogPanel {
      * called when a script has completed when running from network connection
      */
     public static void reset() {
-        logCounter = 0;
+        synchronized (LOG_LOCK) {
+            drainLog();
+            logCounter = 0;
+        }
+    }
+
+    /**
+     * sets the time between writes of the queued log messages (non-GUI use).
+     * Messages are always written out immediately after an ERROR message,
+     *  and whenever the log file is changed or closed.
+     * 
+     * @param msec - the number of msec between writes (0 to write each message as it occurs)
+     */
+    public static void setFlushInterval (int msec) {
+        flushInterval = Math.max(msec, 0);
+        if (flushInterval == 0) {
+            flushLog();
+        }
+        Thread thread = drainThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * writes out all log messages that are currently queued.
+     * This should be called prior to any other output to stdout or the
+     *  network client that needs to be in sequence with the log messages.
+     */
+    public static void flushLog () {
+        synchronized (LOG_LOCK) {
+            drainLog();
+        }
     }
 
     /**
      * clear all GUI messages
      */
     public static void clearMessages () {
+        synchronized (guiPending) {
+            guiPending.clear();
+        }
         txtPane.setText("");
     }
 
+    /**
+     * sets the max number of lines to keep in the GUI display.
+     * When exceeded, the oldest lines are removed from the display and written
+     *  to the debug file (if one is selected).
+     * 
+     * @param lines - max number of lines to keep
+     */
+    public static void setMaxLines (int lines) {
+        if (lines > 0) {
+            maxGuiLines = lines;
+        }
+    }
+
     /**
      * sets the flag to enable/disable log messages to the network.
      * If disabled, only ERROR and WARN messages will be sent.
@@ -137,14 +248,44 @@ public class GUILogPanel {
      * closes the test file output (used in non-GUI mode).
      */
     public static void closeTestFile () {
-        if (testFile != null) {
-            testFile.flush();
-            testFile.close();
+        synchronized (LOG_LOCK) {
+            drainLog();
+            if (testFile != null) {
+                testFile.flush();
+                testFile.close();
+                testFile = null;
+            }
+            closeBinaryFile();
         }
     }
 
+    /**
+     * gets the prefix that identifies the message type in the log.
+     * 
+     * @param msgType - the message type
+     * 
+     * @return the message prefix
+     */
+    public static String getMsgPrefix (MsgType msgType) {
+        MsgControl msgInfo = fontInfo.get(msgType);
+        if (msgInfo == null) {
+            return "";
+        }
+        return msgInfo.msgName;
+    }
+
     public static void setMsgEnable (int value) {
         msgEnable = value;
+
+        // convert the enable bits into the message types they enable, so that
+        //  isEnabled doesn't have to look up the bit value for the type
+        int types = ALWAYS_ENABLED;
+        for (MsgType type : MsgType.values()) {
+            if ((getMsgEnableValue(type) & value) != 0) {
+                types |= 1 << type.ordinal();
+            }
+        }
+        enabledTypes = types;
     }
     
     /**
@@ -163,10 +304,23 @@ public class GUILogPanel {
         return bitValue;
     }
 
+    /**
+     * determines if the specified message type is currently enabled for output.
+     * This allows callers to skip building a message that would not be output.
+     * 
+     * @param msgType - the message type
+     * 
+     * @return true if messages of this type will be output
+     */
+    public static boolean isEnabled (MsgType msgType) {
+        return (enabledTypes & (1 << msgType.ordinal())) != 0;
+    }
+
     /**
      * saves the debug log information to the system clipboard.
      */
     public static void saveToClipboard() {
+        updateGuiDisplay();
         String textToCopy = txtPane.getText();
         StringSelection stringSelection = new StringSelection(textToCopy);
         Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
@@ -177,14 +331,19 @@ public class GUILogPanel {
      * saves the debug log information to the debug file selection.
      */
     public static void saveDebugToFile () {
+        updateGuiDisplay();
         PrintWriter debugFile = GUIMain.getDebugOutputFile();
         if (debugFile != null) {
-            debugFile.println("=== " + GUILogPanel.getCurrentDateTime() + " ============================================================");
+            // the header was already written if any lines were trimmed from the display
+            if (! bDebugHeader) {
+                debugFile.println("=== " + GUILogPanel.getCurrentDateTime() + " ============================================================");
+            }
+            bDebugHeader = false;
             String textToCopy = txtPane.getText();
             Stream<String> lines = textToCopy.lines();
             lines.forEach(debugFile::println);
+            // the file is left open, since the lines trimmed from the display are added to it
             debugFile.flush();
-            debugFile.close();
         }
     }
     
@@ -196,45 +355,120 @@ public class GUILogPanel {
      * @param bAppend - true to append to existing file, false to create new file
      */
     public static void setTestOutputFile (String fname, boolean bAppend) {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setTestOutputFile: ";
         
         if (GUIMain.isGUIMode())
             return;
         
-        String absPath = fname;
-        if (absPath != null && !absPath.isBlank()) {
-            if (absPath.charAt(0) != '/') {
-                absPath = Utils.getDefaultPath (Utils.PathType.Test) + "/" + absPath;
-            }
-            PropertiesFile.setPropertiesItem(PropertiesFile.Property.TestFileAppend,  bAppend ? 1 : 0);
-            if (testFname.contentEquals(absPath)) {
-                String time = GUIMain.elapsedTimerGet();
-                testFile.println(time + "[DEBUG ] " + functionId + "No change in output file setting");
-                return;
-            }
+        synchronized (LOG_LOCK) {
+            // make sure any queued messages are written to the previous file
+            drainLog();
+
+            String absPath = fname;
+            if (absPath != null && !absPath.isBlank()) {
+                if (absPath.charAt(0) != '/') {
+                    absPath = Utils.getDefaultPath (Utils.PathType.Test) + "/" + absPath;
+                }
+                PropertiesFile.setPropertiesItem(PropertiesFile.Property.TestFileAppend,  bAppend ? 1 : 0);
+                if (testFname.contentEquals(absPath)) {
+                    if (testFile != null) {
+                        String time = GUIMain.elapsedTimerGet();
+                        testFile.println(time + "[DEBUG ] " + functionId + "No change in output file setting");
+                    }
+                    return;
+                }
             
-            // update the properties file status if we were successful
-            PropertiesFile.setPropertiesItem(PropertiesFile.Property.TestFileOut, fname);
-            testFname = absPath;
-
-            // if the file already exists and we are not appending, delete it first
-            File file = new File(absPath);
-            if (file.isFile() && ! bAppend) {
-                file.delete();
-            }
+                // update the properties file status if we were successful
+                PropertiesFile.setPropertiesItem(PropertiesFile.Property.TestFileOut, fname);
+                testFname = absPath;
+
+                // if the file already exists and we are not appending, delete it first
+                File file = new File(absPath);
+                if (file.isFile() && ! bAppend) {
+                    file.delete();
+                }
                 
-            // if a file isn't already open, do it now
-            closeTestFile ();
-            try {
-                testFile = new PrintWriter(new FileWriter(absPath, true));
-                testFile.println("\n=== " + getCurrentDateTime() + " ============================================================");
-            } catch (IOException ex) {
-                System.out.println(functionId + "creating file: " + absPath + ", " + ex);
+                // if a file isn't already open, do it now
+                closeTestFile ();
+                openTestFile (absPath, bAppend);
+            } else {
+                closeBinaryFile();
                 testFile = null;
+                PropertiesFile.setPropertiesItem(PropertiesFile.Property.TestFileOut, "");
             }
-        } else {
+        }
+    }
+    
+    /**
+     * opens the test output file and places an initial header line in it.
+     * This must be called with the log lock held.
+     * 
+     * @param absPath - absolute path of the test file
+     * @param bAppend - true to append to existing file, false to create new file
+     */
+    private static void openTestFile (String absPath, boolean bAppend) {
+        String functionId = CLASS_NAME + ".openTestFile: ";
+        
+        testFile = null;
+        binFile = null;
+        testFileStart = System.currentTimeMillis();
+        try {
+            if (BinaryLog.isBinaryLogName(absPath)) {
+                // the binary log handles the append selection itself
+                binFile = new BinaryLog(absPath, bAppend);
+                binFile.writeSession(getCurrentDateTime());
+            } else {
+                File file = new File(absPath);
+                testFileSize = file.isFile() ? file.length() : 0;
+                testFile = new PrintWriter(new FileWriter(absPath, true));
+                String header = "\n=== " + getCurrentDateTime() + " ============================================================";
+                testFile.println(header);
+                testFileSize += header.length() + NEWLINE.length();
+            }
+        } catch (IOException ex) {
+            System.out.println(functionId + "creating file: " + absPath + ", " + ex);
             testFile = null;
-            PropertiesFile.setPropertiesItem(PropertiesFile.Property.TestFileOut, "");
+            binFile = null;
+        }
+    }
+    
+    /**
+     * sets the limits at which the test output file is rotated (non-GUI use).
+     * When the file is rotated, it is renamed with the date and time added to
+     *  it and compressed in the background, and a new file is started.
+     *  The log counter continues from where it was in the previous file.
+     * 
+     * @param maxKbytes   - the size of the file in Kbytes that causes rotation (0 for no limit)
+     * @param maxMinutes  - the number of minutes after which the file is rotated (0 for no limit)
+     * @param maxArchives - the number of rotated files to keep (0 for no limit)
+     */
+    public static void setLogRotation (int maxKbytes, int maxMinutes, int maxArchives) {
+        synchronized (LOG_LOCK) {
+            logMaxSize = Math.max(maxKbytes, 0) * 1024L;
+            logMaxAge  = Math.max(maxMinutes, 0) * 60000L;
+        }
+        LogArchiver.setMaxArchives(maxArchives);
+    }
+    
+    /**
+     * rotates the test output file if it has reached the size or age limit.
+     * This must be called with the log lock held.
+     */
+    private static void checkLogRotation () {
+        if ((testFile == null && binFile == null) || (logMaxSize <= 0 && logMaxAge <= 0)) {
+            return;
+        }
+        long size = (binFile != null) ? binFile.getSize() : testFileSize;
+        boolean bRotate = (logMaxSize > 0 && size >= logMaxSize) ||
+                          (logMaxAge  > 0 && System.currentTimeMillis() - testFileStart >= logMaxAge);
+        if (bRotate) {
+            if (testFile != null) {
+                testFile.flush();
+                testFile.close();
+            }
+            closeBinaryFile();
+            LogArchiver.archive(testFname);
+            openTestFile (testFname, false);
         }
     }
     
@@ -262,24 +496,19 @@ public class GUILogPanel {
             return;
         }
         
-        String    msgPrefix = "";
-        String    msgFont  = "N";
-        TextColor msgColor = TextColor.Black;
-        MsgControl msgInfo = fontInfo.get(msgType);
-        if (msgInfo != null) {
-            msgPrefix = msgInfo.msgName;
-            msgColor  = msgInfo.color;
-            msgFont   = msgInfo.font;
-        }
-
         // determine if the message is enabled
         boolean bErrorMsg  = msgType == MsgType.ERROR;
         boolean bErrOrWarn = bErrorMsg || (msgType == MsgType.WARN);
-        boolean bIsEnabled = (getMsgEnableValue(msgType) & msgEnable) != 0;
-        if (! bErrOrWarn && ! bIsEnabled) {
+        if (! isEnabled(msgType)) {
             return;
         }
 
+        String    msgPrefix = "";
+        MsgControl msgInfo = fontInfo.get(msgType);
+        if (msgInfo != null) {
+            msgPrefix = msgInfo.msgName;
+        }
+
         // show errors and warnings on display
         if (bErrOrWarn) {
             GUIMain.showErrorMsg(msg);
@@ -294,90 +523,360 @@ public class GUILogPanel {
             }
         }
         
-        // affix prefix to message identifying the type of message
-        msg = msgPrefix + msg;
-        
         if (! GUIMain.isGUIMode()) {
             // MESSAGE OUTPUT FOR NON-GUI MODES:
-            // add the timestamp to the begining of each message
-            String time = GUIMain.elapsedTimerGet();
-            msg = time + msg;
-
-            // for error and warning messages, check for inclusion of call trace
-            //  and separate into individual lines.
-            if (!bErrOrWarn) {
-                // not an error or warning, just print or save the line
-                printLine (bErrOrWarn, msg);
-            } else {
-                ArrayList<String> array = new ArrayList<>(Arrays.asList(msg.split(" -> ")));
-                printLine (bErrOrWarn, array.get(0).stripTrailing());
-                for (int ix = 1; ix < array.size(); ix++) {
-                    printLine (bErrOrWarn, time + msgPrefix + "    -> " + array.get(ix).stripLeading());
+            // save the time and script line to add to the message when output
+            long elapsed = GUIMain.elapsedTimerNanos();
+            int line = Subroutine.getScriptLine();
+
+            // queue the message for the drain thread to output
+            LogRingBuffer.LogRecord entry = new LogRingBuffer.LogRecord(msgType, bErrOrWarn, elapsed, line, msgPrefix, msg);
+            if (flushInterval == 0) {
+                synchronized (LOG_LOCK) {
+                    drainLog();
+                    writeRecord (entry, null, null);
+                    flushFiles();
                 }
+                return;
+            }
+            if (drainThread == null) {
+                startDrainThread();
+            }
+            while (! logQueue.offer(entry)) {
+                // queue is full - write out the pending messages on this thread
+                flushLog();
+            }
+
+            // errors are written out immediately so they can't be lost if we terminate
+            if (bErrorMsg) {
+                flushLog();
             }
         } else {
             // MESSAGE OUTPUT FOR GUI MODE:
-            // determine if printing in bold or italic
-            boolean bBold = false;
-            boolean bItalic = false;
-            if (msgFont.contentEquals("B") || msgFont.contentEquals("BI")) {
-                bBold = true;
+            // queue the message for the next display update
+            ArrayList<GuiMessage> trimmed = null;
+            synchronized (guiPending) {
+                // affix prefix to message identifying the type of message
+                guiPending.add(new GuiMessage(msgType, msgPrefix + msg));
+                // if the display hasn't been updated in a while, don't let the queue
+                //  grow beyond what the display would keep anyway.
+                while (guiPending.size() > maxGuiLines) {
+                    if (trimmed == null) {
+                        trimmed = new ArrayList<>();
+                    }
+                    trimmed.add(guiPending.poll());
+                }
             }
-            if (msgFont.contentEquals("I") || msgFont.contentEquals("BI")) {
-                bItalic = true;
+            // the trimmed lines are written to the file after releasing the queue,
+            //  so the other threads that are logging don't wait on the file I/O.
+            if (trimmed != null) {
+                for (GuiMessage entry : trimmed) {
+                    saveTrimmedText (entry.msg + NEWLINE);
+                }
             }
+        }
+    }
 
-            SimpleAttributeSet attributes = new SimpleAttributeSet();
-            StyleConstants.setFontFamily(attributes,"Courier");
-            StyleConstants.setFontSize(attributes, 15);
 
-            // set the text color and font characteristics
-            StyleConstants.setForeground(attributes, generateColor (msgColor));
-            StyleConstants.setBold(attributes, bBold);
-            StyleConstants.setItalic(attributes, bItalic);
+    /**
+     * starts the thread that periodically writes out the queued log messages.
+     */
+    private static synchronized void startDrainThread () {
+        if (drainThread != null) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            while (true) {
+                // the messages are written as they occur when the interval is 0,
+                //  so wait until setFlushInterval changes it
+                int interval = flushInterval;
+                if (interval == 0) {
+                    LockSupport.park();
+                } else {
+                    LockSupport.parkNanos(interval * 1000000L);
+                }
+                flushLog();
+            }
+        }, "LogDrain");
+        thread.setDaemon(true);
+        thread.start();
+        drainThread = thread;
 
-            txtPane.setCharacterAttributes(attributes, false);
-            Document doc = txtPane.getDocument();
-            try {
-                doc.insertString(doc.getLength(), msg + NEWLINE, attributes);
-                // scroll the text to the bottom of the page
-                txtPane.setCaretPosition(txtPane.getDocument().getLength());
-            } catch (BadLocationException ex) {
-                Logger.getLogger(GUIMain.class.getName()).log(Level.SEVERE, null, ex);
+        // make sure nothing is left in the queue if the program is terminated
+        Runtime.getRuntime().addShutdownHook(new Thread(GUILogPanel::flushLog));
+    }
+
+    /**
+     * writes all the queued log messages to the log outputs.
+     * The file is only flushed once for all the messages, and the console and
+     *  network outputs are each written as a single block.
+     * This must be called with the log lock held.
+     */
+    private static void drainLog () {
+        LogRingBuffer.LogRecord entry = logQueue.poll();
+        if (entry == null) {
+            return;
+        }
+        StringBuilder console = new StringBuilder();
+        ArrayList<String> netList = new ArrayList<>();
+        while (entry != null) {
+            writeRecord (entry, console, netList);
+            entry = logQueue.poll();
+        }
+        flushFiles();
+        if (! console.isEmpty()) {
+            System.out.print(console);
+            System.out.flush();
+        }
+        if (! netList.isEmpty()) {
+            TCPServerThread.sendLogMessages(netList);
+        }
+    }
+
+    /**
+     * writes a log record to the log outputs.
+     * For error and warning messages, this checks for inclusion of a call trace
+     *  and separates it into individual lines.
+     * 
+     * @param entry   - the log record to output
+     * @param console - the console output being collected (null to output directly)
+     * @param netList - the network messages being collected (null to send directly)
+     */
+    private static void writeRecord (LogRingBuffer.LogRecord entry, StringBuilder console, ArrayList<String> netList) {
+        if (!entry.bError) {
+            // not an error or warning, just print or save the line
+            printLine (entry, entry.msg, console, netList);
+        } else {
+            ArrayList<String> array = new ArrayList<>(Arrays.asList(entry.msg.split(" -> ")));
+            printLine (entry, array.get(0).stripTrailing(), console, netList);
+            for (int ix = 1; ix < array.size(); ix++) {
+                printLine (entry, "    -> " + array.get(ix).stripLeading(), console, netList);
             }
         }
     }
 
-    private static void printLine (boolean bError, String msg) {
-        // append a counter value to the begining of the msg for reference
-        String countstr = "00000000" + Integer.toString(logCounter);
-        int countlen = countstr.length();
-        countstr = countstr.substring(countlen - 8);
-        msg = countstr + " " + msg;
-        logCounter++;
-        if (logCounter > 99999999) {
-            logCounter = 0;
+    private static void printLine (LogRingBuffer.LogRecord entry, String text, StringBuilder console, ArrayList<String> netList) {
+        String functionId = CLASS_NAME + ".printLine: ";
+        
+        // append a counter value and timestamp to the begining of the msg for reference
+        lineBuilder.setLength(0);
+        appendCounter (lineBuilder, logCounter);
+        lineBuilder.append(' ');
+        GUIMain.elapsedTimeAppend(lineBuilder, entry.elapsed);
+        lineBuilder.append(entry.prefix).append(text);
+        String msg = lineBuilder.toString();
+        if (binFile != null) {
+            try {
+                long msec = entry.elapsed < 0 ? -1 : entry.elapsed / 1000000;
+                binFile.write(logCounter, msec, entry.msgType, entry.line, text);
+            } catch (IOException ex) {
+                System.out.println(functionId + "writing binary log: " + ex);
+                closeBinaryFile();
+            }
         }
+        logCounter++;
         
+        boolean bConsole = false;
         if (testFile != null) {
             testFile.println(msg);
-            testFile.flush();
+            testFileSize += msg.length() + NEWLINE.length();
             // errors and warnings will always go to console, even if reporting to file
-            if (bError) {
+            bConsole = entry.bError;
+        } else if (binFile != null) {
+            bConsole = entry.bError;
+        } else if (AmazonReader.isOpModeCommmandLine()) {
+            bConsole = true;
+        }
+        if (bConsole) {
+            if (console != null) {
+                console.append(msg).append(NEWLINE);
+            } else {
                 System.out.println(msg);
             }
-        } else if (AmazonReader.isOpModeCommmandLine()) {
-            System.out.println(msg);
         }
 
         // if network connection, send to client
         if (AmazonReader.isOpModeNetwork()) {
-            if (bNetPrintEnable || bError) {
-                TCPServerThread.sendLogMessage(msg);
+            if (bNetPrintEnable || entry.bError) {
+                if (netList != null) {
+                    netList.add(msg);
+                } else {
+                    TCPServerThread.sendLogMessage(msg);
+                }
             }
         }
     }
     
+    /**
+     * formats the log counter value for the begining of a log line.
+     * 
+     * @param counter - the log counter value
+     * 
+     * @return the counter value as a string of at least 8 digits
+     */
+    static String formatCounter (long counter) {
+        StringBuilder countstr = new StringBuilder(16);
+        appendCounter (countstr, counter);
+        return countstr.toString();
+    }
+    
+    private static void appendCounter (StringBuilder msg, long counter) {
+        for (long value = 10000000; value > 1 && counter < value; value /= 10) {
+            msg.append('0');
+        }
+        msg.append(counter);
+    }
+    
+    /**
+     * flushes the log files and rotates them if they have reached their limit.
+     * This must be called with the log lock held.
+     */
+    private static void flushFiles () {
+        String functionId = CLASS_NAME + ".flushFiles: ";
+        
+        if (testFile != null) {
+            testFile.flush();
+        }
+        if (binFile != null) {
+            try {
+                binFile.flush();
+            } catch (IOException ex) {
+                System.out.println(functionId + "writing binary log: " + ex);
+                closeBinaryFile();
+            }
+        }
+        checkLogRotation();
+    }
+    
+    /**
+     * closes the binary log file (if open).
+     * This must be called with the log lock held.
+     */
+    private static void closeBinaryFile () {
+        String functionId = CLASS_NAME + ".closeBinaryFile: ";
+        
+        if (binFile != null) {
+            try {
+                binFile.close();
+            } catch (IOException ex) {
+                System.out.println(functionId + "closing binary log: " + ex);
+            }
+            binFile = null;
+        }
+    }
+    
+    /**
+     * adds the queued messages to the GUI display.
+     * Consecutive messages of the same type are inserted as a single block
+     *  and the caret is only moved once. This is run from the GUI update timer.
+     */
+    private static void updateGuiDisplay () {
+        ArrayList<GuiMessage> list;
+        synchronized (guiPending) {
+            if (guiPending.isEmpty()) {
+                return;
+            }
+            list = new ArrayList<>(guiPending);
+            guiPending.clear();
+        }
+        
+        Document doc = txtPane.getDocument();
+        try {
+            StringBuilder block = new StringBuilder();
+            MsgType blockType = list.getFirst().msgType;
+            for (int ix = 0; ix < list.size(); ix++) {
+                GuiMessage entry = list.get(ix);
+                if (entry.msgType != blockType) {
+                    doc.insertString(doc.getLength(), block.toString(), fontAttrib.get(blockType));
+                    block.setLength(0);
+                    blockType = entry.msgType;
+                }
+                block.append(entry.msg).append(NEWLINE);
+            }
+            doc.insertString(doc.getLength(), block.toString(), fontAttrib.get(blockType));
+
+            // remove the oldest lines if we exceeded the limit
+            trimGuiDisplay (doc);
+
+            // scroll the text to the bottom of the page
+            txtPane.setCaretPosition(doc.getLength());
+        } catch (BadLocationException ex) {
+            Logger.getLogger(GUIMain.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * removes the oldest lines from the GUI display when it exceeds the max line count.
+     * The removed lines are written to the debug file, if one has been selected.
+     * 
+     * @param doc - the display document
+     * 
+     * @throws BadLocationException 
+     */
+    private static void trimGuiDisplay (Document doc) throws BadLocationException {
+        Element root = doc.getDefaultRootElement();
+        int excess = root.getElementCount() - 1 - maxGuiLines;
+        if (excess <= 0) {
+            return;
+        }
+        int endOffset = root.getElement(excess - 1).getEndOffset();
+        saveTrimmedText (doc.getText(0, endOffset));
+        doc.remove(0, endOffset);
+    }
+
+    /**
+     * writes text that was removed from the GUI display to the debug file, if one has been selected.
+     * 
+     * @param text - the lines of text removed
+     */
+    private static synchronized void saveTrimmedText (String text) {
+        PrintWriter debugFile = GUIMain.getDebugOutputFile();
+        if (debugFile != null) {
+            if (! bDebugHeader) {
+                debugFile.println("=== " + GUILogPanel.getCurrentDateTime() + " ============================================================");
+                bDebugHeader = true;
+            }
+            text.lines().forEach(debugFile::println);
+            debugFile.flush();
+        }
+    }
+
+    /**
+     * creates the display attributes for a message type.
+     * 
+     * @param msgInfo - the font information for the message type (null for default)
+     * 
+     * @return the corresponding text attributes
+     */
+    private static SimpleAttributeSet createAttributes (MsgControl msgInfo) {
+        String    msgFont  = "N";
+        TextColor msgColor = TextColor.Black;
+        if (msgInfo != null) {
+            msgColor  = msgInfo.color;
+            msgFont   = msgInfo.font;
+        }
+
+        // determine if printing in bold or italic
+        boolean bBold = false;
+        boolean bItalic = false;
+        if (msgFont.contentEquals("B") || msgFont.contentEquals("BI")) {
+            bBold = true;
+        }
+        if (msgFont.contentEquals("I") || msgFont.contentEquals("BI")) {
+            bItalic = true;
+        }
+
+        SimpleAttributeSet attributes = new SimpleAttributeSet();
+        StyleConstants.setFontFamily(attributes,"Courier");
+        StyleConstants.setFontSize(attributes, 15);
+
+        // set the text color and font characteristics
+        StyleConstants.setForeground(attributes, generateColor (msgColor));
+        StyleConstants.setBold(attributes, bBold);
+        StyleConstants.setItalic(attributes, bItalic);
+        return attributes;
+    }
+    
     /**
      * get the current date and time formatted as a String
      * 
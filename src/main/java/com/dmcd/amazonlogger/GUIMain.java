@@ -42,13 +42,16 @@ import org.xml.sax.SAXException;
  */
 public final class GUIMain extends JFrame implements ActionListener {
 
-    private static final String CLASS_NAME = GUIMain.class.getSimpleName();
+    private static final String CLASS_NAME = "GUIMain";
+    private static final long serialVersionUID = 1L;
 
     private static boolean bUseGUI = false;
     
-    private static long         elapsedStart = 0;       // hold start of elapsed time for running from file
-    private static long         prevElapsed = 0;        // hold current elapsed time for pause durations
-    private static boolean      showElapsed = false;    // indicates if elapsed time to be displayed in logs
+    private static volatile long    elapsedStart = 0;   // hold start of elapsed time (nsec) for running from file
+    private static volatile long    prevElapsed = 0;    // hold current elapsed time (nsec) for pause durations
+    private static volatile boolean showElapsed = false; // indicates if elapsed time to be displayed in logs
+    private static boolean      bElapsedMicro = false;  // true to show elapsed time with usec resolution
+    private static final ThreadLocal<char[]> elapsedBuffer = ThreadLocal.withInitial(() -> new char[16]);
     private static PrintWriter  debugFile = null;       // the log file for non-network mode
 
     // Components of the Form
@@ -889,7 +892,7 @@ public final class GUIMain extends JFrame implements ActionListener {
      * @return true if successful
      */    
     public static boolean setDebugOutputFile (String fname) {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setDebugOutputFile: ";
 
         if (! GUIMain.isGUIMode())
             return false;
@@ -1027,7 +1030,21 @@ public final class GUIMain extends JFrame implements ActionListener {
             String testName = PropertiesFile.getPropertiesItem(Property.TestFileOut, "");
             Integer testAppend = PropertiesFile.getPropertiesItem(Property.TestFileAppend, 0);
             GUILogPanel.setTestOutputFile(testName, testAppend != 0);
+            Integer maxLines = PropertiesFile.getPropertiesItem(Property.MaxLogLines, (Integer) null);
+            if (maxLines != null) {
+                GUILogPanel.setMaxLines(maxLines);
+            }
+        }
+        Integer flushInterval = PropertiesFile.getPropertiesItem(Property.LogFlushInterval, (Integer) null);
+        if (flushInterval != null) {
+            GUILogPanel.setFlushInterval(flushInterval);
         }
+        Integer logMicrosec    = PropertiesFile.getPropertiesItem(Property.LogMicrosec, 0);
+        setElapsedMicrosec(logMicrosec != 0);
+        Integer logMaxSize     = PropertiesFile.getPropertiesItem(Property.LogMaxSize, 0);
+        Integer logMaxAge      = PropertiesFile.getPropertiesItem(Property.LogMaxAge, 0);
+        Integer logMaxArchives = PropertiesFile.getPropertiesItem(Property.LogMaxArchives, 0);
+        GUILogPanel.setLogRotation(logMaxSize, logMaxAge, logMaxArchives);
         setMessageFlags(getPropsMsgEnable());
     }
     
@@ -1035,7 +1052,7 @@ public final class GUIMain extends JFrame implements ActionListener {
      * enable and start the timestamp counter
      */
     public static void elapsedTimerEnable() {
-        elapsedStart = System.currentTimeMillis();
+        elapsedStart = System.nanoTime();
         showElapsed = true;
     }
     
@@ -1043,7 +1060,7 @@ public final class GUIMain extends JFrame implements ActionListener {
      * save the current elapsed time so we can add it when resumed
      */
     public static void elapsedTimerPause() {
-        prevElapsed = System.currentTimeMillis() - elapsedStart;
+        prevElapsed = System.nanoTime() - elapsedStart;
         showElapsed = false;
     }
     
@@ -1055,35 +1072,106 @@ public final class GUIMain extends JFrame implements ActionListener {
         showElapsed = false;
     }
     
+    /**
+     * selects the resolution of the timestamp reported in the log messages.
+     * 
+     * @param bMicro - true to report in usec (MM:SS.uuuuuu), false for msec (MM:SS.mmm)
+     */
+    public static void setElapsedMicrosec (boolean bMicro) {
+        bElapsedMicro = bMicro;
+    }
+    
     /**
      * return a timestamp value.
      * 
-     * @return the timestamp value reported as MM:SS.mmm
+     * @return the timestamp value reported as MM:SS.mmm (or MM:SS.uuuuuu)
      */
     public static String elapsedTimerGet() {
-        if (!showElapsed) {
+        long elapsed = elapsedTimerNanos();
+        if (elapsed < 0) {
             return "";
         }
-        long elapsedTime = System.currentTimeMillis() - elapsedStart + prevElapsed;
-        long msecs = elapsedTime % 1000;
-        long secs = elapsedTime / 1000;
-//        long hours = secs / 3600;
-        secs = secs % 3600;
-        long mins = secs / 60;
+        char[] buffer = elapsedBuffer.get();
+        int length = formatElapsed (elapsed, bElapsedMicro, buffer);
+        return new String(buffer, 0, length);
+    }
+    
+    /**
+     * return the elapsed time in nsec.
+     * 
+     * @return the elapsed time (-1 if the timer is not running)
+     */
+    public static long elapsedTimerNanos() {
+        if (!showElapsed) {
+            return -1;
+        }
+        return System.nanoTime() - elapsedStart + prevElapsed;
+    }
+    
+    /**
+     * appends the timestamp for an elapsed time value to a message.
+     * Nothing is appended if the time value is negative (timer not running).
+     * 
+     * @param msg     - the message being built
+     * @param elapsed - the elapsed time in nsec
+     */
+    public static void elapsedTimeAppend(StringBuilder msg, long elapsed) {
+        if (elapsed >= 0) {
+            char[] buffer = elapsedBuffer.get();
+            int length = formatElapsed (elapsed, bElapsedMicro, buffer);
+            msg.append(buffer, 0, length);
+        }
+    }
+    
+    /**
+     * formats an elapsed time value as a timestamp.
+     * 
+     * @param elapsedTime - the elapsed time in msec
+     * 
+     * @return the timestamp value reported as MM:SS.mmm
+     */
+    public static String elapsedTimeFormat(long elapsedTime) {
+        char[] buffer = elapsedBuffer.get();
+        int length = formatElapsed (elapsedTime * 1000000, false, buffer);
+        return new String(buffer, 0, length);
+    }
+    
+    /**
+     * formats an elapsed time value into a character buffer.
+     * The hours are ignored, so the format is always: MM:SS.mmm (or MM:SS.uuuuuu)
+     *  followed by a space.
+     * 
+     * @param nanos  - the elapsed time in nsec
+     * @param bMicro - true to report in usec, false for msec
+     * @param buffer - the buffer to place the timestamp in (at least 14 chars)
+     * 
+     * @return the number of chars placed in the buffer
+     */
+    private static int formatElapsed(long nanos, boolean bMicro, char[] buffer) {
+        long usecs = nanos / 1000;
+        long secs  = usecs / 1000000;
+        int  frac  = (int) (usecs % 1000000);
+        int  mins  = (int) ((secs % 3600) / 60);
         secs = secs % 60;
 
-        String strElapsed = "";
-        // ignore the hours, so format is always: MM:SS.m
-//        strElapsed =  (hours < 10) ? "0" + hours : "" + hours;
-        strElapsed += (mins  < 10) ?  "0" + mins : "" + mins;
-        strElapsed += (secs  < 10) ? ":0" + secs : ":" + secs;
-        if (msecs < 10)
-            strElapsed += ".00" + msecs;
-        else if (msecs < 100)
-            strElapsed += ".0" + msecs;
-        else
-            strElapsed += "." + msecs;
-        return strElapsed + " ";
+        buffer[0] = (char) ('0' + mins / 10);
+        buffer[1] = (char) ('0' + mins % 10);
+        buffer[2] = ':';
+        buffer[3] = (char) ('0' + secs / 10);
+        buffer[4] = (char) ('0' + secs % 10);
+        buffer[5] = '.';
+        int digits = 6;
+        if (! bMicro) {
+            frac /= 1000;
+            digits = 3;
+        }
+        int end = 6 + digits;
+        for (int ix = end - 1; ix >= 6; ix--) {
+            buffer[ix] = (char) ('0' + frac % 10);
+            frac /= 10;
+        }
+        buffer[end] = ' ';
+        return end + 1;
     }
     
 }
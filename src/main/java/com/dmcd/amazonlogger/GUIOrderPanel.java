@@ -25,7 +25,7 @@ import javax.swing.text.StyleConstants;
  */
 public class GUIOrderPanel {
     
-    private static final String CLASS_NAME = GUIOrderPanel.class.getSimpleName();
+    private static final String CLASS_NAME = "GUIOrderPanel";
 
     private static JTextPane    txtPane = null;
 
@@ -122,8 +122,8 @@ public class GUIOrderPanel {
             String textToCopy = txtPane.getText();
             Stream<String> lines = textToCopy.lines();
             lines.forEach(debugFile::println);
+            // the file is left open, since the log panel also writes to it
             debugFile.flush();
-            debugFile.close();
         }
     }
 
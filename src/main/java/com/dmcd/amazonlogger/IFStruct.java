@@ -5,6 +5,10 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Stack;
 
@@ -12,17 +16,18 @@ import java.util.Stack;
  *
  * @author dan
  */
-public class IFStruct {
+public class IFStruct implements Serializable {
     
-    private static final String CLASS_NAME = IFStruct.class.getSimpleName();
+    private static final String CLASS_NAME = "IFStruct";
+    private static final long serialVersionUID = 1L;
     
-    private final Integer ixIf;             // command index for IF statement
+    private Integer ixIf;                   // command index for IF statement
     private final ArrayList<Integer> ixElse; // command index for ELSE & ELSEIF statement(s)
     private final Integer loopLevel;        // loop nest level for start of IF statement
     private final String  subName;          // subroutine the IF statement was found in
     private Integer ixEndIf;        // command index for ENDIF statement
     private boolean bFinalElse;     // true if last entry in ixElse list was an ELSE, so there can be no more
-    private boolean bCondMet;       // set to the IF level condition being executed (null if none)
+    private int     frameIx;        // index of the IF condition in the frame of its subroutine
 
     // IF List is built during Compile phase and referenced during Execution phase.
     private static ArrayList<IFStruct> ifList  = new ArrayList<>();
@@ -37,7 +42,7 @@ public class IFStruct {
         this.ixElse  = new ArrayList<>();
         this.ixEndIf = null;
         this.bFinalElse = false;
-        this.bCondMet = false;
+        this.frameIx = 0;
             
         // save the loop level for testing whether ELSE and ENDIF are at same level
         this.loopLevel = loopLevel;
@@ -45,9 +50,11 @@ public class IFStruct {
         // save the subroutine (or MAIN) entry to make sure rest of IF is in same function
         this.subName = subName;
 
-        String cmdId = "line " + index + " IF ";
-        String nestLevel = " (nest level " + loopLevel + ")";
-        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "    " + cmdId + " @ " + this.ixIf + nestLevel);
+        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+            String cmdId = "line " + index + " IF ";
+            String nestLevel = " (nest level " + loopLevel + ")";
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "    " + cmdId + " @ " + this.ixIf + nestLevel);
+        }
     }
 
     /**
@@ -57,12 +64,72 @@ public class IFStruct {
         ifList  = new ArrayList<>();
         ifStack = new Stack<>();
     }
+
+    /**
+     * saves the IF list for the compiled script cache.
+     * 
+     * @param out - the cache file stream
+     * 
+     * @throws IOException
+     */
+    static void saveState (ObjectOutputStream out) throws IOException {
+        out.writeObject(ifList);
+    }
+
+    /**
+     * restores the IF list from the compiled script cache.
+     * 
+     * @param in - the cache file stream
+     * 
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @SuppressWarnings("unchecked")
+    static void loadState (ObjectInputStream in) throws IOException, ClassNotFoundException {
+        init();
+        ifList = (ArrayList<IFStruct>) in.readObject();
+    }
+    
+    /**
+     * moves the IF entries to the new command indices of their commands.
+     * This is used by the incremental compile, which removes the commands of
+     *  the subroutines that changed and moves the rest of the commands.
+     *  The IF entries of the commands that were removed are dropped.
+     * 
+     * @param newIndex - the new command index for each old one (-1 if removed)
+     */
+    static void relocate (int[] newIndex) {
+        ArrayList<IFStruct> newList = new ArrayList<>();
+        for (IFStruct ifInfo : ifList) {
+            if (newIndex[ifInfo.ixIf] < 0) {
+                continue;
+            }
+            ifInfo.ixIf = newIndex[ifInfo.ixIf];
+            for (int ix = 0; ix < ifInfo.ixElse.size(); ix++) {
+                ifInfo.ixElse.set(ix, newIndex[ifInfo.ixElse.get(ix)]);
+            }
+            if (ifInfo.ixEndIf != null) {
+                ifInfo.ixEndIf = newIndex[ifInfo.ixEndIf];
+            }
+            newList.add(ifInfo);
+        }
+        ifList = newList;
+        ifStack = new Stack<>();
+    }
+
+    /**
+     * resets the IF stack used in compile and execution.
+     */
+    public static void resetStack () {
+        ifStack = new Stack<>();
+    }
     
     // Get and Put functions for ifList
     public static IFStruct getIfListEntry (int cmdIndex) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getIfListEntry: ";
         
-        for (int ix = 0; ix < ifList.size(); ix++) {
+        // search from the end, since the IF being looked up is usually the last one added
+        for (int ix = ifList.size() - 1; ix >= 0; ix--) {
             if (ifList.get(ix).ixIf == cmdIndex) {
                 return ifList.get(ix);
             }
@@ -109,31 +176,19 @@ public class IFStruct {
     }
         
     /**
-     * determines if one of the IF/ELSEIF conditions has been met.
-     * This is used to determine when the ELSE or ELSEIF command is the next
-     * command to run whether it was being jumped to because the previous condition
-     * was not met or because the previous condition WAS met and has completed its
-     * execution. If the first case, it should handle the ELSE or ELSEIF statement,
-     * but if the last case, it should jump to the next ENDIF statement.
-     * 
-     * @return true if condition was met
-     */
-    boolean isConditionMet () {
-        return this.bCondMet;
-    }
-        
-    /**
-     * sets the flag to indicate the IF condition has been met.
+     * sets the index of the IF condition in the frame of its subroutine.
+     * The condition of whether one of the IF/ELSEIF cases has been met is
+     *  kept in the frame of the subroutine call (see VarFrames), so a
+     *  recursive call can't change it for the call that made it.
+     * 
+     * @param ix - the frame index
      */
-    void setConditionMet () {
-        this.bCondMet = true;
+    void setFrameIndex (int ix) {
+        this.frameIx = ix;
     }
-        
-    /**
-     * clears the flag to indicate the IF condition has not been met.
-     */
-    void clearConditionMet () {
-        this.bCondMet = false;
+
+    int getFrameIndex () {
+        return this.frameIx;
     }
         
     /**
@@ -160,7 +215,7 @@ public class IFStruct {
      * @throws ParserException
      */
     int getElseIndex (int index) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getElseIndex: ";
 
         if (this.ixElse != null && !this.ixElse.isEmpty()) {
             // return the location of the next ELSE or ELSEIF statement
@@ -197,7 +252,7 @@ public class IFStruct {
      * @throws ParserException 
      */
     void setElseIndex (int index, boolean bElseIf, int loopLevel) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setElseIndex: ";
 
         String command = (bElseIf) ? "ELSEIF" : "ELSE";
         String cmdId = "line " + index + " " + command + " ";
@@ -214,7 +269,9 @@ public class IFStruct {
             throw new ParserException(functionId + cmdId + "cmd outside of loop level " + this.loopLevel + nestLevel);
         }
         this.ixElse.add(index);
-        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "    " + cmdId + "    entry " + this.ixElse.size() + " for IF @ " + this.ixIf + nestLevel);
+        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "    " + cmdId + "    entry " + this.ixElse.size() + " for IF @ " + this.ixIf + nestLevel);
+        }
     }
         
     /**
@@ -226,7 +283,7 @@ public class IFStruct {
      * @throws ParserException 
      */
     void setEndIfIndex (int index, int loopLevel) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setEndIfIndex: ";
 
         String cmdId = "line " + index + " ENDIF ";
         String nestLevel = " (nest level " + loopLevel + ")";
@@ -238,7 +295,9 @@ public class IFStruct {
             throw new ParserException(functionId + cmdId + "cmd outside of loop level " + this.loopLevel + nestLevel);
         }
         this.ixEndIf = index;
-        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "    " + cmdId + "    for IF @ " + this.ixIf + nestLevel);
+        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "    " + cmdId + "    for IF @ " + this.ixIf + nestLevel);
+        }
     }
 
 }
@@ -13,7 +13,7 @@ import java.util.HashMap;
  */
 public class Keyword {
     
-    private static final String CLASS_NAME = Keyword.class.getSimpleName();
+    private static final String CLASS_NAME = "Keyword";
 
     // these are the enums for the lines that are of interest to us in the clipboard contents
     public enum KeyTyp { NONE, HELLO_D, HELLO_C, ORDER_PLACED, ORDER_SUMMARY, ORDER_DETAILS,
@@ -121,7 +121,7 @@ public class Keyword {
      * @return the structure indicating the type of keyword found, null if not found
      */
     public static KeywordInfo getKeyword (String line) {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getKeyword: ";
         
         for (HashMap.Entry<String, KeywordInfo> mapEntry : Keyword_Orders.entrySet()) {
             String keyStr = mapEntry.getKey();
@@ -0,0 +1,201 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This handles the archiving of log files that have been rotated.
+ *
+ * When the log file is rotated, it is renamed to an archive name that has the
+ *  date and time of the rotation added to it (e.g. 'test.log' is renamed to
+ *  'test-20250102-030405-678.log'). The renamed file is then compressed with
+ *  gzip on a background thread so the logging is not held up, and the oldest
+ *  archives are deleted if there are more than the max number allowed.
+ *  For a binary log file the index file is archived along with it.
+ *
+ * @author dan
+ */
+public class LogArchiver {
+
+    private static final String CLASS_NAME = "LogArchiver";
+
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String STAMP_PATTERN  = "-\\d{8}-\\d{6}-\\d{3}(-\\d+)?";
+
+    private static ExecutorService compressor = null;
+    private static volatile int    maxArchives = 0;     // max number of archives to keep (0 = no limit)
+
+    /**
+     * sets the max number of archived log files to keep.
+     *
+     * @param count - max number of archives (0 for no limit)
+     */
+    public static void setMaxArchives (int count) {
+        maxArchives = Math.max(count, 0);
+    }
+
+    /**
+     * archives the specified log file.
+     * The file is renamed immediately, so the log file can be re-opened as
+     *  soon as this returns. The compression is done in the background.
+     *
+     * @param fname - the name of the log file (absolute path)
+     */
+    public static void archive (String fname) {
+        String functionId = CLASS_NAME + ".archive: ";
+
+        File logFile = new File(fname);
+        if (! logFile.isFile()) {
+            return;
+        }
+        String base = getBaseName(fname);
+        String ext  = fname.substring(base.length());
+        String stamp = "-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        String archName = base + stamp;
+        for (int ix = 1; new File(archName + ext).exists() || new File(archName + ext + GZIP_EXTENSION).exists(); ix++) {
+            archName = base + stamp + "-" + ix;
+        }
+
+        ArrayList<File> fileList = new ArrayList<>();
+        File archFile = new File(archName + ext);
+        if (! logFile.renameTo(archFile)) {
+            GUILogPanel.outputInfoMsg(MsgType.WARN, functionId + "unable to rename log file: " + fname);
+            return;
+        }
+        fileList.add(archFile);
+        if (BinaryLog.isBinaryLogName(fname)) {
+            File indexFile = new File(BinaryLog.getIndexName(fname));
+            File archIndex = new File(BinaryLog.getIndexName(archFile.getAbsolutePath()));
+            if (indexFile.isFile() && indexFile.renameTo(archIndex)) {
+                fileList.add(archIndex);
+            }
+        }
+
+        // compress the files and remove the old archives in the background
+        getCompressor().submit(() -> {
+            for (File file : fileList) {
+                compress (file);
+            }
+            prune (base, ext);
+        });
+    }
+
+    /**
+     * gets the file name without the extension.
+     *
+     * @param fname - the file name
+     *
+     * @return the name without the extension
+     */
+    private static String getBaseName (String fname) {
+        int offset = fname.lastIndexOf('.');
+        if (offset <= fname.lastIndexOf('/') + 1) {
+            return fname;
+        }
+        return fname.substring(0, offset);
+    }
+
+    /**
+     * gets the thread used for compressing the archives.
+     * The thread will be allowed to finish what it is doing if the program exits.
+     *
+     * @return the executor for the compression thread
+     */
+    private static synchronized ExecutorService getCompressor () {
+        if (compressor == null) {
+            compressor = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "LogArchiver");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+            ExecutorService service = compressor;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                service.shutdown();
+                try {
+                    service.awaitTermination(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    // exit anyway
+                }
+            }));
+        }
+        return compressor;
+    }
+
+    /**
+     * compresses the specified file with gzip and deletes the original.
+     * The compressed data is written to a temp file that is renamed when
+     *  complete, so a partially compressed file never replaces the original.
+     *
+     * @param file - the file to compress
+     */
+    private static void compress (File file) {
+        String functionId = CLASS_NAME + ".compress: ";
+
+        File gzFile  = new File(file.getAbsolutePath() + GZIP_EXTENSION);
+        File tmpFile = new File(gzFile.getAbsolutePath() + ".tmp");
+        try (InputStream in = new FileInputStream(file);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(tmpFile), 65536)) {
+            in.transferTo(out);
+        } catch (IOException ex) {
+            GUILogPanel.outputInfoMsg(MsgType.WARN, functionId + "compressing " + file + ": " + ex);
+            tmpFile.delete();
+            return;
+        }
+        if (tmpFile.renameTo(gzFile)) {
+            file.delete();
+        } else {
+            GUILogPanel.outputInfoMsg(MsgType.WARN, functionId + "unable to rename: " + tmpFile);
+            tmpFile.delete();
+        }
+    }
+
+    /**
+     * deletes the oldest archives of a log file if there are more than the max allowed.
+     *
+     * @param base - the log file name without the extension
+     * @param ext  - the log file extension
+     */
+    private static void prune (String base, String ext) {
+        int max = maxArchives;
+        if (max <= 0) {
+            return;
+        }
+        File dir = new File(base).getAbsoluteFile().getParentFile();
+        String name = new File(base).getName();
+        Pattern pattern = Pattern.compile(Pattern.quote(name) + STAMP_PATTERN + Pattern.quote(ext + GZIP_EXTENSION));
+        String[] archives = dir.list((path, fname) -> pattern.matcher(fname).matches());
+        if (archives == null || archives.length <= max) {
+            return;
+        }
+
+        // the time stamp in the name makes the oldest archives sort first
+        Arrays.sort(archives);
+        for (int ix = 0; ix < archives.length - max; ix++) {
+            String archName = archives[ix].substring(0, archives[ix].length() - GZIP_EXTENSION.length());
+            new File(dir, archives[ix]).delete();
+            if (BinaryLog.isBinaryLogName(archName)) {
+                new File(dir, BinaryLog.getIndexName(archName) + GZIP_EXTENSION).delete();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This is a bounded, lock-free ring buffer used for queuing log records
+ *  between the threads that generate log messages and the thread that writes
+ *  them out to the log file, console and network client.
+ *
+ * Any number of threads may add entries to the buffer. Each slot has a
+ *  sequence value that tells the producers when the slot is free to be written
+ *  and tells the consumer when it has been filled. Only a single thread may
+ *  remove entries at a time, which is guaranteed by the caller (GUILogPanel
+ *  only removes entries while holding its log lock).
+ *
+ * @author dan
+ */
+public class LogRingBuffer {
+
+    private static final String CLASS_NAME = "LogRingBuffer";
+
+    private final int             mask;         // size - 1 (size must be a power of 2)
+    private final LogRecord[]     records;      // the log entries
+    private final AtomicLongArray sequence;     // the sequence number for each slot
+    private final AtomicLong      writeIndex;   // the next sequence to be claimed by a producer
+    private long                  readIndex;    // the next sequence to be read by the consumer
+
+    /**
+     * this defines a single log message that was queued for output.
+     * The elapsed time is captured when the message is generated, but it is
+     *  not formatted until the message is written out. The counter value is
+     *  also added at that time so that the numbering always follows the order
+     *  of the output.
+     */
+    public static class LogRecord {
+        final MsgType msgType;  // the message type
+        final boolean bError;   // true if error or warning message
+        final long    elapsed;  // the elapsed time in nsec (-1 if timer not running)
+        final int     line;     // the script line number being run
+        final String  prefix;   // the message type prefix
+        final String  msg;      // the message (without prefix and timestamp)
+
+        LogRecord (MsgType msgType, boolean bError, long elapsed, int line, String prefix, String msg) {
+            this.msgType = msgType;
+            this.bError  = bError;
+            this.elapsed = elapsed;
+            this.line    = line;
+            this.prefix  = prefix;
+            this.msg     = msg;
+        }
+    }
+
+    /**
+     * creates the ring buffer.
+     *
+     * @param size - the number of entries (rounded up to a power of 2)
+     */
+    LogRingBuffer (int size) {
+        int capacity = Integer.highestOneBit(Math.max(size, 2) - 1) << 1;
+        this.mask       = capacity - 1;
+        this.records    = new LogRecord[capacity];
+        this.sequence   = new AtomicLongArray(capacity);
+        this.writeIndex = new AtomicLong(0);
+        this.readIndex  = 0;
+        for (int ix = 0; ix < capacity; ix++) {
+            this.sequence.set(ix, ix);
+        }
+    }
+
+    /**
+     * adds an entry to the buffer.
+     * This may be called from any thread.
+     *
+     * @param entry - the log record to add
+     *
+     * @return true if added, false if the buffer was full
+     */
+    public boolean offer (LogRecord entry) {
+        while (true) {
+            long pos = writeIndex.get();
+            int slot = (int) (pos & mask);
+            long diff = sequence.get(slot) - pos;
+            if (diff == 0) {
+                // slot is free - try to claim it
+                if (writeIndex.compareAndSet(pos, pos + 1)) {
+                    records[slot] = entry;
+                    sequence.set(slot, pos + 1);    // publish the entry to the consumer
+                    return true;
+                }
+            } else if (diff < 0) {
+                // the consumer hasn't freed this slot yet - buffer is full
+                return false;
+            }
+            // another producer claimed the slot, try the next one
+        }
+    }
+
+    /**
+     * removes the next entry from the buffer.
+     * This must only be called by one thread at a time.
+     *
+     * @return the next log record, null if buffer is empty
+     */
+    public LogRecord poll () {
+        int slot = (int) (readIndex & mask);
+        if (sequence.get(slot) != readIndex + 1) {
+            return null;
+        }
+        LogRecord entry = records[slot];
+        records[slot] = null;
+        sequence.set(slot, readIndex + mask + 1);   // release the slot back to the producers
+        readIndex++;
+        return entry;
+    }
+
+    /**
+     * indicates if there are any entries waiting to be read.
+     *
+     * @return true if buffer is empty
+     */
+    public boolean isEmpty () {
+        return writeIndex.get() == readIndex;
+    }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This holds the values of an IntArray.
+ *
+ * The values are kept in a primitive long array that grows as entries are added,
+ *  so they don't have to be boxed. A copy of the array shares the same values
+ *  until either one of them is modified, at which time the one being modified
+ *  makes its own copy of the values. This allows an IntArray to be passed
+ *  between Variables and parameters without copying all of its entries.
+ *
+ * @author dan
+ */
+public class LongArray implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long[] EMPTY = new long[0];
+    private static final int    MIN_CAPACITY = 8;
+
+    private long[]  data;       // the values (may be shared with other copies)
+    private int     size;       // the number of entries used
+    private boolean bShared;    // true if the values may be shared with another copy
+
+    public LongArray () {
+        this.data    = EMPTY;
+        this.size    = 0;
+        this.bShared = false;
+    }
+
+    /**
+     * creates an empty array with room for the specified number of entries.
+     *
+     * @param capacity - the number of entries to allocate
+     */
+    public LongArray (int capacity) {
+        this.data    = (capacity <= 0) ? EMPTY : new long[capacity];
+        this.size    = 0;
+        this.bShared = false;
+    }
+
+    private LongArray (long[] data, int size, boolean bShared) {
+        this.data    = data;
+        this.size    = size;
+        this.bShared = bShared;
+    }
+
+    /**
+     * returns a copy of the array.
+     * The copy shares the values with this one until either of them is modified.
+     *
+     * @return the copy
+     */
+    public LongArray copy () {
+        bShared = true;
+        return new LongArray (data, size, true);
+    }
+
+    public int size () {
+        return size;
+    }
+
+    public boolean isEmpty () {
+        return size == 0;
+    }
+
+    public long get (int index) {
+        checkIndex (index, size);
+        return data[index];
+    }
+
+    public long getFirst () {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return data[0];
+    }
+
+    public long getLast () {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return data[size - 1];
+    }
+
+    public void set (int index, long value) {
+        checkIndex (index, size);
+        prepareWrite (size);
+        data[index] = value;
+    }
+
+    public void add (long value) {
+        prepareWrite (size + 1);
+        data[size++] = value;
+    }
+
+    /**
+     * inserts a value in the array, moving the current entry at that index
+     *  and all following it back 1 entry.
+     *
+     * @param index - the index of where to insert the value
+     * @param value - the value to insert
+     */
+    public void add (int index, long value) {
+        checkIndex (index, size + 1);
+        prepareWrite (size + 1);
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    /**
+     * adds the entries of another array to the end of this one.
+     *
+     * @param values - the array of values to add
+     */
+    public void addAll (LongArray values) {
+        addAll (size, values);
+    }
+
+    /**
+     * inserts the entries of another array in this one, moving the current
+     *  entry at that index and all following it back.
+     *
+     * @param index  - the index of where to insert the values
+     * @param values - the array of values to insert
+     */
+    public void addAll (int index, LongArray values) {
+        checkIndex (index, size + 1);
+        int count = values.size;
+        long[] source = values.data;    // in case it is this array
+        prepareWrite (size + count);
+        System.arraycopy(data, index, data, index + count, size - index);
+        System.arraycopy(source, 0, data, index, count);
+        size += count;
+    }
+
+    public long remove (int index) {
+        checkIndex (index, size);
+        long value = data[index];
+        removeRange (index, index + 1);
+        return value;
+    }
+
+    /**
+     * removes the entries from the start index up to (but not including) the end index.
+     *
+     * @param start - the index of the first entry to remove
+     * @param end   - the index after the last entry to remove
+     */
+    public void removeRange (int start, int end) {
+        checkRange (start, end);
+        if (start == end) {
+            return;
+        }
+        if (start == 0 && end == size) {
+            clear();
+            return;
+        }
+        prepareWrite (size);
+        System.arraycopy(data, end, data, start, size - end);
+        size -= end - start;
+    }
+
+    public void clear () {
+        if (bShared) {
+            data = EMPTY;
+            bShared = false;
+        }
+        size = 0;
+    }
+
+    /**
+     * sorts the entries in increasing order.
+     */
+    public void sort () {
+        prepareWrite (size);
+        Arrays.sort(data, 0, size);
+    }
+
+    /**
+     * returns a new array containing a range of the entries of this one.
+     *
+     * @param start - the index of the first entry
+     * @param end   - the index after the last entry
+     *
+     * @return the new array
+     */
+    public LongArray slice (int start, int end) {
+        checkRange (start, end);
+        return new LongArray (Arrays.copyOfRange(data, start, end), end - start, false);
+    }
+
+    /**
+     * returns a new array containing the entries that are selected by the filter.
+     *
+     * @param filter - true for each entry to keep (must be the same size as the array)
+     *
+     * @return the new array
+     */
+    public LongArray filter (ArrayList<Boolean> filter) {
+        LongArray result = new LongArray (size);
+        for (int ix = 0; ix < size; ix++) {
+            if (filter.get(ix)) {
+                result.data[result.size++] = data[ix];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString () {
+        StringBuilder strValue = new StringBuilder(size * 4 + 2);
+        strValue.append('[');
+        for (int ix = 0; ix < size; ix++) {
+            if (ix > 0) {
+                strValue.append(", ");
+            }
+            strValue.append(data[ix]);
+        }
+        return strValue.append(']').toString();
+    }
+
+    // makes sure the values are not shared and there is room for the specified number of entries
+    private void prepareWrite (int capacity) {
+        if (capacity > data.length) {
+            int newSize = Math.max(capacity, Math.max(MIN_CAPACITY, data.length + (data.length >> 1)));
+            data = Arrays.copyOf(data, newSize);
+            bShared = false;
+        } else if (bShared) {
+            data = Arrays.copyOf(data, data.length);
+            bShared = false;
+        }
+    }
+
+    private static void checkIndex (int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + limit);
+        }
+    }
+
+    private void checkRange (int start, int end) {
+        if (start < 0 || end > size || start > end) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length " + size);
+        }
+    }
+
+}
@@ -4,13 +4,16 @@
  */
 package com.dmcd.amazonlogger;
 
+import java.io.Serializable;
+
 /**
  *
  * @author dan
  */
-public class LoopId {
+public class LoopId implements Serializable {
     
-    private static final String CLASS_NAME = LoopId.class.getSimpleName();
+    private static final String CLASS_NAME = "LoopId";
+    private static final long serialVersionUID = 1L;
 
     // the key for loops uses both the name and the command index of the FOR statement.
     //  this way, loop names can be reused as long as they aren't nested within each other.
@@ -33,5 +36,24 @@ public class LoopId {
     public String printLoopId () {
         return "Loop " + name + " index @ " + index;
     }
+
+    // the loops are keyed by LoopId in the loopParams table, so they must be
+    //  equal when both the name and the command index are the same.
+    @Override
+    public boolean equals (Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LoopId)) {
+            return false;
+        }
+        LoopId other = (LoopId) obj;
+        return index == other.index && name.contentEquals(other.name);
+    }
+
+    @Override
+    public int hashCode () {
+        return 31 * name.hashCode() + index;
+    }
     
 }
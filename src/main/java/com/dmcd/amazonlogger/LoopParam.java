@@ -5,6 +5,10 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -13,12 +17,14 @@ import java.util.Map;
  *
  * @author dan
  */
-public class LoopParam {
+public class LoopParam implements Serializable {
     
-    private static final String CLASS_NAME = LoopParam.class.getSimpleName();
+    private static final String CLASS_NAME = "LoopParam";
+    private static final long serialVersionUID = 1L;
     
-    private Integer value;          // the current value of the loop parameter
+    private Integer value;          // the value of the loop parameter (null if ref param)
     private String  paramName;      // the name of the reference Variable (null if no ref param)
+    private int     slot;           // Variable slot of an Integer or Unsigned ref param (else -1)
         
     // for loops, the loopParams will find the loop parameter for the loop at the
     // specified command index. In order to determine if we have a nested loop
@@ -36,6 +42,7 @@ public class LoopParam {
     public LoopParam (Long value) {
         this.value = value.intValue();
         this.paramName = null;
+        this.slot = -1;
     }
         
     public LoopParam (String name) throws ParserException {
@@ -48,6 +55,7 @@ public class LoopParam {
             }
             this.value = iVal;
             this.paramName = null;
+            this.slot = -1;
         } catch (ParserException ex) {
             try {
                 Variables.checkValidVariable(Variables.VarCheck.REFERENCE, name);
@@ -59,6 +67,7 @@ public class LoopParam {
             }
             this.value = null;
             this.paramName = name;
+            this.slot = Variables.getIntegerSlot(name);
         }
     }
         
@@ -70,6 +79,56 @@ public class LoopParam {
         loopNames.clear();
     }
 
+    /**
+     * saves the loop definitions for the compiled script cache.
+     * 
+     * @param out - the cache file stream
+     * 
+     * @throws IOException
+     */
+    static void saveState (ObjectOutputStream out) throws IOException {
+        out.writeObject(loopParams);
+        out.writeObject(loopNames);
+    }
+
+    /**
+     * restores the loop definitions from the compiled script cache.
+     * 
+     * @param in - the cache file stream
+     * 
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @SuppressWarnings("unchecked")
+    static void loadState (ObjectInputStream in) throws IOException, ClassNotFoundException {
+        initVariables();
+        loopParams.putAll((HashMap<LoopId, LoopStruct>) in.readObject());
+        loopNames.putAll((HashMap<String, ArrayList<LoopId>>) in.readObject());
+    }
+
+    /**
+     * moves the loop definitions to the new command indices of their commands.
+     * This is used by the incremental compile, which removes the commands of
+     *  the subroutines that changed and moves the rest of the commands.
+     *  The loops whose FOR command was removed are dropped, and the rest are
+     *  entered again under the loop ID for their new index.
+     * 
+     * @param newIndex - the new command index for each old one (-1 if removed)
+     */
+    static void relocate (int[] newIndex) {
+        ArrayList<LoopStruct> loops = new ArrayList<>(loopParams.values());
+        initVariables();
+        for (LoopStruct loopInfo : loops) {
+            if (newIndex[loopInfo.getLoopId().getIndex()] < 0) {
+                continue;
+            }
+            loopInfo.relocate(newIndex);
+            LoopId loopId = loopInfo.getLoopId();
+            loopParams.put(loopId, loopInfo);
+            loopNames.computeIfAbsent(loopId.getName(), k -> new ArrayList<>()).add(loopId);
+        }
+    }
+
     /**
      * sends the LoopId for the current running loops to the client.
      * 
@@ -82,27 +141,27 @@ public class LoopParam {
                 LoopId id = (LoopId) pair.getKey();
                 LoopStruct loop = (LoopStruct) pair.getValue();
                 if (loop != null) {
-                    response.add("[" + LoopStruct.getLoopInfo (id, loop) + "]");
+                    response.add("[" + LoopStruct.getLoopInfo (id, loop, LoopStruct.findLoopFrame(loop)) + "]");
                 }
             }
         }
         return response;
     }
 
-    public void update (Integer value) {
-        this.value = value;
-    }
-        
     public Integer getIntValue () throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getIntValue: ";
        
+        if (slot >= 0) {
+            return (int) Variables.getSlotInteger(slot);
+        }
         if (paramName != null) {
             // it is a Variable, get the current value
+            // (the value is not saved, since the LoopParam is part of the compiled program)
             Long numValue = Variables.getNumericValue(paramName, null, true);
             if (numValue == null) {
                 throw new ParserException(functionId + "reference Variable " + paramName + " is not an Integer: " + paramName);
             }
-            value = numValue.intValue();
+            return numValue.intValue();
         }
 
         return value;
@@ -141,18 +200,10 @@ public class LoopParam {
      * @return the corresponding LoopStruct value from loopParams table
      */
     public static LoopStruct getLoopStruct (LoopId loopId) {
-        if (loopParams== null || loopParams.isEmpty()) {
+        if (loopId == null) {
             return null;
         }
-        // search for a LoopId match
-        for (Map.Entry pair : loopParams.entrySet()) {
-            LoopId mapId = (LoopId) pair.getKey();
-            LoopStruct mapInfo = (LoopStruct) pair.getValue();
-            if (loopId.getName().contentEquals(mapId.getName()) && loopId.getIndex() == mapId.getIndex()) {
-                return mapInfo;
-            }
-        }
-        return null;
+        return loopParams.get(loopId);
     }
     
     /**
@@ -180,7 +231,7 @@ public class LoopParam {
      * @throws ParserException 
      */    
     public static void checkLoopIfLevel (String command, int level, LoopId loopId) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkLoopIfLevel: ";
         
         LoopStruct loopInfo = getLoopStruct (loopId);
         if (loopInfo == null) {
@@ -198,7 +249,7 @@ public class LoopParam {
      * @throws ParserException 
      */    
     public static void setLoopEndIndex (int index, LoopId loopId) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setLoopEndIndex: ";
         
         LoopStruct loopInfo = getLoopStruct (loopId);
         if (loopInfo == null) {
@@ -221,14 +272,30 @@ public class LoopParam {
      * @throws ParserException
      */
     public static int getLoopNextIndex (CommandStruct.CommandTable command, int index, LoopId loopId) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
-        
-        int nextIndex = index;
+        String functionId = CLASS_NAME + ".getLoopNextIndex: ";
         
         LoopStruct loopInfo = getLoopStruct (loopId);
         if (loopInfo == null) {
             throw new ParserException(functionId + "FOR " + loopId.printLoopId() + " not found");
         }
+        return getLoopNextIndex (command, index, loopInfo);
+    }
+
+    /**
+     * gets the next command index based on the loop command specified for current loop.
+     * This is used when the compiler has already bound the loop to the command,
+     *  so the loop does not have to be looked up.
+     * 
+     * @param command  - the loop command to execute
+     * @param index    - the current command index
+     * @param loopInfo - the loop currently running
+     * 
+     * @return the next command index to run
+     * 
+     * @throws ParserException
+     */
+    public static int getLoopNextIndex (CommandStruct.CommandTable command, int index, LoopStruct loopInfo) throws ParserException {
+        int nextIndex = index;
         
         String action = "";
         switch (command) {
@@ -254,7 +321,9 @@ public class LoopParam {
                 break;
         }
         
-        GUILogPanel.outputInfoMsg(MsgType.VARS, command.toString() + " command " + action + " at index: " + nextIndex);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, command.toString() + " command " + action + " at index: " + nextIndex);
+        }
         return nextIndex;
     }
 
@@ -266,7 +335,7 @@ public class LoopParam {
      * @param loopInfo - the loop Variable to add
      */
     public static void saveLoopParameter (LoopStruct loopInfo) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".saveLoopParameter: ";
         
         if (loopInfo == null) {
             throw new ParserException(functionId + "FOR Loop structure not found");
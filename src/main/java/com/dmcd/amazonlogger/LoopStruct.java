@@ -5,6 +5,7 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.Serializable;
 import java.util.Stack;
 
 /**
@@ -12,9 +13,10 @@ import java.util.Stack;
  * 
  * @author dan
  */
-public class LoopStruct {
+public class LoopStruct implements Serializable {
 
-    private static final String CLASS_NAME = LoopStruct.class.getSimpleName();
+    private static final String CLASS_NAME = "LoopStruct";
+    private static final long serialVersionUID = 1L;
     
     private static final String LOOP_FOREVER = "#FOREVER#";
     
@@ -22,20 +24,19 @@ public class LoopStruct {
     private static final String DATA_SEP = Variables.getDataSeparator();
     
     private final String    name;       // parameter name for the loop
-    private       Integer   value;      // current parameter value
     private       LoopParam valStart;   // loop start value
     private       LoopParam valEnd;     // loop end   value
     private       LoopParam valStep;    // value to increment value by on each loop
     private final boolean   bInclEnd;   // true if include valEnd limit before exit, false if exit on = valEnd
-    private       String    comparator; // the comparison symbols used for checking against valEnd
-    private final Integer   ixBegin;    // command index of start of loop (where it returns to)
+    private       Integer   ixBegin;    // command index of start of loop (where it returns to)
     private       Integer   ixEnd;      // command index of ENDFOR (end of loop or break reached)
     private       Integer   ifLevel;    // IF nest level (to make sure loop def doesn't exceed the boundaries)
     private       LoopId    loopId;     // the loop ID value
     private       Integer   maxLoops;   // the max number of loops to run in FOREVER mode (null if no safety)
-    private       boolean   bUpdate;    // true when a value has been written to
+    private       int       frameIx;    // index of the loop value in the frame of its subroutine
 
-    // loop stack for keeping track of current nesting of loops as program runs
+    // loop stack for keeping track of current nesting of loops as program compiles
+    // (the loops being run are kept with the frames of their subroutine calls in VarFrames)
     private static final Stack<LoopId> loopStack = new Stack<>();
 
 
@@ -53,13 +54,11 @@ public class LoopStruct {
         String functionId = CLASS_NAME + " (new FOREVER): ";
        
         this.name     = LOOP_FOREVER;
-        this.bUpdate  = false;
         this.loopId   = new LoopId(name, index);
         this.valStart = new LoopParam(0L);
         this.valEnd   = new LoopParam(0L);
         this.valStep  = new LoopParam(1L);
         this.bInclEnd = false;
-        this.value    = 0;
         this.ixBegin  = index;
         this.ixEnd    = null;
         this.ifLevel  = ifLev;
@@ -124,11 +123,9 @@ public class LoopStruct {
             Utils.throwAddendum (exMsg.getMessage(), functionId);
         }
         
-        this.bUpdate  = false;
         this.name     = name;
         this.loopId   = new LoopId(name, index);
         this.bInclEnd = bIncl;
-        this.value    = 0; // this is called during compile, so if the start param is a ref, we don't know the value
         this.ixBegin  = index;
         this.ixEnd    = null;
         this.ifLevel  = ifLev;
@@ -143,18 +140,22 @@ public class LoopStruct {
      * It is called at the start of a run or a step in Network mode.
      */
     public static void resetUpdate() {
-        if (! loopStack.empty()) {
-            for (int ix = 0; ix < loopStack.size(); ix++) {
-                LoopId id = loopStack.get(ix);
-                LoopStruct loop = LoopParam.getLoopStruct (id);
-                if (loop != null) {
-                    loop.bUpdate = false;
-                }
-            }
+        for (int ix = 0; ix < VarFrames.getLoopDepth(); ix++) {
+            LoopStruct loop = VarFrames.getLoop(ix);
+            VarFrames.getLoopFrame(ix).clearLoopUpdate(loop.frameIx);
         }
     }
 
-    public static String getLoopInfo (LoopId id, LoopStruct loop) {
+    /**
+     * returns the info of a loop for the client.
+     * 
+     * @param id    - the loop ID
+     * @param loop  - the loop
+     * @param frame - the frame of the call running the loop (null if not running)
+     * 
+     * @return the loop info
+     */
+    public static String getLoopInfo (LoopId id, LoopStruct loop, VarFrames.Frame frame) {
         if (loop != null) {
             String start = "?";
             String end   = "?";
@@ -171,12 +172,12 @@ public class LoopStruct {
             return "<name> " + id.getName() + " @ " + ScriptCompile.getLineNumber(id.getIndex())
                     + " " + DATA_SEP + " <owner> "   + Subroutine.findSubName(loop.ixBegin)
                     + " " + DATA_SEP + " <type> Integer"
-                    + " " + DATA_SEP + " <value> "   + loop.value
+                    + " " + DATA_SEP + " <value> "   + ((frame == null) ? "" : frame.getLoopValue(loop.frameIx))
                     + " " + DATA_SEP + " <start> "   + start
                     + " " + DATA_SEP + " <end> "     + end
                     + " " + DATA_SEP + " <step> "    + step
                     + " " + DATA_SEP + " <incl> "    + loop.bInclEnd
-                    + " " + DATA_SEP + " <comp> "    + loop.comparator ;
+                    + " " + DATA_SEP + " <comp> "    + ((frame == null) ? "" : frame.getLoopComparator(loop.frameIx));
         }
         return null;
     }
@@ -188,11 +189,11 @@ public class LoopStruct {
         if (! AmazonReader.isOpModeNetwork()) {
             return;
         }
-        for (int ix = 0; ix < loopStack.size(); ix++) {
-            LoopId id = loopStack.get(ix);
-            LoopStruct loop = LoopParam.getLoopStruct (id);
-            if (loop != null && loop.bUpdate) {
-                String entry = getLoopInfo (id, loop);
+        for (int ix = 0; ix < VarFrames.getLoopDepth(); ix++) {
+            LoopStruct loop = VarFrames.getLoop(ix);
+            VarFrames.Frame frame = VarFrames.getLoopFrame(ix);
+            if (frame.isLoopUpdated(loop.frameIx)) {
+                String entry = getLoopInfo (loop.loopId, loop, frame);
                 entry = "[<section> LOOP " + DATA_SEP + " " + entry + "]";
                 TCPServerThread.sendVarInfo(entry);
             }
@@ -201,8 +202,8 @@ public class LoopStruct {
 
     /**
      * resets the stack.
-     * This should be done prior to compiling or running a second time, since the
-     * previous run might not have completed and left the stack with old entries.
+     * This should be done prior to compiling, since the previous compile
+     * might not have completed and left the stack with old entries.
      */
     public static void resetStack() {
         loopStack.clear();
@@ -219,7 +220,7 @@ public class LoopStruct {
      * @throws ParserException 
      */
     private static boolean checkIfValidInteger (String which, ParameterStruct param) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkIfValidInteger: ";
        
         ParameterStruct.ParamClass refType = param.getParamClass();
         switch (refType) {
@@ -259,6 +260,17 @@ public class LoopStruct {
         return this.loopId;
     }
     
+    /**
+     * sets the index of the loop value in the frame of its subroutine.
+     * The value is kept in the frame of the subroutine call (see VarFrames),
+     *  so a recursive call can't change it for the call that made it.
+     * 
+     * @param ix - the frame index
+     */
+    void setFrameIndex (int ix) {
+        this.frameIx = ix;
+    }
+    
     /**
      * determines if the loop parameter indicates it is looping forever.
      * 
@@ -278,6 +290,22 @@ public class LoopStruct {
         this.ixEnd = index;
     }
     
+    /**
+     * moves the loop to the new command indices of its FOR and ENDFOR commands.
+     * This is used by the incremental compile when the commands ahead of the
+     *  loop have changed. Since the loop ID includes the index of the FOR
+     *  command, it is replaced as well.
+     * 
+     * @param newIndex - the new command index for each old one
+     */
+    void relocate (int[] newIndex) {
+        this.ixBegin = newIndex[this.ixBegin];
+        if (this.ixEnd != null) {
+            this.ixEnd = newIndex[this.ixEnd];
+        }
+        this.loopId = new LoopId(this.name, this.ixBegin);
+    }
+    
     /**
      * indicates if the loop has been completely defined (matching ENDFOR found)
      * 
@@ -289,11 +317,12 @@ public class LoopStruct {
     
     /**
      * gets the current loop index value.
+     * This must be called from the subroutine that the loop is in.
      * 
      * @return the current loop index value
      */
-    public Integer getLoopValue () {
-        return value;
+    public int getLoopValue () {
+        return VarFrames.getCurrent().getLoopValue(frameIx);
     }
 
     /**
@@ -307,7 +336,7 @@ public class LoopStruct {
      * @throws ParserException
      */
     public void checkLoopIfLevelValid (String command, int level) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkLoopIfLevelValid: ";
         
         if (level != this.ifLevel) {
             throw new ParserException(functionId + command + " exceeded bounds of enclosing IF block: IF level = " + level + ", should be: " + this.ifLevel);
@@ -325,8 +354,9 @@ public class LoopStruct {
      * @throws ParserException
      */
     public int startLoop (int index) throws ParserException {
-        value = valStart.getIntValue();
-        bUpdate = true;
+        VarFrames.Frame frame = VarFrames.getCurrent();
+        int value = valStart.getIntValue();
+        frame.setLoopValue(frameIx, value);
         
         // if we are looping without end, we always proceed to the next command
         if (isForever()) {
@@ -334,12 +364,14 @@ public class LoopStruct {
         }
         
         // just in case the loop is set to not run, perform the exit comparison
+        String comparator;
         if (valStep.getIntValue() >= 1) {
             comparator = bInclEnd ? "<=" : "<";
         } else {
             comparator = bInclEnd ? ">=" : ">";
         }
-        boolean bResult = Utils.compareParameterValues (valStart.getIntValue(), valEnd.getIntValue(), comparator);
+        frame.setLoopComparator(frameIx, comparator);
+        boolean bResult = Utils.compareParameterValues (value, valEnd.getIntValue(), comparator);
         if (! bResult) {
             return ixEnd;
         }
@@ -368,16 +400,19 @@ public class LoopStruct {
      * @throws ParserException
      */
     public int loopNext () throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".loopNext: ";
 
         // increment param by the step value and check if we have completed
-        value += valStep.getIntValue();
-        bUpdate = true;
-        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "     LOOP " + loopId.printLoopId() + " value = " + value);
+        VarFrames.Frame frame = VarFrames.getCurrent();
+        int value = frame.getLoopValue(frameIx) + valStep.getIntValue();
+        frame.setLoopValue(frameIx, value);
+        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "     LOOP " + loopId.printLoopId() + " value = " + value);
+        }
         
         // skip checking for exit if running forever
         if (! isForever()) {
-            boolean bResult = Utils.compareParameterValues (value, valEnd.getIntValue(), comparator);
+            boolean bResult = Utils.compareParameterValues (value, valEnd.getIntValue(), frame.getLoopComparator(frameIx));
             if (! bResult) {
                 return ixEnd;   // loop completed
             }
@@ -430,18 +465,54 @@ public class LoopStruct {
     
     /**
      * checks for a loop parameter that is currently active and returns its current value.
+     * When running, this is the value of the innermost running loop having
+     *  the name, which may be in one of the subroutines that called the
+     *  current one. When compiling, the loops being compiled have no value yet,
+     *  so 0 is returned for them.
      * 
      * @param name - name of the loop parameter
      * 
      * @return the current value of the loop parameter (null if parameter not currently active)
      */
     public static Integer getCurrentLoopValue (String name) {
-        if (!loopStack.empty()) {
-            for (int ix = 0; ix < loopStack.size(); ix++) {
-                LoopId loopId = loopStack.get(ix);
-                if (loopId.getName().contentEquals(name)) {
-                    return LoopParam.getLoopValue(loopId);
-                }
+        int ix = VarFrames.findLoop(name);
+        if (ix >= 0) {
+            return VarFrames.getLoopFrame(ix).getLoopValue(VarFrames.getLoop(ix).frameIx);
+        }
+        if (getActiveLoop (name) != null) {
+            return 0;
+        }
+        return null;
+    }
+    
+    /**
+     * returns the frame of the innermost call that is running a loop.
+     * 
+     * @param loop - the loop
+     * 
+     * @return the frame (null if the loop is not running)
+     */
+    static VarFrames.Frame findLoopFrame (LoopStruct loop) {
+        for (int ix = VarFrames.getLoopDepth() - 1; ix >= 0; ix--) {
+            if (VarFrames.getLoop(ix) == loop) {
+                return VarFrames.getLoopFrame(ix);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * finds the loop that is currently being compiled for a loop parameter name.
+     * 
+     * @param name - name of the loop parameter
+     * 
+     * @return the loop structure (null if parameter not currently active)
+     */
+    public static LoopStruct getActiveLoop (String name) {
+        for (int ix = 0; ix < loopStack.size(); ix++) {
+            LoopId loopId = loopStack.get(ix);
+            if (loopId.getName().contentEquals(name)) {
+                return LoopParam.getLoopStruct(loopId);
             }
         }
         return null;
@@ -459,7 +530,7 @@ public class LoopStruct {
      * @throws ParserException - if not valid
      */
     private static void isValidLoopName (String name, int index) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isValidLoopName: ";
 
         try {
             if (name.startsWith("$")) {
@@ -24,7 +24,7 @@ import org.xml.sax.SAXException;
  */
 public class OCRReader {
 
-    private static final String CLASS_NAME = OCRReader.class.getSimpleName();
+    private static final String CLASS_NAME = "OCRReader";
     
     public OCRReader() {
     }
@@ -40,7 +40,7 @@ public class OCRReader {
      * @throws ParserException 
      */
     public void run (String fname) throws IOException, TikaException, SAXException, ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".run: ";
 
         // check for valid file
         String path = Utils.getDefaultPath(Utils.PathType.Test);
@@ -50,26 +50,39 @@ public class OCRReader {
             throw new ParserException(functionId + "OCR file not found: " + fname);
         }
         
-        Parser parser = new AutoDetectParser();
-        BodyContentHandler handler = new BodyContentHandler(Integer.MAX_VALUE);
+        FlightEvents.DocumentEvent event = new FlightEvents.DocumentEvent();
+        event.begin();
+        String content;
+        try {
+            Parser parser = new AutoDetectParser();
+            BodyContentHandler handler = new BodyContentHandler(Integer.MAX_VALUE);
 
-        TesseractOCRConfig config = new TesseractOCRConfig();
-        // config.setTesseractPath(tPath);
-        PDFParserConfig pdfConfig = new PDFParserConfig();
-        pdfConfig.setExtractInlineImages(true);
-        pdfConfig.setExtractUniqueInlineImagesOnly(false);
+            TesseractOCRConfig config = new TesseractOCRConfig();
+            // config.setTesseractPath(tPath);
+            PDFParserConfig pdfConfig = new PDFParserConfig();
+            pdfConfig.setExtractInlineImages(true);
+            pdfConfig.setExtractUniqueInlineImagesOnly(false);
 
-        ParseContext parseContext = new ParseContext();
-        parseContext.set(TesseractOCRConfig.class, config);
-        parseContext.set(PDFParserConfig.class, pdfConfig);
-        //need to add this to make sure recursive parsing happens!
-        parseContext.set(Parser.class, parser);
+            ParseContext parseContext = new ParseContext();
+            parseContext.set(TesseractOCRConfig.class, config);
+            parseContext.set(PDFParserConfig.class, pdfConfig);
+            //need to add this to make sure recursive parsing happens!
+            parseContext.set(Parser.class, parser);
 
-        FileInputStream stream = new FileInputStream(fname);
-        Metadata metadata = new Metadata();
-        parser.parse(stream, handler, metadata, parseContext);
-        String content = handler.toString();
-        VarReserved.putOcrDataValue(content);
+            FileInputStream stream = new FileInputStream(fname);
+            Metadata metadata = new Metadata();
+            parser.parse(stream, handler, metadata, parseContext);
+            content = handler.toString();
+            VarReserved.putOcrDataValue(content);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.reader = "OCR";
+                event.file   = fname;
+                event.bytes  = file.length();
+                event.commit();
+            }
+        }
         GUILogPanel.outputInfoMsg (MsgType.PROGRAM, "Size of OCR scanned text: " + content.length());
     }
 
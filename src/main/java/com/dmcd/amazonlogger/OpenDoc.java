@@ -10,6 +10,7 @@ import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableModel;
 import org.jopendocument.dom.spreadsheet.MutableCell;
@@ -22,7 +23,7 @@ import org.jopendocument.dom.spreadsheet.SpreadSheet;
  */
 public class OpenDoc {
 
-    private static final String CLASS_NAME = OpenDoc.class.getSimpleName();
+    private static final String CLASS_NAME = "OpenDoc";
     private static final String INDENT = "     ";
     
     private static File  spreadsheetFile;               // the spreadsheet file
@@ -57,7 +58,7 @@ public class OpenDoc {
      * @throws ParserException 
      */    
     public static int getColSize () throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getColSize: ";
 
         if (sheetSel == null) {
             throw new ParserException(functionId + "no sheet selected");
@@ -73,7 +74,7 @@ public class OpenDoc {
      * @throws ParserException 
      */    
     public static int getRowSize () throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getRowSize: ";
 
         if (sheetSel == null) {
             throw new ParserException(functionId + "no sheet selected");
@@ -92,7 +93,7 @@ public class OpenDoc {
      * @throws IOException
      */    
     public static void setSize (int col, int row) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setSize: ";
 
         if (sheetSel == null) {
             throw new ParserException(functionId + "no sheet selected");
@@ -112,7 +113,7 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static void setFileSelection (File file) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setFileSelection: ";
 
         if (file == null) {
             throw new ParserException(functionId + "Spreadsheet file is not defined");
@@ -128,7 +129,7 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static void setSheetSelection (int sheetNum) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setSheetSelection: ";
 
         if (sheetNum >= sheetArray.size()) {
             throw new ParserException(functionId + "tab index " + sheetNum + " exceeds max tabs: " + sheetArray.size());
@@ -184,7 +185,7 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static String getCellObjectType (int col, int row) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getCellObjectType: ";
 
         if (sheetSel == null) {
             throw new ParserException(functionId + "no sheet selection for spreadsheet");
@@ -230,7 +231,7 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static String getCellTextValue (int col, int row) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getCellTextValue: ";
 
         if (sheetSel == null) {
             throw new ParserException(functionId + "no sheet selection for spreadsheet");
@@ -245,7 +246,9 @@ public class OpenDoc {
         }
 
         String strVal = sheetSel.getCellAt(col,row).getTextValue();
-        GUILogPanel.outputInfoMsg(MsgType.SSHEET, INDENT + "read  tab " + sheetSel.getName() + " row " + row + " col " + col + " <- " + strVal);
+        if (GUILogPanel.isEnabled(MsgType.SSHEET)) {
+            GUILogPanel.outputInfoMsg(MsgType.SSHEET, INDENT + "read  tab " + sheetSel.getName() + " row " + row + " col " + col + " <- " + strVal);
+        }
         return strVal;
     }
     
@@ -260,7 +263,7 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static BigDecimal getCellNumericValue (int col, int row) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getCellNumericValue: ";
 
         if (sheetSel == null) {
             throw new ParserException(functionId + "no sheet selection for spreadsheet");
@@ -279,7 +282,9 @@ public class OpenDoc {
             throw new ParserException(functionId + "col " + col + " row " + row + " cell value is null");
         }
         BigDecimal bdValue = (BigDecimal) objVal;
-        GUILogPanel.outputInfoMsg(MsgType.SSHEET, INDENT + "read  tab " + sheetSel.getName() + " row " + row + " col " + col + " <- " + objVal.toString());
+        if (GUILogPanel.isEnabled(MsgType.SSHEET)) {
+            GUILogPanel.outputInfoMsg(MsgType.SSHEET, INDENT + "read  tab " + sheetSel.getName() + " row " + row + " col " + col + " <- " + objVal.toString());
+        }
         return bdValue;
     }
     
@@ -295,7 +300,7 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static void setCellValue (int col, int row, Object objVal) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setCellValue: ";
 
         if (sheetSel == null) {
             throw new ParserException(functionId + "no sheet selection for spreadsheet");
@@ -334,8 +339,10 @@ public class OpenDoc {
             }
         }
 
-        GUILogPanel.outputInfoMsg(MsgType.SSHEET, INDENT + "write tab " + OpenDoc.getSheetName()
-                + " row " + row + " col " + col + " -> " + objVal.toString() + " (type " + strClass + ")");
+        if (GUILogPanel.isEnabled(MsgType.SSHEET)) {
+            GUILogPanel.outputInfoMsg(MsgType.SSHEET, INDENT + "write tab " + OpenDoc.getSheetName()
+                    + " row " + row + " col " + col + " -> " + objVal.toString() + " (type " + strClass + ")");
+        }
     }
     
     /**
@@ -348,7 +355,7 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static void setCellColor (int col, int row, Color color) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setCellColor: ";
 
         if (sheetSel == null) {
             throw new ParserException(functionId + "no sheet selection for spreadsheet");
@@ -365,7 +372,9 @@ public class OpenDoc {
         sheetSel.getCellAt(col,row).setBackgroundColor(color);
 
         String hexColor = String.format("0x%06x", color.getRGB());
-        GUILogPanel.outputInfoMsg(MsgType.SSHEET, INDENT + "set color " + OpenDoc.getSheetName() + " row " + row + " col " + col + " RGB -> " + hexColor);
+        if (GUILogPanel.isEnabled(MsgType.SSHEET)) {
+            GUILogPanel.outputInfoMsg(MsgType.SSHEET, INDENT + "set color " + OpenDoc.getSheetName() + " row " + row + " col " + col + " RGB -> " + hexColor);
+        }
     }
     
     /**    
@@ -378,7 +387,7 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static int findSheetByName (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".findSheetByName: ";
 
         if (name == null) {
             throw new ParserException(functionId + "spreadsheet tab selection is null");
@@ -406,7 +415,51 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static boolean loadFromFile (int numSheets) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        FlightEvents.SpreadsheetEvent event = new FlightEvents.SpreadsheetEvent();
+        event.begin();
+        try {
+            return loadSheets (numSheets);
+        } finally {
+            commitEvent (event, "Load", sheetArray);
+        }
+    }
+
+    /**
+     * fills in the spreadsheet event info and records it.
+     * 
+     * @param event     - the event
+     * @param operation - the spreadsheet operation
+     * @param sheets    - the sheets that were accessed
+     */
+    private static void commitEvent (FlightEvents.SpreadsheetEvent event, String operation, List<Sheet> sheets) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.sheets = sheets.size();
+            for (Sheet sheet : sheets) {
+                event.rows += sheet.getRowCount();
+                event.cols += sheet.getColumnCount();
+            }
+            if (spreadsheetFile != null) {
+                event.file  = spreadsheetFile.getAbsolutePath();
+                event.bytes = spreadsheetFile.length();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * reads the specified number of spreadsheet tabs into memory.
+     * 
+     * @param numSheets    - number of sheets (tabs) to load into memory
+     *                       (0 to reload the current number of sheets selected)
+     * 
+     * @return true if successful
+     * 
+     * @throws ParserException
+     */
+    private static boolean loadSheets (int numSheets) throws ParserException {
+        String functionId = CLASS_NAME + ".loadFromFile: ";
 
         if (spreadsheetFile == null) {
             throw new ParserException(functionId + "Spreadsheet file is not defined");
@@ -452,12 +505,14 @@ public class OpenDoc {
      * @throws IOException 
      */
     public static void saveToFileAllSheets () throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".saveToFileAllSheets: ";
         
         if (spreadsheetFile == null) {
             throw new ParserException(functionId + "Spreadsheet file is not defined");
         }
         
+        FlightEvents.SpreadsheetEvent event = new FlightEvents.SpreadsheetEvent();
+        event.begin();
         for (int ix = 0; ix < sheetArray.size(); ix++) {
             Sheet sheet = sheetArray.get(ix);
             sheet.getSpreadSheet().saveAs(spreadsheetFile);
@@ -465,6 +520,7 @@ public class OpenDoc {
                                         + sheet.getRowCount() + " rows, "
                                         + sheet.getColumnCount() + " cols");
         }
+        commitEvent (event, "Save", sheetArray);
         
         // reload the spreadsheet sheets into memory, or we lose the info for one of the tabs
         loadFromFile (0);
@@ -479,7 +535,7 @@ public class OpenDoc {
      * @throws IOException 
      */
     public static void saveToFile (String tabName) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".saveToFile: ";
         
         if (spreadsheetFile == null) {
             throw new ParserException(functionId + "Spreadsheet file is not defined");
@@ -490,7 +546,10 @@ public class OpenDoc {
             int ix = findSheetByName (tabName);
             sheet = sheetArray.get(ix);
         }
+        FlightEvents.SpreadsheetEvent event = new FlightEvents.SpreadsheetEvent();
+        event.begin();
         sheet.getSpreadSheet().saveAs(spreadsheetFile);
+        commitEvent (event, "Save", List.of(sheet));
         GUILogPanel.outputInfoMsg(MsgType.INFO, INDENT + "Saving sheet '" + sheet.getName() + "' to file: "
                                     + sheet.getRowCount() + " rows, "
                                     + sheet.getColumnCount() + " cols");
@@ -513,7 +572,7 @@ public class OpenDoc {
      * @throws IOException
      */
     public static void fileCreate (File file, String name, ArrayList<String> arrList) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".fileCreate: ";
         
         if (file == null) {
             throw new ParserException(functionId + "Spreadsheet file is not defined");
@@ -559,7 +618,7 @@ public class OpenDoc {
      * @throws IOException
      */
     public static void fileCreate (File file, ArrayList<String> tabList, ArrayList<String> headerList) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".fileCreate: ";
         
         if (file == null) {
             throw new ParserException(functionId + "Spreadsheet file is not defined");
@@ -611,7 +670,7 @@ public class OpenDoc {
      * @throws ParserException
      */
     public static void addTab (String tabName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".addTab: ";
         
         if (tabName == null || tabName.isBlank()) {
             throw new ParserException(functionId + "Tab name is blank");
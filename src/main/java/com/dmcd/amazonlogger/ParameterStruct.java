@@ -5,8 +5,8 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
 
 /**
  * This class defines the structure of the parameters stored for the commands.
@@ -16,20 +16,22 @@ import java.util.Arrays;
  * 
  * @author dan
  */
-public final class ParameterStruct {
+public final class ParameterStruct implements Serializable {
 
-    private static final String CLASS_NAME = ParameterStruct.class.getSimpleName();
+    private static final String CLASS_NAME = "ParameterStruct";
+    private static final long serialVersionUID = 1L;
     
     private String              strParam;       // value for the String  param type
     private Long                longParam;      // value for the Integer and Unsigned param types
     private Boolean             boolParam;      // value for the Boolean param type
-    private ArrayList<Long>     intArrayParam;  // value for Integer Array param type
-    private ArrayList<String>   strArrayParam;  // value for String  List  param type
-    private ArrayList<CalcEntry> calcParam;     // value for Calculation param type
+    private LongArray           intArrayParam;  // value for Integer Array param type
+    private StringArray         strArrayParam;  // value for String  List  param type
+    private Calculation         calcParam;      // value for Calculation param type
     
     private ParamClass          paramClass;     // class of the parameter
     private ParamType           paramType;      // parameter classification
     private VarExtensions       variableRef;    // info if a referenced Variable is used instead of a value
+    private StringTemplate      template;       // compiled embedded references for a discrete String param
 
     
     public enum ParamClass {
@@ -93,6 +95,39 @@ public final class ParameterStruct {
         paramType = ParamType.Integer;
     }
 
+    /**
+     * Creates a copy of a compiled parameter to hold its value during execution.
+     * The compiled parameter is never modified when the command is run, so the
+     *  compiled script can be run again without re-compiling it.
+     *
+     * @param compiled - the compiled parameter to copy
+     */
+    public ParameterStruct (ParameterStruct compiled) {
+        reset (compiled);
+    }
+
+    /**
+     * sets the parameter back to the compiled value before it is resolved.
+     * This is done each time the command is run, so the value of the previous
+     *  run is not used. The array values are copied, since they may be saved
+     *  to a Variable and modified.
+     *  (the IntArray copy shares its values until one of them is modified)
+     *
+     * @param compiled - the compiled parameter to copy
+     */
+    final void reset (ParameterStruct compiled) {
+        strParam = compiled.strParam;
+        longParam = compiled.longParam;
+        boolParam = compiled.boolParam;
+        intArrayParam = (compiled.intArrayParam == null) ? null : compiled.intArrayParam.copy();
+        strArrayParam = (compiled.strArrayParam == null) ? null : compiled.strArrayParam.copy();
+        calcParam = compiled.calcParam;
+        paramClass = compiled.paramClass;
+        variableRef = compiled.variableRef;
+        paramType = compiled.paramType;
+        template = compiled.template;
+    }
+
     /**
      * Creates a parameter having the specified characteristics.
      * This is only used in the Compilation phase, so we are creating the parameter
@@ -122,7 +157,7 @@ public final class ParameterStruct {
                 // CALCULATION ENTRY:
                 // save the calculation entry
                 Calculation calc = new Calculation(strValue, dataType);
-                calcParam = calc.copyCalc();
+                calcParam = calc;
 
                 // if calc is a single entry, don't use Calculation type, switch to Discreet or Variable type
                 if (calc.getCalcCount() == 1) {
@@ -131,17 +166,23 @@ public final class ParameterStruct {
                         VarExtract paramInfo = new VarExtract(paramName);
                         variableRef = new VarExtensions(paramInfo);
                         paramClass = ParamClass.Reference;
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "Converted Calculation parameter to single Reference value: " + variableRef.getName());
+                        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "Converted Calculation parameter to single Reference value: " + variableRef.getName());
+                        }
                     } else {
                         Long value = calc.getCalcValue();
                         if (value != null) {
                             longParam = value;
                             paramClass = ParamClass.Discrete;
-                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "Converted Calculation parameter to single " + paramType + " value: " + value);
+                            if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                                GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "Converted Calculation parameter to single " + paramType + " value: " + value);
+                            }
                         }
                     }
                 } else {
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "New ParamStruct: Calculation " + paramType + ": " + strValue);
+                    if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "New ParamStruct: Calculation " + paramType + ": " + strValue);
+                    }
                 }
                 return;
             }
@@ -150,7 +191,9 @@ public final class ParameterStruct {
                 // extract any extension added to the Variable
                 VarExtract paramInfo = new VarExtract(strParam);
                 variableRef = new VarExtensions(paramInfo);
-                GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "New ParamStruct: Reference " + paramType + " name: " + variableRef.getName());
+                if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "New ParamStruct: Reference " + paramType + " name: " + variableRef.getName());
+                }
                 return;
             }
 
@@ -190,14 +233,14 @@ public final class ParameterStruct {
                         strParam = strParam.substring(1, strParam.length()-1).strip();
                     }
                     // transfer the array entries to the String Array param
-                    strArrayParam = new ArrayList<>(Arrays.asList(strParam.split(",")));
-                    intArrayParam = new ArrayList<>();
+                    String[] entries = strParam.split(",");
+                    intArrayParam = new LongArray(entries.length);
                     boolean bAllInts = true;
-                    for (int ix = 0; ix < strArrayParam.size(); ix++) {
+                    for (int ix = 0; ix < entries.length; ix++) {
                         try {
                             // now check if all entries were Integer, even if it was String Array
-                            String cleanStr = strArrayParam.get(ix).strip();
-                            strArrayParam.set(ix, cleanStr); // remove leading & trailing spaces
+                            String cleanStr = entries[ix].strip();
+                            entries[ix] = cleanStr; // remove leading & trailing spaces
                             longParam = Utils.getLongOrUnsignedValue(cleanStr);
                             intArrayParam.add(longParam);
                         } catch (ParserException ex) {
@@ -207,15 +250,17 @@ public final class ParameterStruct {
                             }
                         }
                     }
+                    strArrayParam = StringArray.wrap(entries);
                     // if it was a String Array but was all Integers, reclassify it
                     if (paramType == ParamType.StrArray && bAllInts) {
                         paramType = ParamType.IntArray;
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "Reclassified StrArray as IntArray: " + variableRef.getName());
+                        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "Reclassified StrArray as IntArray: " + variableRef.getName());
+                        }
                     }
-                    if (paramType == ParamType.IntArray) {
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "new " + paramType + " size " + intArrayParam.size());
-                    } else {
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "new " + paramType + " size " + strArrayParam.size());
+                    if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                        int size = (paramType == ParamType.IntArray) ? intArrayParam.size() : strArrayParam.size();
+                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "new " + paramType + " size " + size);
                     }
                     break;
                 case String:
@@ -224,7 +269,9 @@ public final class ParameterStruct {
                 default:
                     break;
             }
-            GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "New ParamStruct: Discreet " + paramType + ": '" + strParam + "'");
+            if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                GUILogPanel.outputInfoMsg(MsgType.DEBUG, msgGap + "New ParamStruct: Discreet " + paramType + ": '" + strParam + "'");
+            }
         } catch (ParserException exMsg) {
             Utils.throwAddendum (exMsg.getMessage(), functionId);
         }
@@ -236,6 +283,11 @@ public final class ParameterStruct {
     
     public void setStringValue (String value) {
         strParam = value;
+        template = null;
+    }
+
+    public void setTemplate (StringTemplate template) {
+        this.template = template;
     }
     
     public void setIntegerValue (Long value) {
@@ -246,11 +298,11 @@ public final class ParameterStruct {
         boolParam = value;
     }
     
-    public void setStrArray (ArrayList<String> value) {
+    public void setStrArray (StringArray value) {
         strArrayParam = value;
     }
 
-    public void setIntArray (ArrayList<Long> value) {
+    public void setIntArray (LongArray value) {
         intArrayParam = value;
     }
     
@@ -284,11 +336,11 @@ public final class ParameterStruct {
         return boolParam;
     }
 
-    public ArrayList<String> getStrArray () {
+    public StringArray getStrArray () {
         return strArrayParam;
     }
 
-    public ArrayList<Long> getIntArray () {
+    public LongArray getIntArray () {
         return intArrayParam;
     }
 
@@ -377,6 +429,14 @@ public final class ParameterStruct {
         return paramClass == ParamClass.Calculation && (calcParam != null);
     }
 
+    public Calculation getCalculation () {
+        return calcParam;
+    }
+
+    public StringTemplate getTemplate () {
+        return template;
+    }
+
     /**
      * determines if the parameter type is valid
      * 
@@ -403,14 +463,13 @@ public final class ParameterStruct {
      * @throws com.dmcd.amazonlogger.ParserException
      */
     public Long getCalculationValue (ParamType type) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getCalculationValue: ";
 
         if (calcParam == null) {
             throw new ParserException(functionId + "Calculation value is null");
         }
         try {
-            Calculation calc = new Calculation(calcParam);
-            longParam = calc.compute(type);
+            longParam = calcParam.compute(type);
         } catch (ParserException exMsg) {
             Utils.throwAddendum (exMsg.getMessage(), functionId);
         }
@@ -424,7 +483,7 @@ public final class ParameterStruct {
      * @throws ParserException 
      */
     public void updateFromReference () throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".updateFromReference: ";
 
         ParameterStruct value = null;
         try {
@@ -442,8 +501,11 @@ public final class ParameterStruct {
             this.calcParam      = value.calcParam;
             this.paramClass     = value.paramClass;
             this.variableRef    = value.variableRef;
+            this.template       = null;
             
-            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    unpacked param " + variableRef.getName() + " as type '" + paramType);
+            if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    unpacked param " + variableRef.getName() + " as type '" + paramType);
+            }
         }
     }
 
@@ -463,7 +525,7 @@ public final class ParameterStruct {
                 strID += "(ref)";
                 break;
             case ParamClass.Calculation:
-                strValue = strParam;
+                strValue = strParam + " {" + calcParam + "}";
                 strID += "(calc)";
                 break;
             default:
@@ -504,6 +566,9 @@ public final class ParameterStruct {
      * @param params - the array of parameters for a command
      */
     public static void showParamTypeList (ArrayList<ParameterStruct> params) {
+        if (! GUILogPanel.isEnabled(MsgType.DEBUG)) {
+            return;
+        }
         if (params != null && ! params.isEmpty()) {
             String paramTypes = "";
             for (int ix = 0; ix < params.size(); ix++) {
@@ -531,7 +596,7 @@ public final class ParameterStruct {
      * @throws ParserException
      */
     public static ParamType classifyDataType (String strValue) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".classifyDataType: ";
         
         if (strValue == null) {
             throw new ParserException(functionId + "Null input value");
@@ -632,13 +697,15 @@ public final class ParameterStruct {
      *
      */
     public static ParameterStruct verifyArgEntry (ParameterStruct parm, ParamType expType) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".verifyArgEntry: ";
 
         // verify type is correct and entry is not null
         ParameterStruct.ParamType ptype = parm.getParamType();
         boolean bValid = ptype == expType;
         if (! bValid) {
-            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    Param type " + ptype + " when expected: " + expType);
+            if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    Param type " + ptype + " when expected: " + expType);
+            }
         }
 
         // check for other alternate types that are allowed and if entry is not null
@@ -680,15 +747,17 @@ public final class ParameterStruct {
                 bValid = true;
                 break;
             case IntArray:
-                ArrayList<Long> iArray = parm.getIntArray();
+                LongArray iArray = parm.getIntArray();
                 switch (ptype) {
                     case Integer:
                     case Unsigned:
                         Long entry = parm.getIntegerValue();
-                        iArray = new ArrayList<>();
+                        iArray = new LongArray();
                         iArray.add(entry);
                         parm.setIntArray(iArray);
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Param type " + ptype + ": converted from " + expType);
+                        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Param type " + ptype + ": converted from " + expType);
+                        }
                         break;
                     default:
                         break;
@@ -701,24 +770,28 @@ public final class ParameterStruct {
                 break;
             case StrArray:
                 // we will allow IntArray as well and just copy the data into the StrArray as strings
-                ArrayList<String> sArray = parm.getStrArray();
+                StringArray sArray = parm.getStrArray();
                 iArray = parm.getIntArray();
                 switch (ptype) {
                     case String:
                         String entry = parm.getStringValue();
-                        sArray = new ArrayList<>();
+                        sArray = new StringArray();
                         sArray.add(entry);
                         parm.setStrArray(sArray);
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Param type " + ptype + ": converted from " + expType);
+                        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Param type " + ptype + ": converted from " + expType);
+                        }
                         break;
                     case IntArray:
                         if (iArray != null) {
-                            sArray = new ArrayList<>();
+                            sArray = new StringArray(iArray.size());
                             for (int ix = 0; ix < iArray.size(); ix++) {
-                                sArray.add(iArray.get(ix).toString());
+                                sArray.add(Long.toString(iArray.get(ix)));
                             }
                             parm.setStrArray(sArray);
-                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Param type " + ptype + ": converted from " + expType);
+                            if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Param type " + ptype + ": converted from " + expType);
+                            }
                         }
                         break;
                     default:
@@ -736,7 +809,9 @@ public final class ParameterStruct {
         if (! bValid) {
             throw new ParserException(functionId + "Param expected type " + expType + ", was type: " + ptype);
         }
-        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Param type " + ptype + ": " + value);
+        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Param type " + ptype + ": " + value);
+        }
         return parm;
     }
     
@@ -754,19 +829,25 @@ public final class ParameterStruct {
                 if (longParam == 0L || longParam == 1L) {
                     boolParam = longParam != 0L;
                 }
-                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                }
                 break;
             case Unsigned:
                 strParam = longParam.toString();
                 if (longParam == 0L || longParam == 1L) {
                     boolParam = longParam != 0L;
                 }
-                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                }
                 break;
             case Boolean:
                 strParam = boolParam.toString();
                 longParam = (boolParam) ? 1L : 0L;
-                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                }
                 break;
             case String:
                 if (!strParam.isBlank()) {
@@ -792,7 +873,9 @@ public final class ParameterStruct {
                             // keep param as String type and we can't do any conversions
                         }
                     }
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                    if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                    }
                 }
                 break;
             case IntArray:
@@ -803,7 +886,9 @@ public final class ParameterStruct {
                     longParam = intArrayParam.getFirst();
                     strParam = longParam.toString();
                 }
-                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                }
                 break;
             case StrArray:  // String List type
                 if (strArrayParam.isEmpty()) {
@@ -811,7 +896,9 @@ public final class ParameterStruct {
                 } else {
                     strParam = strArrayParam.getFirst();
                 }
-                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, "    - Converted " + paramType + " value: " + strParam);
+                }
                 break;
             default:
                 break;
@@ -16,7 +16,7 @@ import java.util.ArrayList;
  */
 public class ParseOrders {
 
-    private static final String CLASS_NAME = ParseOrders.class.getSimpleName();
+    private static final String CLASS_NAME = "ParseOrders";
 
     private ClipboardReader clipReader;
     
@@ -100,7 +100,7 @@ public class ParseOrders {
      * @return an array of AmazonOrder entries that were extracted from the clip
      */
     public ArrayList<AmazonOrder> parseOrders (AmazonParser.ClipTyp type, String line, Keyword.KeyTyp keyType) {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".parseOrders: ";
 
         boolean bSkipRead = false;
         boolean bDescrFound = false;
@@ -345,7 +345,7 @@ public class ParseOrders {
      * @return true if the keyword was found and executed
      */    
     private boolean parseCommand (Keyword.KeyTyp key, String line, AmazonOrder newOrder) {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".parseCommand: ";
 
         // get the item selection in the order
         AmazonItem itemEntry = newOrder.getLastItem();
@@ -13,7 +13,7 @@ import java.util.ArrayList;
  */
 public class ParseScript {
     
-    private static final String CLASS_NAME = ParseScript.class.getSimpleName();
+    private static final String CLASS_NAME = "ParseScript";
 
     /**
      * verifies that the argument data type is valid for the expected type.
@@ -24,7 +24,7 @@ public class ParseScript {
      * @throws ParserException 
      */
     private static void verifyArgDataType (ParameterStruct.ParamType expType, ParameterStruct arg) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".verifyArgDataType: ";
 
         boolean bValid = true;
         ParameterStruct.ParamType argtype = ParameterStruct.classifyDataType(arg.getStringValue());
@@ -76,7 +76,7 @@ public class ParseScript {
      * @throws ParserException 
      */
     public static void checkMaxArgs (int count, CommandStruct cmdStruct) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkMaxArgs: ";
 
         if (cmdStruct.getParamSize() > count) {
             if (count == 0) {
@@ -96,7 +96,7 @@ public class ParseScript {
      * @throws ParserException 
      */
     public static void checkMinArgs (int count, CommandStruct cmdStruct) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkMinArgs: ";
 
         if (cmdStruct.getParamSize() < count) {
             throw new ParserException(functionId + "Missing arguments for this command. (min = " + count + ", found " + cmdStruct.getParamSize() + ")");
@@ -114,7 +114,7 @@ public class ParseScript {
      * @throws ParserException 
      */    
     public static ParameterStruct.ParamType checkVariableName (int index, ArrayList<ParameterStruct> parmList) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkVariableName: ";
 
         if (parmList == null) {
             throw new ParserException(functionId + "Null parameter list");
@@ -149,7 +149,7 @@ public class ParseScript {
      */    
     public ArrayList<ParameterStruct> checkArgIntOrCalc (int index, ParameterStruct.ParamType vartype,
             ArrayList<ParameterStruct> parmList, String parmString) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkArgIntOrCalc: ";
 
         if (parmList == null) {
             throw new ParserException(functionId + "Null parameter list");
@@ -179,7 +179,7 @@ public class ParseScript {
      * @throws ParserException 
      */    
     public ArrayList<ParameterStruct> checkArgStringOrConcat (int index, ArrayList<ParameterStruct> parmList) throws ParserException {
-         String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+         String functionId = CLASS_NAME + ".checkArgStringOrConcat: ";
 
         if (parmList == null) {
             throw new ParserException(functionId + "Null parameter list");
@@ -205,7 +205,7 @@ public class ParseScript {
      * @throws ParserException 
      */    
     public static void checkArgType (int index, ParameterStruct.ParamType expType, ArrayList<ParameterStruct> parmList) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkArgType: ";
 
         if (parmList == null) {
             throw new ParserException(functionId + "Null parameter list");
@@ -271,7 +271,7 @@ public class ParseScript {
      * 
      * @throws ParserException 
      */    
-    public static ArrayList<String> checkArgTypeStrArray (int index, ArrayList<ParameterStruct> parmList) throws ParserException {
+    public static StringArray checkArgTypeStrArray (int index, ArrayList<ParameterStruct> parmList) throws ParserException {
         checkArgType (index, ParameterStruct.ParamType.StrArray, parmList);
         return parmList.get(index).getStrArray();
     }
@@ -286,7 +286,7 @@ public class ParseScript {
      * 
      * @throws ParserException 
      */    
-    public static ArrayList<Long> checkArgTypeIntArray (int index, ArrayList<ParameterStruct> parmList) throws ParserException {
+    public static LongArray checkArgTypeIntArray (int index, ArrayList<ParameterStruct> parmList) throws ParserException {
         checkArgType (index, ParameterStruct.ParamType.IntArray, parmList);
         return parmList.get(index).getIntArray();
     }
@@ -301,7 +301,7 @@ public class ParseScript {
      * @throws ParserException 
      */    
     public void checkArgFilterValue (int index, ParameterStruct.ParamType vartype, ArrayList<ParameterStruct> parmList) throws ParserException {
-         String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+         String functionId = CLASS_NAME + ".checkArgFilterValue: ";
 
         if (parmList == null) {
             throw new ParserException(functionId + "Null parameter list");
@@ -380,7 +380,7 @@ public class ParseScript {
      * @throws ParserException 
      */
     public static ArrayList<ParameterStruct> packParameters (String line, boolean bParamAssign) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".packParameters: ";
 
         ArrayList<ParameterStruct> params = new ArrayList<>();
         ParameterStruct arg;
@@ -476,7 +476,7 @@ public class ParseScript {
                 if (nextArg.equalsIgnoreCase("TRUE") ||
                     nextArg.equalsIgnoreCase("FALSE")) {
                     paramType = ParameterStruct.ParamType.Boolean;
-                } else {
+                } else if (Utils.isNumericStart(nextArg)) {
                     try {
                         Long longVal = Utils.getLongOrUnsignedValue(nextArg);
                         if (ParameterStruct.isUnsignedInt(longVal))
@@ -523,7 +523,7 @@ public class ParseScript {
      * @return a list of the strings without the + entries
      */
     public ArrayList<ParameterStruct> packStringConcat (ArrayList<ParameterStruct> params, int offset) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".packStringConcat: ";
 
         // start at the end of the list with the last + entry and work backwards.
         // The last  + will be the 2nd to the last entry at params.size() - 2.
@@ -560,7 +560,7 @@ public class ParseScript {
      * @throws ParserException 
      */
     public ArrayList<ParameterStruct> packCalculation (String line, ParameterStruct.ParamType ptype) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".packCalculation: ";
 
         if (ptype == ParameterStruct.ParamType.String) {
             throw new ParserException(functionId + "Assignment command not allowed for type: " + ptype);
@@ -586,7 +586,9 @@ public class ParseScript {
             // the 1st argument of a SET command is the parameter name to assign the value to
             line = line.substring(paramName.length()).strip();
             parm = new ParameterStruct(paramName, ParameterStruct.ParamClass.Reference, ptype);
-            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype + " value: " + paramName);
+            if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype + " value: " + paramName);
+            }
             params.add(parm);
 
             // next entry should be the equality sign (except for Arrays)
@@ -616,7 +618,9 @@ public class ParseScript {
                     // this will pack the "=" sign
                     ParameterStruct.ParamType newParam = ParameterStruct.ParamType.String;
                     parm = new ParameterStruct("=", ParameterStruct.ParamClass.Discrete, newParam);
-                    GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + newParam + " value: =");
+                    if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + newParam + " value: =");
+                    }
                     params.add(parm);
 
                     // if there was an operation preceeding the "=" sign, let's sneek the operation in here
@@ -641,7 +645,9 @@ public class ParseScript {
             } else {
                 // else, numeric type: remaining data is a single Calculation
                 parm = new ParameterStruct(line, ParameterStruct.ParamClass.Calculation, ptype);
-                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype + " value: " + line);
+                if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                    GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype + " value: " + line);
+                }
                 params.add(parm);
             }
         } catch (ParserException exMsg) {
@@ -668,7 +674,7 @@ public class ParseScript {
      * @throws ParserException 
      */
     public ArrayList<ParameterStruct> packComparison (String line) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".packComparison: ";
         
         ArrayList<ParameterStruct> params = new ArrayList<>();
         ParameterStruct parm;
@@ -716,7 +722,9 @@ public class ParseScript {
             pclass1 = (line.startsWith("$") ? ParameterStruct.ParamClass.Reference : ParameterStruct.ParamClass.Discrete);
             ptype1 = ParameterStruct.ParamType.Boolean;
             parm = new ParameterStruct(line, pclass1, ptype1);
-            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype1 + " value: " + line);
+            if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype1 + " value: " + line);
+            }
             params.add(parm);
             
             if (bNot) {
@@ -724,7 +732,9 @@ public class ParseScript {
                 pclass2 = ParameterStruct.ParamClass.Discrete;
                 ptype2 = ParameterStruct.ParamType.String;
                 parm = new ParameterStruct(value, pclass2, ptype2);
-                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype2 + " value: " + value);
+                if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                    GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype2 + " value: " + value);
+                }
                 params.add(parm);
             }
             return params;
@@ -778,17 +788,23 @@ public class ParseScript {
 
         // first add the initial value, which will usually be a Variable or a Discrete value.
         parm = new ParameterStruct(prefix, pclass1, ptype1);
-        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype1 + " value: " + prefix);
+        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype1 + " value: " + prefix);
+        }
         params.add(parm);
         
         // now add the comparison sign
         parm = new ParameterStruct(compSign, ParameterStruct.ParamClass.Discrete, ParameterStruct.ParamType.String);
-        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type String value: " + compSign);
+        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type String value: " + compSign);
+        }
         params.add(parm);
             
         // remaining data is the Calculation, which may be a single value or a complex formula
         parm = new ParameterStruct(line, pclass2, ptype2);
-        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype2 + " value: " + line);
+        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "     packed entry [" + params.size() + "]: type " + ptype2 + " value: " + line);
+        }
         params.add(parm);
 
         return params;
@@ -836,7 +852,7 @@ public class ParseScript {
      * @throws ParserException
      */
     public static String extractQuotedString (String line) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".extractQuotedString: ";
 
         if (line == null || line.isBlank() || line.charAt(0) != '\"') {
             return line;
@@ -28,7 +28,7 @@ import org.xml.sax.SAXException;
  */
 public class PdfReader {
     
-    private static final String CLASS_NAME = PdfReader.class.getSimpleName();
+    private static final String CLASS_NAME = "PdfReader";
 
     private static File pdfFile = null;
     private static ArrayList<String> contents = new ArrayList<>();  // the contents of the pdf file read
@@ -98,35 +98,46 @@ public class PdfReader {
 
         // Create a file in local directory
         File f = new File(pdfFile.getAbsolutePath());
-
-        // Create a file input stream on specified path with the created file
-        FileInputStream fstream = new FileInputStream(f);
-
-        // Create an object of type Metadata to use
-        Metadata data = new Metadata();
-
-        // Create a context parser for the pdf document
-        ParseContext context = new ParseContext();
-
-        // PDF document can be parsed using the PDFparser class
-        PDFParser pdfparser = new PDFParser();
-
-        // Create a content handler
-        BodyContentHandler contenthandler = new BodyContentHandler();
-
-        // Method parse invoked on PDFParser class
-        pdfparser.parse(fstream, contenthandler, data, context);
-
-        // now load the data into an array for processing
-        try (
-            // Read the contents of the PDF file line at a time
-            Scanner scanner = new Scanner(contenthandler.toString())) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if (! line.isBlank()) {
-                    contents.add(line);
+        FlightEvents.DocumentEvent event = new FlightEvents.DocumentEvent();
+        event.begin();
+        try {
+            // Create a file input stream on specified path with the created file
+            FileInputStream fstream = new FileInputStream(f);
+
+            // Create an object of type Metadata to use
+            Metadata data = new Metadata();
+
+            // Create a context parser for the pdf document
+            ParseContext context = new ParseContext();
+
+            // PDF document can be parsed using the PDFparser class
+            PDFParser pdfparser = new PDFParser();
+
+            // Create a content handler
+            BodyContentHandler contenthandler = new BodyContentHandler();
+
+            // Method parse invoked on PDFParser class
+            pdfparser.parse(fstream, contenthandler, data, context);
+
+            // now load the data into an array for processing
+            try (
+                // Read the contents of the PDF file line at a time
+                Scanner scanner = new Scanner(contenthandler.toString())) {
+                while (scanner.hasNextLine()) {
+                    String line = scanner.nextLine();
+                    if (! line.isBlank()) {
+                        contents.add(line);
+                    }
                 }
             }
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.reader = "PDF";
+                event.file   = f.getAbsolutePath();
+                event.bytes  = f.length();
+                event.commit();
+            }
         }
     }
 
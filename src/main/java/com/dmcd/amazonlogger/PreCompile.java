@@ -5,9 +5,6 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import org.apache.tika.exception.TikaException;
@@ -19,12 +16,18 @@ import org.xml.sax.SAXException;
  */
 public class PreCompile {
     
-    private static final String CLASS_NAME = PreCompile.class.getSimpleName();
+    private static final String CLASS_NAME = "PreCompile";
+    
+    private static int lineCount = 0;   // number of lines in the last script pre-compiled
+    
+    private boolean bStartupDone = false;   // true if the STARTUP section has been run
+    private final ArrayList<String> startupInputs = new ArrayList<>();  // resolved values used by the STARTUP commands
 
     
+    // (the static entities are initialized by build, so the incremental compile
+    //  and the compiled script cache can use the ones from the last compile)
     public PreCompile() {
         Variables variables = new Variables();
-        init();
     }
     
     /**
@@ -39,67 +42,162 @@ public class PreCompile {
         IFStruct.init();
     }
     
+    /**
+     * runs the commands in the STARTUP section of the script.
+     * This sets up the paths and the log file before the script is compiled,
+     *  so they are known when checking for a compiled copy of the script.
+     * The STARTUP section must be the first command in the script, so this
+     *  stops at the first command that is not in it.
+     * 
+     * @param source - the script file lines
+     * 
+     * @throws ParserException
+     */
+    public void runStartup (ScriptSource source) throws ParserException {
+        String functionId = CLASS_NAME + ".runStartup: ";
+        String lineInfo = "";
+        String line = "";
+        boolean bEnableSetup = false;
+
+        bStartupDone = true;
+        startupInputs.clear();
+        for (ScriptSource.ScriptLine entry : source.getLines()) {
+            try {
+                line = entry.getLine();
+                lineInfo = "LINE " + entry.getLineNum() + ": ";
+                CommandStruct.CommandTable command = entry.getCommand();
+                if (command == null) {
+                    continue; // ignore any command line option type commands
+                }
+                if (CommandStruct.CommandTable.STARTUP == command && ! bEnableSetup) {
+                    bEnableSetup = true;
+                    GUILogPanel.outputInfoMsg(MsgType.COMPILE, lineInfo + command + " - Begining STARTUP code");
+                    continue;
+                }
+                if (! bEnableSetup) {
+                    return;
+                }
+                if (CommandStruct.CommandTable.ENDSTARTUP == command) {
+                    GUILogPanel.outputInfoMsg(MsgType.COMPILE, lineInfo + command + " - Ending STARTUP code");
+                    return;
+                }
+
+                // THESE ARE THE COMMANDS THAT CAN BE PROCESSED IN STARTUP MODE
+                // get the parameters to be passed
+                ArrayList<ParameterStruct> params = packSimple (entry.getParamString());
+                switch (command) {
+                    case TESTPATH:
+                        CommandStruct.showParams(params);
+                        String path;
+                        if (params.isEmpty()) {
+                            path = System.getProperty("user.dir");
+                            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  set Test path to current running directory: " + path);
+                        } else {
+                            path = ParseScript.checkArgTypeString (0, params);
+                            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  set Test path to: " + path);
+                        }
+                        FileIO.setBaseTestPath(path);
+                        path = FileIO.getCurrentFilePath(); // make sure we have an absolute path
+                        Utils.setDefaultPath(Utils.PathType.Test, path);
+                        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  set Test path to: " + path);
+                        startupInputs.add(command + " " + path);
+                        break;
+                    case LOGFILE:
+                        CommandStruct.showParams(params);
+                        String logname = null;
+                        boolean bAppend = false;
+                        // set the debug filter value
+                        Long dbugEnable = ParseScript.checkArgTypeInteger (0, params);
+                        GUIMain.setMessageFlags(dbugEnable.intValue());
+                        if (params.size() > 2) {
+                            bAppend = ParseScript.checkArgTypeBoolean (1, params);
+                            logname = ParseScript.checkArgTypeString  (2, params);
+                        } else if (params.size() > 1) {
+                            logname = ParseScript.checkArgTypeString  (1, params);
+                        }
+                        if (logname != null) {
+                            logname = subsScriptName(logname);
+                            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  Output messages to file: " + logname);
+                        } else {
+                            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  Output messages to stdout");
+                        }
+                        GUILogPanel.setTestOutputFile(logname, bAppend);
+                        startupInputs.add(command + " " + dbugEnable + " " + bAppend + " " + logname);
+                        break;
+                    default:
+                        throw new ParserException(functionId + lineInfo + "Invalid command in STARTUP section: " + command);
+                }
+            } catch (ParserException exMsg) {
+                String errMsg = exMsg + "\n  -> " + functionId + lineInfo + line;
+                if (AmazonReader.isRunModeCompileOnly()) {
+                    // if only running compiler, just log the messages but don't exit
+                    GUILogPanel.outputInfoMsg(MsgType.ERROR, errMsg);
+                } else {
+                    throw new ParserException(errMsg);
+                }
+            }
+        }
+    }
+
+    /**
+     * returns the resolved values that were used by the STARTUP commands.
+     * 
+     * @return a list having an entry for each STARTUP command that was run
+     */
+    public ArrayList<String> getStartupInputs () {
+        return startupInputs;
+    }
+
     /**
      * compiles the external script file (when -f option used) into a series of
      * CommandStruct entities to execute.
+     * This pass only handles the STARTUP section, the allocations and the
+     *  subroutine definitions, so the parameters are only parsed for those.
+     *  The STARTUP section is run first (see runStartup), if it wasn't already.
      * 
-     * @param scriptFile - the script file
+     * @param source - the script file lines
      * 
      * @throws ParserException
      * @throws IOException
      * @throws SAXException
      * @throws TikaException
      */
-    public void build (File scriptFile) throws ParserException, IOException, SAXException, TikaException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public void build (ScriptSource source) throws ParserException, IOException, SAXException, TikaException {
+        String functionId = CLASS_NAME + ".build: ";
 
-        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Pre-Compiling file: " + scriptFile.getAbsolutePath());
+        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Pre-Compiling file: " + source.getFile().getAbsolutePath());
         String lineInfo = "";
 
-        // open the file to compile and extract the commands from it
-        FileReader fReader = new FileReader(scriptFile);
-        BufferedReader fileReader = new BufferedReader(fReader);
-
         // access the Subroutine class to define them
         Subroutine subs = new Subroutine();
 
+        // run the STARTUP section first, if it hasn't already been done
+        if (! bStartupDone) {
+            runStartup (source);
+        }
+
         // init the static entities
         init();
         
         // read the program and compile into ArrayList 'cmdList'
-        int lineNum = 0;
         int cmdIndex = 0;
-        String line;
+        String line = "";
         boolean bEnableSetup = false;
-        while ((line = fileReader.readLine()) != null) {
+        for (ScriptSource.ScriptLine entry : source.getLines()) {
             try {
-                lineNum++;
-                line = line.strip();
-                if (line.isBlank() || line.charAt(0) == '#') {
-                    continue;
-                }
-
+                int lineNum = entry.getLineNum();
+                line = entry.getLine();
                 lineInfo = "LINE " + lineNum + ": ";
-
-                // first, extract the 1st word as the command keyword
-                String strCmd = line;
-                String parmString = "";
-                int offset = strCmd.indexOf(" ");
-                if (offset > 0) {
-                    strCmd = strCmd.substring(0, offset).strip();
-                    parmString = line.substring(offset).strip();
-                }
+                String parmString = entry.getParamString();
 
                 // we're only handling allocations on this first pass, so that we know all the GLOBALS
                 //  that may be defined in subroutines that are used in another function than may precede it.
-                CommandStruct.CommandTable command = CommandStruct.isValidCommand(strCmd);
+                CommandStruct.CommandTable command = entry.getCommand();
                 if (command == null) {
                     continue; // ignore any command line option type commands
                 }
                 Subroutine.setCurrentIndex(lineNum);
-
-                // get the parameters to be passed
-                ArrayList<ParameterStruct> params = packSimple (parmString);
+                ArrayList<ParameterStruct> params;
 
                 // CHECK FOR STARTUP SECTION (MUST BE FIRST COMMAND EXECUTED)
                 if (CommandStruct.CommandTable.STARTUP == command) {
@@ -109,74 +207,36 @@ public class PreCompile {
                     // THIS ALLOWS A SECTION TO BE CREATED THAT IS ONLY RUN DURING PRE-COMPILE,
                     // AND SHOULD ONLY INVOLVE COMMAND OPTIONS THAT WILL SET UP PATHS, ETC.
                     bEnableSetup = true;
-                    GUILogPanel.outputInfoMsg(MsgType.COMPILE, lineInfo + command + " - Begining STARTUP code");
                     cmdIndex++;
                     continue;
                 }
 
                 // THESE ARE THE COMMANDS THAT CAN BE PROCESSED IN STARTUP MODE
                 if (bEnableSetup) {
-                    switch (command) {
-                        case ENDSTARTUP:
-                            bEnableSetup = false;
-                            GUILogPanel.outputInfoMsg(MsgType.COMPILE, lineInfo + command + " - Ending STARTUP code");
-                            break;
-                        case TESTPATH:
-                            CommandStruct.showParams(params);
-                            String path;
-                            if (params.isEmpty()) {
-                                path = System.getProperty("user.dir");
-                                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  set Test path to current running directory: " + path);
-                            } else {
-                                path = ParseScript.checkArgTypeString (0, params);
-                                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  set Test path to: " + path);
-                            }
-                            FileIO.setBaseTestPath(path);
-                            path = FileIO.getCurrentFilePath(); // make sure we have an absolute path
-                            Utils.setDefaultPath(Utils.PathType.Test, path);
-                            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  set Test path to: " + path);
-                            break;
-                        case LOGFILE:
-                            CommandStruct.showParams(params);
-                            String logname = null;
-                            boolean bAppend = false;
-                            // set the debug filter value
-                            Long dbugEnable = ParseScript.checkArgTypeInteger (0, params);
-                            GUIMain.setMessageFlags(dbugEnable.intValue());
-                            if (params.size() > 2) {
-                                bAppend = ParseScript.checkArgTypeBoolean (1, params);
-                                logname = ParseScript.checkArgTypeString  (2, params);
-                            } else if (params.size() > 1) {
-                                logname = ParseScript.checkArgTypeString  (1, params);
-                            }
-                            if (logname != null) {
-                                logname = subsScriptName(logname);
-                                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  Output messages to file: " + logname);
-                            } else {
-                                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "  Output messages to stdout");
-                            }
-                            GUILogPanel.setTestOutputFile(logname, bAppend);
-                            break;
-                        default:
-                            throw new ParserException(functionId + lineInfo + "Invalid command in STARTUP section: " + command);
+                    // the STARTUP commands have already been run
+                    if (command == CommandStruct.CommandTable.ENDSTARTUP) {
+                        bEnableSetup = false;
                     }
                 }
                 else {
                     // we're only handling allocations and subroutine definitions on this first pass, so that
                     //  we will know all the GLOBALS and subroutine names that may be referenced in
                     //  other code locations that are not sequentail in the script.
-                    GUILogPanel.outputInfoMsg(MsgType.COMPILE, lineInfo + command + " " + parmString);
+                    if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                        GUILogPanel.outputInfoMsg(MsgType.COMPILE, lineInfo + command + " " + parmString);
+                    }
                     switch (command) {
                         case ALLOCATE:
                             // must be a Data Type followed by a List of Variable name entries
+                            params = packSimple (parmString);
                             CommandStruct.showParams(params);
                             String access   = ParseScript.checkArgTypeString (0, params);
                             String dataType = ParseScript.checkArgTypeString (1, params);
-                            ArrayList<String> strArray = ParseScript.checkArgTypeStrArray (2, params);
+                            StringArray strArray = ParseScript.checkArgTypeStrArray (2, params);
                             // if a single entry was made instead of list enclosed in braces, the entry
                             // will be in the String section, so copy it over from there
                             if (strArray == null) {
-                                strArray = new ArrayList<>();
+                                strArray = new StringArray();
                             }
                             if (strArray.isEmpty()) {
                                 strArray.add(params.get(2).getStringValue());
@@ -206,6 +266,7 @@ public class PreCompile {
                             break;
                         case SUB:
                             // verify 1 String argument: name of subroutine
+                            params = packSimple (parmString);
                             if (params.isEmpty()) {
                                 throw new ParserException(functionId + "Missing argument");
                             }
@@ -233,7 +294,16 @@ public class PreCompile {
             }
         }  // end of while loop
 
-        fileReader.close();
+        lineCount = source.getLineCount();
+    }
+
+    /**
+     * gets the number of lines in the script that was pre-compiled.
+     * 
+     * @return the number of script lines
+     */
+    public static int getLineCount () {
+        return lineCount;
     }
 
     /**
@@ -285,7 +355,7 @@ public class PreCompile {
      * @throws ParserException 
      */
     private static ArrayList<ParameterStruct> packSimple (String line) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".packSimple: ";
 
         ArrayList<ParameterStruct> params = new ArrayList<>();
         ParameterStruct arg;
@@ -352,7 +422,7 @@ public class PreCompile {
                 if (nextArg.equalsIgnoreCase("TRUE") ||
                     nextArg.equalsIgnoreCase("FALSE")) {
                     paramType = ParameterStruct.ParamType.Boolean;
-                } else {
+                } else if (Utils.isNumericStart(nextArg)) {
                     try {
                         Long longVal = Utils.getLongOrUnsignedValue(nextArg);
                         if (ParameterStruct.isUnsignedInt(longVal))
@@ -0,0 +1,233 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Stack;
+
+/**
+ * This collects the execution statistics for each command of the script.
+ *
+ * When enabled, the time taken to run each command is measured and saved per
+ *  command index, along with the number of times it was run and an estimate of
+ *  the memory it allocated. The self time is the time spent in the command
+ *  itself. The total time is the same as the self time except for a GOSUB,
+ *  where it includes all the time spent in the subroutine until it returned.
+ *
+ * The statistics are reported sorted by the self time, showing the script line
+ *  number and subroutine name of each command. This is output at the end of the
+ *  script when run with the -profile option, and is sent to the network client
+ *  with the PROFILE command.
+ *
+ * @author dan
+ */
+public class Profiler {
+
+    private static final String CLASS_NAME = "Profiler";
+
+    private static volatile boolean bEnabled = false;
+
+    // the statistics for each command index
+    private static long[]   count      = new long[0];   // number of times the command was run
+    private static long[]   totalTime  = new long[0];   // total time in nsec (including subroutine calls)
+    private static long[]   selfTime   = new long[0];   // time in nsec spent in the command itself
+    private static long[]   allocBytes = new long[0];   // estimated bytes allocated by the command
+    private static int[]    activeCalls = new int[0];   // number of calls from the command that haven't returned
+    private static String[] subNames   = new String[0]; // the subroutine the command is in
+
+    // the GOSUB calls that haven't returned yet
+    private static final Stack<CallFrame> callStack = new Stack<>();
+
+    // the info saved at the start of the current command
+    private static long     startTime;
+    private static long     startAlloc;
+    private static int      startLevel;
+
+    // used for reading the memory allocated by the script thread (null if not supported)
+    private static final com.sun.management.ThreadMXBean allocBean = getAllocBean();
+
+    /**
+     * this defines a GOSUB command that is waiting for its subroutine to return.
+     */
+    private static class CallFrame {
+        final int   cmdIndex;   // command index of the GOSUB
+        final long  start;      // time the GOSUB began
+
+        CallFrame (int cmdIndex, long start) {
+            this.cmdIndex = cmdIndex;
+            this.start    = start;
+        }
+    }
+
+    /**
+     * enables or disables the collection of statistics.
+     *
+     * @param enable - true to enable
+     */
+    public static void setEnable (boolean enable) {
+        bEnabled = enable;
+    }
+
+    /**
+     * indicates if statistics are being collected.
+     *
+     * @return true if enabled
+     */
+    public static boolean isEnabled () {
+        return bEnabled;
+    }
+
+    /**
+     * sets up the statistics for a newly compiled script.
+     *
+     * @param size - the number of commands in the compiled script
+     */
+    public static void init (int size) {
+        count       = new long[size];
+        totalTime   = new long[size];
+        selfTime    = new long[size];
+        allocBytes  = new long[size];
+        activeCalls = new int[size];
+        subNames    = new String[size];
+        callStack.clear();
+    }
+
+    /**
+     * clears the statistics.
+     * This is called when the script is reset to run from the begining.
+     */
+    public static void reset () {
+        init (count.length);
+    }
+
+    /**
+     * saves the starting info for a command about to be run.
+     *
+     * @param cmdIndex - the command index
+     */
+    public static void begin (int cmdIndex) {
+        if (cmdIndex < subNames.length && subNames[cmdIndex] == null) {
+            subNames[cmdIndex] = Subroutine.getSubName();
+        }
+        startLevel = Subroutine.getSubroutineLevel();
+        startAlloc = getAllocated();
+        startTime  = System.nanoTime();
+    }
+
+    /**
+     * updates the statistics for the command that was just run.
+     *
+     * @param cmdIndex - the command index
+     */
+    public static void end (int cmdIndex) {
+        long now = System.nanoTime();
+        long alloc = getAllocated();
+        if (cmdIndex >= count.length) {
+            return;
+        }
+        long self = now - startTime;
+        count[cmdIndex]++;
+        selfTime[cmdIndex] += self;
+        allocBytes[cmdIndex] += alloc - startAlloc;
+
+        int level = Subroutine.getSubroutineLevel();
+        if (level > startLevel) {
+            // a subroutine was called - its total time is added when it returns
+            callStack.push(new CallFrame(cmdIndex, startTime));
+            activeCalls[cmdIndex]++;
+        } else {
+            totalTime[cmdIndex] += self;
+            for ( ; level < startLevel && ! callStack.isEmpty(); startLevel--) {
+                endCall (callStack.pop(), now);
+            }
+        }
+    }
+
+    /**
+     * completes the total time for any subroutine calls that did not return.
+     * This is called when the script has terminated.
+     */
+    public static void finish () {
+        long now = System.nanoTime();
+        while (! callStack.isEmpty()) {
+            endCall (callStack.pop(), now);
+        }
+    }
+
+    private static void endCall (CallFrame frame, long now) {
+        // for recursive calls, only the outermost call is counted
+        if (activeCalls[frame.cmdIndex] > 0 && --activeCalls[frame.cmdIndex] == 0) {
+            totalTime[frame.cmdIndex] += now - frame.start;
+        }
+    }
+
+    /**
+     * generates the report of the statistics.
+     * The commands are sorted with the largest self time first.
+     * If requested while the script is running, the values are approximate.
+     *
+     * @return the lines of the report
+     */
+    public static ArrayList<String> getReport () {
+        long[]   cmdCount = count;
+        long[]   cmdTotal = totalTime;
+        long[]   cmdSelf  = selfTime;
+        long[]   cmdAlloc = allocBytes;
+        String[] cmdSub   = subNames;
+
+        ArrayList<Integer> list = new ArrayList<>();
+        long selfSum = 0;
+        for (int ix = 0; ix < cmdCount.length; ix++) {
+            if (cmdCount[ix] > 0) {
+                list.add(ix);
+                selfSum += cmdSelf[ix];
+            }
+        }
+        list.sort((a, b) -> Long.compare(cmdSelf[b], cmdSelf[a]));
+
+        ArrayList<String> report = new ArrayList<>();
+        report.add(String.format("Profile: %d commands run, %.3f msec total", list.size(), selfSum / 1000000.0));
+        report.add(String.format("%6s %-20s %-10s %10s %12s %12s %7s %12s",
+                "LINE", "SUBROUTINE", "COMMAND", "COUNT", "TOTAL msec", "SELF msec", "SELF %", "ALLOC KB"));
+        for (int ix : list) {
+            CommandStruct cmd = ScriptCompile.getExecCommand(ix);
+            double percent = (selfSum == 0) ? 0.0 : (100.0 * cmdSelf[ix]) / selfSum;
+            report.add(String.format("%6d %-20s %-10s %10d %12.3f %12.3f %6.1f%% %12.1f",
+                    cmd.getLine(), cmdSub[ix], cmd.getCommand(), cmdCount[ix],
+                    cmdTotal[ix] / 1000000.0, cmdSelf[ix] / 1000000.0, percent,
+                    cmdAlloc[ix] / 1024.0));
+        }
+        return report;
+    }
+
+    /**
+     * outputs the statistics report to stdout.
+     */
+    public static void printReport () {
+        GUILogPanel.flushLog();
+        for (String line : getReport()) {
+            System.out.println(line);
+        }
+    }
+
+    private static long getAllocated () {
+        if (allocBean == null) {
+            return 0;
+        }
+        return allocBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocBean () {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+            if (bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+        }
+        return null;
+    }
+
+}
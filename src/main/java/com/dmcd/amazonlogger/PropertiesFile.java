@@ -37,7 +37,7 @@ import java.util.Properties;
  */
 public class PropertiesFile {
 
-    private static final String CLASS_NAME = PropertiesFile.class.getSimpleName();
+    private static final String CLASS_NAME = "PropertiesFile";
 
     // the location of the properties file for this application
     private final static String PROPERTIES_PATH = ".amazonreader/";
@@ -59,8 +59,23 @@ public class PropertiesFile {
         TestFileOut,            // name of the output file to copy test report to
         TestFileAppend,         // 1 to append to test file output, 0 to overwrite it
         Port,                   // TCP port for server to use for communicating with client
+        LogFlushInterval,       // msec between writes of queued log messages (0 to write immediately)
+        MaxLogLines,            // max number of lines to keep in the GUI log display
+        LogMaxSize,             // size of test log file in Kbytes at which it is rotated (0 for no limit)
+        LogMaxAge,              // minutes after which the test log file is rotated (0 for no limit)
+        LogMaxArchives,         // max number of rotated test log files to keep (0 for no limit)
+        LogMicrosec,            // 1 to show the log timestamps in usec, 0 for msec
     };
 
+    /**
+     * returns the directory that the properties file is kept in.
+     * 
+     * @return the properties directory (relative to the current directory)
+     */
+    public static String getPropertiesPath () {
+        return PROPERTIES_PATH;
+    }
+
     /**
      * checks if a string is one of the reserved Property values
      * 
@@ -0,0 +1,163 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This periodically samples the location of the running script.
+ *
+ * Unlike the Profiler, this adds nothing to the execution of each command.
+ *  A background thread wakes up at a fixed interval and, if the script is
+ *  running, reads the current command index and the subroutine call stack.
+ *  The number of samples taken at each location is saved.
+ *
+ * The results are written in the folded stack format used by the flamegraph
+ *  tools, where each line is the call stack (separated by ';') ending with
+ *  the script line, followed by the number of samples. e.g.:
+ *      *MAIN*;SubA;SubB;line 42 FOR 17
+ *
+ * @author dan
+ */
+public class SampleProfiler {
+
+    private static final String CLASS_NAME = "SampleProfiler";
+
+    public  static final int    DEFAULT_INTERVAL = 2;   // default msec between samples
+    private static final String FOLDED_EXTENSION = ".folded";
+
+    private static volatile boolean bActive = false;    // true while the script is running
+    private static volatile boolean bRunning = false;   // true while the sampler is enabled
+    private static Thread   sampleThread = null;
+    private static HashMap<String, long[]> samples = new HashMap<>();
+
+    /**
+     * starts taking samples of the script location.
+     * The samples are only taken while the script is running.
+     *
+     * @param msec - the msec between samples
+     */
+    public static synchronized void start (int msec) {
+        if (sampleThread != null) {
+            return;
+        }
+        long interval = Math.max(msec, 1) * 1000000L;
+        HashMap<String, long[]> counts = new HashMap<>();
+        samples = counts;
+        bRunning = true;
+        sampleThread = new Thread(() -> {
+            while (bRunning) {
+                LockSupport.parkNanos(interval);
+                if (bActive) {
+                    takeSample (counts);
+                }
+            }
+        }, "SampleProfiler");
+        sampleThread.setDaemon(true);
+        sampleThread.start();
+        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "Sampling profiler started: interval " + Math.max(msec, 1) + " msec");
+    }
+
+    /**
+     * stops taking samples and writes the results to a file.
+     * The file is placed in the test path and named for the script, with a
+     *  '.folded' extension.
+     */
+    public static synchronized void stop () {
+        String functionId = CLASS_NAME + ".stop: ";
+
+        if (sampleThread == null) {
+            return;
+        }
+        bRunning = false;
+        LockSupport.unpark(sampleThread);
+        try {
+            sampleThread.join();
+        } catch (InterruptedException ex) {
+            // the samples may just be missing the final one
+        }
+        sampleThread = null;
+
+        String fname = Utils.getDefaultPath(Utils.PathType.Test) + "/" + AmazonReader.getScriptName() + FOLDED_EXTENSION;
+        try {
+            long total = writeFolded (fname);
+            GUILogPanel.outputInfoMsg(MsgType.INFO, "Sampling profiler: " + total + " samples written to " + fname);
+        } catch (IOException ex) {
+            GUILogPanel.outputInfoMsg(MsgType.WARN, functionId + "writing " + fname + ": " + ex);
+        }
+    }
+
+    /**
+     * indicates if the sampling profiler is enabled.
+     *
+     * @return true if enabled
+     */
+    public static boolean isRunning () {
+        return bRunning;
+    }
+
+    /**
+     * indicates whether the script is running, so samples should be taken.
+     * This is set around the loops that execute the script commands, so that
+     *  no samples are taken while the script is paused.
+     *
+     * @param active - true if script is running
+     */
+    public static void setActive (boolean active) {
+        bActive = active;
+    }
+
+    /**
+     * saves a sample of the current script location.
+     * This is only called from the sample thread.
+     *
+     * @param counts - the sample counts for each location
+     */
+    private static void takeSample (HashMap<String, long[]> counts) {
+        int cmdIndex = Subroutine.getCurrentIndex();
+        ArrayList<String> stack = Subroutine.getCallStackNames();
+        StringBuilder key = new StringBuilder(64);
+        for (String name : stack) {
+            key.append(name).append(';');
+        }
+        if (cmdIndex >= 0 && cmdIndex < ScriptCompile.getCompiledSize()) {
+            CommandStruct cmd = ScriptCompile.getExecCommand(cmdIndex);
+            key.append("line ").append(cmd.getLine()).append(' ').append(cmd.getCommand());
+        } else {
+            key.append("line ?");
+        }
+        counts.computeIfAbsent(key.toString(), k -> new long[1])[0]++;
+    }
+
+    /**
+     * writes the samples to a file in folded stack format.
+     *
+     * @param fname - name of the file to write
+     *
+     * @return the total number of samples
+     *
+     * @throws IOException
+     */
+    private static long writeFolded (String fname) throws IOException {
+        long total = 0;
+        TreeMap<String, long[]> sorted = new TreeMap<>(samples);
+        try (PrintWriter out = new PrintWriter(new FileWriter(fname))) {
+            for (Map.Entry<String, long[]> entry : sorted.entrySet()) {
+                out.println(entry.getKey() + " " + entry.getValue()[0]);
+                total += entry.getValue()[0];
+            }
+        }
+        return total;
+    }
+
+}
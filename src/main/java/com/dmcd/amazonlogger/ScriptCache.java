@@ -0,0 +1,245 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+
+/**
+ * This saves the compiled script to a cache file, so it doesn't have to be
+ *  compiled again the next time it is run if it hasn't changed.
+ *
+ * The cache file holds the compiled commands along with the Variable, subroutine,
+ *  loop and IF definitions that were made by the PreCompile and ScriptCompile.
+ *  It is kept in the cache directory of the properties path, with one file for
+ *  each script. The file is keyed by a hash of the script lines, the script path
+ *  and the values used by the STARTUP section (which is always run), as well as
+ *  the build of the program that saved it. If the key doesn't match or the file
+ *  can't be read, the script is compiled as usual and the cache file is replaced.
+ *  Only the types that make up the compiled script are accepted when the file
+ *  is read, so it can't be used to create any other objects.
+ *
+ * The cache can be disabled with the -nocache command line option.
+ *
+ * @author dan
+ */
+public class ScriptCache {
+
+    private static final String CLASS_NAME = "ScriptCache";
+
+    // the cache file format version (change this when the saved contents change)
+    private static final int    CACHE_VERSION = 5;
+    private static final String CACHE_DIR     = "cache/";
+    private static final String CACHE_EXT     = ".cache";
+
+    // the classes allowed in the cache file and the limits on its size
+    private static final String CACHE_FILTER  = "maxdepth=64;maxarray=16777216;maxrefs=16777216;"
+                                              + "com.dmcd.amazonlogger.*;java.lang.*;java.util.*;!*";
+
+    private static boolean bEnabled = true;
+
+    /**
+     * enables or disables the use of the compiled script cache.
+     *
+     * @param enable - true to enable
+     */
+    public static void setEnable (boolean enable) {
+        bEnabled = enable;
+    }
+
+    public static boolean isEnabled () {
+        return bEnabled;
+    }
+
+    /**
+     * generates the key for the compiled copy of the script.
+     * This must be called after the STARTUP section has been run, since the
+     *  paths it sets up and the values it used are part of the key.
+     *
+     * @param source  - the script file lines
+     * @param startup - the resolved values used by the STARTUP commands
+     *
+     * @return the key (null if the cache is disabled)
+     */
+    public static String getKey (ScriptSource source, ArrayList<String> startup) {
+        if (! bEnabled) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            addToKey (digest, "version " + CACHE_VERSION);
+            addToKey (digest, getBuildStamp());
+            addToKey (digest, source.getFile().getAbsolutePath());
+            addToKey (digest, AmazonReader.getScriptName());
+
+            // the path that was set up by the STARTUP section and the values it used
+            addToKey (digest, FileIO.getCurrentFilePath());
+            addToKey (digest, "startup " + startup.size());
+            for (String entry : startup) {
+                addToKey (digest, entry);
+            }
+
+            // the script contents (the line numbers are saved with the commands)
+            addToKey (digest, "lines " + source.getLineCount());
+            for (ScriptSource.ScriptLine entry : source.getLines()) {
+                addToKey (digest, entry.getLineNum() + ": " + entry.getLine());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException exMsg) {
+            GUILogPanel.outputInfoMsg(MsgType.WARN, "Compiled script cache disabled: " + exMsg.getMessage());
+            bEnabled = false;
+            return null;
+        }
+    }
+
+    /**
+     * loads the compiled script from the cache file.
+     * If it is not loaded, any partially restored entries are cleared so the
+     *  script can be compiled.
+     *
+     * @param source - the script file lines
+     * @param key    - the key for the script (from getKey)
+     *
+     * @return true if the compiled script was loaded
+     */
+    public static boolean load (ScriptSource source, String key) {
+        String functionId = CLASS_NAME + ".load: ";
+
+        if (key == null) {
+            return false;
+        }
+        File file = getCacheFile (source);
+        if (! file.isFile()) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "No compiled script in cache for: " + source.getFile().getName());
+            return false;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            in.setObjectInputFilter(ObjectInputFilter.Config.createFilter(CACHE_FILTER));
+            if (in.readInt() != CACHE_VERSION || ! key.equals(in.readObject())) {
+                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Compiled script in cache is out of date: " + file.getPath());
+                return false;
+            }
+            int cmdCount = in.readInt();
+
+            // clear everything that the pre-compile would have, since it is skipped
+            //  when the compiled script is loaded
+            PreCompile.init();
+            ScriptCompile.loadState(in);
+            VarSlots.loadState(in);
+            VarGlobal.loadState(in);
+            VarLocal.loadState(in);
+            Subroutine.loadState(in);
+            LoopParam.loadState(in);
+            IFStruct.loadState(in);
+            VarFrames.loadState(in);
+
+            // verify we got the whole program
+            if (ScriptCompile.getCompiledSize() != cmdCount) {
+                throw new IOException(functionId + "Command count " + ScriptCompile.getCompiledSize() + " does not match " + cmdCount);
+            }
+            ScriptCompile.setCompiledSource(source);
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Loaded compiled script from cache: " + file.getPath() + " (" + cmdCount + " commands)");
+            return true;
+        } catch (IOException | ClassNotFoundException | ClassCastException exMsg) {
+            GUILogPanel.outputInfoMsg(MsgType.WARN, "Compiled script cache not used: " + exMsg);
+            PreCompile.init();
+            file.delete();
+            return false;
+        }
+    }
+
+    /**
+     * saves the compiled script to the cache file.
+     * The file is written to a temporary file first, so an incomplete file is
+     *  never left in the cache.
+     *
+     * @param source - the script file lines
+     * @param key    - the key for the script (from getKey)
+     */
+    public static void save (ScriptSource source, String key) {
+        if (key == null) {
+            return;
+        }
+        File file = getCacheFile (source);
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(CACHE_VERSION);
+                out.writeObject(key);
+                out.writeInt(ScriptCompile.getCompiledSize());
+                ScriptCompile.saveState(out);
+                VarSlots.saveState(out);
+                VarGlobal.saveState(out);
+                VarLocal.saveState(out);
+                Subroutine.saveState(out);
+                LoopParam.saveState(out);
+                IFStruct.saveState(out);
+                VarFrames.saveState(out);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Saved compiled script to cache: " + file.getPath());
+        } catch (IOException exMsg) {
+            GUILogPanel.outputInfoMsg(MsgType.WARN, "Compiled script not saved to cache: " + exMsg);
+            temp.delete();
+        }
+    }
+
+    /**
+     * returns the cache file for the script.
+     * Each script has its own file, which is named from the script name and
+     *  a hash of its path, so scripts with the same name don't share it.
+     *
+     * @param source - the script file lines
+     *
+     * @return the cache file
+     */
+    private static File getCacheFile (ScriptSource source) {
+        String path = source.getFile().getAbsolutePath();
+        String pathHash = String.format("%08x", path.hashCode());
+        return new File(PropertiesFile.getPropertiesPath() + CACHE_DIR + AmazonReader.getScriptName() + "-" + pathHash + CACHE_EXT);
+    }
+
+    /**
+     * returns an identifier of the build of the program.
+     * This is the location and time stamp of the compiled ScriptCompile class,
+     *  so a cache file saved by a different build of the compiler is not used.
+     *
+     * @return the build identifier
+     */
+    private static String getBuildStamp () {
+        try {
+            URL url = ScriptCompile.class.getResource("ScriptCompile.class");
+            if (url != null) {
+                return url + " " + url.openConnection().getLastModified();
+            }
+        } catch (IOException exMsg) {
+            // just use the version number
+        }
+        return "";
+    }
+
+    private static void addToKey (MessageDigest digest, String entry) {
+        digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+}
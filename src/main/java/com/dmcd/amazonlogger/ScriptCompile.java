@@ -5,11 +5,12 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  *
@@ -17,7 +18,7 @@ import java.util.ArrayList;
  */
 public class ScriptCompile {
     
-    private static final String CLASS_NAME = ScriptCompile.class.getSimpleName();
+    private static final String CLASS_NAME = "ScriptCompile";
 
     // this handles the command line options via the RUN command
     private final CmdOptions cmdOptionParser;
@@ -26,13 +27,15 @@ public class ScriptCompile {
     private static ArrayList<CommandStruct> cmdList = null;
     private static int scriptLineLength = 0;
     private static String compiledFilename = "";
+    // the script the current program was compiled from (null if it did not compile cleanly)
+    private static ScriptSource compiledSource = null;
+    private static boolean bCompileErrors = false;
     
     private final ParseScript parseScript = new ParseScript();
 
     ScriptCompile () {
         // create an instance of the command options parser for any RUN commands
         cmdOptionParser = new CmdOptions();
-        lineNumbers = new ArrayList<>();
     }
 
     public static int getMaxLines () {
@@ -105,8 +108,38 @@ public class ScriptCompile {
         return ScriptThread.getEndOfFileID();
     }
 
+    /**
+     * saves the compiled program for the compiled script cache.
+     * 
+     * @param out - the cache file stream
+     * 
+     * @throws IOException
+     */
+    static void saveState (ObjectOutputStream out) throws IOException {
+        out.writeObject(cmdList);
+        out.writeObject(lineNumbers);
+        out.writeInt(scriptLineLength);
+        out.writeObject(compiledFilename);
+    }
+
+    /**
+     * restores the compiled program from the compiled script cache.
+     * 
+     * @param in - the cache file stream
+     * 
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @SuppressWarnings("unchecked")
+    static void loadState (ObjectInputStream in) throws IOException, ClassNotFoundException {
+        cmdList          = (ArrayList<CommandStruct>) in.readObject();
+        lineNumbers      = (ArrayList<Integer>) in.readObject();
+        scriptLineLength = in.readInt();
+        compiledFilename = (String) in.readObject();
+    }
+
     private static void checkNoArgs (CommandStruct.CommandTable command, String strParams) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkNoArgs: ";
 
         if (! strParams.isEmpty()) {
             throw new ParserException(functionId + "command " + command + " should have no arguments: " + strParams);
@@ -116,24 +149,20 @@ public class ScriptCompile {
     /**
      * compiles the external script file into an array of CommandStruct entities to execute.
      * 
-     * @param scriptFile - the script file
+     * @param source - the script file lines
      * 
      * @throws ParserException
      * @throws IOException 
      */
-    public void build (File scriptFile) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public void build (ScriptSource source) throws ParserException, IOException {
+        String functionId = CLASS_NAME + ".build: ";
 
-        compiledFilename = scriptFile.getAbsolutePath();
+        compiledFilename = source.getFile().getAbsolutePath();
         GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Compiling file: " + compiledFilename);
         cmdList = new ArrayList<>();
-        int cmdIndex = 0;
-        String lineInfo = "";
-        CommandStruct cmdStruct;
-
-        // open the file to compile and extract the commands from it
-        FileReader fReader = new FileReader(scriptFile);
-        BufferedReader fileReader = new BufferedReader(fReader);
+        lineNumbers = new ArrayList<>();
+        compiledSource = null;
+        bCompileErrors = false;
 
         // clear out the static Variable values
 //        Variables.initVariables();
@@ -142,34 +171,337 @@ public class ScriptCompile {
         Subroutine subs = new Subroutine();
 
         // read the program and compile into ArrayList 'cmdList'
-        int lineNum = 0;
-        String line;
-        boolean bStartup = false;
-        while ((line = fileReader.readLine()) != null) {
-            try {
-                lineNum++;
-                line = line.strip();
-                // check for comment at end of lines
-                int comment = line.indexOf("##");
-                if (comment > 0) {
-                    line = line.substring(0, comment).strip();
+        compileLines (source.getLines(), subs);
+        checkComplete();
+
+        scriptLineLength = source.getLineCount();
+        
+        // now set the branch targets and do the optimizations on the compiled program
+        setBranchTargets();
+        optimize(0, cmdList.size());
+        compileTemplates(0, cmdList.size());
+        
+        // keep the script for an incremental compile the next time (if it compiled cleanly)
+        if (! bCompileErrors) {
+            compiledSource = source;
+        }
+    }
+
+    /**
+     * compiles the script again, only recompiling the subroutines that have changed.
+     * This is used in network mode, where the script is compiled again after
+     *  each edit made by the client. The script is divided into sections at the
+     *  SUB commands (the 1st section being MAIN) and compared to the script
+     *  the current program was compiled from. The sections that changed are
+     *  compiled, and the commands of the ones that didn't are kept and moved to
+     *  their new command indices and line numbers. The IF, FOR loop and
+     *  subroutine entries that reference the commands are moved with them.
+     * 
+     * This can only be done if the commands handled by the pre-compile (the
+     *  ALLOCATE, SUB, ENDSUB, ENDMAIN and STARTUP commands) have not changed,
+     *  since the Variables and subroutines it defined are kept as well.
+     * 
+     * @param source - the script file lines
+     * 
+     * @return true if compiled, false if the whole script must be compiled
+     * 
+     * @throws ParserException
+     */
+    public boolean buildIncremental (ScriptSource source) throws ParserException {
+        ScriptSource prevSource = compiledSource;
+        if (prevSource == null || cmdList == null ||
+                ! compiledFilename.equals(source.getFile().getAbsolutePath())) {
+            return false;
+        }
+        ArrayList<Section> prevSections = Section.getSections(prevSource);
+        ArrayList<Section> sections = Section.getSections(source);
+        if (sections.isEmpty() || sections.size() != prevSections.size()) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Incremental compile not possible: subroutines were added or removed");
+            return false;
+        }
+        for (int ix = 0; ix < sections.size(); ix++) {
+            if (! sections.get(ix).structure.equals(prevSections.get(ix).structure)) {
+                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Incremental compile not possible: pre-compiled commands changed in section " + ix);
+                return false;
+            }
+        }
+
+        // find the command range of each section in the current program
+        int prevSize = cmdList.size();
+        int[] prevStart = new int[sections.size() + 1];
+        int cmdIx = 0;
+        for (int ix = 0; ix < prevSections.size(); ix++) {
+            prevStart[ix] = cmdIx;
+            int endLine = (ix + 1 < prevSections.size()) ? prevSections.get(ix + 1).getFirstLine() : Integer.MAX_VALUE;
+            while (cmdIx < prevSize && cmdList.get(cmdIx).getLine() < endLine) {
+                cmdIx++;
+            }
+        }
+        prevStart[sections.size()] = prevSize;
+
+        // get the subroutine names from their SUB commands
+        String[] subNames = new String[sections.size()];
+        subNames[0] = Subroutine.getMainName();
+        for (int ix = 1; ix < sections.size(); ix++) {
+            if (prevStart[ix] >= prevSize || cmdList.get(prevStart[ix]).getCommand() != CommandStruct.CommandTable.SUB) {
+                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Incremental compile not possible: SUB command not found for section " + ix);
+                return false;
+            }
+            subNames[ix] = cmdList.get(prevStart[ix]).getParamEntry(0).getStringValue();
+        }
+
+        // determine which sections changed (the others may have only moved to new lines)
+        Integer[] lineDelta = new Integer[sections.size()];
+        int changed = 0;
+        boolean bMoved = false;
+        for (int ix = 0; ix < sections.size(); ix++) {
+            lineDelta[ix] = sections.get(ix).getLineDelta(prevSections.get(ix));
+            if (lineDelta[ix] == null) {
+                changed++;
+            } else if (lineDelta[ix] != 0) {
+                bMoved = true;
+            }
+        }
+        // clear the run state left from running the previous program
+        // (a full compile does this when the pre-compile allocates the Variables again).
+        // This resets the Variable values, the subroutine call stack and frames, and the
+        //  IF and loop stacks, so the new program starts the same as after a full compile.
+        Variables.resetVariables();
+        Subroutine.beginCompile();
+        LoopStruct.resetStack();
+        IFStruct.resetStack();
+        if (changed == 0 && ! bMoved) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Incremental compile: no changes to " + compiledFilename);
+            scriptLineLength = source.getLineCount();
+            compiledSource = source;
+            return true;
+        }
+        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Incremental compile: " + changed + " of " + sections.size() + " sections changed in " + compiledFilename);
+
+        // the program is not valid from here on until it has been rebuilt
+        compiledSource = null;
+        bCompileErrors = false;
+
+        // the subroutine line ranges are used to find the subroutine being compiled
+        for (int ix = 0; ix < sections.size(); ix++) {
+            Section section = sections.get(ix);
+            if (ix == 0) {
+                int endLine = section.findLine(CommandStruct.CommandTable.ENDMAIN);
+                if (endLine >= 0) {
+                    Subroutine.setLineRange(subNames[ix], 0, endLine);
                 }
-                if (line.isBlank() || line.charAt(0) == '#') {
-                    continue;
+            } else {
+                Subroutine.setLineRange(subNames[ix], section.getFirstLine(), section.findLine(CommandStruct.CommandTable.ENDSUB));
+            }
+        }
+
+        // remove the entries for the commands in the sections that changed
+        int[] newIndex = new int[prevSize];
+        for (int ix = 0; ix < prevSize; ix++) {
+            newIndex[ix] = ix;
+        }
+        for (int ix = 0; ix < sections.size(); ix++) {
+            if (lineDelta[ix] == null) {
+                Arrays.fill(newIndex, prevStart[ix], prevStart[ix + 1], -1);
+            }
+        }
+        IFStruct.relocate(newIndex);
+        LoopParam.relocate(newIndex);
+        Subroutine.relocate(newIndex);
+
+        // compile the sections that changed, adding them after the current program
+        Subroutine subs = new Subroutine();
+        int[] compiledStart = new int[sections.size() + 1];
+        int[] compiledEnd   = new int[sections.size() + 1];
+        for (int ix = 0; ix < sections.size(); ix++) {
+            if (lineDelta[ix] == null) {
+                compiledStart[ix] = cmdList.size();
+                compileLines (sections.get(ix).lines, subs);
+                compiledEnd[ix] = cmdList.size();
+            }
+        }
+        checkComplete();
+
+        // now put the sections back in order
+        ArrayList<CommandStruct> newList = new ArrayList<>(cmdList.size());
+        newIndex = new int[cmdList.size()];
+        Arrays.fill(newIndex, -1);
+        for (int ix = 0; ix < sections.size(); ix++) {
+            int first = newList.size();
+            if (lineDelta[ix] == null) {
+                for (cmdIx = compiledStart[ix]; cmdIx < compiledEnd[ix]; cmdIx++) {
+                    newIndex[cmdIx] = newList.size();
+                    newList.add(cmdList.get(cmdIx));
+                }
+                compiledStart[ix] = first;
+                compiledEnd[ix] = newList.size();
+            } else {
+                for (cmdIx = prevStart[ix]; cmdIx < prevStart[ix + 1]; cmdIx++) {
+                    CommandStruct cmdStruct = cmdList.get(cmdIx);
+                    cmdStruct.setLine(cmdStruct.getLine() + lineDelta[ix]);
+                    newIndex[cmdIx] = newList.size();
+                    newList.add(cmdStruct);
+                }
+            }
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - section " + ix + ((lineDelta[ix] == null) ? " compiled" : " kept")
+                                    + ": commands " + first + " to " + (newList.size() - 1));
+        }
+        IFStruct.relocate(newIndex);
+        LoopParam.relocate(newIndex);
+        Subroutine.relocate(newIndex);
+        cmdList = newList;
+        lineNumbers = new ArrayList<>(cmdList.size());
+        for (CommandStruct cmdStruct : cmdList) {
+            lineNumbers.add(cmdStruct.getLine());
+        }
+        scriptLineLength = source.getLineCount();
+
+        // now set the branch targets and do the optimizations on the new commands
+        setBranchTargets();
+        for (int ix = 0; ix < sections.size(); ix++) {
+            if (lineDelta[ix] == null) {
+                optimize(compiledStart[ix], compiledEnd[ix]);
+                compileTemplates(compiledStart[ix], compiledEnd[ix]);
+            }
+        }
+        
+        if (! bCompileErrors) {
+            compiledSource = source;
+        }
+        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Incremental compile: program has " + cmdList.size() + " commands (was " + prevSize + ")");
+        return true;
+    }
+
+    /**
+     * sets the script the current program was compiled from.
+     * This is used when the program was loaded from the compiled script cache,
+     *  so it can be incrementally compiled the next time.
+     * 
+     * @param source - the script file lines
+     */
+    static void setCompiledSource (ScriptSource source) {
+        compiledSource = source;
+    }
+
+    /**
+     * a section of the script, as used by the incremental compile.
+     * The script is divided at each SUB command, so the 1st section is the
+     *  MAIN code and each of the others is a subroutine.
+     */
+    private static class Section {
+        private final List<ScriptSource.ScriptLine> lines;  // the script lines in the section
+        private final String structure; // the lines handled by the pre-compile
+
+        Section (List<ScriptSource.ScriptLine> lines) {
+            this.lines = lines;
+            StringBuilder builder = new StringBuilder();
+            for (ScriptSource.ScriptLine entry : lines) {
+                CommandStruct.CommandTable command = entry.getCommand();
+                if (command != null) {
+                    switch (command) {
+                        case ALLOCATE, SUB, ENDSUB, ENDMAIN, STARTUP, ENDSTARTUP ->
+                            builder.append(entry.getLine()).append('\n');
+                        default -> {  }
+                    }
                 }
+            }
+            this.structure = builder.toString();
+        }
 
+        /**
+         * divides the script into sections at each SUB command.
+         * 
+         * @param source - the script file lines
+         * 
+         * @return the sections of the script
+         */
+        static ArrayList<Section> getSections (ScriptSource source) {
+            ArrayList<Section> sections = new ArrayList<>();
+            List<ScriptSource.ScriptLine> lines = source.getLines();
+            int start = 0;
+            for (int ix = 0; ix < lines.size(); ix++) {
+                if (lines.get(ix).getCommand() == CommandStruct.CommandTable.SUB && ix > start) {
+                    sections.add(new Section(lines.subList(start, ix)));
+                    start = ix;
+                }
+            }
+            if (lines.size() > start) {
+                sections.add(new Section(lines.subList(start, lines.size())));
+            }
+            return sections;
+        }
+
+        int getFirstLine () {
+            return lines.getFirst().getLineNum();
+        }
+
+        /**
+         * finds the line number of the 1st occurrance of a command in the section.
+         * 
+         * @param command - the command to find
+         * 
+         * @return the line number (-1 if not found)
+         */
+        int findLine (CommandStruct.CommandTable command) {
+            for (ScriptSource.ScriptLine entry : lines) {
+                if (entry.getCommand() == command) {
+                    return entry.getLineNum();
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * compares the section to the same section of the previous script.
+         * 
+         * @param prev - the section from the previous script
+         * 
+         * @return the number of lines the section moved (null if it changed)
+         */
+        Integer getLineDelta (Section prev) {
+            if (lines.size() != prev.lines.size()) {
+                return null;
+            }
+            int delta = getFirstLine() - prev.getFirstLine();
+            for (int ix = 0; ix < lines.size(); ix++) {
+                ScriptSource.ScriptLine entry = lines.get(ix);
+                ScriptSource.ScriptLine prevEntry = prev.lines.get(ix);
+                if (! entry.getLine().equals(prevEntry.getLine()) ||
+                        entry.getLineNum() - prevEntry.getLineNum() != delta) {
+                    return null;
+                }
+            }
+            return delta;
+        }
+    }
+
+    /**
+     * compiles a list of script lines and adds the commands to the end of the program.
+     * 
+     * @param lines - the script lines to compile
+     * @param subs  - the Subroutine class to define them
+     * 
+     * @throws ParserException
+     */
+    private void compileLines (List<ScriptSource.ScriptLine> lines, Subroutine subs) throws ParserException {
+        String functionId = CLASS_NAME + ".build: ";
+
+        int cmdIndex = 0;
+        String lineInfo = "";
+        CommandStruct cmdStruct;
+        String line = "";
+        boolean bStartup = false;
+        for (ScriptSource.ScriptLine entry : lines) {
+            try {
+                int lineNum = entry.getLineNum();
+                line = entry.getLine();
                 lineInfo = "LINE " + lineNum + ": ";
                 cmdIndex = cmdList.size(); // the command index
                 Subroutine.setCurrentIndex(lineNum);
 
-                // first, extract the 1st word as the command keyword
-                String strCmd = line;
-                String parmString = "";
-                int offset = strCmd.indexOf(" ");
-                if (offset > 0) {
-                    strCmd = strCmd.substring(0, offset).strip();
-                    parmString = line.substring(offset).strip();
-                }
+                // the line has already been split into the command keyword and its arguments
+                String strCmd = entry.getCommandName();
+                String parmString = entry.getParamString();
                 CommandStruct.CommandTable command;
                 if (line.startsWith("-")) {
                     // if the optional RUN command was omitted from an option command, let's add it here
@@ -181,7 +513,7 @@ public class ScriptCompile {
                     parmString = line;
                 } else {
                     // next, check if it is a standard program command
-                    command = CommandStruct.isValidCommand(strCmd);
+                    command = entry.getCommand();
                     if (command == null) {
                         // lastly, check for variable names in the case of an assignment statement
                         VarExtract parmInfo = new VarExtract(line);
@@ -225,7 +557,9 @@ public class ScriptCompile {
                 }
                 
                 // extract the arguments to pass to the command
-                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "PROGIX [" + cmdIndex + "] (line " + lineNum + "): " + command + " " + parmString);
+                if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                    GUILogPanel.outputInfoMsg(MsgType.COMPILE, "PROGIX [" + cmdIndex + "] (line " + lineNum + "): " + command + " " + parmString);
+                }
                 boolean bParamAssign = (CommandStruct.CommandTable.SET == command);
                 ArrayList<ParameterStruct> list = ParseScript.packParameters (parmString, bParamAssign);
                 cmdStruct.setParamList(list);
@@ -473,6 +807,7 @@ public class ScriptCompile {
                                 }
                             }
                         }
+                        compileAssignment (cmdStruct);
                         break;
 
                     // these are the Array-only commands
@@ -555,10 +890,11 @@ public class ScriptCompile {
                         break;
 
                     case FILTER:
-                        // ARGS: 0 = ParamName or RESET, 1 (optional) the filter string
+                        // ARGS: 0 = ParamName or RESET, 1 (optional) the filter string or IntArray comparison,
+                        //       2 (optional) the StrArray filter options or IntArray value to compare to
                         // verify there are the correct number and type of arguments
                         cmdStruct.showParams();
-                        ParseScript.checkMaxArgs(2, cmdStruct);
+                        ParseScript.checkMaxArgs(3, cmdStruct);
                         if (cmdStruct.getParamSize() < 1) {
                             throw new ParserException(functionId + lineInfo + cmdStruct.getCommand() + " command requires at least 1 argument : " + parmString);
                         }
@@ -578,6 +914,7 @@ public class ScriptCompile {
                         // verify number and type of arguments
                         list = parseScript.packComparison (parmString);
                         cmdStruct.setParamList(list);
+                        compileComparison (cmdStruct);
 
                         // read the arguments passed
                         // assumed format is: IF Name1 >= Name2  (where Names can be Integers, Strings or Variables)
@@ -589,7 +926,10 @@ public class ScriptCompile {
                         ifInfo = new IFStruct (cmdIndex, LoopStruct.getStackSize(), sname);
                         IFStruct.ifListPush(ifInfo);
                         IFStruct.stackPush(cmdIndex);
-                        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - new IF level " + IFStruct.getStackSize() + " Variable " + ifName);
+                        cmdStruct.setIfInfo(ifInfo);
+                        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - new IF level " + IFStruct.getStackSize() + " Variable " + ifName);
+                        }
                         break;
                     case ELSE:
                         checkNoArgs(command, parmString);
@@ -602,7 +942,10 @@ public class ScriptCompile {
                             throw new ParserException(functionId + lineInfo + cmdStruct.getCommand() + " was outside subroutine of matching IF statement");
                         }
                         ifInfo.setElseIndex(cmdIndex, false, LoopStruct.getStackSize());
-                        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - IF level " + IFStruct.getStackSize() + " " + cmdStruct.getCommand() + " on line " + cmdIndex);
+                        cmdStruct.setIfInfo(ifInfo);
+                        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - IF level " + IFStruct.getStackSize() + " " + cmdStruct.getCommand() + " on line " + cmdIndex);
+                        }
                         break;
                     case ELSEIF:
                         if (IFStruct.isIfStackEnpty()) {
@@ -613,6 +956,7 @@ public class ScriptCompile {
                         // assumed format is: IF Name1 >= Name2  (where Names can be Integers, Strings or Variables)
                         list = parseScript.packComparison (parmString);
                         cmdStruct.setParamList(list);
+                        compileComparison (cmdStruct);
                         ifName = cmdStruct.getParamEntry(0).getStringValue();
 
                         // save the current command index in the current if structure
@@ -621,7 +965,10 @@ public class ScriptCompile {
                             throw new ParserException(functionId + lineInfo + cmdStruct.getCommand() + " was outside subroutine of matching IF statement");
                         }
                         ifInfo.setElseIndex(cmdIndex, true, LoopStruct.getStackSize());
-                        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - IF level " + IFStruct.getStackSize() + " " + cmdStruct.getCommand() + " on line " + cmdIndex + " Variable " + ifName);
+                        cmdStruct.setIfInfo(ifInfo);
+                        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - IF level " + IFStruct.getStackSize() + " " + cmdStruct.getCommand() + " on line " + cmdIndex + " Variable " + ifName);
+                        }
                         break;
                     case ENDIF:
                         checkNoArgs(command, parmString);
@@ -634,8 +981,11 @@ public class ScriptCompile {
                             throw new ParserException(functionId + lineInfo + cmdStruct.getCommand() + " was outside subroutine of matching IF statement");
                         }
                         ifInfo.setEndIfIndex(cmdIndex, LoopStruct.getStackSize());
+                        cmdStruct.setIfInfo(ifInfo);
                         IFStruct.stackPop();
-                        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - IF level " + IFStruct.getStackSize() + " " + cmdStruct.getCommand() + " on line " + cmdIndex);
+                        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - IF level " + IFStruct.getStackSize() + " " + cmdStruct.getCommand() + " on line " + cmdIndex);
+                        }
                         break;
                     case FOR:
                         // assumed format is: FOR VarName [=] StartIx TO EndIx [STEP StepVal]
@@ -657,10 +1007,13 @@ public class ScriptCompile {
                             try {
                                 LoopStruct loopInfo = new LoopStruct (maxLoops, cmdIndex, IFStruct.getStackSize());
                                 LoopParam.saveLoopParameter (loopInfo);
+                                cmdStruct.setLoopInfo(loopInfo);
                                 String newLoopName = loopInfo.getLoopName(); // the name gets changed to make it unique from user defined names
                                 nameParam.setStringValue(newLoopName);
-                                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - new FOR EVER Loop level " + LoopStruct.getStackSize() +
-                                        " " + newLoopName + " index @ " + cmdIndex);
+                                if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                                    GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - new FOR EVER Loop level " + LoopStruct.getStackSize() +
+                                            " " + newLoopName + " index @ " + cmdIndex);
+                                }
                             } catch (ParserException exMsg) {
                                 Utils.throwAddendum (exMsg.getMessage(), functionId + lineInfo + "command " + cmdStruct.getCommand());
                             }
@@ -709,10 +1062,13 @@ public class ScriptCompile {
                                 LoopStruct loopInfo = new LoopStruct (loopName, loopStart, loopEnd, loopStep,
                                                 bInclEnd, cmdIndex, IFStruct.getStackSize());
                                 LoopParam.saveLoopParameter (loopInfo);
+                                cmdStruct.setLoopInfo(loopInfo);
                             } catch (ParserException exMsg) {
                                 Utils.throwAddendum (exMsg.getMessage(), functionId + lineInfo + "command " + cmdStruct.getCommand());
                             }
-                            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - new FOR Loop level " + LoopStruct.getStackSize() + " Variable " + loopName + " index @ " + cmdIndex);
+                            if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - new FOR Loop level " + LoopStruct.getStackSize() + " Variable " + loopName + " index @ " + cmdIndex);
+                            }
                         }
                         break;
                     case BREAK:
@@ -721,6 +1077,7 @@ public class ScriptCompile {
                         if (LoopStruct.getStackSize() == 0) {
                             throw new ParserException(functionId + lineInfo + cmdStruct.getCommand() + " received when not in a FOR loop");
                         }
+                        cmdStruct.setLoopInfo(LoopParam.getLoopStruct(LoopStruct.peekStack()));
                         break;
                     case SKIP:
                         checkNoArgs(command, parmString);
@@ -728,24 +1085,29 @@ public class ScriptCompile {
                         if (LoopStruct.getStackSize() == 0) {
                             throw new ParserException(functionId + lineInfo + cmdStruct.getCommand() + " received when not in a FOR loop");
                         }
+                        cmdStruct.setLoopInfo(LoopParam.getLoopStruct(LoopStruct.peekStack()));
                         break;
                     case BREAKIF:
                         // verify number and type of arguments
                         list = parseScript.packComparison (parmString);
                         cmdStruct.setParamList(list);
+                        compileComparison (cmdStruct);
                         // make sure we are in a FOR ... NEXT loop
                         if (LoopStruct.getStackSize() == 0) {
                             throw new ParserException(functionId + lineInfo + cmdStruct.getCommand() + " received when not in a FOR loop");
                         }
+                        cmdStruct.setLoopInfo(LoopParam.getLoopStruct(LoopStruct.peekStack()));
                         break;
                     case SKIPIF:
                         // verify number and type of arguments
                         list = parseScript.packComparison (parmString);
                         cmdStruct.setParamList(list);
+                        compileComparison (cmdStruct);
                         // make sure we are in a FOR ... NEXT loop
                         if (LoopStruct.getStackSize() == 0) {
                             throw new ParserException(functionId + lineInfo + cmdStruct.getCommand() + " received when not in a FOR loop");
                         }
+                        cmdStruct.setLoopInfo(LoopParam.getLoopStruct(LoopStruct.peekStack()));
                         break;
                     case NEXT:
                         checkNoArgs(command, parmString);
@@ -755,10 +1117,15 @@ public class ScriptCompile {
                         }
                         
                         // add a token ENDFOR command following the NEXT, so we have a location to go to on exiting loop
+                        LoopStruct nextLoop = LoopParam.getLoopStruct(LoopStruct.peekStack());
+                        cmdStruct.setLoopInfo(nextLoop);
                         lineNumbers.add(lineNum);
                         cmdList.add(cmdStruct); // place the NEXT command here and queue up the ENDFOR command
                         cmdStruct = new CommandStruct(CommandStruct.CommandTable.ENDFOR, lineNum);
-                        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "PROGIX [" + (cmdIndex + 1) + "]: " + cmdStruct.getCommand() + " (added to follow NEXT)");
+                        cmdStruct.setLoopInfo(nextLoop);
+                        if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "PROGIX [" + (cmdIndex + 1) + "]: " + cmdStruct.getCommand() + " (added to follow NEXT)");
+                        }
                         // (this will be added at the end of this switch statement)
 
                         // verify the IF loop level hasn't been exceeded
@@ -797,6 +1164,7 @@ public class ScriptCompile {
                 
             } catch (ParserException exMsg) {
                 GUILogPanel.outputInfoMsg(MsgType.ERROR, exMsg.getMessage());
+                bCompileErrors = true;
                 if (! AmazonReader.isRunModeCompileOnly()) {
                     // if running script after compile, exit after logging msg
                     String newMsg = "  -> " + functionId + lineInfo + "PROGIX[" + cmdIndex + "]: " + line;
@@ -804,6 +1172,15 @@ public class ScriptCompile {
                 }
             }
         }  // end of while loop
+    }
+
+    /**
+     * checks that all the FOR loops, IF statements and subroutines were completed.
+     * 
+     * @throws ParserException
+     */
+    private static void checkComplete () throws ParserException {
+        String functionId = CLASS_NAME + ".build: ";
 
         String errorMsg;
         int loopSize = LoopStruct.getStackSize();
@@ -821,9 +1198,212 @@ public class ScriptCompile {
             errorMsg = exMsg.getMessage();
             compilerError (errorMsg);
         }
+    }
+
+    /**
+     * creates the compiled assignment for a SET command.
+     * This must be done as the command is compiled, since the loop Variables
+     *  it may use are only known while compiling the loop.
+     * 
+     * @param cmdStruct - the command
+     * 
+     * @throws ParserException
+     */
+    private static void compileAssignment (CommandStruct cmdStruct) throws ParserException {
+        CompiledAssignment assign = CompiledAssignment.compile(cmdStruct.getParamList());
+        cmdStruct.setAssign(assign);
+        if (assign != null) {
+            if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - compiled " + assign + " Assignment");
+            }
+        }
+    }
+
+    /**
+     * creates the compiled condition for an IF, ELSEIF, BREAKIF or SKIPIF command.
+     * This must be done as the command is compiled, since the loop Variables
+     *  it may use are only known while compiling the loop.
+     * 
+     * @param cmdStruct - the command
+     * 
+     * @throws ParserException
+     */
+    private static void compileComparison (CommandStruct cmdStruct) throws ParserException {
+        CompiledComparison compare = CompiledComparison.compile(cmdStruct.getParamList());
+        cmdStruct.setCompare(compare);
+        if (compare != null) {
+            if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - compiled " + compare + " Comparison");
+            }
+        }
+    }
+
+    /**
+     * sets the command indices that the IF, ELSE and ELSEIF commands branch to.
+     * These can only be determined after the whole program has been compiled,
+     *  since the ENDIF for an IF is not known until it is found.
+     * This also defines the frames of the subroutines (see VarFrames), giving
+     *  each IF statement and FOR loop its index in the frame of its subroutine,
+     *  and binds the GOSUB commands to the subroutine they call.
+     * 
+     * @throws ParserException
+     */
+    private static void setBranchTargets () throws ParserException {
+        VarFrames.initSubs();
+        VarFrames.SubLocals sub = VarFrames.defineSub(Subroutine.getMainName(), 0);
+        for (int cmdIx = 0; cmdIx < cmdList.size(); cmdIx++) {
+            CommandStruct cmdStruct = cmdList.get(cmdIx);
+            IFStruct ifInfo = cmdStruct.getIfInfo();
+            switch (cmdStruct.getCommand()) {
+                case SUB:
+                    sub = VarFrames.defineSub(cmdStruct.getParamEntry(0).getStringValue(), cmdIx);
+                    break;
+                case IF:
+                    if (ifInfo != null) {
+                        ifInfo.setFrameIndex(sub.addIf());
+                    }
+                    // fall through
+                case ELSE:
+                case ELSEIF:
+                    if (ifInfo != null && ifInfo.isValid()) {
+                        cmdStruct.setBranchIndex(ifInfo.getElseIndex(cmdIx), ifInfo.getEndIndex());
+                    }
+                    break;
+                case FOR:
+                    if (cmdStruct.getLoopInfo() != null) {
+                        cmdStruct.getLoopInfo().setFrameIndex(sub.addLoop());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // the subroutine called by GOSUB is bound if its name is not a Variable reference
+        for (CommandStruct cmdStruct : cmdList) {
+            if (cmdStruct.getCommand() == CommandStruct.CommandTable.GOSUB) {
+                ParameterStruct param = cmdStruct.getParamEntry(0);
+                VarFrames.SubLocals called = null;
+                if (param.getParamClass() == ParameterStruct.ParamClass.Discrete) {
+                    called = VarFrames.getSub(param.getStringValue());
+                }
+                cmdStruct.setSubInfo(called);
+            }
+        }
+    }
+
+    /**
+     * runs the optimizations on the compiled program.
+     * The Calculations have already had their constant values folded when they
+     *  were compiled, so this replaces the references to the Variables that
+     *  don't change after STARTUP with their values. The only one of these
+     *  is the $SCRIPTNAME, which is the same for every command in the script,
+     *  so it is also no longer read on each pass through a FOR loop.
+     * 
+     * @param first - the index of the first command to optimize
+     * @param end   - the index following the last command to optimize
+     */
+    private static void optimize (int first, int end) {
+        String scriptName = AmazonReader.getScriptName();
+        String embedded = "<$" + VarReserved.ReservedVars.SCRIPTNAME + ">";
+        int count = 0;
+        for (int cmdIx = first; cmdIx < end; cmdIx++) {
+            CommandStruct cmdStruct = cmdList.get(cmdIx);
+            for (int ix = 0; ix < cmdStruct.getParamSize(); ix++) {
+                // skip the parameter being assigned to by the SET command
+                if (ix == 0 && cmdStruct.getCommand() == CommandStruct.CommandTable.SET) {
+                    continue;
+                }
+                ParameterStruct param = cmdStruct.getParamEntry(ix);
+                if (param.getParamType() != ParameterStruct.ParamType.String) {
+                    continue;
+                }
+                switch (param.getParamClass()) {
+                    case Discrete:
+                        String strValue = param.getStringValue();
+                        if (strValue != null && strValue.contains(embedded)) {
+                            param.setStringValue(strValue.replace(embedded, scriptName));
+                            count++;
+                        }
+                        break;
+                    case Reference:
+                        VarExtensions varRef = param.getVariableRef();
+                        if (varRef.isPlainName() &&
+                                VarReserved.isReservedName(varRef.getName()) == VarReserved.ReservedVars.SCRIPTNAME) {
+                            cmdStruct.getParamList().set(ix, new ParameterStruct(scriptName));
+                            count++;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        if (count > 0) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Optimize: replaced " + count + " $SCRIPTNAME references with: " + scriptName);
+        }
+    }
 
-        scriptLineLength = lineNum;
-        fileReader.close();
+    /**
+     * splits the discrete String parameters into their literal and embedded
+     *  Variable reference segments.
+     * This is done after the optimizations, since they may have already replaced
+     *  some of the embedded references with their values. The Strings that have
+     *  no references are marked as LITERAL so they are used as is when run.
+     * 
+     * @param first - the index of the first command to compile
+     * @param end   - the index following the last command to compile
+     */
+    private static void compileTemplates (int first, int end) {
+        int count = 0;
+        for (int cmdIx = first; cmdIx < end; cmdIx++) {
+            CommandStruct cmdStruct = cmdList.get(cmdIx);
+            for (int ix = 0; ix < cmdStruct.getParamSize(); ix++) {
+                // skip the parameter being assigned to by the SET command
+                if (ix == 0 && cmdStruct.getCommand() == CommandStruct.CommandTable.SET) {
+                    continue;
+                }
+                ParameterStruct param = cmdStruct.getParamEntry(ix);
+                if (param.getParamType() != ParameterStruct.ParamType.String ||
+                    param.getParamClass() != ParameterStruct.ParamClass.Discrete) {
+                    continue;
+                }
+                StringTemplate template = StringTemplate.compile(param.getStringValue());
+                param.setTemplate(template);
+                if (template.hasReferences()) {
+                    count++;
+                    if (GUILogPanel.isEnabled(MsgType.COMPILE)) {
+                        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "   - compiled String template for cmd " + cmdIx + ": " + template);
+                    }
+                }
+            }
+        }
+        if (count > 0) {
+            GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Optimize: compiled " + count + " Strings with embedded references");
+        }
+    }
+
+    /**
+     * prints the compiled program to standard output.
+     * This is used with the -compile option to show the program as it will be run.
+     */
+    public static void printProgram () {
+        GUILogPanel.flushLog();
+        if (cmdList == null) {
+            return;
+        }
+        for (int cmdIx = 0; cmdIx < cmdList.size(); cmdIx++) {
+            CommandStruct cmdStruct = cmdList.get(cmdIx);
+            String strCommand = cmdStruct.getCommand().toString();
+            String option = cmdStruct.getCmdOption();
+            if (option != null && !option.isEmpty()) {
+                strCommand += " " + option;
+            }
+            System.out.println("PROGIX [" + cmdIx + "] (line " + cmdStruct.getLine() + "): " + strCommand);
+            for (int ix = 0; ix < cmdStruct.getParamSize(); ix++) {
+                System.out.println("        " + cmdStruct.getParamEntry(ix).showParam(ix));
+            }
+        }
     }
 
     /**
@@ -836,6 +1416,7 @@ public class ScriptCompile {
      * @throws ParserException 
      */
     private static void compilerError (String errorMsg) throws ParserException {
+        bCompileErrors = true;
         if (AmazonReader.isRunModeCompileOnly()) {
             GUILogPanel.outputInfoMsg(MsgType.ERROR, errorMsg);
         } else {
@@ -7,7 +7,7 @@ package com.dmcd.amazonlogger;
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import org.apache.tika.exception.TikaException;
 import org.xml.sax.SAXException;
 
@@ -17,7 +17,7 @@ import org.xml.sax.SAXException;
  */
 public class ScriptExecute {
     
-    private static final String CLASS_NAME = ScriptExecute.class.getSimpleName();
+    private static final String CLASS_NAME = "ScriptExecute";
     
     private static String scriptName = "";
     private static int    scriptSize = 0;
@@ -25,14 +25,56 @@ public class ScriptExecute {
     // this handles the command line options via the RUN command
     private final CmdOptions cmdOptionParser;
     
-    // identifies the current loopStack entry.
-    private LoopId curLoopId;
-
+    // the values returned by the command nodes for the next command to run
+    // (any other value is the command index to jump to)
+    private static final int NEXT_COMMAND = -1;     // proceed to the following command
+    private static final int END_PROGRAM  = -2;     // terminate the program
+    
+    private static final String DEBUG_PREFACE = "    ";
+    
+    /**
+     * the interface for the method that runs a command.
+     */
+    @FunctionalInterface
+    private interface CommandNode {
+        /**
+         * runs the command.
+         * 
+         * @param cmdIndex  - index of current command in the CommandStruct list
+         * @param cmdStruct - the command to run (with its parameter values resolved)
+         * 
+         * @return NEXT_COMMAND, END_PROGRAM, or the index of the command to jump to
+         */
+        int run (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException;
+    }
+    
+    // the method to run for each of the commands (indexed by CommandTable ordinal)
+    private final CommandNode[] commandNodes;
+    
+    // the node to run for each command of the compiled program (indexed by command index)
+    // (these are used when the parameter values are not being logged)
+    private final CommandNode[] program;
+    
+    // the execution frames of the commands for this run (indexed by command index)
+    // these hold the resolved parameter values, so the compiled commands are never modified.
+    private CommandStruct[] execFrames;
+    
+    // this is used for starting the subroutines
+    private final Subroutine subroutine = new Subroutine();
     
 
     ScriptExecute (String name, int size) {
         this.cmdOptionParser = new CmdOptions();
-        curLoopId = null;
+        this.commandNodes = new CommandNode[CommandStruct.CommandTable.values().length];
+        for (CommandStruct.CommandTable command : CommandStruct.CommandTable.values()) {
+            this.commandNodes[command.ordinal()] = bindCommand (command);
+        }
+        int compileSize = Math.max(0, ScriptCompile.getCompiledSize());
+        this.program = new CommandNode[compileSize];
+        for (int ix = 0; ix < compileSize; ix++) {
+            this.program[ix] = compileNode (ScriptCompile.getExecCommand(ix));
+        }
+        this.execFrames = new CommandStruct[compileSize];
         scriptName = name;
         scriptSize = size;
         GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Running compiled file: " + scriptName + " (size " + scriptSize + " lines)");
@@ -76,7 +118,7 @@ public class ScriptExecute {
      * @throws ParserException if variable reference name not found
      */
     private static String getArrayAssignment (ParameterStruct parmRef) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getArrayAssignment: ";
 
         String name =  parmRef.getVariableRefName();
         if (name == null) {
@@ -98,7 +140,7 @@ public class ScriptExecute {
      * @throws ParserException 
      */
     private Long getIntegerArg (ParameterStruct parmValue) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getIntegerArg: ";
 
         Long result;
         if (parmValue.isCalculation()) {
@@ -130,6 +172,37 @@ public class ScriptExecute {
         return strValue;
     }
 
+    /**
+     * indicates if the parameter values are being logged.
+     * The compiled conditions are not used in this case, so the log shows the
+     *  same values it does when the condition is run by Comparison.
+     * 
+     * @return true if PROGRAM, DEBUG or VARS messages are enabled
+     */
+    private static boolean isTracing () {
+        return GUILogPanel.isEnabled(MsgType.PROGRAM) || GUILogPanel.isEnabled(MsgType.DEBUG) || GUILogPanel.isEnabled(MsgType.VARS);
+    }
+
+    /**
+     * evaluates the condition of an IF, ELSEIF, BREAKIF or SKIPIF command.
+     * 
+     * @param cmdStruct - the command
+     * @param parm1     - the 1st parameter of the condition
+     * @param parm2     - the 2nd parameter of the condition (null if none)
+     * @param parm3     - the 3rd parameter of the condition (null if none)
+     * 
+     * @return true if the condition is met
+     * 
+     * @throws ParserException 
+     */
+    private boolean getCondition (CommandStruct cmdStruct, ParameterStruct parm1, ParameterStruct parm2, ParameterStruct parm3) throws ParserException {
+        CompiledComparison compare = cmdStruct.getCompare();
+        if (compare != null && ! isTracing()) {
+            return compare.test();
+        }
+        return getComparison(parm1, parm2, parm3);
+    }
+
     private boolean getComparison (ParameterStruct parm1, ParameterStruct parm2, ParameterStruct parm3) throws ParserException {
         Boolean bValue;
         if (parm2 == null) {
@@ -147,11 +220,15 @@ public class ScriptExecute {
     }
 
     /**
-     * replaces an embedded reference value in String parameter with its current value .
+     * replaces the embedded reference values in String parameter with their current values.
+     * The compiled String parameters have already been split into their literal
+     *  and reference segments, so these are just put together here. Strings that
+     *  were created when running the script are split up first.
      * 
      * @param param - the parameter to check
      * 
-     * @return String with the reference string replaced by the its current value
+     * @return String with the reference strings replaced by their current values
+     *          (null if there were no references in it)
      * 
      * @throws ParserException 
      */
@@ -163,46 +240,91 @@ public class ScriptExecute {
             return null;
         }
         // return if we don't see an embedded reference name in the String
-        String strValue = param.getStringValue();
-        int offset = strValue.indexOf("<$");
-        if (offset < 0 || offset >= strValue.length() - 5) {
-            return null;
+        StringTemplate template = param.getTemplate();
+        if (template == null) {
+            template = StringTemplate.compile(param.getStringValue());
         }
-        int offset2 = strValue.substring(offset+2).indexOf(">");
-        if (offset2 < 0) {
+        if (! template.hasReferences()) {
             return null;
         }
         
-        // seperate into pre and post Strings and the variable reference name
-        offset2 += offset + 2;
-        String prefix  = strValue.substring(0, offset);
-        String varname = strValue.substring(offset+2, offset2);
-        String postfix = "";
-        if (offset2 < strValue.length() - 1) {
-            postfix = strValue.substring(offset2 + 1);
+        // return the value with the references replaced
+        String response = template.render();
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Replaced arg value with expanded value: " + response);
         }
-
-        // exit if the variable reference is not valid
-        Variables.checkValidVariable(Variables.VarCheck.REFERENCE, varname);
-        
-        // get the value for the reference
-        ParameterStruct arg = new ParameterStruct (varname,
-                ParameterStruct.ParamClass.Reference, ParameterStruct.ParamType.String);
-        arg.updateFromReference();
-        String refval = arg.getStringValue();
-        
-        // return the value with the pre and post values attached
-        String response = prefix + refval + postfix;
-        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, "    Replaced arg value with expanded value: " + response);
         return response;
     }
 
+    /**
+     * returns the execution frame of a command for this run.
+     * The frame is created the first time the command is run and is then reused,
+     *  so running a command does not allocate a new copy of it each time.
+     *
+     * @param cmdIndex - index of the command in the CommandStruct list
+     * @param compiled - the compiled command
+     *
+     * @return the execution frame of the command
+     */
+    private CommandStruct getExecFrame (int cmdIndex, CommandStruct compiled) {
+        if (cmdIndex >= execFrames.length) {
+            execFrames = Arrays.copyOf(execFrames, Math.max(cmdIndex + 1, ScriptCompile.getCompiledSize()));
+        }
+        CommandStruct cmdStruct = execFrames[cmdIndex];
+        if (cmdStruct == null) {
+            cmdStruct = new CommandStruct(compiled);
+            execFrames[cmdIndex] = cmdStruct;
+        } else {
+            cmdStruct.resetParams(compiled);
+        }
+        return cmdStruct;
+    }
+
+    /**
+     * resolves the parameter values of a compiled command into its execution frame.
+     * All the Variable references in the parameters are replaced with their values
+     *  in the frame, leaving the compiled command unchanged so it will be resolved
+     *  again the next time it is run.
+     *
+     * @param cmdIndex - index of the command in the CommandStruct list
+     * @param compiled - the compiled command
+     *
+     * @return the execution frame with its parameter values resolved
+     *
+     * @throws ParserException
+     */
+    private CommandStruct resolveCommand (int cmdIndex, CommandStruct compiled) throws ParserException {
+        CommandStruct cmdStruct = getExecFrame (cmdIndex, compiled);
+
+        // replace all program references in the command to their corresponding values.
+        // (skip for SET command so as not to modify the parameter we are setting.
+        //  the conversion for this will be done in Calculation)
+        for (int ix = 0; ix < cmdStruct.getParamSize(); ix++) {
+            if (ix > 0 || cmdStruct.getCommand() != CommandStruct.CommandTable.SET) {
+                ParameterStruct param = cmdStruct.getParamEntry(ix);
+                try {
+                    param.updateFromReference();
+                } catch (ParserException exMsg) {
+                    Utils.throwAddendum (exMsg.getMessage(), "replacing reference: " + param.getVariableRefName());
+                }
+                // see if there are any variable references embedded in any of the parameters
+                String strVal = extractEmbeddedVar(param);
+                if (strVal != null) {
+                    param.setStringValue(strVal);
+                }
+            }
+        }
+        return cmdStruct;
+    }
+
     /**
      * prints the user-specified text to standard output.
      * 
      * @param text - the text to output
      */
     private static void printUserText (String text) {
+        // keep the output in sequence with any log messages sent to stdout
+        GUILogPanel.flushLog();
         if (text == null) {
             System.out.println();
         } else {
@@ -230,707 +352,1095 @@ public class ScriptExecute {
      * @throws TikaException 
      */
     public int executeProgramCommand (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
-        String linePreface = "PROGIX [" + cmdIndex + "]: " + showLineNumberInfo(cmdStruct.getLine());
-        String exceptPreface = functionId + linePreface + " " + cmdStruct.getCommand();
-        String debugPreface = "    ";
-        int newIndex = -1;
-        
-        // replace all program references in the command to their corresponding values.
-        // (skip for SET command so as not to modify the parameter we are setting.
-        //  the conversion for this will be done in Calculation)
-        cmdStruct.showCommand(linePreface);
-        for (int ix = 0; ix < cmdStruct.getParamSize(); ix++) {
-            if (ix > 0 || cmdStruct.getCommand() != CommandStruct.CommandTable.SET) {
-                ParameterStruct param = cmdStruct.getParamEntry(ix);
-                try {
-                    param.updateFromReference();
-                } catch (ParserException exMsg) {
-                    Utils.throwAddendum (exMsg.getMessage(), exceptPreface + " - replacing reference: " + param.getVariableRefName());
-                }
-                // see if there are any variable references embedded in any of the parameters
-                String strVal = extractEmbeddedVar(param);
-                if (strVal != null) {
-                    param.setStringValue(strVal);
-                }
+        if (FlightEvents.isCommandEnabled()) {
+            return executeRecordedCommand (cmdIndex, cmdStruct);
+        }
+        if (! Profiler.isEnabled()) {
+            return executeCommand (cmdIndex, cmdStruct);
+        }
+        Profiler.begin(cmdIndex);
+        try {
+            return executeCommand (cmdIndex, cmdStruct);
+        } finally {
+            Profiler.end(cmdIndex);
+        }
+    }
+    
+    /**
+     * Executes a command while a flight recording is being made.
+     * 
+     * @param cmdIndex  - index of current command in the CommandStruct list
+     * @param cmdStruct - the command to execute
+     * 
+     * @return index of next command in the CommandStruct list
+     * 
+     * @throws ParserException
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException 
+     */
+    private int executeRecordedCommand (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        FlightEvents.CommandEvent event = new FlightEvents.CommandEvent();
+        String subName = Subroutine.getSubName();
+        boolean bProfile = Profiler.isEnabled();
+        if (bProfile) {
+            Profiler.begin(cmdIndex);
+        }
+        event.begin();
+        try {
+            return executeCommand (cmdIndex, cmdStruct);
+        } finally {
+            event.end();
+            if (bProfile) {
+                Profiler.end(cmdIndex);
+            }
+            if (event.shouldCommit()) {
+                event.command    = cmdStruct.getCommand().toString();
+                event.line       = cmdStruct.getLine();
+                event.cmdIndex   = cmdIndex;
+                event.subroutine = subName;
+                event.commit();
             }
         }
-        Subroutine subroutine = new Subroutine();
+    }
+    
+    /**
+     * Executes a command (without profiling).
+     * 
+     * @param cmdIndex - index of current command in the CommandStruct list
+     * @param compiled - the compiled command to execute
+     * 
+     * @return index of next command in the CommandStruct list
+     * 
+     * @throws ParserException
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException 
+     */
+    private int executeCommand (int cmdIndex, CommandStruct compiled) throws ParserException, IOException, SAXException, TikaException {
         Subroutine.setCurrentIndex(cmdIndex);
 
+        // (the line info is only built if the command will be displayed)
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM) || GUILogPanel.isEnabled(MsgType.DEBUG)) {
+            compiled.showCommand(getLinePreface(cmdIndex, compiled));
+        }
+        int newIndex = NEXT_COMMAND;
         try {
-        switch (cmdStruct.getCommand()) {
+            if (isTracing()) {
+                // all the parameters are resolved, so the log shows their values
+                CommandStruct cmdStruct = resolveCommand (cmdIndex, compiled);
+                newIndex = commandNodes[compiled.getCommand().ordinal()].run(cmdIndex, cmdStruct);
+            } else {
+                newIndex = program[cmdIndex].run(cmdIndex, compiled);
+            }
+        } catch (IOException | TikaException | SAXException | ParserException exMsg) {
+            if (AmazonReader.isOpModeNetwork()) {
+                String response = ScriptThread.limitNetworkString(exMsg.getMessage());
+                TCPServerThread.sendStatus("ERROR: " + response);
+                return -1;
+            } else {
+                Utils.throwAddendum (exMsg.getMessage(), getExceptPreface(cmdIndex, compiled));
+            }
+        }
+        if (newIndex == END_PROGRAM) {
+            return -1;
+        }
+        
+        // by default, the command will proceed to the next command
+        if (newIndex >= 0) {
+            cmdIndex = newIndex;
+        } else {
+            cmdIndex++;
+        }
+        
+        return cmdIndex;
+    }
+
+    /**
+     * returns the line info for displaying the command being executed.
+     * 
+     * @param cmdIndex - index of current command in the CommandStruct list
+     * @param cmdStruct - the command being executed
+     * 
+     * @return the line info
+     */
+    private String getLinePreface (int cmdIndex, CommandStruct cmdStruct) {
+        return "PROGIX [" + cmdIndex + "]: " + showLineNumberInfo(cmdStruct.getLine());
+    }
+    
+    /**
+     * returns the preface to use for the error messages of the command being executed.
+     * This is only built when there is an error to report.
+     * 
+     * @param cmdIndex - index of current command in the CommandStruct list
+     * @param cmdStruct - the command being executed
+     * 
+     * @return the error message preface
+     */
+    private String getExceptPreface (int cmdIndex, CommandStruct cmdStruct) {
+        String functionId = CLASS_NAME + ".executeProgramCommand: ";
+        return functionId + getLinePreface(cmdIndex, cmdStruct) + " " + cmdStruct.getCommand();
+    }
+
+    /**
+     * returns the method that runs the specified command.
+     * This is used to build the table of command nodes when the script is
+     *  loaded, so each command is called directly instead of being found by
+     *  a switch every time it is run.
+     * 
+     * @param command - the command
+     * 
+     * @return the method to run it
+     */
+    private CommandNode bindCommand (CommandStruct.CommandTable command) {
+        switch (command) {
+            case ENDMAIN:
+            case EXIT:      return this::cmdExit;
+            case SUB:       return this::cmdSub;
+            case GOSUB:     return this::cmdGosub;
+            case ENDSUB:
+            case RETURN:    return this::cmdReturn;
+            case PRINT:     return this::cmdPrint;
+            case DIRECTORY: return this::cmdDirectory;
+            case CD:        return this::cmdCd;
+            case FEXISTS:   return this::cmdFexists;
+            case FGETSIZE:  return this::cmdFgetsize;
+            case FGETLINES: return this::cmdFgetlines;
+            case MKDIR:     return this::cmdMkdir;
+            case RMDIR:     return this::cmdRmdir;
+            case FDELETE:   return this::cmdFdelete;
+            case FCREATE:   return this::cmdFcreate;
+            case FOPEN:     return this::cmdFopen;
+            case FCLOSE:    return this::cmdFclose;
+            case FREAD:     return this::cmdFread;
+            case FWRITE:    return this::cmdFwrite;
+            case OCRSCAN:   return this::cmdOcrscan;
+            case ALLOCATE:  return this::cmdAllocate;
+            case SET:       return this::cmdSet;
+            case INSERT:    return this::cmdInsert;
+            case APPEND:    return this::cmdAppend;
+            case MODIFY:    return this::cmdModify;
+            case REMOVE:    return this::cmdRemove;
+            case TRUNCATE:  return this::cmdTruncate;
+            case POP:       return this::cmdPop;
+            case CLEAR:     return this::cmdClear;
+            case FILTER:    return this::cmdFilter;
+            case IF:        return this::cmdIf;
+            case ELSE:      return this::cmdElse;
+            case ELSEIF:    return this::cmdElseif;
+            case ENDIF:     return this::cmdEndif;
+            case FOR:       return this::cmdFor;
+            case BREAK:     return this::cmdBreak;
+            case SKIP:      return this::cmdSkip;
+            case BREAKIF:   return this::cmdBreakif;
+            case SKIPIF:    return this::cmdSkipif;
+            case NEXT:      return this::cmdNext;
+            case ENDFOR:    return this::cmdEndfor;
+            case RUN:
+            default:        return this::cmdRun;
+        }
+    }
+
+    /**
+     * returns the node that runs a compiled command when the parameter values are not being logged.
+     * The commands that don't use their parameters, or whose operands were
+     *  resolved by the compiler, are run from the compiled command. The others
+     *  have their parameters resolved into their execution frame first.
+     * 
+     * @param compiled - the compiled command
+     * 
+     * @return the node to run it
+     */
+    private CommandNode compileNode (CommandStruct compiled) {
+        CommandNode node = commandNodes[compiled.getCommand().ordinal()];
+        switch (compiled.getCommand()) {
             case ENDMAIN:
             case EXIT:
-                return -1; // this will terminate the program
             case SUB:
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "Subroutine entered at level: " + Subroutine.getSubroutineLevel());
+            case ALLOCATE:
+            case ELSE:
+            case ENDIF:
+            case FOR:
+            case BREAK:
+            case SKIP:
+            case NEXT:
+            case ENDFOR:
+                return node;
+            case IF:
+            case ELSEIF:
+            case BREAKIF:
+            case SKIPIF:
+                if (compiled.getCompare() != null) {
+                    return node;
+                }
                 break;
             case GOSUB:
-                String subName = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                           ParameterStruct.ParamType.String).getStringValue();
-                newIndex = subroutine.subBegin(subName, cmdIndex + 1);
+                if (compiled.getSubInfo() != null) {
+                    return node;
+                }
                 break;
             case ENDSUB:
             case RETURN:
-                String retArg = "";
-                if (! cmdStruct.isParamEmpty()) {
-                    retArg = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                           ParameterStruct.ParamType.String).getStringValue();
+                if (compiled.isParamEmpty()) {
+                    return node;
                 }
-                newIndex = Subroutine.subReturn(retArg);
                 break;
-            case PRINT:
-                // arg 0: text to output
-                if (cmdStruct.isParamEmpty()) {
-                    // treat no arguments as outputting an empty newline
-                    printUserText(null);
-                } else if (cmdStruct.getParamSize() > 1) {
-                    // if multiple arguments, must be a concatenated string.
-                    //  pull the pieces together and print
-                    String text = "";
-                    for (int ix = 0; ix < cmdStruct.getParamSize(); ix++) {
-                        String entry = cmdStruct.getParamEntry(ix).getStringValue();
-                        if (! entry.contentEquals("+")) {
-                            text += entry;
-                        }
-                    }
-                    printUserText(text);
-                } else if (cmdStruct.getParamEntry(0).getParamType() == ParameterStruct.ParamType.StrArray) {
-                    // if entry is a string array, print each entry on a new line
-                    ArrayList<String> list = cmdStruct.getParamEntry(0).getStrArray();
-                    for (int ix = 0; ix < list.size(); ix++) {
-                        String text = list.get(ix);
-                        printUserText(text);
-                    }
-                } else if (cmdStruct.getParamEntry(0).getParamType() == ParameterStruct.ParamType.IntArray) {
-                    // if entry is a string array, print each entry on a new line
-                    ArrayList<Long> list = cmdStruct.getParamEntry(0).getIntArray();
-                    for (int ix = 0; ix < list.size(); ix++) {
-                        String text = list.get(ix).toString();
-                        printUserText(text);
-                    }
-                } else {
-                    // otherwise, just print the single entry
-                    String text = cmdStruct.getParamEntry(0).getStringValue();
-                    printUserText(text);
+            case SET:
+                if (compiled.getAssign() != null) {
+                    return new AssignNode (compiled.getAssign());
                 }
                 break;
-            case DIRECTORY:
-                // arg 0: filter selection (-f -d or blank)
-                // arg 0: directory path
-                String filter = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                   ParameterStruct.ParamType.String).getStringValue();
-                String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
-                         ParameterStruct.ParamType.String).getStringValue();
-                FileIO.getDirFileList (fname, filter);
-                break;
-            case CD:
-                // arg 0: directory path
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                FileIO.setFilePath (fname);
+            default:
                 break;
-            case FEXISTS:
-                // arg 0: type of check on file
-                // arg 1: filename
-                String ftype = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
-                  ParameterStruct.ParamType.String).getStringValue();
-
-                File file = FileIO.getFilePath(fname);
-                boolean value;
-                switch (ftype) {
-                    case "-w":
-                        value = file.isFile() && file.canWrite();
-                        break;
-                    case "-r":
-                        value = file.isFile() && file.canRead();
-                        break;
-                    case "-d":
-                        value = file.isDirectory();
-                        break;
-                    case "-x":
-                        value = file.exists();
-                        break;
-                    default:
-                        throw new ParserException(exceptPreface + "Unknown file check argument: " + ftype);
+        }
+        return new ResolveNode (node);
+    }
+
+    /**
+     * the node for a command that resolves its parameter values before it is run.
+     */
+    private final class ResolveNode implements CommandNode {
+        private final CommandNode node;
+
+        ResolveNode (CommandNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public int run (int cmdIndex, CommandStruct compiled) throws ParserException, IOException, SAXException, TikaException {
+            return node.run(cmdIndex, resolveCommand (cmdIndex, compiled));
+        }
+    }
+
+    /**
+     * the node for a SET command that has a compiled assignment.
+     */
+    private static final class AssignNode implements CommandNode {
+        private final CompiledAssignment assign;
+
+        AssignNode (CompiledAssignment assign) {
+            this.assign = assign;
+        }
+
+        @Override
+        public int run (int cmdIndex, CommandStruct compiled) throws ParserException {
+            assign.assign();
+            return NEXT_COMMAND;
+        }
+    }
+
+    // runs the ENDMAIN and EXIT commands
+    private int cmdExit (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        return END_PROGRAM; // this will terminate the program
+    }
+
+    // runs the SUB command
+    private int cmdSub (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "Subroutine entered at level: " + Subroutine.getSubroutineLevel());
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the GOSUB command
+    private int cmdGosub (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // the compiler binds the subroutine, unless its name is given by a Variable
+        VarFrames.SubLocals sub = cmdStruct.getSubInfo();
+        if (sub != null) {
+            return subroutine.subBegin(sub, cmdIndex + 1);
+        }
+        String subName = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+                   ParameterStruct.ParamType.String).getStringValue();
+        return subroutine.subBegin(subName, cmdIndex + 1);
+    }
+
+    // runs the ENDSUB and RETURN commands
+    private int cmdReturn (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        String retArg = "";
+        if (! cmdStruct.isParamEmpty()) {
+            retArg = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+                   ParameterStruct.ParamType.String).getStringValue();
+        }
+        return Subroutine.subReturn(retArg);
+    }
+
+    // runs the PRINT command
+    private int cmdPrint (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: text to output
+        if (cmdStruct.isParamEmpty()) {
+            // treat no arguments as outputting an empty newline
+            printUserText(null);
+        } else if (cmdStruct.getParamSize() > 1) {
+            // if multiple arguments, must be a concatenated string.
+            //  pull the pieces together and print
+            String text = "";
+            for (int ix = 0; ix < cmdStruct.getParamSize(); ix++) {
+                String entry = cmdStruct.getParamEntry(ix).getStringValue();
+                if (! entry.contentEquals("+")) {
+                    text += entry;
                 }
-                VarReserved.putStatusValue(value);
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "File " + file + " exists = " + value);
+            }
+            printUserText(text);
+        } else if (cmdStruct.getParamEntry(0).getParamType() == ParameterStruct.ParamType.StrArray) {
+            // if entry is a string array, print each entry on a new line
+            StringArray list = cmdStruct.getParamEntry(0).getStrArray();
+            for (int ix = 0; ix < list.size(); ix++) {
+                String text = list.get(ix);
+                printUserText(text);
+            }
+        } else if (cmdStruct.getParamEntry(0).getParamType() == ParameterStruct.ParamType.IntArray) {
+            // if entry is a string array, print each entry on a new line
+            LongArray list = cmdStruct.getParamEntry(0).getIntArray();
+            for (int ix = 0; ix < list.size(); ix++) {
+                String text = Long.toString(list.get(ix));
+                printUserText(text);
+            }
+        } else {
+            // otherwise, just print the single entry
+            String text = cmdStruct.getParamEntry(0).getStringValue();
+            printUserText(text);
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the DIRECTORY command
+    private int cmdDirectory (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: filter selection (-f -d or blank)
+        // arg 0: directory path
+        String filter = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+           ParameterStruct.ParamType.String).getStringValue();
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
+                 ParameterStruct.ParamType.String).getStringValue();
+        FileIO.getDirFileList (fname, filter);
+        return NEXT_COMMAND;
+    }
+
+    // runs the CD command
+    private int cmdCd (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: directory path
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        FileIO.setFilePath (fname);
+        return NEXT_COMMAND;
+    }
+
+    // runs the FEXISTS command
+    private int cmdFexists (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: type of check on file
+        // arg 1: filename
+        String ftype = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
+          ParameterStruct.ParamType.String).getStringValue();
+
+        File file = FileIO.getFilePath(fname);
+        boolean value;
+        switch (ftype) {
+            case "-w":
+                value = file.isFile() && file.canWrite();
                 break;
-            case FGETSIZE:
-                // arg 0: filename
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                Long fsize = FileIO.fileGetSize(fname);
-                VarReserved.putResponseValue(fsize.toString());
+            case "-r":
+                value = file.isFile() && file.canRead();
                 break;
-            case FGETLINES:
-                // arg 0: filename
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                Integer lines = FileIO.fileGetLines(fname);
-                VarReserved.putResponseValue(lines.toString());
+            case "-d":
+                value = file.isDirectory();
                 break;
-            case MKDIR:
-                // arg 0: dir name
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                FileIO.createDir(fname);
+            case "-x":
+                value = file.exists();
                 break;
-            case RMDIR:
-                // arg 0: -f if force, else don't remove if not empty
-                // arg 1: dir name
-                ftype = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
-                  ParameterStruct.ParamType.String).getStringValue();
-                FileIO.removeDir(fname, ftype.contentEquals("-f"));
+            default:
+                throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Unknown file check argument: " + ftype);
+        }
+        VarReserved.putStatusValue(value);
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "File " + file + " exists = " + value);
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the FGETSIZE command
+    private int cmdFgetsize (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: filename
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        Long fsize = FileIO.fileGetSize(fname);
+        VarReserved.putResponseValue(fsize.toString());
+        return NEXT_COMMAND;
+    }
+
+    // runs the FGETLINES command
+    private int cmdFgetlines (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: filename
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        Integer lines = FileIO.fileGetLines(fname);
+        VarReserved.putResponseValue(lines.toString());
+        return NEXT_COMMAND;
+    }
+
+    // runs the MKDIR command
+    private int cmdMkdir (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: dir name
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        FileIO.createDir(fname);
+        return NEXT_COMMAND;
+    }
+
+    // runs the RMDIR command
+    private int cmdRmdir (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: -f if force, else don't remove if not empty
+        // arg 1: dir name
+        String ftype = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
+          ParameterStruct.ParamType.String).getStringValue();
+        FileIO.removeDir(fname, ftype.contentEquals("-f"));
+        return NEXT_COMMAND;
+    }
+
+    // runs the FDELETE command
+    private int cmdFdelete (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: filename
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        FileIO.delete(fname);
+        return NEXT_COMMAND;
+    }
+
+    // runs the FCREATE command
+    private int cmdFcreate (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: type (-r / -w)
+        // arg 1: filename
+        String ftype = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
+          ParameterStruct.ParamType.String).getStringValue();
+        FileIO.createFile(fname, ftype.contentEquals("-w"));
+        return NEXT_COMMAND;
+    }
+
+    // runs the FOPEN command
+    private int cmdFopen (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: type (-r / -w)
+        // arg 1: filename
+        String ftype = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
+          ParameterStruct.ParamType.String).getStringValue();
+        FileIO.openFile(fname, ftype.contentEquals("-w"));
+        return NEXT_COMMAND;
+    }
+
+    // runs the FCLOSE command
+    private int cmdFclose (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: filename
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        FileIO.close(fname);
+        return NEXT_COMMAND;
+    }
+
+    // runs the FREAD command
+    private int cmdFread (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // optional arg 0: number of lines to read
+        Integer count = null;
+        if (! cmdStruct.isParamEmpty()) {
+            count = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+                  ParameterStruct.ParamType.Integer).getIntegerValue().intValue();
+        }
+        FileIO.read(count);
+        return NEXT_COMMAND;
+    }
+
+    // runs the FWRITE command
+    private int cmdFwrite (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // arg 0: text to write
+        ParameterStruct parm = cmdStruct.getParamEntry(0);
+        StringArray strArray = ParameterStruct.verifyArgEntry (parm,
+          ParameterStruct.ParamType.StrArray).getStrArray();
+        if (strArray != null && strArray.size() > 1) {
+            FileIO.write(strArray);
+        } else {
+            FileIO.write(parm.getStringValue());
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the OCRSCAN command
+    private int cmdOcrscan (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // verify 1 String argument: file name
+        String fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
+          ParameterStruct.ParamType.String).getStringValue();
+        OCRReader ocr = new OCRReader();
+        ocr.run (fname);
+        return NEXT_COMMAND;
+    }
+
+    // runs the ALLOCATE command
+    private int cmdAllocate (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // nothing to do
+        return NEXT_COMMAND;
+    }
+
+    // runs the SET command
+    private int cmdSet (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // the 1st 3 entries are always required: the param name, the equate sign and the value to set
+        //   and we ignore the equate sign at offset 1.
+        // for Boolean case, we have 1 or 2 additional entries that may be added
+        ParameterStruct parmRef = cmdStruct.getParamEntry(0);
+        ParameterStruct parm1   = cmdStruct.getParamEntry(2);
+        ParameterStruct parm2   = cmdStruct.getParamSize() > 3 ? cmdStruct.getParamEntry(3) : null;
+        ParameterStruct parm3   = cmdStruct.getParamSize() > 4 ? cmdStruct.getParamEntry(4) : null;
+        String varName = parmRef.getVariableRefName();
+        ParameterStruct.ParamType varType = parmRef.getVariableRefType();
+        ParameterStruct.ParamType type = varType;
+        int varSlot = -1;
+        if (varType == null || varName == null) {
+            varName = parmRef.getStringValue();
+            type = ParameterStruct.ParamType.String;
+        } else {
+            varSlot = parmRef.getVariableRef().getSlot();
+        }
+        
+        // make sure we have write access to the variable
+        // (a Variable is only given a slot if it is accessible from where it is referenced)
+        if (varSlot < 0) {
+            Variables.checkWriteAccess (varName);
+        }
+        
+        // make sure we are converting to the type of the reference parameter
+        switch (type) {
+            case ParameterStruct.ParamType.Integer:
+                Long result = getIntegerArg (parm1);
+                Variables.setIntegerVariable(varName, varSlot, result);
                 break;
-            case FDELETE:
-                // arg 0: filename
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                FileIO.delete(fname);
+            case ParameterStruct.ParamType.Unsigned:
+                result = getIntegerArg (parm1);
+                result &= 0xFFFFFFFF;
+                Variables.setUnsignedVariable(varName, varSlot, result);
                 break;
-            case FCREATE:
-                // arg 0: type (-r / -w)
-                // arg 1: filename
-                ftype = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
-                  ParameterStruct.ParamType.String).getStringValue();
-                FileIO.createFile(fname, ftype.contentEquals("-w"));
+            case ParameterStruct.ParamType.Boolean:
+                Boolean bResult = getComparison(parm1, parm2, parm3);
+                Variables.setBooleanVariable(varName, varSlot, bResult);
+                if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "Boolean Variable " + varName + " = " + bResult);
+                }
                 break;
-            case FOPEN:
-                // arg 0: type (-r / -w)
-                // arg 1: filename
-                ftype = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(1),
-                  ParameterStruct.ParamType.String).getStringValue();
-                FileIO.openFile(fname, ftype.contentEquals("-w"));
+
+            case ParameterStruct.ParamType.IntArray:
+                Variables.setIntArray(varName, varSlot, parm1.getIntArray());
                 break;
-            case FCLOSE:
-                // arg 0: filename
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                FileIO.close(fname);
+            case ParameterStruct.ParamType.StrArray:
+                Variables.setStrArray(varName, varSlot, parm1.getStrArray());
                 break;
-            case FREAD:
-                // optional arg 0: number of lines to read
-                Integer count = null;
-                if (! cmdStruct.isParamEmpty()) {
-                    count = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                          ParameterStruct.ParamType.Integer).getIntegerValue().intValue();
-                }
-                FileIO.read(count);
+            case ParameterStruct.ParamType.String:
+                // The entries should be a list of 1 or more Strings to concatenate into 1
+                // (any parameter references should have been converted to their appropriate value
+                //  at the begining of the execution phase)
+                String concat = getStringArg (cmdStruct, 2);
+                Variables.setStringVariable(varName, varSlot, concat);
                 break;
-            case FWRITE:
-                // arg 0: text to write
-                ParameterStruct parm = cmdStruct.getParamEntry(0);
-                ArrayList<String> strArray = ParameterStruct.verifyArgEntry (parm,
-                  ParameterStruct.ParamType.StrArray).getStrArray();
-                if (strArray != null && strArray.size() > 1) {
-                    FileIO.write(strArray);
+            default:
+                throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + varType + " Invalid data type: " + type);
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the INSERT command
+    private int cmdInsert (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        ParameterStruct parmValue;
+        ParameterStruct parmRef   = cmdStruct.getParamEntry(0); // element 0 is the param ref to be appended to
+        parmValue = cmdStruct.getParamEntry(1); // element 1 is the value being appended
+        String varName = getArrayAssignment(parmRef);
+        ParameterStruct.ParamType parmType = Variables.getVariableTypeFromName (varName);
+
+        // make sure we have write access to the variable
+        Variables.checkWriteAccess (varName);
+        
+        boolean bSuccess = false;
+        Variables.VarClass varClass;
+        String strValue;
+        switch (parmType) {
+            case IntArray:
+                if (parmValue.getIntArray() != null && parmValue.getParamType() == ParameterStruct.ParamType.IntArray) {
+                    if (! parmValue.getIntArray().isEmpty()) {
+                        bSuccess = VarArray.arrayInsertEntries (varName, 0, parmValue.getIntArray());
+                    }
                 } else {
-                    FileIO.write(parm.getStringValue());
+                    LongArray values = new LongArray(1);
+                    values.add(getIntegerArg (parmValue));
+                    bSuccess = VarArray.arrayInsertEntries (varName, 0, values);
                 }
                 break;
-            case OCRSCAN:
-                // verify 1 String argument: file name
-                fname = ParameterStruct.verifyArgEntry (cmdStruct.getParamEntry(0),
-                  ParameterStruct.ParamType.String).getStringValue();
-                OCRReader ocr = new OCRReader();
-                ocr.run (fname);
-                break;
-            case ALLOCATE:
-                // nothing to do
-                break;
-            case SET:
-                // the 1st 3 entries are always required: the param name, the equate sign and the value to set
-                //   and we ignore the equate sign at offset 1.
-                // for Boolean case, we have 1 or 2 additional entries that may be added
-                ParameterStruct parmRef = cmdStruct.getParamEntry(0);
-                ParameterStruct parm1   = cmdStruct.getParamEntry(2);
-                ParameterStruct parm2   = cmdStruct.getParamSize() > 3 ? cmdStruct.getParamEntry(3) : null;
-                ParameterStruct parm3   = cmdStruct.getParamSize() > 4 ? cmdStruct.getParamEntry(4) : null;
-                String varName = parmRef.getVariableRefName();
-                ParameterStruct.ParamType varType = parmRef.getVariableRefType();
-                ParameterStruct.ParamType type = varType;
-                if (varType == null || varName == null) {
-                    varName = parmRef.getStringValue();
-                    type = ParameterStruct.ParamType.String;
-                }
-                
-                // make sure we have write access to the variable
-                Variables.checkWriteAccess (varName);
-                
-                // make sure we are converting to the type of the reference parameter
-                switch (type) {
-                    case ParameterStruct.ParamType.Integer:
-                        Long result = getIntegerArg (parm1);
-                        Variables.setIntegerVariable(varName, result);
-                        break;
-                    case ParameterStruct.ParamType.Unsigned:
-                        result = getIntegerArg (parm1);
-                        result &= 0xFFFFFFFF;
-                        Variables.setUnsignedVariable(varName, result);
-                        break;
-                    case ParameterStruct.ParamType.Boolean:
-                        Boolean bResult = getComparison(parm1, parm2, parm3);
-                        Variables.setBooleanVariable(varName, bResult);
-                        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "Boolean Variable " + varName + " = " + bResult);
-                        break;
-
-                    case ParameterStruct.ParamType.IntArray:
-                        Variables.setIntArray(varName, parm1.getIntArray());
-                        break;
-                    case ParameterStruct.ParamType.StrArray:
-                        Variables.setStrArray(varName, parm1.getStrArray());
-                        break;
-                    case ParameterStruct.ParamType.String:
-                        // The entries should be a list of 1 or more Strings to concatenate into 1
-                        // (any parameter references should have been converted to their appropriate value
-                        //  at the begining of the execution phase)
-                        String concat = getStringArg (cmdStruct, 2);
-                        Variables.setStringVariable(varName, concat);
-                        break;
-                    default:
-                        throw new ParserException(exceptPreface + varType + " Invalid data type: " + type);
+            case StrArray:
+            case String:
+                if (parmValue.getStrArray() != null && parmValue.getParamType() == ParameterStruct.ParamType.StrArray) {
+                    if (! parmValue.getStrArray().isEmpty()) {
+                        bSuccess = VarArray.arrayInsertEntries (varName, 0, parmValue.getStrArray());
+                    }
+                } else {
+                    strValue = getStringArg (cmdStruct, 1);
+                    bSuccess = VarArray.arrayInsertEntry (varName, 0, strValue);
                 }
                 break;
+            default:
+                throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Invalid parameter type: " + parmRef.getParamType());
+        }
 
-            case INSERT:
-                ParameterStruct parmValue;
-                parmRef   = cmdStruct.getParamEntry(0); // element 0 is the param ref to be appended to
-                parmValue = cmdStruct.getParamEntry(1); // element 1 is the value being appended
-                varName = getArrayAssignment(parmRef);
-                ParameterStruct.ParamType parmType = Variables.getVariableTypeFromName (varName);
-
-                // make sure we have write access to the variable
-                Variables.checkWriteAccess (varName);
-                
-                boolean bSuccess = false;
-                Variables.VarClass varClass;
-                String strValue;
-                switch (parmType) {
-                    case IntArray:
-                        if (parmValue.getIntArray() != null && parmValue.getParamType() == ParameterStruct.ParamType.IntArray) {
-                            for (int ix = parmValue.getIntArray().size() - 1; ix >= 0; ix--) {
-                                strValue = parmValue.getIntArrayElement(ix).toString();
-                                bSuccess = VarArray.arrayInsertEntry (varName, 0, strValue);
-                            }
-                        } else {
-                            strValue = getIntegerArg (parmValue).toString();
-                            bSuccess = VarArray.arrayInsertEntry (varName, 0, strValue);
-                        }
-                        break;
-                    case StrArray:
-                    case String:
-                        if (parmValue.getStrArray() != null && parmValue.getParamType() == ParameterStruct.ParamType.StrArray) {
-                            for (int ix = parmValue.getStrArray().size() - 1; ix >= 0; ix--) {
-                                strValue = parmValue.getStrArrayElement(ix);
-                                bSuccess = VarArray.arrayInsertEntry (varName, 0, strValue);
-                            }
-                        } else {
-                            strValue = getStringArg (cmdStruct, 1);
-                            bSuccess = VarArray.arrayInsertEntry (varName, 0, strValue);
-                        }
-                        break;
-                    default:
-                        throw new ParserException(exceptPreface + "Invalid parameter type: " + parmRef.getParamType());
-                }
-
-                // AmazonReader.isOpModeNetwork()
-                if (!bSuccess) {
-                    throw new ParserException(exceptPreface + " variable ref not found: " + varName);
-                }
+        // AmazonReader.isOpModeNetwork()
+        if (!bSuccess) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + " variable ref not found: " + varName);
+        }
+        return NEXT_COMMAND;
+    }
 
-            case APPEND:
-                parmRef   = cmdStruct.getParamEntry(0); // element 0 is the param ref to be appended to
-                parmValue = cmdStruct.getParamEntry(1); // element 1 is the value being appended
-                varName = getArrayAssignment(parmRef);
-                parmType = Variables.getVariableTypeFromName (varName);
-
-                // make sure we have write access to the variable
-                Variables.checkWriteAccess (varName);
-                
-                bSuccess = false;
-                switch (parmType) {
-                    case IntArray:
-                        if (parmValue.getIntArray() != null && parmValue.getParamType() == ParameterStruct.ParamType.IntArray) {
-                            for (int ix = 0; ix < parmValue.getIntArray().size(); ix++) {
-                                strValue = parmValue.getIntArrayElement(ix).toString();
-                                bSuccess = VarArray.arrayAppendEntry (varName, strValue);
-                            }
-                        } else {
-                            strValue = getIntegerArg (parmValue).toString();
-                            bSuccess = VarArray.arrayAppendEntry (varName, strValue);
-                        }
-                        break;
-                    case StrArray:
-                        if (parmValue.getStrArray() != null && parmValue.getParamType() == ParameterStruct.ParamType.StrArray) {
-                            for (int ix = 0; ix < parmValue.getStrArray().size(); ix++) {
-                                strValue = parmValue.getStrArrayElement(ix);
-                                bSuccess = VarArray.arrayAppendEntry (varName, strValue);
-                            }
-                        } else {
-                            strValue = getStringArg (cmdStruct, 1);
-                            bSuccess = VarArray.arrayAppendEntry (varName, strValue);
-                        }
-                        break;
-                    default:
-                        throw new ParserException(exceptPreface + "Invalid parameter type: " + parmType);
-                }
+    // runs the APPEND command
+    private int cmdAppend (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        ParameterStruct parmRef   = cmdStruct.getParamEntry(0); // element 0 is the param ref to be appended to
+        ParameterStruct parmValue = cmdStruct.getParamEntry(1); // element 1 is the value being appended
+        String varName = getArrayAssignment(parmRef);
+        ParameterStruct.ParamType parmType = Variables.getVariableTypeFromName (varName);
 
-                if (!bSuccess) {
-                    throw new ParserException(exceptPreface + " variable ref not found: " + varName);
-                }
-                break;
-            case MODIFY:
-                // ParamName, Index (Integer), Value (String or Integer)
-                ParameterStruct parmIndex;
-                parmRef   = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
-                parmIndex = cmdStruct.getParamEntry(1); // element 1 is the index element being modified
-                parmValue = cmdStruct.getParamEntry(2); // element 2 is the value to set the entry to
-                varName  = getArrayAssignment(parmRef);
-                parmType  = Variables.getVariableTypeFromName (varName);
-                int index = parmIndex.getIntegerValue().intValue();
-
-                // make sure we have write access to the variable
-                Variables.checkWriteAccess (varName);
-                
-                switch (parmType) {
-                    case IntArray:
-                        Long result = getIntegerArg (parmValue);
-                        strValue = result.toString();
-                        break;
-                    case StrArray:
-                        strValue = getStringArg (cmdStruct, 2);
-                        break;
-                    default:
-                        throw new ParserException(exceptPreface + "Invalid parameter type: " + parmRef.getParamType());
-                }
-                
-                bSuccess = VarArray.arrayModifyEntry (varName, index, strValue);
-                if (!bSuccess) {
-                    throw new ParserException(exceptPreface + " variable ref not found: " + varName);
-                }
-                break;
-            case REMOVE:
-                // ParamName, Index (Integer)
-                parmRef   = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
-                parmIndex = cmdStruct.getParamEntry(1); // element 1 is the index element being removed
-                varName  = getArrayAssignment(parmRef);
-                index = parmIndex.getIntegerValue().intValue();
-
-                // make sure we have write access to the variable
-                Variables.checkWriteAccess (varName);
-                
-                bSuccess = VarArray.arrayClearEntries (varName, index, 1);
-                if (!bSuccess) {
-                    throw new ParserException(exceptPreface + " variable ref not found: " + varName);
-                }
-                break;
-            case TRUNCATE:
-                // ParamName, Count (Integer - optional)
-                parmRef = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
-                varName = getArrayAssignment(parmRef);
-
-                // make sure we have write access to the variable
-                Variables.checkWriteAccess (varName);
-                
-                int size = VarArray.getArraySize(varName);
-                int iCount = 1;
-                if (cmdStruct.getParamSize() > 1) {
-                    parmIndex = cmdStruct.getParamEntry(1); // element 1 is the (optional) number of entries being removed
-                    iCount = parmIndex.getIntegerValue().intValue();
-                    if (iCount > size) {
-                        throw new ParserException(exceptPreface + "item count " + iCount + " exceeds size of " + varName);
+        // make sure we have write access to the variable
+        Variables.checkWriteAccess (varName);
+        
+        boolean bSuccess = false;
+        String strValue;
+        switch (parmType) {
+            case IntArray:
+                if (parmValue.getIntArray() != null && parmValue.getParamType() == ParameterStruct.ParamType.IntArray) {
+                    if (! parmValue.getIntArray().isEmpty()) {
+                        bSuccess = VarArray.arrayAppendEntries (varName, parmValue.getIntArray());
                     }
-                }
-                int iStart = size - iCount;
-                bSuccess = VarArray.arrayClearEntries (varName, iStart, iCount);
-                if (!bSuccess) {
-                    throw new ParserException(exceptPreface + " variable ref not found: " + varName);
+                } else {
+                    LongArray values = new LongArray(1);
+                    values.add(getIntegerArg (parmValue));
+                    bSuccess = VarArray.arrayAppendEntries (varName, values);
                 }
                 break;
-            case POP:
-                // ParamName, Index (Integer - optional)
-                parmRef = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
-                varName = getArrayAssignment(parmRef);
-
-                // make sure we have write access to the variable
-                Variables.checkWriteAccess (varName);
-                
-                size = VarArray.getArraySize(parmRef.getStringValue());
-                iCount = 1;
-                iStart = 0;
-                if (cmdStruct.getParamSize() > 1) {
-                    parmIndex = cmdStruct.getParamEntry(1); // element 1 is the (optional) number of entries being removed
-                    iCount = parmIndex.getIntegerValue().intValue();
-                    if (iCount > size) {
-                        throw new ParserException(exceptPreface + "item count " + iCount + " exceeds size of " + varName);
+            case StrArray:
+                if (parmValue.getStrArray() != null && parmValue.getParamType() == ParameterStruct.ParamType.StrArray) {
+                    if (! parmValue.getStrArray().isEmpty()) {
+                        bSuccess = VarArray.arrayAppendEntries (varName, parmValue.getStrArray());
                     }
-                }
-                bSuccess = VarArray.arrayClearEntries (varName, iStart, iCount);
-                if (!bSuccess) {
-                    throw new ParserException(exceptPreface + " variable ref not found: " + varName);
+                } else {
+                    strValue = getStringArg (cmdStruct, 1);
+                    bSuccess = VarArray.arrayAppendEntry (varName, strValue);
                 }
                 break;
-            case CLEAR:
-                // ParamName
-                parmRef = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
-                varName = getArrayAssignment(parmRef);
-
-                // make sure we have write access to the variable
-                Variables.checkWriteAccess (varName);
-                
-                VarArray.arrayClearAll(varName);
+            default:
+                throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Invalid parameter type: " + parmType);
+        }
+
+        if (!bSuccess) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + " variable ref not found: " + varName);
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the MODIFY command
+    private int cmdModify (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // ParamName, Index (Integer), Value (String or Integer)
+        ParameterStruct parmIndex;
+        ParameterStruct parmRef   = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
+        parmIndex = cmdStruct.getParamEntry(1); // element 1 is the index element being modified
+        ParameterStruct parmValue = cmdStruct.getParamEntry(2); // element 2 is the value to set the entry to
+        String varName  = getArrayAssignment(parmRef);
+        ParameterStruct.ParamType parmType  = Variables.getVariableTypeFromName (varName);
+        int index = parmIndex.getIntegerValue().intValue();
+
+        // make sure we have write access to the variable
+        Variables.checkWriteAccess (varName);
+        
+        boolean bSuccess;
+        switch (parmType) {
+            case IntArray:
+                bSuccess = VarArray.arrayModifyEntry (varName, index, (long) getIntegerArg (parmValue));
                 break;
-                
-            case FILTER:
-                // ParamName or RESET, 1 (optional) the filter string
-                parmRef = cmdStruct.getParamEntry(0); // element 0 is the param ref or RESET
-                varName = getArrayAssignment(parmRef);
-                if (varName.contentEquals("RESET")) {
-                    VarArray.arrayFilterReset();
-                } else {
-                    // make sure we have write access to the variable
-                    Variables.checkWriteAccess (varName);
-                
-                    parmType = Variables.getVariableTypeFromName (varName);
-                    switch (parmType) {
-                        case StrArray:
-                            filter = cmdStruct.getParamEntry(1).getStringValue();
-                            String opts = "NONE";
-                            if (cmdStruct.getParamSize() == 3) {
-                                opts = cmdStruct.getParamEntry(2).getStringValue();
-                            }
-                            VarArray.arrayFilterString(varName, filter, opts);
-                            break;
-                        case IntArray:
-                            String compSign = cmdStruct.getParamEntry(1).getStringValue();
-                            Long iValue = cmdStruct.getParamEntry(2).getIntegerValue();
-                            VarArray.arrayFilterInt(varName, compSign, iValue);
-                            break;
-                        default:
-                            throw new ParserException(exceptPreface + "Invalid data type for FILTER: " + parmType);
-                    }
-                }
+            case StrArray:
+                bSuccess = VarArray.arrayModifyEntry (varName, index, getStringArg (cmdStruct, 2));
                 break;
-            case IF:
-                // check status to see if true of false.
-                parm1 = cmdStruct.getParamEntry(0);
-                parm2 = cmdStruct.getParamSize() > 1 ? cmdStruct.getParamEntry(1) : null;
-                parm3 = cmdStruct.getParamSize() > 2 ? cmdStruct.getParamEntry(2) : null;
-                Boolean bResult = getComparison(parm1, parm2, parm3);
-                
-                // add entry to the current loop stack
-                IFStruct.stackPush(cmdIndex);
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "new IF level " + IFStruct.getStackSize() + " " +
+            default:
+                throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Invalid parameter type: " + parmRef.getParamType());
+        }
+        
+        if (!bSuccess) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + " variable ref not found: " + varName);
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the REMOVE command
+    private int cmdRemove (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // ParamName, Index (Integer)
+        ParameterStruct parmRef   = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
+        ParameterStruct parmIndex = cmdStruct.getParamEntry(1); // element 1 is the index element being removed
+        String varName  = getArrayAssignment(parmRef);
+        int index = parmIndex.getIntegerValue().intValue();
+
+        // make sure we have write access to the variable
+        Variables.checkWriteAccess (varName);
+        
+        boolean bSuccess = VarArray.arrayClearEntries (varName, index, 1);
+        if (!bSuccess) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + " variable ref not found: " + varName);
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the TRUNCATE command
+    private int cmdTruncate (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // ParamName, Count (Integer - optional)
+        ParameterStruct parmRef = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
+        String varName = getArrayAssignment(parmRef);
+
+        // make sure we have write access to the variable
+        Variables.checkWriteAccess (varName);
+        
+        int size = VarArray.getArraySize(varName);
+        int iCount = 1;
+        if (cmdStruct.getParamSize() > 1) {
+            ParameterStruct parmIndex = cmdStruct.getParamEntry(1); // element 1 is the (optional) number of entries being removed
+            iCount = parmIndex.getIntegerValue().intValue();
+            if (iCount > size) {
+                throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "item count " + iCount + " exceeds size of " + varName);
+            }
+        }
+        int iStart = size - iCount;
+        boolean bSuccess = VarArray.arrayClearEntries (varName, iStart, iCount);
+        if (!bSuccess) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + " variable ref not found: " + varName);
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the POP command
+    private int cmdPop (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // ParamName, Index (Integer - optional)
+        ParameterStruct parmRef = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
+        String varName = getArrayAssignment(parmRef);
+
+        // make sure we have write access to the variable
+        Variables.checkWriteAccess (varName);
+        
+        int size = VarArray.getArraySize(parmRef.getStringValue());
+        int iCount = 1;
+        int iStart = 0;
+        if (cmdStruct.getParamSize() > 1) {
+            ParameterStruct parmIndex = cmdStruct.getParamEntry(1); // element 1 is the (optional) number of entries being removed
+            iCount = parmIndex.getIntegerValue().intValue();
+            if (iCount > size) {
+                throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "item count " + iCount + " exceeds size of " + varName);
+            }
+        }
+        boolean bSuccess = VarArray.arrayClearEntries (varName, iStart, iCount);
+        if (!bSuccess) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + " variable ref not found: " + varName);
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the CLEAR command
+    private int cmdClear (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // ParamName
+        ParameterStruct parmRef = cmdStruct.getParamEntry(0); // element 0 is the param ref to be modified
+        String varName = getArrayAssignment(parmRef);
+
+        // make sure we have write access to the variable
+        Variables.checkWriteAccess (varName);
+        
+        VarArray.arrayClearAll(varName);
+        return NEXT_COMMAND;
+    }
+
+    // runs the FILTER command
+    private int cmdFilter (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        // ParamName or RESET, 1 (optional) the filter string
+        ParameterStruct parmRef = cmdStruct.getParamEntry(0); // element 0 is the param ref or RESET
+        String varName = getArrayAssignment(parmRef);
+        if (varName.contentEquals("RESET")) {
+            VarArray.arrayFilterReset();
+        } else {
+            // make sure we have write access to the variable
+            Variables.checkWriteAccess (varName);
+        
+            ParameterStruct.ParamType parmType = Variables.getVariableTypeFromName (varName);
+            switch (parmType) {
+                case StrArray:
+                    String filter = cmdStruct.getParamEntry(1).getStringValue();
+                    String opts = "NONE";
+                    if (cmdStruct.getParamSize() == 3) {
+                        opts = cmdStruct.getParamEntry(2).getStringValue();
+                    }
+                    VarArray.arrayFilterString(varName, filter, opts);
+                    break;
+                case IntArray:
+                    String compSign = cmdStruct.getParamEntry(1).getStringValue();
+                    Long iValue = cmdStruct.getParamEntry(2).getIntegerValue();
+                    VarArray.arrayFilterInt(varName, compSign, iValue);
+                    break;
+                default:
+                    throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Invalid data type for FILTER: " + parmType);
+            }
+        }
+        return NEXT_COMMAND;
+    }
+
+    // runs the IF command
+    private int cmdIf (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int newIndex = NEXT_COMMAND;
+        // check status to see if true of false.
+        ParameterStruct parm1 = cmdStruct.getParamEntry(0);
+        ParameterStruct parm2 = cmdStruct.getParamSize() > 1 ? cmdStruct.getParamEntry(1) : null;
+        ParameterStruct parm3 = cmdStruct.getParamSize() > 2 ? cmdStruct.getParamEntry(2) : null;
+        Boolean bResult = getCondition(cmdStruct, parm1, parm2, parm3);
+        
+        // start the IF in the frame of the current call, with whether its condition was met
+        //  (so the ELSEs will be skipped if it was)
+        IFStruct ifInfo = cmdStruct.getIfInfo();
+        VarFrames.pushIf(ifInfo, bResult);
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "new IF level " + VarFrames.getIfDepth() + " " +
+                    parm1.getStringValue() + " " + ((parm2 != null) ? parm2.getStringValue() : "") +
+                                             " " + ((parm3 != null) ? parm3.getStringValue() : ""));
+        }
+
+        if (! bResult) {
+            newIndex = cmdStruct.getElseIndex();
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "IFCONDITION skipped");
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "goto next IF case @ " + newIndex);
+            }
+        } else {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "IFCONDITION executed");
+        }
+        return newIndex;
+    }
+
+    // runs the ELSE command
+    private int cmdElse (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int newIndex = NEXT_COMMAND;
+        if (VarFrames.getIfDepth() == 0) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Received when not in a IF structure");
+        }
+
+        // if the IF condition has already been met, jump to the ENDIF statement
+        IFStruct ifInfo = cmdStruct.getIfInfo();
+        if (VarFrames.isIfMet(ifInfo)) {
+            newIndex = cmdStruct.getEndIfIndex();
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "IFCONDITION already met");
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "goto ENDIF @ " + newIndex);
+            }
+        } else {
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "IF level " + VarFrames.getIfDepth() + " " + cmdStruct.getCommand() + " on line " + cmdIndex);
+            }
+        }
+        return newIndex;
+    }
+
+    // runs the ELSEIF command
+    private int cmdElseif (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int newIndex = NEXT_COMMAND;
+        if (VarFrames.getIfDepth() == 0) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Received when not in a IF structure");
+        }
+
+        // if the IF condition has already been met, jump to the ENDIF statement
+        IFStruct ifInfo = cmdStruct.getIfInfo();
+        if (VarFrames.isIfMet(ifInfo)) {
+            newIndex = cmdStruct.getEndIfIndex();
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "IFCONDITION already met");
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "goto ENDIF @ " + newIndex);
+            }
+        } else {
+            // check status to see if true of false.
+            ParameterStruct parm1 = cmdStruct.getParamEntry(0);
+            ParameterStruct parm2 = cmdStruct.getParamSize() > 1 ? cmdStruct.getParamEntry(1) : null;
+            ParameterStruct parm3 = cmdStruct.getParamSize() > 2 ? cmdStruct.getParamEntry(2) : null;
+            Boolean bResult = getCondition(cmdStruct, parm1, parm2, parm3);
+
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "new IF level " + VarFrames.getIfDepth() + " " +
                         parm1.getStringValue() + " " + ((parm2 != null) ? parm2.getStringValue() : "") +
                                                  " " + ((parm3 != null) ? parm3.getStringValue() : ""));
+            }
 
-                IFStruct ifInfo = IFStruct.getIfListEntry(cmdIndex);
-                if (! bResult) {
-                    newIndex = ifInfo.getElseIndex(cmdIndex);
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "IFCONDITION skipped");
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "goto next IF case @ " + newIndex);
-                    ifInfo.clearConditionMet();     // starting new IF and condition was not met
-                } else {
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "IFCONDITION executed");
-                    ifInfo.setConditionMet();       // we are running the condition, so ELSEs will be skipped
-                }
-                break;
-            case ELSE:
-                if (IFStruct.isIfStackEnpty()) {
-                    throw new ParserException(exceptPreface + "Received when not in a IF structure");
+            if (! bResult) {
+                newIndex = cmdStruct.getElseIndex();
+                GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "IFCONDITION skipped");
+                if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "goto next IF case @ " + newIndex);
                 }
+            } else {
+                GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "IFCONDITION executed");
+                VarFrames.setIfMet(ifInfo); // we are running the condition, so ELSEs will be skipped
+            }
+        }
+        return newIndex;
+    }
 
-                // if the IF condition has already been met, jump to the ENDIF statement
-                ifInfo = IFStruct.getIfListEntry();
-                if (ifInfo.isConditionMet()) {
-                    newIndex = ifInfo.getEndIndex();
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "IFCONDITION already met");
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "goto ENDIF @ " + newIndex);
-                } else {
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "IF level " + IFStruct.getStackSize() + " " + cmdStruct.getCommand() + " on line " + cmdIndex);
-                }
-                break;
-            case ELSEIF:
-                if (IFStruct.isIfStackEnpty()) {
-                    throw new ParserException(exceptPreface + "Received when not in a IF structure");
-                }
+    // runs the ENDIF command
+    private int cmdEndif (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        if (VarFrames.getIfDepth() == 0) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Received when not in a IF structure");
+        }
+        // (the condition met flag is set by the IF, so it doesn't need to be reset)
+        VarFrames.popIf();
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "new IF level " + VarFrames.getIfDepth() + ": " + cmdStruct.getCommand() + " on line " + cmdIndex);
+        }
+        return NEXT_COMMAND;
+    }
 
-                // if the IF condition has already been met, jump to the ENDIF statement
-                ifInfo = IFStruct.getIfListEntry();
-                if (ifInfo.isConditionMet()) {
-                    newIndex = ifInfo.getEndIndex();
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "IFCONDITION already met");
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "goto ENDIF @ " + newIndex);
-                } else {
-                    // check status to see if true of false.
-                    parm1 = cmdStruct.getParamEntry(0);
-                    parm2 = cmdStruct.getParamSize() > 1 ? cmdStruct.getParamEntry(1) : null;
-                    parm3 = cmdStruct.getParamSize() > 2 ? cmdStruct.getParamEntry(2) : null;
-                    bResult = getComparison(parm1, parm2, parm3);
-
-                    // add entry to the current loop stack
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "new IF level " + IFStruct.getStackSize() + " " +
-                            parm1.getStringValue() + " " + ((parm2 != null) ? parm2.getStringValue() : "") +
-                                                     " " + ((parm3 != null) ? parm3.getStringValue() : ""));
-
-                    if (! bResult) {
-                        newIndex = ifInfo.getElseIndex(cmdIndex);
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "IFCONDITION skipped");
-                        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "goto next IF case @ " + newIndex);
-                    } else {
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "IFCONDITION executed");
-                        ifInfo.setConditionMet(); // we are running the condition, so ELSEs will be skipped
-                    }
-                }
-                break;
-            case ENDIF:
-                if (IFStruct.isIfStackEnpty()) {
-                    throw new ParserException(exceptPreface + "Received when not in a IF structure");
-                }
-                // reset the condition met flag
-                ifInfo = IFStruct.getIfListEntry();
-                ifInfo.clearConditionMet();
-                
-                // save the current command index in the current if structure
-                IFStruct.stackPop();
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "new IF level " + IFStruct.getStackSize() + ": " + cmdStruct.getCommand() + " on line " + cmdIndex);
-                break;
-            case FOR:
-                String loopName  = cmdStruct.getParamEntry(0).getStringValue();
-                curLoopId = new LoopId(loopName, cmdIndex);
-                newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, curLoopId);
-                    
-                // add entry to the current loop stack
-                LoopStruct.pushStack(curLoopId);
-                int loopSize = LoopStruct.getStackSize();
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "new FOR Loop level " + loopSize+ " parameter " + loopName + " index @ " + cmdIndex);
-//                LoopStruct.sendCurrentLoopInfo();
-                break;
-            case BREAK:
-                loopSize = LoopStruct.getStackSize();
-                if (loopSize == 0 || curLoopId == null) {
-                    throw new ParserException(exceptPreface + "Received when not in a FOR loop");
-                }
-                newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, curLoopId);
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + cmdStruct.getCommand().toString() + " command for Loop level " + loopSize
-                                    + " parameter " + curLoopId.printLoopId());
+    // runs the FOR command
+    private int cmdFor (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int newIndex = NEXT_COMMAND;
+        String loopName  = cmdStruct.getParamEntry(0).getStringValue();
+        LoopStruct loopInfo = cmdStruct.getLoopInfo();
+        newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, loopInfo);
+            
+        // add entry to the current loop stack
+        VarFrames.pushLoop(loopInfo);
+        int loopSize = VarFrames.getLoopDepth();
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "new FOR Loop level " + loopSize+ " parameter " + loopName + " index @ " + cmdIndex);
+        }
 //                LoopStruct.sendCurrentLoopInfo();
-                break;
-            case SKIP:
-                loopSize = LoopStruct.getStackSize();
-                if (loopSize == 0 || curLoopId == null) {
-                    throw new ParserException(exceptPreface + "Received when not in a FOR loop");
-                }
-                newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, curLoopId);
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + cmdStruct.getCommand().toString() + " command for Loop level " + loopSize
-                                    + " parameter " + curLoopId.printLoopId());
+        return newIndex;
+    }
+
+    // runs the BREAK command
+    private int cmdBreak (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int newIndex = NEXT_COMMAND;
+        int loopSize = VarFrames.getLoopDepth();
+        if (loopSize == 0) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Received when not in a FOR loop");
+        }
+        newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, cmdStruct.getLoopInfo());
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + cmdStruct.getCommand().toString() + " command for Loop level " + loopSize
+                                + " parameter " + cmdStruct.getLoopInfo().getLoopId().printLoopId());
+        }
 //                LoopStruct.sendCurrentLoopInfo();
-                break;
-            case BREAKIF:
-                loopSize = LoopStruct.getStackSize();
-                if (loopSize == 0 || curLoopId == null) {
-                    throw new ParserException(exceptPreface + "Received when not in a FOR loop");
-                }
-                // check status to see if true of false.
-                parm1 = cmdStruct.getParamEntry(0);
-                parm2 = cmdStruct.getParamSize() > 1 ? cmdStruct.getParamEntry(1) : null;
-                parm3 = cmdStruct.getParamSize() > 2 ? cmdStruct.getParamEntry(2) : null;
-                bResult = getComparison(parm1, parm2, parm3);
-
-                if (! bResult) {
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "BREAKIF not TRUE - remain in loop");
-                } else {
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "BREAKIF is TRUE - exit loop");
-                    newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, curLoopId);
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "Loop " + curLoopId.printLoopId() + " exiting to index " + newIndex);
-                }
+        return newIndex;
+    }
+
+    // runs the SKIP command
+    private int cmdSkip (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int newIndex = NEXT_COMMAND;
+        int loopSize = VarFrames.getLoopDepth();
+        if (loopSize == 0) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Received when not in a FOR loop");
+        }
+        newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, cmdStruct.getLoopInfo());
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + cmdStruct.getCommand().toString() + " command for Loop level " + loopSize
+                                + " parameter " + cmdStruct.getLoopInfo().getLoopId().printLoopId());
+        }
 //                LoopStruct.sendCurrentLoopInfo();
-                break;
-            case SKIPIF:
-                loopSize = LoopStruct.getStackSize();
-                if (loopSize == 0 || curLoopId == null) {
-                    throw new ParserException(exceptPreface + "Received when not in a FOR loop");
-                }
-                // check status to see if true of false.
-                parm1 = cmdStruct.getParamEntry(0);
-                parm2 = cmdStruct.getParamSize() > 1 ? cmdStruct.getParamEntry(1) : null;
-                parm3 = cmdStruct.getParamSize() > 2 ? cmdStruct.getParamEntry(2) : null;
-                bResult = getComparison(parm1, parm2, parm3);
-
-                if (! bResult) {
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "SKIPIF not TRUE - do nothing");
-                } else {
-                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, debugPreface + "SKIPIF is TRUE - skip to next iteration");
-                    newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, curLoopId);
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + curLoopId.printLoopId() + " exiting to index " + newIndex);
-                }
+        return newIndex;
+    }
+
+    // runs the BREAKIF command
+    private int cmdBreakif (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int newIndex = NEXT_COMMAND;
+        int loopSize = VarFrames.getLoopDepth();
+        if (loopSize == 0) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Received when not in a FOR loop");
+        }
+        // check status to see if true of false.
+        ParameterStruct parm1 = cmdStruct.getParamEntry(0);
+        ParameterStruct parm2 = cmdStruct.getParamSize() > 1 ? cmdStruct.getParamEntry(1) : null;
+        ParameterStruct parm3 = cmdStruct.getParamSize() > 2 ? cmdStruct.getParamEntry(2) : null;
+        Boolean bResult = getCondition(cmdStruct, parm1, parm2, parm3);
+
+        if (! bResult) {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "BREAKIF not TRUE - remain in loop");
+        } else {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "BREAKIF is TRUE - exit loop");
+            newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, cmdStruct.getLoopInfo());
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "Loop " + cmdStruct.getLoopInfo().getLoopId().printLoopId() + " exiting to index " + newIndex);
+            }
+        }
 //                LoopStruct.sendCurrentLoopInfo();
-                break;
-            case NEXT:
-                loopSize = LoopStruct.getStackSize();
-                if (loopSize == 0 || curLoopId == null) {
-                    throw new ParserException(exceptPreface + "Received when not in a FOR loop");
-                }
-                newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, curLoopId);
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + cmdStruct.getCommand().toString() + " command for Loop level " + loopSize
-                                    + " " + curLoopId.printLoopId());
+        return newIndex;
+    }
+
+    // runs the SKIPIF command
+    private int cmdSkipif (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int newIndex = NEXT_COMMAND;
+        int loopSize = VarFrames.getLoopDepth();
+        if (loopSize == 0) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Received when not in a FOR loop");
+        }
+        // check status to see if true of false.
+        ParameterStruct parm1 = cmdStruct.getParamEntry(0);
+        ParameterStruct parm2 = cmdStruct.getParamSize() > 1 ? cmdStruct.getParamEntry(1) : null;
+        ParameterStruct parm3 = cmdStruct.getParamSize() > 2 ? cmdStruct.getParamEntry(2) : null;
+        Boolean bResult = getCondition(cmdStruct, parm1, parm2, parm3);
+
+        if (! bResult) {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "SKIPIF not TRUE - do nothing");
+        } else {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, DEBUG_PREFACE + "SKIPIF is TRUE - skip to next iteration");
+            newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, cmdStruct.getLoopInfo());
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + cmdStruct.getLoopInfo().getLoopId().printLoopId() + " exiting to index " + newIndex);
+            }
+        }
 //                LoopStruct.sendCurrentLoopInfo();
-                break;
-            case ENDFOR:
-                loopSize = LoopStruct.getStackSize();
-                if (loopSize == 0 || curLoopId == null) {
-                    throw new ParserException(exceptPreface + "Received when not in a FOR loop");
-                }
-                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + cmdStruct.getCommand().toString() + " command for Loop level " + loopSize
-                                    + " " + curLoopId.printLoopId());
-                LoopStruct.popStack();
-                loopSize = LoopStruct.getStackSize();
-                if (loopSize > 0) {
-                    curLoopId = LoopStruct.peekStack();
-                }
-                if (curLoopId == null) {
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "All loops completed so far");
-                } else {
-                    GUILogPanel.outputInfoMsg(MsgType.PROGRAM, debugPreface + "Current Loop level " + loopSize
-                                    + " " + curLoopId.printLoopId());
-                }
+        return newIndex;
+    }
+
+    // runs the NEXT command
+    private int cmdNext (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int newIndex = NEXT_COMMAND;
+        int loopSize = VarFrames.getLoopDepth();
+        if (loopSize == 0) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Received when not in a FOR loop");
+        }
+        newIndex = LoopParam.getLoopNextIndex (cmdStruct.getCommand(), cmdIndex, cmdStruct.getLoopInfo());
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + cmdStruct.getCommand().toString() + " command for Loop level " + loopSize
+                                + " " + cmdStruct.getLoopInfo().getLoopId().printLoopId());
+        }
 //                LoopStruct.sendCurrentLoopInfo();
-                break;
-            case RUN:
-                // fall through...
-            default:
-                cmdOptionParser.runCmdOption (cmdStruct);
-                break;
+        return newIndex;
+    }
+
+    // runs the ENDFOR command
+    private int cmdEndfor (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        int loopSize = VarFrames.getLoopDepth();
+        if (loopSize == 0) {
+            throw new ParserException(getExceptPreface(cmdIndex, cmdStruct) + "Received when not in a FOR loop");
         }
-        } catch (IOException | TikaException | SAXException | ParserException exMsg) {
-            if (AmazonReader.isOpModeNetwork()) {
-                String response = ScriptThread.limitNetworkString(exMsg.getMessage());
-                TCPServerThread.sendStatus("ERROR: " + response);
-                return -1;
-            } else {
-                Utils.throwAddendum (exMsg.getMessage(), exceptPreface);
-            }
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + cmdStruct.getCommand().toString() + " command for Loop level " + loopSize
+                                + " " + cmdStruct.getLoopInfo().getLoopId().printLoopId());
         }
-        
-        // by default, the command will proceed to the next command
-        if (newIndex >= 0) {
-            cmdIndex = newIndex;
+        VarFrames.popLoop();
+        loopSize = VarFrames.getLoopDepth();
+        if (loopSize == 0) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "All loops completed so far");
         } else {
-            cmdIndex++;
+            if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+                GUILogPanel.outputInfoMsg(MsgType.PROGRAM, DEBUG_PREFACE + "Current Loop level " + loopSize
+                                + " " + VarFrames.getLoop(loopSize - 1).getLoopId().printLoopId());
+            }
         }
-        
-        return cmdIndex;
+//                LoopStruct.sendCurrentLoopInfo();
+        return NEXT_COMMAND;
+    }
+
+    // runs the RUN command (and any command not handled above)
+    private int cmdRun (int cmdIndex, CommandStruct cmdStruct) throws ParserException, IOException, SAXException, TikaException {
+        cmdOptionParser.runCmdOption (cmdStruct);
+        return NEXT_COMMAND;
     }
 
 }
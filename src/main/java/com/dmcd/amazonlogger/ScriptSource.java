@@ -0,0 +1,123 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * This is the script file read into memory and split into its command lines.
+ *
+ * The script is read once, and the blank lines and comments are removed and
+ *  each remaining line is split into its command keyword and the parameter
+ *  String that follows it. The PreCompile and ScriptCompile passes both run
+ *  from this table, so the file is only opened once for the compile.
+ *
+ * @author dan
+ */
+public class ScriptSource {
+
+    private static final String CLASS_NAME = "ScriptSource";
+
+    private final File                  scriptFile; // the script file that was read
+    private final ArrayList<ScriptLine> lines;      // the command lines of the script
+    private final int                   lineCount;  // the number of lines in the file
+
+    /**
+     * a single command line from the script.
+     */
+    public static class ScriptLine {
+        private final int    lineNum;       // the line number in the script file
+        private final String line;          // the line (stripped and with comments removed)
+        private final String strCmd;        // the 1st word of the line
+        private final String parmString;    // the rest of the line following the 1st word
+        private final CommandStruct.CommandTable command; // the command (null if 1st word is not a command)
+
+        ScriptLine (int lineNum, String line) {
+            this.lineNum = lineNum;
+            this.line    = line;
+
+            // extract the 1st word as the command keyword
+            int offset = line.indexOf(" ");
+            if (offset > 0) {
+                this.strCmd     = line.substring(0, offset).strip();
+                this.parmString = line.substring(offset).strip();
+            } else {
+                this.strCmd     = line;
+                this.parmString = "";
+            }
+            this.command = CommandStruct.isValidCommand(this.strCmd);
+        }
+
+        public int getLineNum () {
+            return lineNum;
+        }
+
+        public String getLine () {
+            return line;
+        }
+
+        public String getCommandName () {
+            return strCmd;
+        }
+
+        public String getParamString () {
+            return parmString;
+        }
+
+        public CommandStruct.CommandTable getCommand () {
+            return command;
+        }
+    }
+
+    /**
+     * reads the script file into the table of command lines.
+     *
+     * @param scriptFile - the script file
+     *
+     * @throws IOException
+     */
+    public ScriptSource (File scriptFile) throws IOException {
+        this.scriptFile = scriptFile;
+        this.lines      = new ArrayList<>();
+
+        int lineNum = 0;
+        try (BufferedReader fileReader = new BufferedReader(new FileReader(scriptFile))) {
+            String line;
+            while ((line = fileReader.readLine()) != null) {
+                lineNum++;
+                line = line.strip();
+                // check for comment at end of lines
+                int comment = line.indexOf("##");
+                if (comment > 0) {
+                    line = line.substring(0, comment).strip();
+                }
+                if (line.isBlank() || line.charAt(0) == '#') {
+                    continue;
+                }
+                lines.add(new ScriptLine(lineNum, line));
+            }
+        }
+        this.lineCount = lineNum;
+        GUILogPanel.outputInfoMsg(MsgType.COMPILE, "Read " + lineCount + " lines (" + lines.size() + " commands) from: " + scriptFile.getAbsolutePath());
+    }
+
+    public File getFile () {
+        return scriptFile;
+    }
+
+    public ArrayList<ScriptLine> getLines () {
+        return lines;
+    }
+
+    public int getLineCount () {
+        return lineCount;
+    }
+
+}
@@ -23,7 +23,7 @@ public class ScriptThread implements Runnable {
     *  THE MAIN THREAD, AmazonReader, TO SET FLAGS IN THIS THREAD.
     */
     
-    private static final String CLASS_NAME = AmazonReader.class.getSimpleName();
+    private static final String CLASS_NAME = "AmazonReader";
     
     private static final int    MAX_STR_LENGTH = 150;
     
@@ -63,9 +63,12 @@ public class ScriptThread implements Runnable {
     /**
      * starts the class that will handle execution of the compiled commands.
      * This is called by AmazonReader thread when the compiler has completed.
+     *  The command pointer is reset, since the commands may have moved to new
+     *  indices if only some of the subroutines were compiled again.
      */
     public static void compilerComplete () {
         exec = new ScriptExecute(ScriptCompile.getFilename(), ScriptCompile.getMaxLines());
+        netCmdIndex = 0;
     }
     
     /**
@@ -206,6 +209,7 @@ public class ScriptThread implements Runnable {
         Variables.resetVariables(); // reset all variable values back to default
         LoopStruct.resetStack();    // reset the loop stack
         Subroutine.resetStack();    // reset subroutine stack
+        Profiler.reset();           // reset the execution statistics
         Spreadsheet.init();         // reset spreadsheet params
         OpenDoc.init();             // reset the OpenDoc params
         GUIMain.elapsedTimerDisable();  // stop the timer for the timestamp
@@ -307,7 +311,7 @@ public class ScriptThread implements Runnable {
      * @throws TikaException 
      */
     private static void runScriptNetwork () throws ParserException, IOException, SAXException, TikaException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".runScriptNetwork: ";
         
         int compileSize = ScriptCompile.getCompiledSize();
         if (compileSize <= 0 || exec == null || netCmdIndex < 0 || netCmdIndex > compileSize) {
@@ -325,6 +329,7 @@ public class ScriptThread implements Runnable {
         // enable timestamp on log messages
         GUIMain.elapsedTimerEnable();
 
+        SampleProfiler.setActive(true);
         try {
             while (netCmdIndex >= 0 && netCmdIndex < compileSize) {
                 // execute next command
@@ -348,6 +353,8 @@ public class ScriptThread implements Runnable {
             }
         } catch (ParserException exMsg) {
             Utils.throwAddendum (exMsg.getMessage(), functionId);
+        } finally {
+            SampleProfiler.setActive(false);
         }
 
         // pause the timer
@@ -362,6 +369,7 @@ public class ScriptThread implements Runnable {
         
         // we have completed - if running from network, inform the client and stop the timer
         if (isScriptCompleted()) {
+            sendProfileReport();
             TCPServerThread.sendStatus("EOF");
             GUIMain.elapsedTimerDisable();
         }
@@ -376,7 +384,7 @@ public class ScriptThread implements Runnable {
      * @throws TikaException 
      */
     private static void runScriptStep () throws ParserException, IOException, SAXException, TikaException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".runScriptStep: ";
         
         int compileSize = ScriptCompile.getCompiledSize();
         if (compileSize <= 0 || exec == null || netCmdIndex < 0 || netCmdIndex > compileSize) {
@@ -415,10 +423,22 @@ public class ScriptThread implements Runnable {
         
         // reset ptr to begining if we reached the end of the script
         if (isScriptCompleted()) {
+            sendProfileReport();
             TCPServerThread.sendStatus("EOF");
         } else {
             TCPServerThread.sendStatus("STEPPED");
         }
     }
 
+    /**
+     * sends the execution statistics to the client when the script completes,
+     *  if profiling is enabled.
+     */
+    private static void sendProfileReport () {
+        if (Profiler.isEnabled()) {
+            Profiler.finish();
+            TCPServerThread.sendProfileInfo(Profiler.getReport());
+        }
+    }
+
 }
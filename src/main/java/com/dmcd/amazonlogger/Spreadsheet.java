@@ -31,7 +31,7 @@ import javax.swing.filechooser.FileNameExtensionFilter;
  */
 public class Spreadsheet {
 
-    private static final String CLASS_NAME = Spreadsheet.class.getSimpleName();
+    private static final String CLASS_NAME = "Spreadsheet";
     
     private static final String SKIP_AMOUNT = "-";          // the value to use for Total amount if entry is omitted
     private static final String RETURN_DATE = "RETURN";     // the date value to use for Delivered if item was returned
@@ -84,7 +84,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     private static Integer getColumn (Column colName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getColumn: ";
 
         if (hmSheetColumns.isEmpty()) {
             throw new ParserException(functionId + "Error in locating column header information");
@@ -122,7 +122,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     private static void setupColumns (boolean bHeader) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setupColumns: ";
 
         hmSheetColumns.clear();
         if (! bHeader) {
@@ -216,7 +216,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     private static String getStringValue (Column colEnum, int row) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getStringValue: ";
 
         String strValue = "";
         int rowSize = OpenDoc.getRowSize();
@@ -246,7 +246,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     private static Integer getIntegerValue (Column colEnum, int row, int iDecShift) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getIntegerValue: ";
 
         Integer iValue = 0;
         Integer col = getColumn(colEnum);
@@ -329,7 +329,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     public static String getDateOrdered (int row) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getDateOrdered: ";
 
         int rowSize = OpenDoc.getRowSize();
         if (row >= rowSize) {
@@ -430,7 +430,7 @@ public class Spreadsheet {
      * @return +1 if successful, 0 if optional and value not present, -1 if error
      */
     private static int setSpreadsheetString (int row, String strOrdNum, boolean bOverwrite, boolean bIsRequired, Column colEnum, String strVal) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setSpreadsheetString: ";
 
         // value not defined, just exit
         if (strVal == null)
@@ -477,7 +477,7 @@ public class Spreadsheet {
      * @return +1 if successful, 0 if optional and value not present, -1 if error
      */
     private static int setSpreadsheetInteger (int row, String strOrdNum, boolean bOverwrite, boolean bIsRequired, Column colEnum, Integer iVal) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setSpreadsheetInteger: ";
 
         // value not defined, just exit
         if (iVal == null)
@@ -524,7 +524,7 @@ public class Spreadsheet {
      * @return +1 if successful, 0 if optional and value not present, -1 if error
      */
     private static int setSpreadsheetCost (int row, String strOrdNum, boolean bOverwrite, boolean bIsRequired, Column colEnum, Integer iVal) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setSpreadsheetCost: ";
 
         // value not defined, just exit
         if (iVal == null)
@@ -574,7 +574,7 @@ public class Spreadsheet {
      * @return +1 if successful, 0 if optional and value not present, -1 if error
      */
     private static int setSpreadsheetDate (int row, String strOrdNum, boolean bOverwrite, boolean bIsRequired, Column colEnum, LocalDate date) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setSpreadsheetDate: ";
 
         // value not defined, just exit
         if (date == null)
@@ -620,7 +620,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     public static int setSpreadsheetOrderInfo (int startRow, AmazonOrder order, boolean bOverwrite) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setSpreadsheetOrderInfo: ";
 
         // check for input errors
         if (startRow < 0 || order == null || order.isItemEmpty()) {
@@ -752,7 +752,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     public static void highlightOrderInfo (int row, boolean bPayment, boolean bRemaining, Color colorOfMonth) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".highlightOrderInfo: ";
 
         int rowSize = OpenDoc.getRowSize();
         if (row >= rowSize) {
@@ -882,7 +882,7 @@ public class Spreadsheet {
      * @throws ParserException 
      */
     public static boolean findCreditCardEntry (String sheetName, String strPdfName) throws IOException, ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".findCreditCardEntry: ";
 
         // load the spreadsheet sheets into memory for each account
         selectSpreadsheetTab (sheetName);
@@ -974,7 +974,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     public static void selectSpreadsheetTab (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".selectSpreadsheetTab: ";
 
         if (name == null) {
             throw new ParserException(functionId + "spreadsheet tab selection is null");
@@ -1012,7 +1012,7 @@ public class Spreadsheet {
      * @throws IOException
      */
     public static void putSpreadsheetRow (int col, int row, ArrayList<String> listVal) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".putSpreadsheetRow: ";
 
         if (listVal == null || listVal.isEmpty()) {
             throw new ParserException(functionId + "selected sheet is null");
@@ -1055,7 +1055,7 @@ public class Spreadsheet {
      * @throws IOException
      */
     public static void putSpreadsheetCol (int col, int row, ArrayList<String> listVal) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".putSpreadsheetCol: ";
 
         if (listVal == null || listVal.isEmpty()) {
             throw new ParserException(functionId + "selected sheet is null");
@@ -1096,14 +1096,14 @@ public class Spreadsheet {
      * @throws ParserException
      * @throws IOException
      */
-    public static void putSpreadsheetColorRow (int col, int row, ArrayList<Long> listVal) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public static void putSpreadsheetColorRow (int col, int row, LongArray listVal) throws ParserException, IOException {
+        String functionId = CLASS_NAME + ".putSpreadsheetColorRow: ";
 
         if (listVal == null || listVal.isEmpty()) {
             throw new ParserException(functionId + "selected sheet is null");
         }
         for (int ix = 0; ix < listVal.size(); ix++) {
-            int rgb = listVal.get(ix).intValue();
+            int rgb = (int) listVal.get(ix);
             Color cellColor = Utils.getColor("RGB", rgb);
             OpenDoc.setCellColor (col + ix, row, cellColor);
         }
@@ -1119,14 +1119,14 @@ public class Spreadsheet {
      * @throws ParserException
      * @throws IOException
      */
-    public static void putSpreadsheetColorCol (int col, int row, ArrayList<Long> listVal) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public static void putSpreadsheetColorCol (int col, int row, LongArray listVal) throws ParserException, IOException {
+        String functionId = CLASS_NAME + ".putSpreadsheetColorCol: ";
 
         if (listVal == null || listVal.isEmpty()) {
             throw new ParserException(functionId + "selected sheet is null");
         }
         for (int ix = 0; ix < listVal.size(); ix++) {
-            int rgb = listVal.get(ix).intValue();
+            int rgb = (int) listVal.get(ix);
             Color cellColor = Utils.getColor("RGB", rgb);
             OpenDoc.setCellColor (col, row + ix, cellColor);
         }
@@ -1180,7 +1180,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     public static void selectSpreadsheet(File ssFile) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".selectSpreadsheet: ";
 
         // disable the last line info until we have loaded a spreadsheet
         GUIMain.enableLastLineInfo(false);
@@ -1256,7 +1256,7 @@ public class Spreadsheet {
      * @throws ParserException
      */
     public static void loadSheets(int numSheets, boolean bCheckHeader) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".loadSheets: ";
 
         // load the specified number of tabs of the spreadsheet into memory
         OpenDoc.loadFromFile (numSheets);
@@ -1333,7 +1333,7 @@ public class Spreadsheet {
      * @throws IOException
      */
     public static void addTab (String tabName, ArrayList<String> arrList) throws ParserException, IOException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".addTab: ";
         
         if (tabName == null || tabName.isBlank()) {
             throw new ParserException(functionId + "Tab name is blank");
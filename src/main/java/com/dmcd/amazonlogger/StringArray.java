@@ -0,0 +1,374 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * This holds the values of a StrArray.
+ *
+ * The entries are kept in a String array that grows as entries are added.
+ *  A copy of the array shares the same entries until either one of them is
+ *  modified, at which time the one being modified makes its own copy of them.
+ *  This allows a StrArray to be passed between Variables and parameters
+ *  without copying all of its entries.
+ *
+ * The array can also be a view of the entries of another one, so that a range
+ *  of the entries (from the [start-end] index of a Variable reference), the
+ *  entries in reverse order or the entries selected by a FILTER can be used
+ *  without copying the Strings. The view only copies the entries if it is
+ *  modified. The entries of a view are located by:
+ *      the position of entry ix = start + (step * ix)
+ *      the data index = position (or map[position] if there is a map)
+ *
+ * @author dan
+ */
+public class StringArray implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] EMPTY = new String[0];
+    private static final int      MIN_CAPACITY = 8;
+
+    private String[] data;      // the entries (may be shared with other copies and views)
+    private int[]    map;       // the data index for each entry of a filtered view (null if not filtered)
+    private int      start;     // the position of the 1st entry
+    private int      step;      // 1 for increasing positions, -1 for a reversed view
+    private int      size;      // the number of entries
+    private boolean  bShared;   // true if the entries may be shared with another copy or view
+
+    public StringArray () {
+        this (EMPTY, 0);
+    }
+
+    /**
+     * creates an empty array with room for the specified number of entries.
+     *
+     * @param capacity - the number of entries to allocate
+     */
+    public StringArray (int capacity) {
+        this ((capacity <= 0) ? EMPTY : new String[capacity], 0);
+    }
+
+    /**
+     * creates an array containing the entries of a list.
+     *
+     * @param list - the entries to copy
+     */
+    public StringArray (Collection<String> list) {
+        this (list.toArray(EMPTY), list.size());
+    }
+
+    private StringArray (String[] data, int size) {
+        this.data    = data;
+        this.map     = null;
+        this.start   = 0;
+        this.step    = 1;
+        this.size    = size;
+        this.bShared = false;
+    }
+
+    // creates a view of the entries of another array
+    private StringArray (StringArray from, int[] map, int start, int step, int size) {
+        this.data    = from.data;
+        this.map     = map;
+        this.start   = start;
+        this.step    = step;
+        this.size    = size;
+        this.bShared = true;
+        from.bShared = true;
+    }
+
+    /**
+     * creates an array that uses the entries passed, without copying them.
+     * The entries must not be modified by the caller afterwards.
+     *
+     * @param entries - the entries of the array
+     *
+     * @return the array
+     */
+    public static StringArray wrap (String[] entries) {
+        return new StringArray (entries, entries.length);
+    }
+
+    /**
+     * returns a copy of the array.
+     * The copy shares the entries with this one until either of them is modified.
+     *
+     * @return the copy
+     */
+    public StringArray copy () {
+        return new StringArray (this, map, start, step, size);
+    }
+
+    /**
+     * returns a view of a range of the entries.
+     *
+     * @param from - the index of the first entry
+     * @param end  - the index after the last entry
+     *
+     * @return the view of the entries
+     */
+    public StringArray slice (int from, int end) {
+        checkRange (from, end);
+        return new StringArray (this, map, start + (step * from), step, end - from);
+    }
+
+    /**
+     * returns a view of the entries in reverse order.
+     *
+     * @return the view of the entries
+     */
+    public StringArray reversed () {
+        return new StringArray (this, map, start + (step * (size - 1)), -step, size);
+    }
+
+    /**
+     * returns a view of the entries that are selected by the filter.
+     *
+     * @param filter - true for each entry to keep (must be the same size as the array)
+     *
+     * @return the view of the entries
+     */
+    public StringArray filter (ArrayList<Boolean> filter) {
+        int[] select = new int[size];
+        int count = 0;
+        for (int ix = 0; ix < size; ix++) {
+            if (filter.get(ix)) {
+                select[count++] = dataIndex (ix);
+            }
+        }
+        return new StringArray (this, Arrays.copyOf(select, count), 0, 1, count);
+    }
+
+    /**
+     * returns a new array containing the entries sorted from A-Z.
+     *
+     * @return the sorted array
+     */
+    public StringArray sorted () {
+        String[] entries = toArray();
+        Arrays.sort(entries);
+        return new StringArray (entries, entries.length);
+    }
+
+    public int size () {
+        return size;
+    }
+
+    public boolean isEmpty () {
+        return size == 0;
+    }
+
+    public String get (int index) {
+        checkIndex (index, size);
+        return data[dataIndex (index)];
+    }
+
+    public String getFirst () {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return data[dataIndex (0)];
+    }
+
+    public String getLast () {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return data[dataIndex (size - 1)];
+    }
+
+    public void set (int index, String value) {
+        checkIndex (index, size);
+        prepareWrite (size);
+        data[index] = value;
+    }
+
+    public void add (String value) {
+        prepareWrite (size + 1);
+        data[size++] = value;
+    }
+
+    /**
+     * inserts a value in the array, moving the current entry at that index
+     *  and all following it back 1 entry.
+     *
+     * @param index - the index of where to insert the value
+     * @param value - the value to insert
+     */
+    public void add (int index, String value) {
+        checkIndex (index, size + 1);
+        prepareWrite (size + 1);
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    /**
+     * adds the entries of another array to the end of this one.
+     *
+     * @param values - the array of values to add
+     */
+    public void addAll (StringArray values) {
+        addAll (size, values);
+    }
+
+    /**
+     * inserts the entries of another array in this one, moving the current
+     *  entry at that index and all following it back.
+     *
+     * @param index  - the index of where to insert the values
+     * @param values - the array of values to insert
+     */
+    public void addAll (int index, StringArray values) {
+        checkIndex (index, size + 1);
+        String[] entries = values.toArray();    // in case it is this array
+        prepareWrite (size + entries.length);
+        System.arraycopy(data, index, data, index + entries.length, size - index);
+        System.arraycopy(entries, 0, data, index, entries.length);
+        size += entries.length;
+    }
+
+    /**
+     * adds the entries of a list to the end of the array.
+     *
+     * @param values - the list of values to add
+     */
+    public void addAll (Collection<String> values) {
+        prepareWrite (size + values.size());
+        for (String value : values) {
+            data[size++] = value;
+        }
+    }
+
+    public String remove (int index) {
+        checkIndex (index, size);
+        String value = get (index);
+        removeRange (index, index + 1);
+        return value;
+    }
+
+    /**
+     * removes the entries from the start index up to (but not including) the end index.
+     *
+     * @param from - the index of the first entry to remove
+     * @param end  - the index after the last entry to remove
+     */
+    public void removeRange (int from, int end) {
+        checkRange (from, end);
+        if (from == end) {
+            return;
+        }
+        if (from == 0 && end == size) {
+            clear();
+            return;
+        }
+        prepareWrite (size);
+        System.arraycopy(data, end, data, from, size - end);
+        Arrays.fill(data, size - (end - from), size, null);
+        size -= end - from;
+    }
+
+    public void clear () {
+        if (bShared || ! isDirect()) {
+            data    = EMPTY;
+            map     = null;
+            start   = 0;
+            step    = 1;
+            bShared = false;
+        } else {
+            Arrays.fill(data, 0, size, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * returns a copy of the entries.
+     *
+     * @return the entries
+     */
+    public String[] toArray () {
+        if (isDirect()) {
+            return Arrays.copyOf(data, size);
+        }
+        String[] entries = new String[size];
+        for (int ix = 0; ix < size; ix++) {
+            entries[ix] = data[dataIndex (ix)];
+        }
+        return entries;
+    }
+
+    /**
+     * returns a copy of the entries as a list.
+     * This is used for passing the entries to the methods that take a list.
+     *
+     * @return the list of entries
+     */
+    public ArrayList<String> toList () {
+        return new ArrayList<>(Arrays.asList(toArray()));
+    }
+
+    @Override
+    public String toString () {
+        StringBuilder strValue = new StringBuilder();
+        strValue.append('[');
+        for (int ix = 0; ix < size; ix++) {
+            if (ix > 0) {
+                strValue.append(", ");
+            }
+            strValue.append(data[dataIndex (ix)]);
+        }
+        return strValue.append(']').toString();
+    }
+
+    // returns the index in the data for the specified entry
+    private int dataIndex (int index) {
+        int pos = start + (step * index);
+        return (map == null) ? pos : map[pos];
+    }
+
+    // indicates if the entries are the first ones of the data in increasing order
+    private boolean isDirect () {
+        return map == null && step == 1 && start == 0;
+    }
+
+    // makes sure the entries are not shared and are the first ones of the data
+    //  in increasing order, and that there is room for the specified number of entries
+    private void prepareWrite (int capacity) {
+        if (bShared || ! isDirect()) {
+            String[] entries = new String[Math.max(capacity, size)];
+            for (int ix = 0; ix < size; ix++) {
+                entries[ix] = data[dataIndex (ix)];
+            }
+            data    = entries;
+            map     = null;
+            start   = 0;
+            step    = 1;
+            bShared = false;
+        }
+        if (capacity > data.length) {
+            int newSize = Math.max(capacity, Math.max(MIN_CAPACITY, data.length + (data.length >> 1)));
+            data = Arrays.copyOf(data, newSize);
+        }
+    }
+
+    private static void checkIndex (int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + limit);
+        }
+    }
+
+    private void checkRange (int from, int end) {
+        if (from < 0 || end > size || from > end) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + end + ") out of bounds for length " + size);
+        }
+    }
+
+}
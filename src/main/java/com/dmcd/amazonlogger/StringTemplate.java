@@ -0,0 +1,203 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * This is a discrete String parameter that has embedded Variable references
+ *  in the form <$name>, split into its literal and Variable segments.
+ *
+ * The String is split up when the script is compiled, so when the command is
+ *  run the segments only have to be appended together with the current values
+ *  of the Variables. Any number of references can be embedded in the String
+ *  and the references can have brackets and Traits attached to the name.
+ *  A String that has no references is given the LITERAL template, which
+ *  indicates the String is used as is.
+ *
+ * @author dan
+ */
+public class StringTemplate implements Serializable {
+
+    private static final String CLASS_NAME = "StringTemplate";
+    private static final long serialVersionUID = 1L;
+
+    private static final String REF_START = "<$";
+    private static final char   REF_END   = '>';
+
+    // the template for all Strings that don't have an embedded reference
+    public static final StringTemplate LITERAL = new StringTemplate(new Segment[0]);
+
+    // the builder the Strings are rendered in. This is kept for each thread
+    //  rather than in the template, so a compiled template can be run by more
+    //  than one script at a time. A String that is rendered while another is
+    //  in progress (from a Variable lookup) is appended after it and removed
+    //  when done.
+    private static final ThreadLocal<StringBuilder> renderBuffer = ThreadLocal.withInitial(StringBuilder::new);
+
+    private final Segment[] segments;   // the literal and reference segments in order
+
+    /**
+     * a section of the String, which is either literal text or a Variable reference.
+     * If the varRef of a reference is null, the Variable was not known when the
+     *  script was compiled and has to be looked up by name when run.
+     *  A reference to a loop Variable has the loop it belongs to.
+     */
+    private static final class Segment implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String        text;       // the literal text or the reference name
+        private final VarExtensions varRef;     // the compiled reference (null if literal or not known)
+        private final LoopStruct    loop;       // the loop of a loop Variable reference (else null)
+        private final boolean       bLiteral;   // true if this is a literal String
+
+        Segment (String text) {
+            this.text     = text;
+            this.varRef   = null;
+            this.loop     = null;
+            this.bLiteral = true;
+        }
+
+        Segment (String name, VarExtensions varRef) {
+            this.text     = name;
+            this.varRef   = varRef;
+            this.loop     = LoopStruct.getActiveLoop(name);
+            this.bLiteral = false;
+        }
+    }
+
+    private StringTemplate (Segment[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * splits a discrete String into its literal and Variable reference segments.
+     *
+     * @param strValue - the String value of the parameter
+     *
+     * @return the template for the String (LITERAL if there are no references in it)
+     */
+    public static StringTemplate compile (String strValue) {
+        if (strValue == null || strValue.indexOf(REF_START) < 0) {
+            return LITERAL;
+        }
+
+        ArrayList<Segment> list = new ArrayList<>();
+        int start = 0;
+        boolean bReference = false;
+        while (start < strValue.length()) {
+            int offset = strValue.indexOf(REF_START, start);
+            int offset2 = (offset < 0) ? -1 : strValue.indexOf(REF_END, offset + REF_START.length());
+            if (offset2 < 0) {
+                // no more complete references, so the rest of the String is literal
+                list.add(new Segment(strValue.substring(start)));
+                break;
+            }
+            String varname = strValue.substring(offset + REF_START.length(), offset2).strip();
+            if (varname.isEmpty()) {
+                // an empty reference name is kept as literal text
+                list.add(new Segment(strValue.substring(start, offset2 + 1)));
+            } else {
+                if (offset > start) {
+                    list.add(new Segment(strValue.substring(start, offset)));
+                }
+                list.add(new Segment(varname, getReference (varname)));
+                bReference = true;
+            }
+            start = offset2 + 1;
+        }
+        if (! bReference) {
+            return LITERAL;
+        }
+        return new StringTemplate(list.toArray(new Segment[0]));
+    }
+
+    /**
+     * indicates if the String has any embedded Variable references.
+     *
+     * @return true if the String has to be built when it is run
+     */
+    public boolean hasReferences () {
+        return segments.length > 0;
+    }
+
+    /**
+     * builds the String from the current values of its Variable references.
+     *
+     * @return the String value
+     *
+     * @throws ParserException
+     */
+    public String render () throws ParserException {
+        String functionId = CLASS_NAME + ".render: ";
+
+        StringBuilder builder = renderBuffer.get();
+        int start = builder.length();
+        try {
+            for (Segment segment : segments) {
+                if (segment.bLiteral) {
+                    builder.append(segment.text);
+                    continue;
+                }
+                if (segment.loop != null) {
+                    builder.append(segment.loop.getLoopValue());
+                    continue;
+                }
+                VarExtensions varRef = segment.varRef;
+                if (varRef == null) {
+                    // the reference could not be resolved at compile time, so do it now
+                    try {
+                        varRef = new VarExtensions(new VarExtract("$" + segment.text));
+                    } catch (ParserException exMsg) {
+                        Utils.throwAddendum (exMsg.getMessage(), functionId);
+                    }
+                }
+                int slot = varRef.getSlot();
+                if (slot >= 0 && varRef.isPlainName() && VarSlots.getInfo(slot).getType() == ParameterStruct.ParamType.String) {
+                    builder.append(Variables.getSlotString(slot));
+                    continue;
+                }
+                ParameterStruct value = Variables.getVariableInfo(varRef);
+                builder.append((value == null) ? segment.text : value.getStringValue());
+            }
+            return builder.substring(start);
+        } finally {
+            builder.setLength(start);
+        }
+    }
+
+    /**
+     * gets the compiled reference for an embedded Variable name.
+     *
+     * @param varname - the name of the Variable (with any brackets and Traits)
+     *
+     * @return the compiled reference (null if the Variable is not known yet)
+     */
+    private static VarExtensions getReference (String varname) {
+        try {
+            // (the reference is on the right side, so it can have brackets and Traits)
+            VarExtensions varRef = new VarExtensions(new VarExtract("$" + varname));
+            if (varRef.getName() != null && varRef.getType() != null) {
+                return varRef;
+            }
+        } catch (ParserException exMsg) {
+            // will be reported when the command is run
+        }
+        return null;
+    }
+
+    @Override
+    public String toString () {
+        int count = 0;
+        for (Segment segment : segments) {
+            if (! segment.bLiteral) {
+                count++;
+            }
+        }
+        return segments.length + " segments, " + count + " references";
+    }
+
+}
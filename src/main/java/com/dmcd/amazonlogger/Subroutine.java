@@ -5,6 +5,10 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,7 +20,7 @@ import java.util.Stack;
  */
 public class Subroutine {
     
-    private static final String CLASS_NAME = Subroutine.class.getSimpleName();
+    private static final String CLASS_NAME = "Subroutine";
     
     private static final String MAIN_FCTN = "*MAIN*";
     private static final String INDENT = "     ";
@@ -28,9 +32,9 @@ public class Subroutine {
     // (for EXECUTION only)
     private static final HashMap<String, Integer> subroutines = new HashMap<>();
     
-    // contains the running list of command index locations to return to after sub call
-    // (for EXECUTION only)
-    private final static Stack<SubCall> subStack = new Stack<>();
+    // contains the frames of the running subroutine calls, which hold the
+    //  command index locations to return to after sub call (for EXECUTION only)
+    private final static Stack<VarFrames.Frame> subStack = new Stack<>();
     
     // this holds the script line numbers associated with the subroutines (during COMPILE)
     private static String lastSubName = null;
@@ -40,7 +44,7 @@ public class Subroutine {
     private static final ArrayList<String>  subUsed = new ArrayList<>();
     
     // the current script line number
-    private static Integer curLineNum  = 1;
+    private static volatile int curLineNum = 1;
     
     // indicates whether the script is compiling or executing code
     private static boolean bExecuteMode = false;
@@ -56,6 +60,37 @@ public class Subroutine {
         lastSubName = null;
         curLineNum = 1;
         bExecuteMode = false;
+        VarFrames.initSubs();
+        VarFrames.init();
+    }
+
+    /**
+     * saves the subroutine definitions for the compiled script cache.
+     * 
+     * @param out - the cache file stream
+     * 
+     * @throws IOException
+     */
+    static void saveState (ObjectOutputStream out) throws IOException {
+        out.writeObject(subroutines);
+        out.writeObject(subCallList);
+        out.writeObject(subUsed);
+    }
+
+    /**
+     * restores the subroutine definitions from the compiled script cache.
+     * 
+     * @param in - the cache file stream
+     * 
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @SuppressWarnings("unchecked")
+    static void loadState (ObjectInputStream in) throws IOException, ClassNotFoundException {
+        init();
+        subroutines.putAll((HashMap<String, Integer>) in.readObject());
+        subCallList.addAll((ArrayList<SubInfo>) in.readObject());
+        subUsed.addAll((ArrayList<String>) in.readObject());
     }
     
     /**
@@ -65,6 +100,7 @@ public class Subroutine {
      */
     public static void resetStack() {
         subStack.clear();
+        VarFrames.init();
         lastSubName = null;
         curLineNum = 1;
 //        bExecuteMode = false;
@@ -75,6 +111,64 @@ public class Subroutine {
      */
     public static void beginExecution() {
         bExecuteMode = true;
+        subStack.clear();
+        VarFrames.init();
+    }
+    
+    /**
+     * sets the flag to indicate we are compiling code again.
+     * This is used by the incremental compile, which keeps the subroutine
+     *  definitions from the previous compile.
+     */
+    public static void beginCompile() {
+        resetStack();
+        bExecuteMode = false;
+    }
+
+    /**
+     * moves the subroutines to the new command indices of their SUB commands.
+     * This is used by the incremental compile, which removes the commands of
+     *  the subroutines that changed and moves the rest of the commands.
+     *  The subroutines whose SUB command was removed are dropped, since they
+     *  will be added again when the subroutine is compiled.
+     * 
+     * @param newIndex - the new command index for each old one (-1 if removed)
+     */
+    static void relocate (int[] newIndex) {
+        subroutines.replaceAll((name, cmdIx) -> newIndex[cmdIx]);
+        subroutines.values().removeIf(cmdIx -> cmdIx < 0);
+    }
+
+    /**
+     * sets the script line range of a subroutine (or MAIN).
+     * This is used by the incremental compile when the lines of the script
+     *  have moved since the subroutines were defined by the pre-compile.
+     * 
+     * @param name      - name of subroutine
+     * @param startLine - the line number of the SUB command (0 for MAIN)
+     * @param endLine   - the line number of the ENDSUB (or ENDMAIN) command
+     * 
+     * @throws ParserException
+     */
+    static void setLineRange (String name, int startLine, int endLine) throws ParserException {
+        String functionId = CLASS_NAME + ".setLineRange: ";
+
+        Integer ix = getCompileInfo(name);
+        if (ix == null) {
+            throw new ParserException(functionId + "Subroutine not found: " + name);
+        }
+        SubInfo info = new SubInfo(name, startLine);
+        info.setEndIx(endLine);
+        subCallList.set(ix, info);
+    }
+
+    /**
+     * returns the name used for the MAIN section in the subroutine list.
+     * 
+     * @return the name of MAIN
+     */
+    static String getMainName() {
+        return MAIN_FCTN;
     }
     
     /**
@@ -84,7 +178,9 @@ public class Subroutine {
      *   contained in the MAIN section of the script or in a subroutine, and which
      *   subroutine. This is only used for the COMPILER .
      */
-    private class SubInfo {
+    private static class SubInfo implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final String subName;
         private final int    startIx;
         private int          endIx;
@@ -108,32 +204,6 @@ public class Subroutine {
         }
     }
     
-    /**
-     * this class defines subroutine call information that is placed in the subStack.
-     * 
-     * This allows us to get the line to return to upon exit and the parameters
-     *  that the subroutine was passed. This is used exclusively in the EXECUTION stage.
-     * 
-     * The new SubCall is performed when the GOSUB command is executed.
-     */
-    private class SubCall {
-        private final int     cmdIndex;   // command index of return location
-        private final String  name;       // name of current subroutine
-        
-        SubCall (int index, String name) {
-            this.cmdIndex = index;
-            this.name  = name;
-        }
-        
-        String getName() {
-            return this.name;
-        }
-        
-        int getIndex() {
-            return this.cmdIndex;
-        }
-    }
-
     Subroutine() {
         curLineNum = 1;
     }
@@ -142,6 +212,9 @@ public class Subroutine {
      * sends the subroutine stack list to the network client.
      */
     public static void sendSubStackList() {
+        if (! AmazonReader.isOpModeNetwork()) {
+            return;
+        }
         String response = "MAIN";
         for (int ix = 0; ix < subStack.size(); ix++) {
             response +=  " " + DATA_SEP + " " + subStack.get(ix).getName();
@@ -202,6 +275,18 @@ public class Subroutine {
         return curLineNum;
     }
 
+    /**
+     * gets the script line number currently being compiled or executed.
+     * 
+     * @return the script line number
+     */
+    public static int getScriptLine () {
+        if (bExecuteMode) {
+            return ScriptCompile.getLineNumber(curLineNum);
+        }
+        return curLineNum;
+    }
+
     /**
      * determines if code is currently from the MAIN section of the script.
      * 
@@ -222,7 +307,7 @@ public class Subroutine {
         if (bExecuteMode) {
             // in EXECUTE mode we just check the stack to see where we are
             if (! subStack.empty()) {
-                SubCall info = subStack.peek();
+                VarFrames.Frame info = subStack.peek();
                 if (info != null) {
                     subName = info.getName();
                 }
@@ -271,7 +356,7 @@ public class Subroutine {
      * @throws ParserException 
      */
     private void replaceCompileInfo (int ix, SubInfo info) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".replaceCompileInfo: ";
 
         String tblSub = subCallList.get(ix).subName;
         if (! tblSub.contentEquals(info.subName)) {
@@ -308,7 +393,7 @@ public class Subroutine {
      * @throws ParserException
      */
     private static boolean isValidSubName (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isValidSubName: ";
 
         if (name == null || name.isBlank()) {
             throw new ParserException(functionId + "Subroutine name is empty");
@@ -333,7 +418,7 @@ public class Subroutine {
      * @throws ParserException 
      */
     public static void checkSubroutineMissing() throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkSubroutineMissing: ";
 
         String missingList = "";
         String missingEnd  = "";
@@ -374,7 +459,7 @@ public class Subroutine {
      * @throws ParserException
      */
     private static void compileAddSubroutine (String name, int cmdIx) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".compileAddSubroutine: ";
 
         if (name == null || name.isBlank()) {
             throw new ParserException(functionId + "Subroutine name is empty");
@@ -398,7 +483,7 @@ public class Subroutine {
      * @throws ParserException
      */
     public void compileEndOfMain (int cmdIx) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".compileEndOfMain: ";
 
         if (! subCallList.isEmpty()) {
             throw new ParserException(functionId + "Duplicate ENDMAIN command");
@@ -419,7 +504,7 @@ public class Subroutine {
      * @throws ParserException
      */
     public void compileSubStart (String name, int cmdIx) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".compileSubStart: ";
 
         if (subCallList.size() < 1) {
             throw new ParserException(functionId + "Subroutine defined inside of MAIN");
@@ -456,7 +541,7 @@ public class Subroutine {
      * @throws ParserException
      */
     public void compileSubEnd (int cmdIx) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".compileSubEnd: ";
 
         if (subCallList.size() <= 1) {
             throw new ParserException(functionId + "Subroutine defined insided of MAIN");
@@ -505,7 +590,7 @@ public class Subroutine {
      * @throws ParserException
      */
     public void compileSubGosub (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".compileSubGosub: ";
 
         // verify name is correct format
         if (! isValidSubName(name)) {
@@ -524,7 +609,7 @@ public class Subroutine {
      * @throws ParserException
      */
     public void compileSubReturn () throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".compileSubReturn: ";
 
         if (lastSubName == null) {
             throw new ParserException(functionId + "RETURN encountered when not in a subroutine");
@@ -537,35 +622,53 @@ public class Subroutine {
     
     /**
      * finds the subroutine listing and returns the command index it starts at.
+     * This is used when the subroutine name was not known when compiling.
      * 
      * @param name  - the subroutine name
-     * @param cmdIx - the command index of the current command
+     * @param cmdIx - the command index to return to
      * 
      * @return the new command index to execute
      * 
      * @throws ParserException
      */
     public int subBegin (String name, int cmdIx) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".subBegin: ";
 
         if (name == null || name.isBlank()) {
             throw new ParserException(functionId + "Subroutine name is empty");
         }
-        if (! subroutines.containsKey(name)) {
+        VarFrames.SubLocals sub = VarFrames.getSub(name);
+        if (sub == null || ! subroutines.containsKey(name)) {
             throw new ParserException(functionId + "Subroutine name not found: " + name);
         }
-        
+        return subBegin (sub, cmdIx);
+    }
+
+    /**
+     * starts the call of a subroutine and returns the command index it starts at.
+     * The GOSUB commands are bound to the subroutine they call by the compiler,
+     *  so the subroutine does not have to be looked up by name.
+     * 
+     * @param sub   - the subroutine
+     * @param cmdIx - the command index to return to
+     * 
+     * @return the new command index to execute
+     */
+    public int subBegin (VarFrames.SubLocals sub, int cmdIx) {
         // push the command index location to return to
-        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, INDENT + "Subroutine " + name + " index " + cmdIx +
-                " entered at level " + (1 + subStack.size()));
-        SubCall info = new SubCall(cmdIx, name);
-        subStack.push(info);
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, INDENT + "Subroutine " + sub.getName() + " index " + cmdIx +
+                    " entered at level " + (1 + subStack.size()));
+        }
+        subStack.push(VarFrames.enter(sub, cmdIx));
         sendSubStackList();
-        return subroutines.get(name);
+        return sub.getEntryIndex();
     }
 
     /**
      * returns the line after the last subroutine call.
+     * The IF statements and loops of the subroutine that were not completed
+     *  are ended along with its frame.
      * 
      * @param param - the parameter value to return to the caller (null if none)
      * 
@@ -574,7 +677,7 @@ public class Subroutine {
      * @throws ParserException
      */
     public static int subReturn (String param) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".subReturn: ";
 
         if (subStack.isEmpty()) {
             throw new ParserException(functionId + "RETURN when not in subroutine");
@@ -584,13 +687,32 @@ public class Subroutine {
         VarReserved.putSubRetValue (param);
         
         // get the command index of the calling function to return to
-        SubCall info = subStack.pop();
-        int index = info.getIndex();
-        GUILogPanel.outputInfoMsg(MsgType.PROGRAM, INDENT + "Subroutine returned to index: " + index);
+        subStack.pop();
+        int index = VarFrames.release().getReturnIndex();
+        if (GUILogPanel.isEnabled(MsgType.PROGRAM)) {
+            GUILogPanel.outputInfoMsg(MsgType.PROGRAM, INDENT + "Subroutine returned to index: " + index);
+        }
         sendSubStackList();
         return index;
     }
 
+    /**
+     * gets the names of the subroutines in the call stack during execution.
+     * This may be called from a thread other than the one running the script.
+     * 
+     * @return the list of subroutine names, starting with MAIN
+     */
+    public static ArrayList<String> getCallStackNames () {
+        ArrayList<String> names = new ArrayList<>();
+        names.add(MAIN_FCTN);
+        synchronized (subStack) {
+            for (VarFrames.Frame info : subStack) {
+                names.add(info.getName());
+            }
+        }
+        return names;
+    }
+
     /**
      * returns the current subroutine nesting level.
      * 
@@ -81,6 +81,8 @@ public class TCPServerThread implements Runnable {
     
     private static void sendMessage (String message) {
         if (out_socket != null) {
+            // make sure the log messages queued before this are sent first
+            GUILogPanel.flushLog();
             out_socket.println(message);
         }
     }
@@ -94,7 +96,25 @@ public class TCPServerThread implements Runnable {
     
     public static void sendLogMessage (String message) {
         if (out_socket != null && clientConnected) {
-            sendMessage ("LOGMSG: " + message);
+            out_socket.println("LOGMSG: " + message);
+        }
+    }
+    
+    /**
+     * sends a block of log messages to the client in a single write.
+     * 
+     * @param msgList - the list of log messages to send
+     */
+    public static void sendLogMessages (ArrayList<String> msgList) {
+        if (out_socket != null && clientConnected) {
+            StringBuilder block = new StringBuilder();
+            for (int ix = 0; ix < msgList.size(); ix++) {
+                if (ix > 0) {
+                    block.append(System.lineSeparator());
+                }
+                block.append("LOGMSG: ").append(msgList.get(ix));
+            }
+            out_socket.println(block);
         }
     }
     
@@ -128,6 +148,15 @@ public class TCPServerThread implements Runnable {
         }
     }
 
+    public static void sendProfileInfo (ArrayList<String> report) {
+        if (out_socket != null && clientConnected) {
+            for (String line : report) {
+                sendMessage ("PROFILE: " + line);
+            }
+            System.out.println("SENT: PROFILE: " + report.size() + " msgs");
+        }
+    }
+
     public static void sendLineInfo (int line) {
         if (out_socket != null && clientConnected) {
             String message = Integer.toString(line);
@@ -166,6 +195,31 @@ public class TCPServerThread implements Runnable {
                     boolean enable = array.get(1).equalsIgnoreCase("true");
                     GUILogPanel.setNetworkDebugEnable(enable);
                     break;
+                case "PROFILE":
+                    // PROFILE [ON | OFF | RESET] - no argument sends the report
+                    // PROFILE SAMPLE [msec | OFF] - starts or stops the sampling profiler
+                    String option = (array.size() < 2) ? "" : array.get(1).toUpperCase();
+                    switch (option) {
+                        case "ON"    -> Profiler.setEnable(true);
+                        case "OFF"   -> Profiler.setEnable(false);
+                        case "RESET" -> Profiler.reset();
+                        case ""      -> sendProfileInfo(Profiler.getReport());
+                        case "SAMPLE" -> {
+                            String value = (array.size() < 3) ? "" : array.get(2);
+                            if (value.equalsIgnoreCase("OFF")) {
+                                SampleProfiler.stop();
+                            } else if (value.isEmpty()) {
+                                SampleProfiler.start(SampleProfiler.DEFAULT_INTERVAL);
+                            } else {
+                                SampleProfiler.start(Utils.getIntValue(value).intValue());
+                            }
+                        }
+                        default      -> {
+                            System.out.println("PROFILE command invalid argument: " + option);
+                            sendStatus("UNKNOWN COMMAND: " + command);
+                        }
+                    }
+                    break;
                 case "COMPILE":
                     ScriptThread.enableRun();
                     AmazonReader.compileScript();
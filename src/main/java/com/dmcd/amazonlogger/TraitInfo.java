@@ -6,10 +6,6 @@ package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
 /**
  *
@@ -17,7 +13,7 @@ import java.util.List;
  */
 public class TraitInfo {
     
-    private static final String CLASS_NAME = TraitInfo.class.getSimpleName();
+    private static final String CLASS_NAME = "TraitInfo";
 
     
     // traits extensions
@@ -28,7 +24,7 @@ public class TraitInfo {
         LOWER,              //   S -> S : convert all chars to lowercase
         TOLINES,            //   S -> L : convert to StrArray of lines of text
         TOWORDS,            //   S -> L : convert to StrArray of words
-        SORT,               //   L -> L : sort from A-Z
+        SORT,               //   L -> L, A -> A : sort from A-Z (or lowest to highest value)
         REVERSE,            //   L -> L : sort from A-Z
         FILTER,             //   L -> L, A -> A : filtered contents
         SIZE,               // SLA -> I : number of chars for String, number of elements for Arrays
@@ -57,7 +53,7 @@ public class TraitInfo {
      * @throws ParserException if trait not found or not valid for selected variable
      */
     public static Trait getTrait (String traitName, String varName, ParameterStruct.ParamType varType) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getTrait: ";
     
         // ignore the leading $ char if present
         if (varName.charAt(0) == '$') {
@@ -68,7 +64,9 @@ public class TraitInfo {
         for (Trait entry : Trait.values()) {
             if (entry.toString().contentEquals(traitName)) {
                 traitVal = entry;
-                GUILogPanel.outputInfoMsg(MsgType.VARS, "Variable trait found: ." + traitVal + " in " + varName);
+                if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                    GUILogPanel.outputInfoMsg(MsgType.VARS, "Variable trait found: ." + traitVal + " in " + varName);
+                }
                 break;
             }
         }
@@ -109,8 +107,15 @@ public class TraitInfo {
                 break;
 
             case SORT:
+                // this is only valid for StrArray and IntArray types
+                if (varType != ParameterStruct.ParamType.StrArray &&
+                    varType != ParameterStruct.ParamType.IntArray)   {
+                    traitVal = null;
+                }
+                break;
+
             case REVERSE:
-                // these are only valid for StrArray types
+                // this is only valid for StrArray types
                 if (varType != ParameterStruct.ParamType.StrArray) {
                     traitVal = null;
                 }
@@ -166,7 +171,7 @@ public class TraitInfo {
      * @throws ParserException if trait not found or not valid for selected variable
      */
     public static ParameterStruct.ParamType getTraitDataType (Trait traitVal, String varName, ParameterStruct.ParamType varType) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getTraitDataType: ";
 
         ParameterStruct.ParamType ptype;
         switch (traitVal) {
@@ -196,6 +201,13 @@ public class TraitInfo {
                 break;
 
             case SORT:
+                if (varType == ParameterStruct.ParamType.IntArray) {
+                    ptype = ParameterStruct.ParamType.IntArray;
+                } else {
+                    ptype = ParameterStruct.ParamType.StrArray;
+                }
+                break;
+
             case REVERSE:
             case TOLINES:
             case TOWORDS:
@@ -256,7 +268,9 @@ public class TraitInfo {
                     break;
             }
             if (iValue != null) {
-                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Extracted " + traitVal + " of DATE as: " + iValue);
+                if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Extracted " + traitVal + " of DATE as: " + iValue);
+                }
             }
         } else if (traitVal == Trait.SIZE || traitVal == Trait.LENGTH) {
             switch (varType) {
@@ -273,7 +287,9 @@ public class TraitInfo {
                     break;
             }
             if (iValue != null) {
-                GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Extracted SIZE of " + varType + " " + varName + " as: " + iValue);
+                if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                    GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Extracted SIZE of " + varType + " " + varName + " as: " + iValue);
+                }
             }
         }
         return iValue;
@@ -322,7 +338,7 @@ public class TraitInfo {
      * @throws ParserException 
      */
     public static ParameterStruct applyTraitValue (ParameterStruct paramValue) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".applyTraitValue: ";
 
         VarExtensions paramInfo = paramValue.getVariableRef();
         if (paramInfo == null) {
@@ -385,11 +401,18 @@ public class TraitInfo {
                         strValue = paramValue.getStringValue();
                         pType = ParameterStruct.ParamType.Boolean;
                         break;
+                    case SORT:
+                        LongArray sorted = paramValue.getIntArray().copy();
+                        sorted.sort();
+                        paramValue.setIntArray(sorted);
+                        strValue = sorted.toString();
+                        if (strValue.length() > 20) strValue = strValue.substring(0, 20) + "...";
+                        break;
                     case HEX:
-                        ArrayList<String> strArray = new ArrayList<>();
-                        for (int ix = 0; ix < psize.intValue(); ix++) {
-                            Long iValue = paramValue.getIntArrayElement(ix);
-                            strArray.add(Long.toHexString(iValue));
+                        LongArray intArray = paramValue.getIntArray();
+                        StringArray strArray = new StringArray(intArray.size());
+                        for (int ix = 0; ix < intArray.size(); ix++) {
+                            strArray.add(Long.toHexString(intArray.get(ix)));
                         }
                         paramValue.setStrArray(strArray);
                         strValue = paramValue.getStrArray().toString();
@@ -405,12 +428,8 @@ public class TraitInfo {
                         if (VarArray.getFilterArray().size() != psize) {
                             throw new ParserException(functionId + trait.toString() + " has size " + VarArray.getFilterArray().size() + ", but array is size " + psize);
                         }
-                        // remove the selected entries
-                        for (int ix = psize.intValue() - 1; ix >= 0; ix--) {
-                            if (!VarArray.getFilterArray().get(ix)) {
-                                paramValue.getIntArray().remove(ix);
-                            }
-                        }
+                        // keep the selected entries (in a new array, since the value may be the Variable's array)
+                        paramValue.setIntArray(paramValue.getIntArray().filter(VarArray.getFilterArray()));
                         strValue = paramValue.getIntArray().toString();
                         if (strValue.length() > 50) {
                             strValue = strValue.substring(0, 50) + "...";
@@ -427,7 +446,9 @@ public class TraitInfo {
                     default:
                         throw new ParserException(functionId + "Invalid trait " + trait.toString() + " for data type " + pType);
                 }
-                GUILogPanel.outputInfoMsg(MsgType.VARS, "    " + name + "." + trait.toString() + " as type " + pType + ": " + strValue);
+                if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                    GUILogPanel.outputInfoMsg(MsgType.VARS, "    " + name + "." + trait.toString() + " as type " + pType + ": " + strValue);
+                }
                 break;
                 
             case StrArray:
@@ -436,12 +457,13 @@ public class TraitInfo {
                 strValue = "";
                 switch (trait) {
                     case SORT:
-                        Collections.sort(paramValue.getStrArray().subList(0, psize.intValue()));
+                        // sort into a new array, since the value may be the Variable's array
+                        paramValue.setStrArray(paramValue.getStrArray().sorted());
                         strValue = paramValue.getStrArray().toString();
                         if (strValue.length() > 20) strValue = strValue.substring(0, 20) + "...";
                         break;
                     case REVERSE:
-                        Collections.reverse(paramValue.getStrArray());
+                        paramValue.setStrArray(paramValue.getStrArray().reversed());
                         strValue = paramValue.getStrArray().toString();
                         if (strValue.length() > 20) strValue = strValue.substring(0, 20) + "...";
                         break;
@@ -463,12 +485,8 @@ public class TraitInfo {
                         if (VarArray.getFilterArray().size() != psize) {
                             throw new ParserException(functionId + trait.toString() + " has size " + VarArray.getFilterArray().size() + ", but array is size " + psize);
                         }
-                        // remove the selected entries
-                        for (int ix = psize.intValue() - 1; ix >= 0; ix--) {
-                            if (!VarArray.getFilterArray().get(ix)) {
-                                paramValue.getStrArray().remove(ix);
-                            }
-                        }
+                        // keep the selected entries (as a view, since the value may be the Variable's array)
+                        paramValue.setStrArray(paramValue.getStrArray().filter(VarArray.getFilterArray()));
                         break;
                     case TOSTRING:
                         strValue = paramValue.getStrArray().toString();
@@ -481,7 +499,9 @@ public class TraitInfo {
                     default:
                         throw new ParserException(functionId + "Invalid trait " + trait.toString() + " for data type " + pType);
                 }
-                GUILogPanel.outputInfoMsg(MsgType.VARS, "    " + name + "." + trait.toString() + " as type " + pType + ": " + strValue);
+                if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                    GUILogPanel.outputInfoMsg(MsgType.VARS, "    " + name + "." + trait.toString() + " as type " + pType + ": " + strValue);
+                }
                 break;
                 
             case String:
@@ -514,15 +534,11 @@ public class TraitInfo {
                         break;
                     case TOLINES:
                         strValue = paramValue.getStringValue();
-                        List<String> list = Arrays.asList(strValue.split("\n"));
-                        ArrayList<String> strList = new ArrayList<>(list);
-                        paramValue.setStrArray(strList);
+                        paramValue.setStrArray(StringArray.wrap(strValue.split("\n")));
                         break;
                     case TOWORDS:
                         strValue = paramValue.getStringValue();
-                        list = Arrays.asList(strValue.split(" "));
-                        strList = new ArrayList<>(list);
-                        paramValue.setStrArray(strList);
+                        paramValue.setStrArray(StringArray.wrap(strValue.split(" ")));
                         break;
                     case SIZE:
                     case LENGTH:
@@ -576,7 +592,9 @@ public class TraitInfo {
                     default:
                         throw new ParserException(functionId + "Invalid trait " + trait.toString() + " for data type " + pType.toString());
                 }
-                GUILogPanel.outputInfoMsg(MsgType.VARS, "    " + name + "." + trait.toString() + " as type Boolean: " + strValue);
+                if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                    GUILogPanel.outputInfoMsg(MsgType.VARS, "    " + name + "." + trait.toString() + " as type Boolean: " + strValue);
+                }
                 break;
             default:
                 throw new ParserException(functionId + "Invalid trait " + trait.toString() + " for data type " + pType.toString());
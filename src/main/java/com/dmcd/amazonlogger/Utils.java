@@ -16,7 +16,7 @@ import java.util.Objects;
  */
 public class Utils {
     
-    private static final String CLASS_NAME = Utils.class.getSimpleName();
+    private static final String CLASS_NAME = "Utils";
 
     public enum PathType {
         PDF,
@@ -120,7 +120,7 @@ public class Utils {
     * @throws ParserException if invalid format of input
     */
     public static Integer getIntFromString (String str, int offset, int maxlen) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getIntFromString: ";
         
         Integer value;
         
@@ -265,7 +265,7 @@ public class Utils {
     *  @throws ParserException - if invalid char found
     */
     public static int getAmountValue (String str) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getAmountValue: ";
         
         // check for empty string
         if (str == null) {
@@ -326,7 +326,7 @@ public class Utils {
     *  @throws ParserException
     */
     public static String getNextWord (String line, int minlen, int maxlen) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getNextWord: ";
         
         int offset;
         if (line == null) {
@@ -397,7 +397,7 @@ public class Utils {
     *  @throws ParserException
     */
     public static Color getColor (String type, int rgbHSB) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getColor: ";
         Color myColor = Color.white;
         
         if (type == null) {
@@ -432,7 +432,7 @@ public class Utils {
      * @throws ParserException 
      */    
     public static Boolean getBooleanValue (String strValue) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getBooleanValue: ";
         
         if (strValue == null) {
             throw new ParserException(functionId + "Input string was null");
@@ -446,6 +446,23 @@ public class Utils {
         throw new ParserException(functionId + "Invalid Boolean value: " + strValue);
     }
 
+    /**
+     * indicates if a String may be a hexadecimal unsigned value or an Integer value.
+     * This only checks the 1st char, so that Strings that can't be numeric are
+     *  not run through getLongOrUnsignedValue, which throws an exception for them.
+     * 
+     * @param strValue - value to check
+     * 
+     * @return true if the value may be numeric
+     */
+    public static boolean isNumericStart (String strValue) {
+        if (strValue == null || strValue.isEmpty()) {
+            return false;
+        }
+        char firstch = strValue.charAt(0);
+        return Character.isDigit(firstch) || firstch == '-' || firstch == '+' || firstch == 'x';
+    }
+
     /**
      * converts a String hexadecimal unsigned value or 64-bit signed Integer value to a Long
      * 
@@ -456,7 +473,7 @@ public class Utils {
      * @throws ParserException 
      */
     public static Long getLongOrUnsignedValue (String strValue) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getLongOrUnsignedValue: ";
         
         Long longVal = 0L;
         try {
@@ -482,7 +499,7 @@ public class Utils {
      * @throws ParserException 
      */
     public static Long getIntValue (String strValue) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getIntValue: ";
         
         if (strValue == null) {
             throw new ParserException(functionId + "Input string was null");
@@ -509,7 +526,7 @@ public class Utils {
      * @throws ParserException 
      */
     public static Integer getHexValue (String strValue) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getHexValue: ";
 
         if (strValue == null) {
             throw new ParserException(functionId + "Input string was null");
@@ -545,7 +562,7 @@ public class Utils {
      * @throws ParserException
      */
     public static String toHexWordValue (Integer intValue) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".toHexWordValue: ";
 
         if (intValue == null) {
             throw new ParserException(functionId + "Input string was null");
@@ -628,7 +645,7 @@ public class Utils {
      * @return the path specified
      */
     public static String getPathFromPropertiesFile (PropertiesFile.Property tag) {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getPathFromPropertiesFile: ";
         
         String validPath = null;
         String pathName = PropertiesFile.getPropertiesItem(tag, "");
@@ -684,7 +701,7 @@ public class Utils {
      * @throws ParserException
      */
     public static void setDefaultPath (PathType type, String pathname) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setDefaultPath: ";
 
         if (pathname == null) {
             throw new ParserException(functionId + "Input path name was null");
@@ -731,7 +748,7 @@ public class Utils {
      * @throws ParserException 
      */
     public static File checkDir (String dirname) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkDir: ";
 
         if (dirname == null || dirname.isBlank()) {
             throw new ParserException(functionId + "Input path name was null");
@@ -758,7 +775,7 @@ public class Utils {
      * @throws ParserException 
      */
     public static File checkFilename (String fname, String type, PathType filetype, boolean bWritable) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkFilename: ";
         
         if (type != null && !type.isBlank() && !fname.endsWith(type)) {
             throw new ParserException(functionId + "Invalid " + filetype + " filename: " + fname);
@@ -797,7 +814,7 @@ public class Utils {
      * @throws ParserException
      */
     public static boolean compareParameterValues (Long param1, Long param2, String compType) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + " (I): ";
+        String functionId = CLASS_NAME + ".compareParameterValues (I): ";
         
         boolean bExit = false;
         
@@ -837,7 +854,7 @@ public class Utils {
      * @throws ParserException
      */
     public static boolean compareParameterValues (Integer param1, Integer param2, String compType) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + " (U): ";
+        String functionId = CLASS_NAME + ".compareParameterValues (U): ";
         
         boolean bExit = false;
         
@@ -861,7 +878,9 @@ public class Utils {
             default:
                 throw new ParserException(functionId + "Invalid comparison sign: " + compType);
         }
-        GUILogPanel.outputInfoMsg(MsgType.DEBUG, functionId + " " + param1 + " " + compType + " " + param2 + " " + bExit);
+        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, functionId + " " + param1 + " " + compType + " " + param2 + " " + bExit);
+        }
         return bExit;
     }
     
@@ -877,7 +896,7 @@ public class Utils {
      * @throws ParserException
      */
     public static boolean compareParameterValues (String param1, String param2, String compType) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + " (S): ";
+        String functionId = CLASS_NAME + ".compareParameterValues (S): ";
         
         boolean bExit = false;
         
@@ -905,30 +924,6 @@ public class Utils {
         return bExit;
     }
 
-    /**
-     * gets the name of the current method.
-     * 
-     * @return name of the current method
-     */
-    public static String getCurrentMethodName() {
-        return StackWalker.getInstance()
-                          .walk(s -> s.skip(1).findFirst())
-                          .get()
-                          .getMethodName();
-    }
-
-    /**
-     * gets the name of the calling method.
-     * 
-     * @return name of the calling method
-     */
-    public static String getCallerMethodName() {
-        return StackWalker.getInstance()
-                          .walk(s -> s.skip(2).findFirst())
-                          .get()
-                          .getMethodName();
-    }
-
     /**
      * prints the call stack trace for debugging
      * 
@@ -5,103 +5,103 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
-import java.util.ArrayList;
+import java.io.Serializable;
 
 /**
  *
  * @author dan
  */
-public class VarAccess {
+public class VarAccess implements Serializable {
 
-    private static final String CLASS_NAME = VarAccess.class.getSimpleName();
+    private static final String CLASS_NAME = "VarAccess";
+    private static final long serialVersionUID = 1L;
     private static final String INDENT = "     ";
     
     private boolean     bUpdate;            // true when a value has been written to
+    private final int   slot;               // the slot the value is saved in
     private String      varName;            // name of variable
     private ParameterStruct.ParamType varType; // the variable data type
     private Variables.AccessType access;    // type of access permitted to variable
     private String      owner;              // owner (name of function that allocated)
-    private Integer     writer;             // script line number value of last writer to variable
-    private String      writeTime;          // timestamp of last write
-    private String      strValue;           // String   value
-    private Long        intValue;           // Integer  value (or Unsigned)
-    private Boolean     boolValue;          // Boolean  value
-    private ArrayList<String> strArray;     // StrArray value
-    private ArrayList<Long>   intArray;     // IntArray value
+    private int         subIx;              // the subroutine index of a LOCAL Variable in VarFrames (-1 if none)
+    private int         localIx;            // the index of a LOCAL Variable in the frame of its subroutine
         
     // this is called during allocation to define the variable type and access info
     VarAccess (String owner, String varName, ParameterStruct.ParamType varType, Variables.AccessType access) {
+        this.slot      = VarSlots.allocSlot(this);
         this.varName   = varName;
         this.varType   = varType;
         this.access    = access;
         this.owner     = owner;
-        this.writer    = null;
-        this.writeTime = "";
+        this.subIx     = -1;
+        this.localIx   = -1;
         this.bUpdate   = false;
 
-        this.strValue  = null;
-        this.intValue  = null;
-        this.boolValue = null;
-        this.strArray  = null;
-        this.intArray  = null;
-
         // init the value of the chosen type
-        switch (varType) {
-            case Integer:
-            case Unsigned:
-                this.intValue = 0L;
-                break;
-            case Boolean:
-                this.boolValue = false;
-                break;
-            case String:
-                this.strValue = "";
-                break;
-            case StrArray:
-                this.strArray = new ArrayList<>();
-                break;
-            case IntArray:
-                this.intArray = new ArrayList<>();
-                break;
-        }
+        initValue();
         GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + varType + " Variable " + varName + " allocated for subroutine: " + this.owner);
     }
 
     // clears the data value and writer info from the variable
     public void reset() {
-        this.writer    = null;
-        this.writeTime = "";
-
-        this.strValue  = null;
-        this.intValue  = null;
-        this.boolValue = null;
-        this.strArray  = null;
-        this.intArray  = null;
-
         // init the value of the chosen type
+        initValue();
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + varType + " Variable " + varName + " reset for subroutine: " + this.owner);
+        }
+    }
+    
+    // sets the initial value for the data type of the variable and clears the writer info
+    void initValue() {
+        initValue (slot);
+    }
+
+    // sets the initial value in the specified slot (the slot of the Variable in a frame)
+    void initValue (int valSlot) {
+        VarSlots.setWriter(valSlot, -1, -1);
+        VarSlots.setString(valSlot, null);
         switch (varType) {
             case Integer:
             case Unsigned:
-                this.intValue = 0L;
+                VarSlots.setLong(valSlot, 0L);
                 break;
             case Boolean:
-                this.boolValue = false;
+                VarSlots.setBoolean(valSlot, false);
                 break;
             case String:
-                this.strValue = "";
+                VarSlots.setString(valSlot, "");
                 break;
             case StrArray:
-                this.strArray = new ArrayList<>();
+                VarSlots.setStrArray(valSlot, new StringArray());
                 break;
             case IntArray:
-                this.intArray = new ArrayList<>();
+                VarSlots.setIntArray(valSlot, new LongArray());
                 break;
         }
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + varType + " Variable " + varName + " reset for subroutine: " + this.owner);
+    }
+
+    /**
+     * binds a LOCAL Variable to the frames of its subroutine.
+     * This is done by the compiler once the subroutines are known.
+     * 
+     * @param subIx   - the index of the subroutine in VarFrames
+     * @param localIx - the index of the Variable in the frame of the subroutine
+     */
+    void setFrameIndex (int subIx, int localIx) {
+        this.subIx   = subIx;
+        this.localIx = localIx;
+    }
+
+    // returns the slot that holds the value for the current call of the subroutine
+    private int valueSlot () {
+        if (subIx < 0) {
+            return slot;
+        }
+        return VarFrames.getValueSlot(subIx, localIx, slot);
     }
     
     private void checkType (ParameterStruct.ParamType callType) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkType: ";
         if (varType != callType) {
             throw new ParserException(functionId + "Invalid data type " + callType + " instead of " + varType);
         }
@@ -117,26 +117,41 @@ public class VarAccess {
     }
 
     // these functions get the access info of the variable
+    public int getSlot () {
+        return this.slot;
+    }
+
+    public String getName () {
+        return this.varName;
+    }
+
     public ParameterStruct.ParamType getType () {
         return this.varType;
     }
 
     // indicates if the variable has been written to since it was allocated
     public boolean isVarInit () {
-        return this.writer != null;
+        return VarSlots.getWriter(valueSlot()) >= 0;
     }
 
     // returns the line number of the script that was the last writer to the variable
     public Integer getWriterIndex () {
-        if (this.writer == null) {
+        int writer = VarSlots.getWriter(valueSlot());
+        if (writer < 0) {
             return 0;
         }
-        return ScriptCompile.getLineNumber(this.writer);
+        return ScriptCompile.getLineNumber(writer);
     }
 
     // returns the timestamp when the last writer wrote to the variable
     public String getWriterTime () {
-        return this.writeTime;
+        long writeTime = VarSlots.getWriteTime(valueSlot());
+        if (writeTime < 0) {
+            return "";
+        }
+        StringBuilder strTime = new StringBuilder(16);
+        GUIMain.elapsedTimeAppend(strTime, writeTime);
+        return strTime.toString();
     }
         
     public String getOwner () {
@@ -149,93 +164,114 @@ public class VarAccess {
         
     public void setWriteInfo () throws ParserException {
         this.bUpdate = true;
-        this.writer = Subroutine.getCurrentIndex();
-        this.writeTime = GUIMain.elapsedTimerGet();
+        VarSlots.setWriter(valueSlot(), Subroutine.getCurrentIndex(), GUIMain.elapsedTimerNanos());
     }
 
     // these are the functions to set the value of the variable
     public void setValueString (String value) throws ParserException {
         checkType (ParameterStruct.ParamType.String);
-        this.strValue = value;
+        VarSlots.setString(valueSlot(), value);
         setWriteInfo();
     }
         
     public void setValueInteger (Long value) throws ParserException {
         checkType (ParameterStruct.ParamType.Integer);
-        this.intValue = value;
+        VarSlots.setLong(valueSlot(), value);
         setWriteInfo();
     }
         
     public void setValueUnsigned (Long value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setValueUnsigned: ";
         checkType (ParameterStruct.ParamType.Unsigned);
         if (! ParameterStruct.isUnsignedInt(value)) {
             throw new ParserException(functionId + "Invalid value for type Unsigned: " + value);
         }
-        this.intValue = value;
+        VarSlots.setLong(valueSlot(), value);
         setWriteInfo();
     }
         
     public void setValueBoolean (Boolean value) throws ParserException {
         checkType (ParameterStruct.ParamType.Boolean);
-        this.boolValue = value;
+        VarSlots.setBoolean(valueSlot(), value);
         setWriteInfo();
     }
         
-    public void setValueStrArray (ArrayList<String> value) throws ParserException {
+    public void setValueStrArray (StringArray value) throws ParserException {
         checkType (ParameterStruct.ParamType.StrArray);
-        this.strArray = value;
+        // the Variable gets a copy, so the parameter it came from can't modify it
+        VarSlots.setStrArray(valueSlot(), (value == null) ? null : value.copy());
         setWriteInfo();
     }
         
-    public void setValueIntArray (ArrayList<Long> value) throws ParserException {
+    public void setValueIntArray (LongArray value) throws ParserException {
         checkType (ParameterStruct.ParamType.IntArray);
-        this.intArray = value;
+        // the Variable gets a copy, so the parameter it came from can't modify it
+        VarSlots.setIntArray(valueSlot(), (value == null) ? null : value.copy());
         setWriteInfo();
     }
         
     // these are the function to get the variable values
     public String getValueString () throws ParserException {
         checkType (ParameterStruct.ParamType.String);
-        return this.strValue;
+        return VarSlots.getString(valueSlot());
     }
         
     public Long getValueInteger () throws ParserException {
         checkType (ParameterStruct.ParamType.Integer);
-        if (! isVarInit()) {
-            String subName = Subroutine.getSubName();
-            GUILogPanel.outputInfoMsg(MsgType.WARN, " - variable: " + varName + " in " + subName + " was not init prior to use");
-        }
-        return this.intValue;
+        checkVarInit();
+        return VarSlots.getLong(valueSlot());
     }
         
     public Long getValueUnsigned () throws ParserException {
         checkType (ParameterStruct.ParamType.Unsigned);
-        if (! isVarInit()) {
-            String subName = Subroutine.getSubName();
-            GUILogPanel.outputInfoMsg(MsgType.WARN, " - variable: " + varName + " in " + subName + " was not init prior to use");
-        }
-        return this.intValue & 0xFFFFFFFFL;
+        checkVarInit();
+        return VarSlots.getLong(valueSlot()) & 0xFFFFFFFFL;
     }
         
     public Boolean getValueBoolean () throws ParserException {
         checkType (ParameterStruct.ParamType.Boolean);
-        if (! isVarInit()) {
-            String subName = Subroutine.getSubName();
-            GUILogPanel.outputInfoMsg(MsgType.WARN, " - variable: " + varName + " in " + subName + " was not init prior to use");
-        }
-        return this.boolValue;
+        checkVarInit();
+        return VarSlots.getBoolean(valueSlot());
     }
         
-    public ArrayList<String> getValueStrArray () throws ParserException {
+    public StringArray getValueStrArray () throws ParserException {
         checkType (ParameterStruct.ParamType.StrArray);
-        return this.strArray;
+        return VarSlots.getStrArray(valueSlot());
     }
         
-    public ArrayList<Long> getValueIntArray () throws ParserException {
+    public LongArray getValueIntArray () throws ParserException {
         checkType (ParameterStruct.ParamType.IntArray);
-        return this.intArray;
+        return VarSlots.getIntArray(valueSlot());
+    }
+    
+    /**
+     * returns the value of an Integer or Unsigned variable without boxing it.
+     * This is used by the Calculations for reading the value by slot.
+     * 
+     * @return the variable value
+     * 
+     * @throws ParserException 
+     */
+    public long getValueLong () throws ParserException {
+        String functionId = CLASS_NAME + ".getValueLong: ";
+        switch (varType) {
+            case Integer:
+                checkVarInit();
+                return VarSlots.getLong(valueSlot());
+            case Unsigned:
+                checkVarInit();
+                return VarSlots.getLong(valueSlot()) & 0xFFFFFFFFL;
+            default:
+                throw new ParserException(functionId + "Invalid data type " + varType + " for numeric value");
+        }
+    }
+    
+    // reports a variable being read before it was written to
+    private void checkVarInit () {
+        if (! isVarInit()) {
+            String subName = Subroutine.getSubName();
+            GUILogPanel.outputInfoMsg(MsgType.WARN, " - variable: " + varName + " in " + subName + " was not init prior to use");
+        }
     }
     
 }
-
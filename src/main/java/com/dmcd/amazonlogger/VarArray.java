@@ -6,7 +6,6 @@ package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
 import java.util.ArrayList;
-import java.util.Objects;
 
 /**
  *
@@ -14,7 +13,7 @@ import java.util.Objects;
  */
 public class VarArray {
 
-    private static final String CLASS_NAME = VarArray.class.getSimpleName();
+    private static final String CLASS_NAME = "VarArray";
     private static final String INDENT = "    ";
     
     // array filter info
@@ -36,7 +35,7 @@ public class VarArray {
     }
     
     public static String getStrArrayEntry (String name, int ix) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getStrArrayEntry: ";
         int size = Variables.getStrArray(name).size();
         if (ix >= size) {
             throw new ParserException(functionId + "Index exceeded max size of Array " + name + " (ix = " + ix + ", size = " + size + ")");
@@ -45,7 +44,7 @@ public class VarArray {
     }
     
     public static Long getIntArrayEntry (String name, int ix) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getIntArrayEntry: ";
         int size = Variables.getIntArray(name).size();
         if (ix >= size) {
             throw new ParserException(functionId + "Index exceeded max size of Array " + name + " (ix = " + ix + ", size = " + size + ")");
@@ -64,7 +63,7 @@ public class VarArray {
      * @throws ParserException
      */
     public static int getArraySize (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getArraySize: ";
 
         if (name == null || name.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
@@ -88,8 +87,8 @@ public class VarArray {
      * 
      * @throws ParserException
      */
-    public static void setStrArrayVariable (String name, ArrayList<String> value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public static void setStrArrayVariable (String name, StringArray value) throws ParserException {
+        String functionId = CLASS_NAME + ".setStrArrayVariable: ";
 
         if (name == null || name.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
@@ -98,7 +97,9 @@ public class VarArray {
             throw new ParserException(functionId + "Variable " + name + " not found");
         }
         Variables.setStrArray(name, value);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Saved StrArray param: " + name);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Saved StrArray param: " + name);
+        }
     }
 
     /**
@@ -110,8 +111,8 @@ public class VarArray {
      * 
      * @throws ParserException
      */
-    public static void setIntArrayVariable (String name, ArrayList<Long> value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public static void setIntArrayVariable (String name, LongArray value) throws ParserException {
+        String functionId = CLASS_NAME + ".setIntArrayVariable: ";
 
         if (name == null || name.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
@@ -120,7 +121,9 @@ public class VarArray {
             throw new ParserException(functionId + "Variable " + name + " not found");
         }
         Variables.setIntArray(name, value);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Saved IntArray param: " + name);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Saved IntArray param: " + name);
+        }
     }
 
     /**
@@ -135,7 +138,7 @@ public class VarArray {
      * @throws ParserException
      */
     public static boolean arrayClearAll (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".arrayClearAll: ";
 
         if (name == null || name.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
@@ -143,23 +146,29 @@ public class VarArray {
         if (VarReserved.isArray(name)) {
             int size = VarReserved.getArraySize(name);
             VarReserved.resetVar(name);
-            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Deleted " + size + " entries in Array param: " + name);
+            if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Deleted " + size + " entries in Array param: " + name);
+            }
             return true;
         }
         else if (isIntArray(name)) {
-            ArrayList<Long> entry = Variables.getIntArray(name);
+            LongArray entry = Variables.getIntArray(name);
             int size = entry.size();
             entry.clear();
             Variables.setVarChange (name);
-            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Deleted " + size + " entries in Array param: " + name);
+            if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Deleted " + size + " entries in Array param: " + name);
+            }
             return true;
         }
         else if (isStrArray(name)) {
-            ArrayList<String> entry = Variables.getStrArray(name);
+            StringArray entry = Variables.getStrArray(name);
             int size = entry.size();
             entry.clear();
             Variables.setVarChange (name);
-            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Deleted " + size + " entries in List param: " + name);
+            if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Deleted " + size + " entries in List param: " + name);
+            }
             return true;
         }
         return false;
@@ -179,7 +188,7 @@ public class VarArray {
      * @throws ParserException
      */
     public static boolean arrayClearEntries (String name, int iStart, int iCount) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".arrayClearEntries: ";
 
         if (name == null || name.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
@@ -188,41 +197,31 @@ public class VarArray {
             throw new ParserException(functionId + "Array Variable " + name + " index range exceeded: " + iStart + " to " + (iStart + iCount) + " is invalid");
         }
         int size;
-        String arrayContents;
+        Object arrayContents;
         if (isIntArray(name)) {
-            ArrayList<Long> entry = Variables.getIntArray(name);
+            LongArray entry = Variables.getIntArray(name);
             size = entry.size();
             if (iStart + iCount > size) {
                 throw new ParserException(functionId + "Array Variable " + name + " index range exceeded: " + iStart + " to " + (iStart + iCount) + " (max " + entry.size() + ")");
             }
-            if (iCount == entry.size()) {
-                entry.clear();
-            } else {
-                for (int ix = 0; ix < iCount; ix++) {
-                    entry.remove(iStart);
-                }
-            }
-            arrayContents = entry.toString();
+            entry.removeRange(iStart, iStart + iCount);
+            arrayContents = entry;
         } else if (isStrArray(name)) {
-            ArrayList<String> entry = Variables.getStrArray(name);
+            StringArray entry = Variables.getStrArray(name);
             size = entry.size();
             if (iStart + iCount > size) {
                 throw new ParserException(functionId + "Array Variable " + name + " index range exceeded: " + iStart + " to " + (iStart + iCount) + " (max " + entry.size() + ")");
             }
-            if (iCount == entry.size()) {
-                entry.clear();
-            } else {
-                for (int ix = 0; ix < iCount; ix++) {
-                    entry.remove(iStart);
-                }
-            }
-            arrayContents = entry.toString();
+            entry.removeRange(iStart, iStart + iCount);
+            arrayContents = entry;
         } else {
             return false;
         }
         Variables.setVarChange (name);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Removed " + iCount + " entries from Array param " + name + ": (new size = "+ size  + ")");
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + arrayContents);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Removed " + iCount + " entries from Array param " + name + ": (new size = "+ size  + ")");
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + arrayContents);
+        }
         return true;
     }
 
@@ -239,41 +238,68 @@ public class VarArray {
      * @throws ParserException
      */
     public static boolean arrayModifyEntry (String name, int index, String value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".arrayModifyEntry: ";
 
         if (name == null || name.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
         }
         try {
-            String arrayContents;
             if (isIntArray(name)) {
-                ArrayList<Long> entry = Variables.getIntArray(name);
-                if (index >= entry.size()) {
-                    throw new ParserException(functionId + "Array Variable " + name + " index exceeded: " + index + " (max " + entry.size() + ")");
-                }
-                Long longVal = Utils.getLongOrUnsignedValue (value);
-                entry.set(index, longVal);
-                arrayContents = entry.toString();
+                return arrayModifyEntry (name, index, Utils.getLongOrUnsignedValue (value));
             }
-            else if (isStrArray(name)) {
-                ArrayList<String> entry = Variables.getStrArray(name);
-                if (index >= entry.size()) {
-                    throw new ParserException(functionId + "List Variable " + name + " index exceeded: " + index + " (max " + entry.size() + ")");
-                }
-                entry.set(index, value);
-                arrayContents = entry.toString();
-            } else {
+            if (! isStrArray(name)) {
                 return false;
             }
+            StringArray entry = Variables.getStrArray(name);
+            if (index >= entry.size()) {
+                throw new ParserException(functionId + "List Variable " + name + " index exceeded: " + index + " (max " + entry.size() + ")");
+            }
+            entry.set(index, value);
             Variables.setVarChange (name);
-            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified List param: " + name + " = " + value);
-            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + arrayContents);
+            if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified List param: " + name + " = " + value);
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + entry);
+            }
         } catch (ParserException exMsg) {
             Utils.throwAddendum (exMsg.getMessage(), functionId);
         }
         return true;
     }
 
+    /**
+     * modifies the value of an existing entry in an IntArray Variable.
+     * Indicates if the name was not found (does NOT create a new entry).
+     * 
+     * @param name  - Variable name
+     * @param index - index of entry in array to change
+     * @param value - the value to set the entry to
+     * 
+     * @return true if successful, false if the Variable was not found
+     * 
+     * @throws ParserException
+     */
+    public static boolean arrayModifyEntry (String name, int index, long value) throws ParserException {
+        String functionId = CLASS_NAME + ".arrayModifyEntry: ";
+
+        if (name == null || name.isEmpty()) {
+            throw new ParserException(functionId + "Array Variable is missing name");
+        }
+        if (! isIntArray(name)) {
+            return false;
+        }
+        LongArray entry = Variables.getIntArray(name);
+        if (index < 0 || index >= entry.size()) {
+            throw new ParserException(functionId + "Array Variable " + name + " index exceeded: " + index + " (max " + entry.size() + ")");
+        }
+        entry.set(index, value);
+        Variables.setVarChange (name);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified List param: " + name + " = " + value);
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + entry);
+        }
+        return true;
+    }
+
     /**
      * inserts a value into an existing Array Variable table.
      * Indicates if the name was not found (does NOT create a new entry).
@@ -288,51 +314,100 @@ public class VarArray {
      * @throws ParserException
      */
     public static boolean arrayInsertEntry (String name, int index, String value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".arrayInsertEntry: ";
 
         if (name == null || name.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
         }
         try {
-            String arrayContents;
             if (isIntArray(name)) {
-                ArrayList<Long> entry = Variables.getIntArray(name);
-                Long longVal = Utils.getLongOrUnsignedValue (value);
-                if (index >= entry.size() || entry.isEmpty()) {
-                    throw new ParserException(functionId + "Variable " + name + " index exceeded: " + index + " (max " + entry.size() + ")");
-                }
-                // bump current entries back 1
-                entry.addLast(entry.getLast());
-                for (int ix = entry.size()-2; ix >= index; ix--) {
-                    entry.set(ix+1, entry.get(ix));
-                }
-                entry.set(index, longVal);
-                arrayContents = entry.toString();
-            }
-            else if (isStrArray(name)) {
-                ArrayList<String> entry = Variables.getStrArray(name);
-                if (index >= entry.size() || entry.isEmpty()) {
-                    throw new ParserException(functionId + "Variable " + name + " index exceeded: " + index + " (max " + entry.size() + ")");
-                }
-                // bump current entries back 1
-                entry.addLast(entry.getLast());
-                for (int ix = entry.size()-2; ix >= index; ix--) {
-                    entry.set(ix+1, entry.get(ix));
-                }
-                entry.set(index, value);
-                arrayContents = entry.toString();
-            } else {
-                return false;
+                LongArray values = new LongArray(1);
+                values.add(Utils.getLongOrUnsignedValue (value));
+                return arrayInsertEntries (name, index, values);
             }
-            Variables.setVarChange (name);
-            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Inserted entry[" + index + "] in param: " + name + " = " + value);
-            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + arrayContents);
+            StringArray values = new StringArray(1);
+            values.add(value);
+            return arrayInsertEntries (name, index, values);
         } catch (ParserException exMsg) {
             Utils.throwAddendum (exMsg.getMessage(), functionId);
         }
         return true;
     }
 
+    /**
+     * inserts the values into an existing IntArray Variable.
+     * Indicates if the name was not found (does NOT create a new entry).
+     * 
+     * @param name   - Variable name
+     * @param index  - index of where to insert the values
+     *                 (moves current index value and all following values back)
+     * @param values - the values to insert
+     * 
+     * @return true if successful, false if the Variable was not found
+     * 
+     * @throws ParserException
+     */
+    public static boolean arrayInsertEntries (String name, int index, LongArray values) throws ParserException {
+        String functionId = CLASS_NAME + ".arrayInsertEntries: ";
+
+        if (name == null || name.isEmpty()) {
+            throw new ParserException(functionId + "Array Variable is missing name");
+        }
+        if (! isIntArray(name)) {
+            return false;
+        }
+        LongArray entry = Variables.getIntArray(name);
+        if (index < 0 || index >= entry.size() || entry.isEmpty()) {
+            throw new ParserException(functionId + "Variable " + name + " index exceeded: " + index + " (max " + entry.size() + ")");
+        }
+        entry.addAll(index, values);
+        Variables.setVarChange (name);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            for (int ix = values.size() - 1; ix >= 0; ix--) {
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Inserted entry[" + index + "] in param: " + name + " = " + values.get(ix));
+            }
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + entry);
+        }
+        return true;
+    }
+
+    /**
+     * inserts the values into an existing StrArray Variable.
+     * Indicates if the name was not found (does NOT create a new entry).
+     * 
+     * @param name   - Variable name
+     * @param index  - index of where to insert the values
+     *                 (moves current index value and all following values back)
+     * @param values - the values to insert
+     * 
+     * @return true if successful, false if the Variable was not found
+     * 
+     * @throws ParserException
+     */
+    public static boolean arrayInsertEntries (String name, int index, StringArray values) throws ParserException {
+        String functionId = CLASS_NAME + ".arrayInsertEntries: ";
+
+        if (name == null || name.isEmpty()) {
+            throw new ParserException(functionId + "Array Variable is missing name");
+        }
+        if (! isStrArray(name)) {
+            return false;
+        }
+        StringArray entry = Variables.getStrArray(name);
+        if (index < 0 || index >= entry.size() || entry.isEmpty()) {
+            throw new ParserException(functionId + "Variable " + name + " index exceeded: " + index + " (max " + entry.size() + ")");
+        }
+        entry.addAll(index, values);
+        Variables.setVarChange (name);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            for (int ix = values.size() - 1; ix >= 0; ix--) {
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Inserted entry[" + index + "] in param: " + name + " = " + values.get(ix));
+            }
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + entry);
+        }
+        return true;
+    }
+
     /**
      * appends a value to the end of an existing Array Variable table.
      * Indicates if the name was not found (does NOT create a new entry).
@@ -345,36 +420,91 @@ public class VarArray {
      * @throws ParserException
      */
     public static boolean arrayAppendEntry (String name, String value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".arrayAppendEntry: ";
 
         if (name == null || name.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
         }
-        String arrayContents = "";
         if (isIntArray(name)) {
-            ArrayList<Long> entry = Variables.getIntArray(name);
+            LongArray values = new LongArray(1);
             try {
-                Long longVal = Utils.getLongOrUnsignedValue (value);
-                entry.addLast(longVal);
-                arrayContents = entry.toString();
+                values.add(Utils.getLongOrUnsignedValue (value));
             } catch (ParserException exMsg) {
                 Utils.throwAddendum (exMsg.getMessage(), functionId);
             }
+            return arrayAppendEntries (name, values);
         }
-        else if (isStrArray(name)) {
-            ArrayList<String> entry = Variables.getStrArray(name);
-            entry.addLast(value);
-            arrayContents = entry.toString();
-        } else {
+        StringArray values = new StringArray(1);
+        values.add(value);
+        return arrayAppendEntries (name, values);
+    }
+
+    /**
+     * appends the values to the end of an existing IntArray Variable.
+     * Indicates if the name was not found (does NOT create a new entry).
+     * 
+     * @param name   - Variable name
+     * @param values - the values to append
+     * 
+     * @return true if successful, false if the Variable was not found
+     * 
+     * @throws ParserException
+     */
+    public static boolean arrayAppendEntries (String name, LongArray values) throws ParserException {
+        String functionId = CLASS_NAME + ".arrayAppendEntries: ";
+
+        if (name == null || name.isEmpty()) {
+            throw new ParserException(functionId + "Array Variable is missing name");
+        }
+        if (! isIntArray(name)) {
             return false;
         }
-        if (value.length() > 90) {
-            int offset = value.length() - 25;
-            value = value.substring(0, 60) + " ... " + value.substring(offset);
+        LongArray entry = Variables.getIntArray(name);
+        entry.addAll(values);
+        Variables.setVarChange (name);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            for (int ix = 0; ix < values.size(); ix++) {
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Appended entry to Variable: " + name + " = " + values.get(ix));
+            }
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + entry);
         }
+        return true;
+    }
+
+    /**
+     * appends the values to the end of an existing StrArray Variable.
+     * Indicates if the name was not found (does NOT create a new entry).
+     * 
+     * @param name   - Variable name
+     * @param values - the values to append
+     * 
+     * @return true if successful, false if the Variable was not found
+     * 
+     * @throws ParserException
+     */
+    public static boolean arrayAppendEntries (String name, StringArray values) throws ParserException {
+        String functionId = CLASS_NAME + ".arrayAppendEntries: ";
+
+        if (name == null || name.isEmpty()) {
+            throw new ParserException(functionId + "Array Variable is missing name");
+        }
+        if (! isStrArray(name)) {
+            return false;
+        }
+        StringArray entry = Variables.getStrArray(name);
+        entry.addAll(values);
         Variables.setVarChange (name);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Appended entry to Variable: " + name + " = " + value);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + arrayContents);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            for (int ix = 0; ix < values.size(); ix++) {
+                String value = values.get(ix);
+                if (value.length() > 90) {
+                    int offset = value.length() - 25;
+                    value = value.substring(0, 60) + " ... " + value.substring(offset);
+                }
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Appended entry to Variable: " + name + " = " + value);
+            }
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- " + name + ": " + entry);
+        }
         return true;
     }
 
@@ -409,7 +539,7 @@ public class VarArray {
      * 
      */
     public static void arrayFilterString (String varName, String strFilter, String opts) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".arrayFilterString: ";
 
         if (varName == null || varName.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
@@ -417,12 +547,12 @@ public class VarArray {
         if (! isStrArray(varName)) {
             throw new ParserException(functionId + "Array parameter not found: " + varName);
         }
-        ArrayList<String> var = Variables.getStrArray(varName);
+        StringArray var = Variables.getStrArray(varName);
 
         // if this is 1st filter being performed, init entries to all true
         if (ixFilter == null) {
-            ixFilter = new ArrayList<>();
-            for (String var1 : var) {
+            ixFilter = new ArrayList<>(var.size());
+            for (int ix = 0; ix < var.size(); ix++) {
                 ixFilter.add(true);
             }
         } else if (var.size() != ixFilter.size()) {
@@ -483,7 +613,7 @@ public class VarArray {
      * 
      */
     public static void arrayFilterInt (String varName, String compSign, Long value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".arrayFilterInt: ";
 
         if (varName == null || varName.isEmpty()) {
             throw new ParserException(functionId + "Array Variable is missing name");
@@ -491,18 +621,33 @@ public class VarArray {
         if (! isIntArray(varName)) {
             throw new ParserException(functionId + "Array parameter not found: " + varName);
         }
-        ArrayList<Long> var = Variables.getIntArray(varName);
+        if (value == null) {
+            throw new ParserException(functionId + "Filter value is missing for: " + varName);
+        }
+        LongArray var = Variables.getIntArray(varName);
+
+        // if this is 1st filter being performed, init entries to all true
+        if (ixFilter == null) {
+            ixFilter = new ArrayList<>(var.size());
+            for (int ix = 0; ix < var.size(); ix++) {
+                ixFilter.add(true);
+            }
+        } else if (var.size() != ixFilter.size()) {
+            throw new ParserException(functionId + "Filter Array size mismatch: " + varName + " = " + var.size() + ", filter = " + ixFilter.size());
+        }
+
+        long compValue = value;
         for (int ix = 0; ix < var.size(); ix++) {
-            Long entry = var.get(ix);
+            long entry = var.get(ix);
             boolean bMatch = false;
             switch (compSign) {
                 default:
-                case "==": bMatch = (Objects.equals(entry, value));   break;
-                case "!=": bMatch = (!Objects.equals(entry, value));  break;
-                case ">=": bMatch = (entry >= value);   break;
-                case "<=": bMatch = (entry <= value);   break;
-                case ">":  bMatch = (entry > value);    break;
-                case "<":  bMatch = (entry < value);    break;
+                case "==": bMatch = (entry == compValue);   break;
+                case "!=": bMatch = (entry != compValue);   break;
+                case ">=": bMatch = (entry >= compValue);   break;
+                case "<=": bMatch = (entry <= compValue);   break;
+                case ">":  bMatch = (entry > compValue);    break;
+                case "<":  bMatch = (entry < compValue);    break;
             }
             
             if (!bMatch) {
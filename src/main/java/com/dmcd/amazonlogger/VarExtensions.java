@@ -4,13 +4,16 @@
  */
 package com.dmcd.amazonlogger;
 
+import java.io.Serializable;
+
 /**
  *
  * @author dan
  */
-public class VarExtensions {
+public class VarExtensions implements Serializable {
     
-    private static final String CLASS_NAME = VarExtensions.class.getSimpleName();
+    private static final String CLASS_NAME = "VarExtensions";
+    private static final long serialVersionUID = 1L;
     
     // this defines characteristics for a referenced Variable
     private String                  name;       // name of Variable
@@ -18,6 +21,7 @@ public class VarExtensions {
     private final BracketIx         index;      // associated index [x] for String, StrArray, IntArray params
     private final BracketIx         indexmax;   // associated ending index for String, StrArray, IntArray params
     private final TraitInfo.Trait   trait;      // object after '.' demarcation
+    private int                     slot;       // slot of the user Variable (-1 if not a GLOBAL or LOCAL)
     
     /**
      * this is only called by ParameterStruct() to init the variableRef entry.
@@ -28,6 +32,7 @@ public class VarExtensions {
         this.index    = null;
         this.indexmax = null;
         this.trait    = null;
+        this.slot     = -1;
     }
         
     /**
@@ -41,6 +46,7 @@ public class VarExtensions {
         this.index    = info.index;
         this.indexmax = info.indexmax;
         this.trait    = info.trait;
+        this.slot     = info.slot;
     }
 
     /**
@@ -56,11 +62,13 @@ public class VarExtensions {
         this.index    = paramInfo.getIndex();
         this.indexmax = paramInfo.getIndexEnd();
         this.trait    = paramInfo.getTrait();
+        this.slot     = Variables.getVariableSlot(this.name);
     }
     
     public void setParamName (String name, ParameterStruct.ParamType type) {
         this.name = name;
         this.type = type;
+        this.slot = Variables.getVariableSlot(name);
     }
     
     public String getName() {
@@ -82,9 +90,23 @@ public class VarExtensions {
     public TraitInfo.Trait getTrait() {
         return this.trait;
     }
+    
+    public int getSlot() {
+        return this.slot;
+    }
+    
+    // true if the reference has no bracketing or trait attached to the name
+    public boolean isPlainName() {
+        return this.index == null && this.indexmax == null && this.trait == null;
+    }
+
+    // indicates the Variable has a Trait but no brackets
+    public boolean isTraitOnly() {
+        return this.index == null && this.indexmax == null && this.trait != null;
+    }
 
     private Integer getIxValue (BracketIx entry) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getIxValue: ";
        
         if (entry != null) {
             if (entry.getValue() != null)
@@ -13,7 +13,7 @@ import com.dmcd.amazonlogger.GUILogPanel.MsgType;
 
 public class VarExtract {
 
-    private static final String CLASS_NAME = VarExtract.class.getSimpleName();
+    private static final String CLASS_NAME = "VarExtract";
     
     private String  name;           // Variable name (null if not found)
     private ParameterStruct.ParamType type; // type of parameter
@@ -151,7 +151,7 @@ public class VarExtract {
      * @throws ParserException 
      */
     private void getExtensions () throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getExtensions: ";
         
         // check for bracketed index or trait extensions
         String field = name;
@@ -219,7 +219,7 @@ public class VarExtract {
     }
 
     private BracketIx packIndexValue (String entry) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".packIndexValue: ";
         
         BracketIx bIndex = new BracketIx();
         if (entry.charAt(0) == '$') {
@@ -0,0 +1,502 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This holds the call frames of the subroutines (and MAIN) during execution.
+ *
+ * The compiler defines the frame layout of each subroutine when it sets the
+ *  branch targets: its LOCAL Variables, IF statements and FOR loops are each
+ *  given an index in the frame, and the GOSUB commands are bound to the
+ *  subroutine they call. Each call then gets a frame that holds the IF
+ *  conditions and the loop values of that call, so a recursive call can't
+ *  change them for the call that made it.
+ *
+ * The LOCAL Variables of a subroutine are kept in the slots that were assigned
+ *  to them by the PreCompile, so a call that does not re-enter the subroutine
+ *  uses them as is and they keep their values from the previous call. If the
+ *  subroutine is already running (it was called recursively or from one of the
+ *  subroutines it called), the call is given a range of slots following the
+ *  assigned ones, which start from the initial values of the Variables.
+ *  The frames are reused, so a subroutine call doesn't have to allocate one.
+ *
+ * @author dan
+ */
+public class VarFrames {
+
+    private static final String CLASS_NAME = "VarFrames";
+    private static final String INDENT = "     ";
+
+    // the subroutines of the compiled program (MAIN is the first entry)
+    private static ArrayList<SubLocals> subList = new ArrayList<>();
+    private static final HashMap<String, SubLocals> subNames = new HashMap<>();
+
+    // the frames of the calls that have not returned yet (the 1st one is MAIN)
+    private static Frame[]  frames     = new Frame[8];
+    private static int      frameCount = 0;
+    private static Frame    current    = null;
+
+    // the number of active calls and the first frame slot of the current call for each subroutine
+    private static int[]    subDepth = new int[0];
+    private static int[]    subBase  = new int[0];
+
+    // the number of IF statements being run
+    private static int      ifDepth = 0;
+
+    // the loops being run and the frames they are running in
+    private static LoopStruct[] loops       = new LoopStruct[8];
+    private static Frame[]      loopFrames  = new Frame[8];
+    private static int          loopDepth   = 0;
+
+    /**
+     * the frame layout of a subroutine.
+     * This is created by the compiler and is not changed when the script is run.
+     */
+    static class SubLocals implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String      subName;
+        private final int         subIx;     // index of the subroutine in the list
+        private final int         entryIx;   // command index of the SUB command (0 for MAIN)
+        private final VarAccess[] vars;      // the LOCAL Variables
+        private int               ifCount;   // number of IF statements in the subroutine
+        private int               loopCount; // number of FOR loops in the subroutine
+
+        SubLocals (String subName, int subIx, int entryIx) {
+            this.subName   = subName;
+            this.subIx     = subIx;
+            this.entryIx   = entryIx;
+            this.vars      = VarLocal.getSubVars(subName);
+            this.ifCount   = 0;
+            this.loopCount = 0;
+            for (int ix = 0; ix < vars.length; ix++) {
+                vars[ix].setFrameIndex(subIx, ix);
+            }
+        }
+
+        String getName () {
+            return this.subName;
+        }
+
+        int getEntryIndex () {
+            return this.entryIx;
+        }
+
+        // these assign the frame index of the next IF statement and FOR loop of the subroutine
+        int addIf () {
+            return this.ifCount++;
+        }
+
+        int addLoop () {
+            return this.loopCount++;
+        }
+    }
+
+    /**
+     * the frame for a subroutine call.
+     */
+    static class Frame {
+        private SubLocals   owner;      // the subroutine being run
+        private int         returnIx;   // command index to return to
+        private int         base;       // first slot of the LOCAL Variables (-1 if the assigned slots are used)
+        private int         prevBase;   // first slot for the call this one re-entered
+        private int         ifStart;    // IF depth when the call was made
+        private int         loopStart;  // loop depth when the call was made
+        private boolean[]   ifMet       = new boolean[0];
+        private int[]       loopValue   = new int[0];
+        private String[]    loopComp    = new String[0];
+        private boolean[]   loopUpdate  = new boolean[0];
+
+        // makes sure the frame can hold the IF conditions and loops of the subroutine
+        private void setOwner (SubLocals sub) {
+            this.owner = sub;
+            if (ifMet.length < sub.ifCount) {
+                ifMet = new boolean[sub.ifCount];
+            }
+            if (loopValue.length < sub.loopCount) {
+                loopValue  = new int[sub.loopCount];
+                loopComp   = new String[sub.loopCount];
+                loopUpdate = new boolean[sub.loopCount];
+            }
+        }
+
+        String getName () {
+            return owner.subName;
+        }
+
+        int getReturnIndex () {
+            return this.returnIx;
+        }
+
+        // these are the values of the loops of the call
+        int getLoopValue (int ix) {
+            return loopValue[ix];
+        }
+
+        void setLoopValue (int ix, int value) {
+            loopValue[ix]  = value;
+            loopUpdate[ix] = true;
+        }
+
+        String getLoopComparator (int ix) {
+            return loopComp[ix];
+        }
+
+        void setLoopComparator (int ix, String comparator) {
+            loopComp[ix] = comparator;
+        }
+
+        boolean isLoopUpdated (int ix) {
+            return loopUpdate[ix];
+        }
+
+        void clearLoopUpdate (int ix) {
+            loopUpdate[ix] = false;
+        }
+    }
+
+    /**
+     * removes the subroutine definitions.
+     * This is done when the compiler sets the branch targets of the program.
+     */
+    static void initSubs () {
+        subList = new ArrayList<>();
+        subNames.clear();
+    }
+
+    /**
+     * saves the subroutine definitions for the compiled script cache.
+     *
+     * @param out - the cache file stream
+     *
+     * @throws IOException
+     */
+    static void saveState (ObjectOutputStream out) throws IOException {
+        out.writeObject(subList);
+    }
+
+    /**
+     * restores the subroutine definitions from the compiled script cache.
+     *
+     * @param in - the cache file stream
+     *
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @SuppressWarnings("unchecked")
+    static void loadState (ObjectInputStream in) throws IOException, ClassNotFoundException {
+        initSubs();
+        subList = (ArrayList<SubLocals>) in.readObject();
+        for (SubLocals sub : subList) {
+            subNames.put(sub.subName, sub);
+        }
+        init();
+    }
+
+    /**
+     * adds the definition of a subroutine (or MAIN).
+     * The LOCAL Variables of the subroutine are bound to its frames.
+     *
+     * @param subName - name of the subroutine
+     * @param entryIx - command index of the SUB command
+     *
+     * @return the definition of the subroutine
+     */
+    static SubLocals defineSub (String subName, int entryIx) {
+        SubLocals sub = new SubLocals(subName, subList.size(), entryIx);
+        subList.add(sub);
+        subNames.put(subName, sub);
+        return sub;
+    }
+
+    /**
+     * returns the definition of a subroutine.
+     *
+     * @param subName - name of the subroutine
+     *
+     * @return the definition (null if not defined)
+     */
+    static SubLocals getSub (String subName) {
+        return subNames.get(subName);
+    }
+
+    /**
+     * removes the call frames, IF conditions and loops of the previous run and
+     *  starts the frame for MAIN.
+     * This must be done before running the script.
+     */
+    public static void init () {
+        Arrays.fill(frames, 0, frameCount, null);
+        Arrays.fill(loops, 0, loopDepth, null);
+        Arrays.fill(loopFrames, 0, loopDepth, null);
+        frameCount = 0;
+        loopDepth  = 0;
+        ifDepth    = 0;
+        subDepth   = new int[subList.size()];
+        subBase    = new int[subList.size()];
+        Arrays.fill(subBase, -1);
+        VarSlots.resetFrames();
+
+        SubLocals main = subList.isEmpty() ? new SubLocals(Subroutine.getMainName(), -1, 0) : subList.get(0);
+        current = nextFrame();
+        current.setOwner(main);
+        current.returnIx = -1;
+        current.base     = -1;
+        current.prevBase = -1;
+    }
+
+    // gets the next frame on the stack
+    private static Frame nextFrame () {
+        if (frameCount >= frames.length) {
+            frames = Arrays.copyOf(frames, frames.length * 2);
+        }
+        Frame frame = frames[frameCount];
+        if (frame == null) {
+            frame = new Frame();
+            frames[frameCount] = frame;
+        }
+        frameCount++;
+        return frame;
+    }
+
+    /**
+     * returns the frame of the subroutine that is running.
+     *
+     * @return the current frame
+     */
+    static Frame getCurrent () {
+        return current;
+    }
+
+    /**
+     * returns the slot that holds the value of a LOCAL Variable for the
+     *  current call of its subroutine.
+     *
+     * @param subIx   - the index of the subroutine
+     * @param localIx - the index of the Variable in the frame
+     * @param slot    - the slot assigned to the Variable
+     *
+     * @return the slot to use
+     */
+    static int getValueSlot (int subIx, int localIx, int slot) {
+        int base = (subIx < subBase.length) ? subBase[subIx] : -1;
+        return (base < 0) ? slot : base + localIx;
+    }
+
+    /**
+     * starts the frame for a subroutine that is being called.
+     * If the subroutine is already running, its LOCAL Variables are given
+     *  a new range of slots that start from their initial values.
+     *
+     * @param sub      - the subroutine
+     * @param returnIx - the command index to return to
+     *
+     * @return the frame of the call
+     */
+    static Frame enter (SubLocals sub, int returnIx) {
+        Frame frame = nextFrame();
+        frame.setOwner(sub);
+        frame.returnIx  = returnIx;
+        frame.ifStart   = ifDepth;
+        frame.loopStart = loopDepth;
+        frame.prevBase  = subBase[sub.subIx];
+        frame.base      = -1;
+        if (subDepth[sub.subIx] > 0 && sub.vars.length > 0) {
+            frame.base = VarSlots.allocFrame(sub.vars.length);
+            for (int ix = 0; ix < sub.vars.length; ix++) {
+                sub.vars[ix].initValue(frame.base + ix);
+            }
+            subBase[sub.subIx] = frame.base;
+            if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL Variables at slot " + frame.base + " for re-entry of subroutine: " + sub.subName);
+            }
+        }
+        subDepth[sub.subIx]++;
+        current = frame;
+        return frame;
+    }
+
+    /**
+     * releases the frame of the subroutine that is returning.
+     * The IF statements and loops that the call did not complete are removed.
+     *
+     * @return the frame that was released
+     *
+     * @throws ParserException
+     */
+    static Frame release () throws ParserException {
+        String functionId = CLASS_NAME + ".release: ";
+
+        if (frameCount <= 1) {
+            throw new ParserException(functionId + "RETURN when not in subroutine");
+        }
+        Frame frame = current;
+        SubLocals sub = frame.owner;
+        if (frame.base >= 0) {
+            VarSlots.releaseFrame(frame.base);
+        }
+        subBase[sub.subIx] = frame.prevBase;
+        subDepth[sub.subIx]--;
+        ifDepth = frame.ifStart;
+        while (loopDepth > frame.loopStart) {
+            popLoop();
+        }
+        frameCount--;
+        current = frames[frameCount - 1];
+        return frame;
+    }
+
+    /**
+     * returns the number of subroutine calls that have not returned.
+     *
+     * @return the subroutine level (0 if in MAIN)
+     */
+    static int getCallDepth () {
+        return frameCount - 1;
+    }
+
+    /**
+     * returns the name of the subroutine of a call that has not returned.
+     *
+     * @param level - the subroutine level (1 for the 1st call from MAIN)
+     *
+     * @return the subroutine name
+     */
+    static String getCallName (int level) {
+        return frames[level].getName();
+    }
+
+    // THESE HANDLE THE IF CONDITIONS
+
+    /**
+     * starts an IF statement in the current call.
+     *
+     * @param ifInfo - the IF statement
+     * @param bMet   - true if the IF condition was met
+     */
+    static void pushIf (IFStruct ifInfo, boolean bMet) {
+        current.ifMet[ifInfo.getFrameIndex()] = bMet;
+        ifDepth++;
+    }
+
+    /**
+     * ends an IF statement.
+     */
+    static void popIf () {
+        ifDepth--;
+    }
+
+    /**
+     * returns the number of IF statements that are running.
+     *
+     * @return the IF depth
+     */
+    static int getIfDepth () {
+        return ifDepth;
+    }
+
+    /**
+     * sets the condition of an IF statement of the current call as having been met.
+     *
+     * @param ifInfo - the IF statement
+     */
+    static void setIfMet (IFStruct ifInfo) {
+        current.ifMet[ifInfo.getFrameIndex()] = true;
+    }
+
+    /**
+     * indicates if the condition of an IF statement of the current call has been met.
+     *
+     * @param ifInfo - the IF statement
+     *
+     * @return true if one of the conditions of the IF statement was met
+     */
+    static boolean isIfMet (IFStruct ifInfo) {
+        return current.ifMet[ifInfo.getFrameIndex()];
+    }
+
+    // THESE HANDLE THE LOOP STACK
+
+    /**
+     * adds a loop of the current call to the loop stack.
+     *
+     * @param loopInfo - the loop
+     */
+    static void pushLoop (LoopStruct loopInfo) {
+        if (loopDepth >= loops.length) {
+            loops      = Arrays.copyOf(loops, loops.length * 2);
+            loopFrames = Arrays.copyOf(loopFrames, loopFrames.length * 2);
+        }
+        loops[loopDepth]      = loopInfo;
+        loopFrames[loopDepth] = current;
+        loopDepth++;
+    }
+
+    /**
+     * removes the last loop from the loop stack.
+     */
+    static void popLoop () {
+        loopDepth--;
+        loops[loopDepth]      = null;
+        loopFrames[loopDepth] = null;
+    }
+
+    /**
+     * returns the number of loops that are running.
+     *
+     * @return the loop depth
+     */
+    static int getLoopDepth () {
+        return loopDepth;
+    }
+
+    /**
+     * returns a loop from the loop stack.
+     *
+     * @param ix - the index in the loop stack (0 for the outermost loop)
+     *
+     * @return the loop
+     */
+    static LoopStruct getLoop (int ix) {
+        return loops[ix];
+    }
+
+    /**
+     * returns the frame a loop from the loop stack is running in.
+     *
+     * @param ix - the index in the loop stack (0 for the outermost loop)
+     *
+     * @return the frame of the loop
+     */
+    static Frame getLoopFrame (int ix) {
+        return loopFrames[ix];
+    }
+
+    /**
+     * finds the innermost running loop for a loop parameter name.
+     *
+     * @param name - name of the loop parameter
+     *
+     * @return the index in the loop stack (-1 if the loop is not running)
+     */
+    static int findLoop (String name) {
+        for (int ix = loopDepth - 1; ix >= 0; ix--) {
+            if (loops[ix].getLoopName().contentEquals(name)) {
+                return ix;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -5,6 +5,9 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,7 +18,7 @@ import java.util.Map;
  */
 public class VarGlobal {
     
-    private static final String CLASS_NAME = VarGlobal.class.getSimpleName();
+    private static final String CLASS_NAME = "VarGlobal";
     private static final String INDENT = "     ";
     
     // the chars used to seperate entries in reporting variable contents to the client
@@ -31,6 +34,31 @@ public class VarGlobal {
         globals.clear();
     }
 
+    /**
+     * saves the allocated Variables for the compiled script cache.
+     * 
+     * @param out - the cache file stream
+     * 
+     * @throws IOException
+     */
+    static void saveState (ObjectOutputStream out) throws IOException {
+        out.writeObject(globals);
+    }
+
+    /**
+     * restores the allocated Variables from the compiled script cache.
+     * 
+     * @param in - the cache file stream
+     * 
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @SuppressWarnings("unchecked")
+    static void loadState (ObjectInputStream in) throws IOException, ClassNotFoundException {
+        globals.clear();
+        globals.putAll((HashMap<String, VarAccess>) in.readObject());
+    }
+
     /**
      * re-initializes the saved Variables
      */
@@ -131,6 +159,17 @@ public class VarGlobal {
         GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Allocated GLOBAL " + ptype + " variable: " + varName + " in " + subName);
     }
     
+    /**
+     * returns the info for a global variable.
+     * 
+     * @param varName - name of the variable
+     * 
+     * @return the variable info (null if not found)
+     */
+    public static VarAccess getVarInfo (String varName) {
+        return globals.get(varName);
+    }
+    
     /**
      * determine if local variable exists for the current subroutine running.
      * 
@@ -149,7 +188,7 @@ public class VarGlobal {
     
     // indicates if the variable has been written to since it was allocated
     public static boolean isVarInit (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isVarInit: ";
 
         if (varName == null) {
             throw new ParserException(functionId + "Null input value");
@@ -163,7 +202,7 @@ public class VarGlobal {
 
     // indicates if the variable has been written to since last step
     public static boolean isVarChanged (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isVarChanged: ";
 
         if (varName == null) {
             throw new ParserException(functionId + "Null input value");
@@ -185,7 +224,7 @@ public class VarGlobal {
     
     // returns the line number of the script that was the last writer to the variable
     public static String getWriterIndex (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getWriterIndex: ";
 
         if (varName == null) {
             throw new ParserException(functionId + "Null input value");
@@ -200,7 +239,7 @@ public class VarGlobal {
 
     // returns the timestamp when the last writer wrote to the variable
     public static String getWriterTime (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getWriterTime: ";
 
         if (varName == null) {
             throw new ParserException(functionId + "Null input value");
@@ -222,7 +261,7 @@ public class VarGlobal {
      * @throws ParserException 
      */
     public static ParameterStruct.ParamType getDataType (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getDataType: ";
 
         if (varName == null) {
             throw new ParserException(functionId + "Null input value");
@@ -243,7 +282,7 @@ public class VarGlobal {
      * @throws ParserException
      */
     public static String getStringVariable (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getStringVariable: ";
 
         if (name == null) {
             throw new ParserException(functionId + "Null input value");
@@ -265,7 +304,7 @@ public class VarGlobal {
      * @throws ParserException
      */
     public static void putStringVariable (String name, String value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".putStringVariable: ";
 
         if (name == null || value == null) {
             throw new ParserException(functionId + "Null input value");
@@ -276,7 +315,9 @@ public class VarGlobal {
         VarAccess var = globals.get(name);
         var.setValueString(value);
         globals.replace(name, var);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified String param: " + name + " = " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified String param: " + name + " = " + value);
+        }
     }
 
     /**
@@ -289,7 +330,7 @@ public class VarGlobal {
      * @throws ParserException
      */
     public static Long getIntegerVariable (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getIntegerVariable: ";
 
         if (name == null) {
             throw new ParserException(functionId + "Null input value");
@@ -311,7 +352,7 @@ public class VarGlobal {
      * @throws ParserException
      */
     public static void putIntegerVariable (String name, Long value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".putIntegerVariable: ";
 
         if (name == null || value == null) {
             throw new ParserException(functionId + "Null input value");
@@ -322,7 +363,9 @@ public class VarGlobal {
         VarAccess var = globals.get(name);
         var.setValueInteger(value);
         globals.replace(name, var);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified Integer param: " + name + " = " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified Integer param: " + name + " = " + value);
+        }
     }
 
     /**
@@ -335,7 +378,7 @@ public class VarGlobal {
      * @throws ParserException
      */
     public static Long getUnsignedVariable (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getUnsignedVariable: ";
 
         if (name == null) {
             throw new ParserException(functionId + "Null input value");
@@ -357,7 +400,7 @@ public class VarGlobal {
      * @throws ParserException
      */
     public static void putUnsignedVariable (String name, Long value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".putUnsignedVariable: ";
 
         if (name == null || value == null) {
             throw new ParserException(functionId + "Null input value");
@@ -372,7 +415,9 @@ public class VarGlobal {
         VarAccess var = globals.get(name);
         var.setValueUnsigned(value);
         globals.replace(name, var);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified Unsigned param: " + name + " = " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified Unsigned param: " + name + " = " + value);
+        }
     }
 
     /**
@@ -385,7 +430,7 @@ public class VarGlobal {
      * @throws ParserException
      */
     public static Boolean getBooleanVariable (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getBooleanVariable: ";
 
         if (name == null) {
             throw new ParserException(functionId + "Null input value");
@@ -407,7 +452,7 @@ public class VarGlobal {
      * @throws ParserException
      */
     public static void putBooleanVariable (String name, Boolean value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".putBooleanVariable: ";
 
         if (name == null || value == null) {
             throw new ParserException(functionId + "Null input value");
@@ -418,7 +463,9 @@ public class VarGlobal {
         VarAccess var = globals.get(name);
         var.setValueBoolean(value);
         globals.replace(name, var);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified Boolean param: " + name + " = " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified Boolean param: " + name + " = " + value);
+        }
     }
 
     /**
@@ -430,8 +477,8 @@ public class VarGlobal {
      * 
      * @throws ParserException
      */
-    public static ArrayList<String> getStrArray (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public static StringArray getStrArray (String name) throws ParserException {
+        String functionId = CLASS_NAME + ".getStrArray: ";
 
         if (name == null) {
             throw new ParserException(functionId + "Null input value");
@@ -452,15 +499,17 @@ public class VarGlobal {
      * 
      * @throws ParserException
      */
-    public static void updateStrArray (String name, ArrayList<String> value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public static void updateStrArray (String name, StringArray value) throws ParserException {
+        String functionId = CLASS_NAME + ".updateStrArray: ";
         if (name == null || value == null) {
             throw new ParserException(functionId + "Null input value");
         }
         VarAccess var = globals.get(name);
         var.setValueStrArray(value);
         globals.replace(name, var);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified StrArray param: " + name);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified StrArray param: " + name);
+        }
     }
     
     /**
@@ -472,8 +521,8 @@ public class VarGlobal {
      * 
      * @throws ParserException
      */
-    public static ArrayList<Long> getIntArray (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public static LongArray getIntArray (String name) throws ParserException {
+        String functionId = CLASS_NAME + ".getIntArray: ";
 
         if (name == null) {
             throw new ParserException(functionId + "Null input value");
@@ -494,15 +543,17 @@ public class VarGlobal {
      * 
      * @throws ParserException
      */
-    public static void updateIntArray (String name, ArrayList<Long> value) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+    public static void updateIntArray (String name, LongArray value) throws ParserException {
+        String functionId = CLASS_NAME + ".updateIntArray: ";
         if (name == null || value == null) {
             throw new ParserException(functionId + "Null input value");
         }
         VarAccess var = globals.get(name);
         var.setValueIntArray(value);
         globals.replace(name, var);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified IntArray param: " + name);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified IntArray param: " + name);
+        }
     }
 
 }
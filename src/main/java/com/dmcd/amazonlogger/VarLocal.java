@@ -5,6 +5,9 @@
 package com.dmcd.amazonlogger;
 
 import com.dmcd.amazonlogger.GUILogPanel.MsgType;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,7 +18,7 @@ import java.util.Map;
  */
 public class VarLocal {
     
-    private static final String CLASS_NAME = VarLocal.class.getSimpleName();
+    private static final String CLASS_NAME = "VarLocal";
     private static final String INDENT = "     ";
     
     // map of local variables for each subroutines defined
@@ -28,6 +31,31 @@ public class VarLocal {
     public static void initVariables () {
         locals.clear();
     }
+
+    /**
+     * saves the allocated subroutine Variables for the compiled script cache.
+     * 
+     * @param out - the cache file stream
+     * 
+     * @throws IOException
+     */
+    static void saveState (ObjectOutputStream out) throws IOException {
+        out.writeObject(locals);
+    }
+
+    /**
+     * restores the allocated subroutine Variables from the compiled script cache.
+     * 
+     * @param in - the cache file stream
+     * 
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @SuppressWarnings("unchecked")
+    static void loadState (ObjectInputStream in) throws IOException, ClassNotFoundException {
+        locals.clear();
+        locals.putAll((HashMap<String, VarLocalSub>) in.readObject());
+    }
     
     /**
      * re-initializes the saved Variables
@@ -93,7 +121,7 @@ public class VarLocal {
      * @throws ParserException 
      */
     public void allocSubroutine (String subName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".allocSubroutine: ";
 
         if (locals.containsKey(subName)) {
             throw new ParserException(functionId + "Subroutine allocations already defined: " + subName);
@@ -113,7 +141,7 @@ public class VarLocal {
      * @throws ParserException 
      */
     public boolean isDefined (String subName, String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isDefined: ";
 
         if (! locals.containsKey(subName)) {
             throw new ParserException(functionId + "Subroutine allocations not found: " + subName);
@@ -123,7 +151,7 @@ public class VarLocal {
 
     // indicates if the variable has been written to since it was allocated
     public boolean isVarInit (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isVarInit: ";
         String subName = Subroutine.getSubName();
         VarLocalSub localSub = locals.get(subName);
         if (localSub == null) {
@@ -137,7 +165,7 @@ public class VarLocal {
 
     // indicates if the variable has been written to since last step
     public static boolean isVarChanged (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isVarChanged: ";
         String subName = Subroutine.getSubName();
         VarLocalSub localSub = locals.get(subName);
         if (localSub == null) {
@@ -151,7 +179,7 @@ public class VarLocal {
 
     // saves the time and script line when the variable was written.
     public static void setVarWriter (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setVarWriter: ";
         String subName = Subroutine.getSubName();
         VarLocalSub localSub = locals.get(subName);
         if (localSub == null) {
@@ -165,7 +193,7 @@ public class VarLocal {
     
     // returns the line number of the script that was the last writer to the variable
     public String getWriterIndex (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getWriterIndex: ";
         String subName = Subroutine.getSubName();
         VarLocalSub localSub = locals.get(subName);
         if (localSub == null) {
@@ -179,7 +207,7 @@ public class VarLocal {
 
     // returns the timestamp when the last writer wrote to the variable
     public String getWriterTime (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getWriterTime: ";
         String subName = Subroutine.getSubName();
         VarLocalSub localSub = locals.get(subName);
         if (localSub == null) {
@@ -212,6 +240,32 @@ public class VarLocal {
         return locals.get(subName).getDataType(varName);
     }
 
+    /**
+     * returns the info for a local variable of a subroutine.
+     * 
+     * @param varName - name of the variable
+     * @param subName - name of the subroutine
+     * 
+     * @return the variable info (null if not found)
+     */
+    public VarAccess getVarInfo (String varName, String subName) {
+        VarLocalSub vars = locals.get(subName);
+        return (vars == null) ? null : vars.getVarInfo(varName);
+    }
+
+    /**
+     * returns the local variables of a subroutine.
+     * This is used by VarFrames to set up the frame for a subroutine call.
+     * 
+     * @param subName - name of the subroutine
+     * 
+     * @return the variable info for each variable (empty if none)
+     */
+    public static VarAccess[] getSubVars (String subName) {
+        VarLocalSub vars = locals.get(subName);
+        return (vars == null) ? new VarAccess[0] : vars.getVarList();
+    }
+
     /**
      * this makes an local variable allocation for the current function.
      * This should be called when a local allocation is defined in a subroutine
@@ -223,7 +277,7 @@ public class VarLocal {
      * @throws ParserException 
      */
     public void allocVar (String varName, ParameterStruct.ParamType varType) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".allocVar: ";
 
         String subName = Subroutine.getSubName();
         if (! locals.containsKey(subName)) {
@@ -241,7 +295,9 @@ public class VarLocal {
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         vars.putInteger(varName, value);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " set to: " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " set to: " + value);
+        }
     }
     
     public Long getInteger (String varName) throws ParserException {
@@ -249,7 +305,9 @@ public class VarLocal {
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         Long value = vars.getInteger(varName);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " = " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " = " + value);
+        }
         return value;
     }
     
@@ -258,7 +316,9 @@ public class VarLocal {
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         vars.putUnsigned(varName, value);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " set to: " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " set to: " + value);
+        }
     }
     
     public Long getUnsigned (String varName) throws ParserException {
@@ -266,7 +326,9 @@ public class VarLocal {
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         Long value = vars.getUnsigned(varName);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " = " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " = " + value);
+        }
         return value;
     }
     
@@ -275,7 +337,9 @@ public class VarLocal {
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         vars.putBoolean(varName, value);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " set to: " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " set to: " + value);
+        }
     }
     
     public Boolean getBoolean (String varName) throws ParserException {
@@ -283,7 +347,9 @@ public class VarLocal {
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         Boolean value = vars.getBoolean(varName);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " = " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " = " + value);
+        }
         return value;
     }
     
@@ -292,7 +358,9 @@ public class VarLocal {
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         vars.putString(varName, value);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " set to: " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " set to: " + value);
+        }
     }
     
     public String getString (String varName) throws ParserException {
@@ -300,7 +368,9 @@ public class VarLocal {
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         String value = vars.getString(varName);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " = " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " for subroutine " + subName + " = " + value);
+        }
         return value;
     }
     
@@ -308,20 +378,24 @@ public class VarLocal {
     // Array functions
     //==========================================
     
-    public void updateStrArray (String varName, ArrayList<String> value) throws ParserException {
+    public void updateStrArray (String varName, StringArray value) throws ParserException {
         ParameterStruct.ParamType type = ParameterStruct.ParamType.StrArray;
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         vars.updateStrArray(varName, subName, value);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " updated for subroutine: " + subName);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " updated for subroutine: " + subName);
+        }
     }
     
-    public void updateIntArray (String varName, ArrayList<Long> value) throws ParserException {
+    public void updateIntArray (String varName, LongArray value) throws ParserException {
         ParameterStruct.ParamType type = ParameterStruct.ParamType.IntArray;
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         vars.updateIntArray(varName, subName, value);
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " updated for subroutine: " + subName);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + varName + " updated for subroutine: " + subName);
+        }
     }
 
     public boolean isStrArray (String varName) {
@@ -346,14 +420,14 @@ public class VarLocal {
         return true;
     }
     
-    public ArrayList<String> getStrArray (String varName) throws ParserException {
+    public StringArray getStrArray (String varName) throws ParserException {
         ParameterStruct.ParamType type = ParameterStruct.ParamType.StrArray;
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
         return vars.getStrArray(varName);
     }
     
-    public ArrayList<Long> getIntArray (String varName) throws ParserException {
+    public LongArray getIntArray (String varName) throws ParserException {
         ParameterStruct.ParamType type = ParameterStruct.ParamType.IntArray;
         String subName = Subroutine.getSubName();
         VarLocalSub vars = getSubLocals(subName, varName, type);
@@ -363,7 +437,7 @@ public class VarLocal {
     // PRIVATE METHODS
     
     private VarLocalSub getSubLocals (String subName, String varName, ParameterStruct.ParamType type) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getSubLocals: ";
 
         VarLocalSub vars = locals.get(subName);
         if (vars == null) {
@@ -374,7 +448,9 @@ public class VarLocal {
             throw new ParserException(functionId + "Local variable type " + varType + " not same type " + type + " as function " + subName);
         }
 
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "Local Variable " + varName + " found for subroutine: " + subName);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "Local Variable " + varName + " found for subroutine: " + subName);
+        }
         return vars;
     }
     
@@ -4,6 +4,7 @@
  */
 package com.dmcd.amazonlogger;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -13,9 +14,10 @@ import java.util.Map;
  *
  * @author dan
  */
-public class VarLocalSub {
+public class VarLocalSub implements Serializable {
 
-    private static final String CLASS_NAME = VarLocalSub.class.getSimpleName();
+    private static final String CLASS_NAME = "VarLocalSub";
+    private static final long serialVersionUID = 1L;
 
     // the chars used to seperate entries in reporting variable contents to the client
     private static final String DATA_SEP = Variables.getDataSeparator();
@@ -118,7 +120,7 @@ public class VarLocalSub {
     }
     
     private VarAccess checkLocalVar (String varName, ParameterStruct.ParamType callType) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkLocalVar: ";
         VarAccess var = localVar.get(varName);
         if (var == null) {
             throw new ParserException(functionId + "Local variable not found: " + varName);
@@ -131,7 +133,7 @@ public class VarLocalSub {
     
 
     public String getOwner (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getOwner: ";
         VarAccess var = localVar.get(varName);
         if (var == null) {
             throw new ParserException(functionId + "Local variable not found: " + varName);
@@ -141,7 +143,7 @@ public class VarLocalSub {
         
     // indicates if the variable has been written to since it was allocated
     public boolean isVarInit (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isVarInit: ";
         VarAccess varInfo = localVar.get(varName);
         if (varInfo == null) {
             throw new ParserException(functionId + "Local variable not found: " + varName);
@@ -151,7 +153,7 @@ public class VarLocalSub {
 
     // indicates if the variable has been written to since last step
     public boolean isVarChanged (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isVarChanged: ";
         VarAccess varInfo = localVar.get(varName);
         if (varInfo == null) {
             throw new ParserException(functionId + "Local variable not found: " + varName);
@@ -161,7 +163,7 @@ public class VarLocalSub {
 
     // saves the time and script line when the variable was written.
     public void setVarWriter (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".setVarWriter: ";
         VarAccess varInfo = localVar.get(varName);
         if (varInfo == null) {
             throw new ParserException(functionId + "Local variable not found: " + varName);
@@ -171,7 +173,7 @@ public class VarLocalSub {
     
     // returns the line number of the script that was the last writer to the variable
     public String getWriterIndex (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getWriterIndex: ";
         VarAccess varInfo = localVar.get(varName);
         if (varInfo == null) {
             throw new ParserException(functionId + "Local variable not found: " + varName);
@@ -182,7 +184,7 @@ public class VarLocalSub {
 
     // returns the timestamp when the last writer wrote to the variable
     public String getWriterTime (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getWriterTime: ";
         VarAccess varInfo = localVar.get(varName);
         if (varInfo == null) {
             throw new ParserException(functionId + "Variable " + varName + " not found");
@@ -190,12 +192,25 @@ public class VarLocalSub {
         return varInfo.getWriterTime();
     }
         
+    /**
+     * returns the variables defined here.
+     * 
+     * @return the variable info for each variable
+     */
+    public VarAccess[] getVarList () {
+        return localVar.values().toArray(new VarAccess[0]);
+    }
+
+    public VarAccess getVarInfo (String varName) {
+        return localVar.get(varName);
+    }
+        
     public boolean isDefined (String varName) {
         return localVar.get(varName) != null;
     }
         
     public boolean isGlobal (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".isGlobal: ";
         VarAccess var = localVar.get(varName);
         if (var == null) {
             throw new ParserException(functionId + "Local variable not found: " + varName);
@@ -263,24 +278,24 @@ public class VarLocalSub {
         
     // =================== STRING ARRAY var access ===================
 
-    public ArrayList<String> getStrArray (String varName) throws ParserException {
+    public StringArray getStrArray (String varName) throws ParserException {
         VarAccess local = checkLocalVar (varName, ParameterStruct.ParamType.StrArray);
         return local.getValueStrArray();
     }
         
-    public void updateStrArray (String varName, String subName, ArrayList<String> value) throws ParserException {
+    public void updateStrArray (String varName, String subName, StringArray value) throws ParserException {
         VarAccess local = checkLocalVar (varName, ParameterStruct.ParamType.StrArray);
         local.setValueStrArray(value);
     }
     
     // =================== INT ARRAY var access ===================
 
-    public ArrayList<Long> getIntArray (String varName) throws ParserException {
+    public LongArray getIntArray (String varName) throws ParserException {
         VarAccess local = checkLocalVar (varName, ParameterStruct.ParamType.IntArray);
         return local.getValueIntArray();
     }
         
-    public void updateIntArray (String varName, String subName, ArrayList<Long> value) throws ParserException {
+    public void updateIntArray (String varName, String subName, LongArray value) throws ParserException {
         VarAccess local = checkLocalVar (varName, ParameterStruct.ParamType.IntArray);
         local.setValueIntArray(value);
     }
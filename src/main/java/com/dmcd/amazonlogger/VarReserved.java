@@ -17,13 +17,13 @@ import java.util.Random;
  */
 public class VarReserved {
     
-    private static final String CLASS_NAME = VarReserved.class.getSimpleName();
+    private static final String CLASS_NAME = "VarReserved";
     
     // the chars used to seperate entries in reporting variable contents to the client
     private static final String DATA_SEP = Variables.getDataSeparator();
     
     // reserved static Variables
-    private static final ArrayList<String> strResponse = new ArrayList<>(); // responses from RUN commands
+    private static final StringArray strResponse = new StringArray(); // responses from RUN commands
     private static String  subRetValue;     // ret value from the last subroutine call
     private static boolean bStatus = false; // true/false status indications
     private static String  OcrText = "";    // the OCR data read
@@ -271,7 +271,10 @@ public class VarReserved {
      */
     public static void putResponseValue (String value) {
         strResponse.add(value);
-        setVarChange (ReservedVars.RESPONSE, strResponse.toString());
+        // only format the contents if they are being reported to the client
+        if (AmazonReader.isOpModeNetwork()) {
+            setVarChange (ReservedVars.RESPONSE, strResponse.toString());
+        }
     }
     
     /**
@@ -0,0 +1,244 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.dmcd.amazonlogger;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+/**
+ * This holds the values of the user-defined (GLOBAL and LOCAL) Variables.
+ *
+ * Each Variable is given a slot number when it is allocated by the PreCompile,
+ *  and its value is kept in the array for its data type at that slot. The
+ *  compiler saves the slot number in the Variable references it creates, so
+ *  that the execution can read and write the value by slot instead of having
+ *  to look up the Variable name in the GLOBAL and LOCAL tables each time.
+ *  The Integer, Unsigned and Boolean values are kept as primitives so they
+ *  don't have to be boxed when they are written.
+ *
+ * The slots following the assigned ones are used for the frames of the LOCAL
+ *  Variables of a subroutine that is called while it is already running
+ *  (see VarFrames), so each of these calls has its own values. The script
+ *  line and time of the last write are kept by slot for the same reason.
+ *
+ * @author dan
+ */
+public class VarSlots {
+
+    private static final String CLASS_NAME = "VarSlots";
+
+    private static final int INIT_SIZE = 32;
+
+    private static int          slotCount = 0;
+    private static VarAccess[]  slotInfo  = new VarAccess[INIT_SIZE]; // the Variable info for each slot
+    private static long[]       intSlots  = new long[INIT_SIZE];      // Integer and Unsigned values
+    private static boolean[]    boolSlots = new boolean[INIT_SIZE];   // Boolean values
+    private static Object[]     refSlots  = new Object[INIT_SIZE];    // String, StrArray and IntArray values
+    private static int[]        writers   = new int[INIT_SIZE];       // command index of last writer (-1 if none)
+    private static long[]       writeTime = new long[INIT_SIZE];      // elapsed time in nsec of last write (-1 if none)
+
+    // the end of the slots used by the frames of the re-entered subroutines
+    private static int          frameTop  = 0;
+
+    /**
+     * removes all the slot assignments.
+     * This is done when the Variables are initialized for the PreCompile.
+     */
+    public static void init () {
+        Arrays.fill(slotInfo, 0, slotCount, null);
+        Arrays.fill(refSlots, 0, Math.max(slotCount, frameTop), null);
+        slotCount = 0;
+        frameTop = 0;
+    }
+
+    /**
+     * saves the slot assignments for the compiled script cache.
+     * 
+     * @param out - the cache file stream
+     * 
+     * @throws IOException
+     */
+    static void saveState (ObjectOutputStream out) throws IOException {
+        out.writeInt(slotCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            out.writeObject(slotInfo[slot]);
+        }
+    }
+
+    /**
+     * restores the slot assignments from the compiled script cache.
+     * The Variables are given their initial values, as when they were allocated.
+     * 
+     * @param in - the cache file stream
+     * 
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    static void loadState (ObjectInputStream in) throws IOException, ClassNotFoundException {
+        String functionId = CLASS_NAME + ".loadState: ";
+
+        init();
+        int count = in.readInt();
+        for (int slot = 0; slot < count; slot++) {
+            VarAccess var = (VarAccess) in.readObject();
+            if (allocSlot(var) != var.getSlot()) {
+                throw new IOException(functionId + "Slot mismatch for Variable " + var.getName() + ": " + var.getSlot());
+            }
+            var.initValue();
+        }
+    }
+
+    /**
+     * assigns the next slot to a Variable that is being allocated.
+     *
+     * @param var - the Variable info
+     *
+     * @return the slot assigned
+     */
+    public static int allocSlot (VarAccess var) {
+        ensureSize (slotCount + 1);
+        slotInfo[slotCount] = var;
+        return slotCount++;
+    }
+
+    // makes sure the slot arrays can hold the specified number of slots
+    private static void ensureSize (int count) {
+        if (count > slotInfo.length) {
+            int size = slotInfo.length * 2;
+            while (size < count) {
+                size *= 2;
+            }
+            slotInfo  = Arrays.copyOf(slotInfo,  size);
+            intSlots  = Arrays.copyOf(intSlots,  size);
+            boolSlots = Arrays.copyOf(boolSlots, size);
+            refSlots  = Arrays.copyOf(refSlots,  size);
+            writers   = Arrays.copyOf(writers,   size);
+            writeTime = Arrays.copyOf(writeTime, size);
+        }
+    }
+
+    /**
+     * removes the frames of the re-entered subroutines.
+     * This is done when the subroutine stack is reset for running the script.
+     */
+    static void resetFrames () {
+        if (frameTop > slotCount) {
+            Arrays.fill(refSlots, slotCount, frameTop, null);
+        }
+        frameTop = slotCount;
+    }
+
+    /**
+     * reserves the slots for the LOCAL Variables of a subroutine call that
+     *  re-entered the subroutine. The caller must set the initial values.
+     *
+     * @param count - the number of LOCAL Variables of the subroutine
+     *
+     * @return the first slot of the frame
+     */
+    static int allocFrame (int count) {
+        int base = Math.max(frameTop, slotCount);
+        frameTop = base + count;
+        ensureSize (frameTop);
+        return base;
+    }
+
+    /**
+     * releases the slots of the last frame that was allocated.
+     *
+     * @param base - the first slot of the frame (from allocFrame)
+     */
+    static void releaseFrame (int base) {
+        Arrays.fill(refSlots, base, frameTop, null);
+        frameTop = base;
+    }
+
+    /**
+     * returns the number of slots assigned.
+     *
+     * @return the number of user-defined Variables
+     */
+    public static int getCount () {
+        return slotCount;
+    }
+
+    /**
+     * returns the info for the Variable in the specified slot.
+     *
+     * @param slot - the Variable slot
+     *
+     * @return the Variable info
+     *
+     * @throws ParserException
+     */
+    public static VarAccess getInfo (int slot) throws ParserException {
+        String functionId = CLASS_NAME + ".getInfo: ";
+
+        if (slot < 0 || slot >= slotCount) {
+            throw new ParserException(functionId + "Invalid Variable slot: " + slot + " (size " + slotCount + ")");
+        }
+        return slotInfo[slot];
+    }
+
+    // these are the values of the slots. The slot number is not checked, since
+    //  they are only called by VarAccess with the slot that was assigned to it
+    //  (or the slot for it in the frame of the current subroutine call).
+    static long getLong (int slot) {
+        return intSlots[slot];
+    }
+
+    static void setLong (int slot, long value) {
+        intSlots[slot] = value;
+    }
+
+    static boolean getBoolean (int slot) {
+        return boolSlots[slot];
+    }
+
+    static void setBoolean (int slot, boolean value) {
+        boolSlots[slot] = value;
+    }
+
+    static String getString (int slot) {
+        return (String) refSlots[slot];
+    }
+
+    static void setString (int slot, String value) {
+        refSlots[slot] = value;
+    }
+
+    static StringArray getStrArray (int slot) {
+        return (StringArray) refSlots[slot];
+    }
+
+    static LongArray getIntArray (int slot) {
+        return (LongArray) refSlots[slot];
+    }
+
+    static void setStrArray (int slot, StringArray value) {
+        refSlots[slot] = value;
+    }
+
+    static void setIntArray (int slot, LongArray value) {
+        refSlots[slot] = value;
+    }
+
+    // these are the command index and time of the last write to the slot
+    static int getWriter (int slot) {
+        return writers[slot];
+    }
+
+    static long getWriteTime (int slot) {
+        return writeTime[slot];
+    }
+
+    static void setWriter (int slot, int writer, long time) {
+        writers[slot]   = writer;
+        writeTime[slot] = time;
+    }
+
+}
@@ -13,7 +13,7 @@ import java.util.ArrayList;
  */
 public class Variables {
     
-    private static final String CLASS_NAME = Variables.class.getSimpleName();
+    private static final String CLASS_NAME = "Variables";
     private static final String INDENT = "     ";
     
     // the chars used to seperate entries in reporting variable contents to the client
@@ -83,6 +83,7 @@ public class Variables {
      */
     public static void initVariables () {
         VarReserved.initVariables();
+        VarSlots.init();
         VarGlobal.initVariables();
         VarLocal.initVariables();
         VarArray.initVariables();
@@ -279,7 +280,7 @@ public class Variables {
         setVarChange (name, cls);
     }
     
-    public static void setStrArray (String name, ArrayList<String> value) throws ParserException {
+    public static void setStrArray (String name, StringArray value) throws ParserException {
         VarClass cls = getVariableClass (name);
         switch (cls) {
             case LOCAL:
@@ -293,7 +294,7 @@ public class Variables {
         setVarChange (name, cls);
     }
     
-    public static void setIntArray (String name, ArrayList<Long> value) throws ParserException {
+    public static void setIntArray (String name, LongArray value) throws ParserException {
         VarClass cls = getVariableClass (name);
         switch (cls) {
             case LOCAL:
@@ -307,6 +308,142 @@ public class Variables {
         setVarChange (name, cls);
     }
 
+    /**
+     * modifies the value of a String Variable, using its slot if it has one.
+     * 
+     * @param name  - Variable name
+     * @param slot  - Variable slot (-1 if the Variable was not assigned a slot)
+     * @param value - Variable value
+     * 
+     * @throws ParserException
+     */
+    public static void setStringVariable (String name, int slot, String value) throws ParserException {
+        if (slot < 0) {
+            setStringVariable (name, value);
+            return;
+        }
+        VarAccess var = VarSlots.getInfo(slot);
+        var.setValueString(value);
+        showSlotWrite (var, value);
+    }
+
+    /**
+     * modifies the value of an Integer Variable, using its slot if it has one.
+     * 
+     * @param name  - Variable name
+     * @param slot  - Variable slot (-1 if the Variable was not assigned a slot)
+     * @param value - Variable value
+     * 
+     * @throws ParserException
+     */
+    public static void setIntegerVariable (String name, int slot, Long value) throws ParserException {
+        if (slot < 0) {
+            setIntegerVariable (name, value);
+            return;
+        }
+        VarAccess var = VarSlots.getInfo(slot);
+        var.setValueInteger(value);
+        showSlotWrite (var, value);
+    }
+
+    /**
+     * modifies the value of an Unsigned Variable, using its slot if it has one.
+     * 
+     * @param name  - Variable name
+     * @param slot  - Variable slot (-1 if the Variable was not assigned a slot)
+     * @param value - Variable value
+     * 
+     * @throws ParserException
+     */
+    public static void setUnsignedVariable (String name, int slot, Long value) throws ParserException {
+        if (slot < 0) {
+            setUnsignedVariable (name, value);
+            return;
+        }
+        VarAccess var = VarSlots.getInfo(slot);
+        var.setValueUnsigned(value);
+        showSlotWrite (var, value);
+    }
+
+    /**
+     * modifies the value of a Boolean Variable, using its slot if it has one.
+     * 
+     * @param name  - Variable name
+     * @param slot  - Variable slot (-1 if the Variable was not assigned a slot)
+     * @param value - Variable value
+     * 
+     * @throws ParserException
+     */
+    public static void setBooleanVariable (String name, int slot, Boolean value) throws ParserException {
+        if (slot < 0) {
+            setBooleanVariable (name, value);
+            return;
+        }
+        VarAccess var = VarSlots.getInfo(slot);
+        var.setValueBoolean(value);
+        showSlotWrite (var, value);
+    }
+
+    /**
+     * modifies the value of a StrArray Variable, using its slot if it has one.
+     * 
+     * @param name  - Variable name
+     * @param slot  - Variable slot (-1 if the Variable was not assigned a slot)
+     * @param value - Variable value
+     * 
+     * @throws ParserException
+     */
+    public static void setStrArray (String name, int slot, StringArray value) throws ParserException {
+        if (slot < 0) {
+            setStrArray (name, value);
+            return;
+        }
+        VarAccess var = VarSlots.getInfo(slot);
+        var.setValueStrArray(value);
+        showSlotWrite (var, null);
+    }
+
+    /**
+     * modifies the value of an IntArray Variable, using its slot if it has one.
+     * 
+     * @param name  - Variable name
+     * @param slot  - Variable slot (-1 if the Variable was not assigned a slot)
+     * @param value - Variable value
+     * 
+     * @throws ParserException
+     */
+    public static void setIntArray (String name, int slot, LongArray value) throws ParserException {
+        if (slot < 0) {
+            setIntArray (name, value);
+            return;
+        }
+        VarAccess var = VarSlots.getInfo(slot);
+        var.setValueIntArray(value);
+        showSlotWrite (var, null);
+    }
+
+    /**
+     * outputs the debug message for a Variable written by slot.
+     * These are the same messages as when the Variable is written by name.
+     * 
+     * @param var   - the Variable info
+     * @param value - the value written (null for arrays)
+     */
+    private static void showSlotWrite (VarAccess var, Object value) {
+        if (! GUILogPanel.isEnabled(MsgType.VARS)) {
+            return;
+        }
+        ParameterStruct.ParamType type = var.getType();
+        if (var.isGlobal()) {
+            String strValue = (value == null) ? "" : " = " + value;
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Modified " + type + " param: " + var.getName() + strValue);
+        } else if (value == null) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + var.getName() + " updated for subroutine: " + var.getOwner());
+        } else {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + type + " Variable " + var.getName() + " for subroutine " + var.getOwner() + " set to: " + value);
+        }
+    }
+
     public static String getStringValue (String name) throws ParserException {
         switch (getVariableClass (name)) {
             case LOCAL:
@@ -347,7 +484,7 @@ public class Variables {
         }
     }
 
-    public static ArrayList<String> getStrArray (String name) throws ParserException {
+    public static StringArray getStrArray (String name) throws ParserException {
         switch (getVariableClass (name)) {
             case LOCAL:
                 return varLocal.getStrArray(name);
@@ -357,7 +494,7 @@ public class Variables {
         }
     }
     
-    public static ArrayList<Long> getIntArray (String name) throws ParserException {
+    public static LongArray getIntArray (String name) throws ParserException {
         switch (getVariableClass (name)) {
             case LOCAL:
                 return varLocal.getIntArray(name);
@@ -408,7 +545,7 @@ public class Variables {
      * @throws ParserException 
      */
     public static void checkReadAccess (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkReadAccess: ";
 
         // MAIN function variables are GLOBAL, so read from anywhere
         if (Subroutine.isMainFunction()) {
@@ -436,7 +573,7 @@ public class Variables {
      * @throws ParserException 
      */
     public static void checkWriteAccess (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkWriteAccess: ";
 
         // MAIN function variables are GLOBAL, so read from anywhere
         if (Subroutine.isMainFunction()) {
@@ -468,7 +605,7 @@ public class Variables {
      * @throws ParserException - if Variable was already defined
      */
     public static void allocateVariable (String accStr, String dataType, String varName, String subName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".allocateVariable: ";
 
         // first, verify Variable name to make sure it is valid format and
         //  not already used.
@@ -531,7 +668,7 @@ public class Variables {
      * @throws ParserException 
      */
     private static ParameterStruct applyBracketing (ParameterStruct paramValue) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".applyBracketing: ";
 
         VarExtensions paramInfo = paramValue.getVariableRef();
         if (paramInfo == null) {
@@ -563,16 +700,13 @@ public class Variables {
                             paramValue.setStringValue(paramValue.getIntegerValue().toString());
                             pType = ParameterStruct.ParamType.Integer;
                         } else {
-                            int count = paramValue.getIntArraySize() - iEnd - 1;
-                            for (int ix = 0; ix < count; ix++) {
-                                paramValue.getIntArray().remove(iEnd + 1);
-                            }
-                            for (int ix = 0; ix < iStart; ix++) {
-                                paramValue.getIntArray().remove(0);
-                            }
+                            // the range is a new array, since the value may be the Variable's array
+                            paramValue.setIntArray(paramValue.getIntArray().slice(iStart, iEnd + 1));
                             pType = ParameterStruct.ParamType.IntArray;
                         }
-                        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + name + "[" + iStart + "] as type " + pType + ": " + paramValue.getIntegerValue());
+                        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + name + "[" + iStart + "] as type " + pType + ": " + paramValue.getIntegerValue());
+                        }
                     } else {
                         throw new ParserException(functionId + "Parameter " + name + " index " + iStart + " exceeds array");
                     }
@@ -583,16 +717,13 @@ public class Variables {
                             paramValue.setStringValue(paramValue.getStrArrayElement(iStart));
                             pType = ParameterStruct.ParamType.String;
                         } else {
-                            int count = paramValue.getStrArraySize() - iEnd - 1;
-                            for (int ix = 0; ix < count; ix++) {
-                                paramValue.getStrArray().remove(iEnd + 1);
-                            }
-                            for (int ix = 0; ix < iStart; ix++) {
-                                paramValue.getStrArray().remove(0);
-                            }
+                            // the range is a view of the entries, since the value may be the Variable's array
+                            paramValue.setStrArray(paramValue.getStrArray().slice(iStart, iEnd + 1));
                             pType = ParameterStruct.ParamType.StrArray;
                         }
-                        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + name + "[" + iStart + "] as type " + pType + ": " + paramValue.getStringValue());
+                        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + name + "[" + iStart + "] as type " + pType + ": " + paramValue.getStringValue());
+                        }
                     } else {
                         throw new ParserException(functionId + "Parameter " + name + " index " + iStart + " exceeds array");
                     }
@@ -600,7 +731,9 @@ public class Variables {
                 case String:
                     if (iStart >= 0 && iEnd < paramValue.getStrArraySize()) {
                         paramValue.setStringValue(paramValue.getStringValue().substring(iStart, iEnd + 1));
-                        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + name + "index" + ixRange + " as type " + pType + ": " + paramValue.getStringValue());
+                        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + name + "index" + ixRange + " as type " + pType + ": " + paramValue.getStringValue());
+                        }
                     } else {
                         throw new ParserException(functionId + "Parameter " + name + " index" + ixRange + " exceeds array");
                     }
@@ -630,7 +763,7 @@ public class Variables {
      * @throws ParserException - if Variable not found
      */
     public static ParameterStruct getVariableInfo (VarExtensions paramInfo) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getVariableInfo: ";
 
         if (paramInfo == null || paramInfo.getName() == null || paramInfo.getType() == null) {
             return null;
@@ -644,9 +777,11 @@ public class Variables {
             name = name.substring(1);
         }
         
+        // the user Variables that were assigned a slot by the compiler don't have to be looked up
+        int slot = paramInfo.getSlot();
         ParameterStruct.ParamType pType = paramInfo.getType();
         Long varValue;
-        switch (getVariableClass (name)) {
+        switch ((slot >= 0) ? VarClass.GLOBAL : getVariableClass (name)) {
             // check the reserved params list
             case RESERVED:
                 paramValue = VarReserved.getVariableInfo (name, pType);
@@ -665,13 +800,15 @@ public class Variables {
                 varValue = LoopParam.getLoopCurValue(name);
                 pType = ParameterStruct.ParamType.Integer;
                 paramValue.setIntegerValue(varValue);
-                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Lookup Ref '" + name + "' as type " + pType + ": " + varValue);
+                if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                    GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "- Lookup Ref '" + name + "' as type " + pType + ": " + varValue);
+                }
                 break;
             // otherwise, let's check for standard variables for name match
             default:
             case GLOBAL:
             case LOCAL:
-                paramValue = getReferenceValue (name);
+                paramValue = (slot >= 0) ? getSlotValue (slot) : getReferenceValue (name);
                 paramValue.setVariableRef(new VarExtensions (paramInfo));
                 break;
             case UNKNOWN:
@@ -747,7 +884,7 @@ public class Variables {
      * @throws ParserException 
      */
     private static int getBaseNameLength (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getBaseNameLength: ";
         
         if (name == null) {
             throw new ParserException(functionId + "Null input value");
@@ -772,7 +909,7 @@ public class Variables {
      * @throws ParserException
      */    
     public static ParameterStruct.ParamType getVariableTypeFromName (String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getVariableTypeFromName: ";
         
         if (name == null) {
             throw new ParserException(functionId + "Null input value");
@@ -868,7 +1005,7 @@ public class Variables {
      * @throws ParserException 
      */
     public static ParameterStruct getReferenceValue (String varName) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getReferenceValue: ";
         
         if (varName == null) {
             throw new ParserException(functionId + "Null input value");
@@ -881,7 +1018,6 @@ public class Variables {
         ParameterStruct refValue;
         ParameterStruct.ParamType varType;
         String subName = Subroutine.getSubName();
-        String value= "";
         try {
             varType = varLocal.getDataType(varName, subName);
             if (varType != null) {
@@ -890,30 +1026,26 @@ public class Variables {
                 switch (varType) {
                     case Integer:
                         refValue.setIntegerValue(varLocal.getInteger(varName));
-                        value = refValue.getIntegerValue().toString();
                         break;
                     case Unsigned:
                         refValue.setIntegerValue(varLocal.getUnsigned(varName));
-                        value = refValue.getIntegerValue().toString();
                         break;
                     case Boolean:
                         refValue.setBooleanValue(varLocal.getBoolean(varName));
-                        value = refValue.getBooleanValue().toString();
                         break;
                     case String:
                         refValue.setStringValue(varLocal.getString(varName));
-                        value = refValue.getStringValue();
                         break;
                     case StrArray:
                         refValue.setStrArray(varLocal.getStrArray(varName));
-                        value = refValue.getStrArray().toString();
                         break;
                     case IntArray:
                         refValue.setIntArray(varLocal.getIntArray(varName));
-                        value = refValue.getIntArray().toString();
                         break;
                 }
-                GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + varType + " Variable " + varName + ": " + value);
+                if (GUILogPanel.isEnabled(MsgType.VARS)) {
+                    GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "LOCAL " + varType + " Variable " + varName + ": " + getValueString(refValue));
+                }
                 return refValue;
             }
         } catch (ParserException exMsg) {
@@ -926,33 +1058,256 @@ public class Variables {
         switch (varType) {
             case Integer:
                 refValue.setIntegerValue(VarGlobal.getIntegerVariable(varName));
-                value = refValue.getIntegerValue().toString();
                 break;
             case Unsigned:
                 refValue.setIntegerValue(VarGlobal.getUnsignedVariable(varName));
-                value = refValue.getIntegerValue().toString();
                 break;
             case Boolean:
                 refValue.setBooleanValue(VarGlobal.getBooleanVariable(varName));
-                value = refValue.getBooleanValue().toString();
                 break;
             case String:
                 refValue.setStringValue(VarGlobal.getStringVariable(varName));
-                value = refValue.getStringValue();
                 break;
             case StrArray:
                 refValue.setStrArray(VarGlobal.getStrArray(varName));
-                value = refValue.getStrArray().toString();
                 break;
             case IntArray:
                 refValue.setIntArray(VarGlobal.getIntArray(varName));
-                value = refValue.getIntArray().toString();
                 break;
         }
-        GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "GLOBAL " + varType + " Variable " + varName + ": " + value);
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + "GLOBAL " + varType + " Variable " + varName + ": " + getValueString(refValue));
+        }
         return refValue;
     }
     
+    /**
+     * returns the current value for a user defined variable (LOCAL or GLOBAL) by its slot.
+     * This is used in the EXECUTION stage for the Variable references that
+     *  were assigned a slot by the compiler.
+     * NOTE: This does NOT check Traits.
+     * 
+     * @param slot - the Variable slot
+     * 
+     * @return the variable value
+     * 
+     * @throws ParserException 
+     */
+    public static ParameterStruct getSlotValue (int slot) throws ParserException {
+        VarAccess var = VarSlots.getInfo(slot);
+        ParameterStruct.ParamType varType = var.getType();
+        ParameterStruct refValue = new ParameterStruct();
+        refValue.setParamTypeDiscrete(varType);
+        switch (varType) {
+            case Integer:
+                refValue.setIntegerValue(var.getValueInteger());
+                break;
+            case Unsigned:
+                refValue.setIntegerValue(var.getValueUnsigned());
+                break;
+            case Boolean:
+                refValue.setBooleanValue(var.getValueBoolean());
+                break;
+            case String:
+                refValue.setStringValue(var.getValueString());
+                break;
+            case StrArray:
+                refValue.setStrArray(var.getValueStrArray());
+                break;
+            case IntArray:
+                refValue.setIntArray(var.getValueIntArray());
+                break;
+        }
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            String access = var.isGlobal() ? "GLOBAL " : "LOCAL ";
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + access + varType + " Variable " + var.getName() + ": " + getValueString(refValue));
+        }
+        return refValue;
+    }
+    
+    /**
+     * returns the current value of an Integer or Unsigned user defined variable by its slot.
+     * This is used by the Calculations, so the value can be read without
+     *  creating a parameter for it.
+     * 
+     * @param slot - the Variable slot
+     * 
+     * @return the variable value
+     * 
+     * @throws ParserException 
+     */
+    public static long getSlotInteger (int slot) throws ParserException {
+        VarAccess var = VarSlots.getInfo(slot);
+        long value = var.getValueLong();
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            String access = var.isGlobal() ? "GLOBAL " : "LOCAL ";
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + access + var.getType() + " Variable " + var.getName() + ": " + value);
+        }
+        return value;
+    }
+    
+    /**
+     * returns the current value of a Boolean user defined variable by its slot.
+     * This is used by the compiled Comparisons.
+     * 
+     * @param slot - the Variable slot
+     * 
+     * @return the variable value
+     * 
+     * @throws ParserException 
+     */
+    public static boolean getSlotBoolean (int slot) throws ParserException {
+        VarAccess var = VarSlots.getInfo(slot);
+        boolean value = var.getValueBoolean();
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            String access = var.isGlobal() ? "GLOBAL " : "LOCAL ";
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + access + var.getType() + " Variable " + var.getName() + ": " + value);
+        }
+        return value;
+    }
+    
+    /**
+     * returns the current value of a String user defined variable by its slot.
+     * This is used by the compiled Comparisons.
+     * 
+     * @param slot - the Variable slot
+     * 
+     * @return the variable value (null if it has not been written)
+     * 
+     * @throws ParserException 
+     */
+    public static String getSlotString (int slot) throws ParserException {
+        VarAccess var = VarSlots.getInfo(slot);
+        String value = var.getValueString();
+        if (GUILogPanel.isEnabled(MsgType.VARS)) {
+            String access = var.isGlobal() ? "GLOBAL " : "LOCAL ";
+            GUILogPanel.outputInfoMsg(MsgType.VARS, INDENT + access + var.getType() + " Variable " + var.getName() + ": " + value);
+        }
+        return value;
+    }
+    
+    /**
+     * returns the SIZE of a String, StrArray or IntArray user defined variable by its slot.
+     * This is the number of chars for a String and the number of entries for an Array.
+     * 
+     * @param slot - the Variable slot
+     * 
+     * @return the size of the variable value (0 if it has not been written)
+     * 
+     * @throws ParserException 
+     */
+    public static long getSlotSize (int slot) throws ParserException {
+        String functionId = CLASS_NAME + ".getSlotSize: ";
+
+        VarAccess var = VarSlots.getInfo(slot);
+        long size;
+        switch (var.getType()) {
+            case String:
+                String strValue = var.getValueString();
+                size = (strValue == null) ? 0 : strValue.length();
+                break;
+            case StrArray:
+                StringArray strArray = var.getValueStrArray();
+                size = (strArray == null) ? 0 : strArray.size();
+                break;
+            case IntArray:
+                LongArray intArray = var.getValueIntArray();
+                size = (intArray == null) ? 0 : intArray.size();
+                break;
+            default:
+                throw new ParserException(functionId + "SIZE not valid for " + var.getType() + " Variable " + var.getName());
+        }
+        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+            GUILogPanel.outputInfoMsg(MsgType.DEBUG, "Extracted SIZE of " + var.getType() + " " + var.getName() + " as: " + size);
+        }
+        return size;
+    }
+    
+    /**
+     * finds the slot of a user defined Integer or Unsigned variable (LOCAL or GLOBAL).
+     * These can be read directly from the slot when the script is run.
+     * 
+     * @param name - name of the variable
+     * 
+     * @return the slot of the variable (-1 if it must be looked up by name)
+     * 
+     * @throws ParserException 
+     */
+    public static int getIntegerSlot (String name) throws ParserException {
+        int varSlot = getVariableSlot(name);
+        if (varSlot >= 0) {
+            switch (VarSlots.getInfo(varSlot).getType()) {
+                case Integer:
+                case Unsigned:
+                    return varSlot;
+                default:
+                    break;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * finds the slot of a user defined variable (LOCAL or GLOBAL).
+     * This is used by the compiler to save the slot in the Variable references.
+     *  It uses the same order for finding the name as getVariableClass(), so the
+     *  Loop, Reserved and property names, as well as any names with brackets or
+     *  traits, will not be given a slot and are looked up by name when executed.
+     * 
+     * @param name - name of the variable
+     * 
+     * @return the slot of the variable (-1 if it is not a user defined variable)
+     */
+    public static int getVariableSlot (String name) {
+        if (name == null || name.isEmpty()) {
+            return -1;
+        }
+        if (name.charAt(0) == '$') {
+            name = name.substring(1);
+        }
+        try {
+            if (name.isEmpty() || getBaseNameLength(name) != name.length()) {
+                return -1;
+            }
+        } catch (ParserException exMsg) {
+            return -1;
+        }
+        if (LoopStruct.getCurrentLoopValue(name) != null ||
+                VarReserved.isReservedName (name) != null ||
+                PropertiesFile.isValidProperty (name) != null) {
+            return -1;
+        }
+        VarAccess var = VarGlobal.getVarInfo(name);
+        if (var == null) {
+            var = varLocal.getVarInfo(name, Subroutine.getSubName());
+        }
+        return (var == null) ? -1 : var.getSlot();
+    }
+    
+    /**
+     * returns the value of a discrete parameter as a String for display.
+     * 
+     * @param param - the parameter
+     * 
+     * @return the parameter value formatted for its data type
+     */
+    private static String getValueString (ParameterStruct param) {
+        switch (param.getParamType()) {
+            case Integer:
+            case Unsigned:
+                return param.getIntegerValue().toString();
+            case Boolean:
+                return param.getBooleanValue().toString();
+            case StrArray:
+                return param.getStrArray().toString();
+            case IntArray:
+                return param.getIntArray().toString();
+            case String:
+            default:
+                return param.getStringValue();
+        }
+    }
+    
     /**
      * determines if a Variable has been found with the specified name.
      * 
@@ -965,7 +1320,7 @@ public class Variables {
      * @throws ParserException
      */
     public static Long getNumericValue (String name, TraitInfo.Trait traitVal, boolean bNoLoops) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".getNumericValue: ";
         
         if (name == null) {
             throw new ParserException(functionId + "Null input value");
@@ -997,7 +1352,9 @@ public class Variables {
                         iValue = param.getIntegerValue();
                         break;
                     case Boolean:
-                        GUILogPanel.outputInfoMsg(MsgType.DEBUG, INDENT + "Converting from Boolean to Integer: " + name);
+                        if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, INDENT + "Converting from Boolean to Integer: " + name);
+                        }
                         iValue = param.getBooleanValue() ? 1L : 0;
                         break;
                     case String:
@@ -1006,7 +1363,9 @@ public class Variables {
                         if (iValue == null) {
                             String strValue = param.getStringValue();
                             iValue = Utils.getLongOrUnsignedValue(strValue);
-                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, INDENT + "Converting variable " + name + " to Integer: " + iValue);
+                            if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                                GUILogPanel.outputInfoMsg(MsgType.DEBUG, INDENT + "Converting variable " + name + " to Integer: " + iValue);
+                            }
                         }
                         break;
                     case StrArray:
@@ -1015,7 +1374,9 @@ public class Variables {
                         if (iValue == null) {
                             String strValue = param.getStrArray().getFirst();
                             iValue = Utils.getLongOrUnsignedValue(strValue);
-                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, INDENT + "Extracted 1st entry of StrArray " + name + " to Integer: " + iValue);
+                            if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                                GUILogPanel.outputInfoMsg(MsgType.DEBUG, INDENT + "Extracted 1st entry of StrArray " + name + " to Integer: " + iValue);
+                            }
                         }
                         break;
                     case IntArray:
@@ -1023,7 +1384,9 @@ public class Variables {
                         iValue = TraitInfo.getTraitIntValues(traitVal, name, ParameterStruct.ParamType.IntArray);
                         if (iValue == null) {
                             iValue = param.getIntArray().getFirst();
-                            GUILogPanel.outputInfoMsg(MsgType.DEBUG, INDENT + "Extracted 1st entry of IntArray " + name + " to Integer: " + iValue);
+                            if (GUILogPanel.isEnabled(MsgType.DEBUG)) {
+                                GUILogPanel.outputInfoMsg(MsgType.DEBUG, INDENT + "Extracted 1st entry of IntArray " + name + " to Integer: " + iValue);
+                            }
                         }
                         break;
                 }
@@ -1064,7 +1427,7 @@ public class Variables {
      * @throws ParserException - if not valid
      */
     public static void checkValidVariable (VarCheck use, String name) throws ParserException {
-        String functionId = CLASS_NAME + "." + Utils.getCurrentMethodName() + ": ";
+        String functionId = CLASS_NAME + ".checkValidVariable: ";
 
         if (name == null || use == null) {
             throw new ParserException(functionId + "Null input value");
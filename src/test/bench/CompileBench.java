@@ -0,0 +1,110 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import javax.swing.JLabel;
+import javax.swing.JTextPane;
+
+/**
+ * Timing loop for compiling a large script.
+ *
+ * This writes a script with the specified number of sections of assignments,
+ *  IF blocks, String references and comments, then compiles it repeatedly
+ *  (without the compiled script cache) and shows the best compile time.
+ *  The script is written to the logs directory. It runs against the built jar
+ *  from the src/test directory (the same as runtests.sh), with:
+ *
+ *      java -Djava.awt.headless=true -cp ../../target/AmazonReader-1.3-jar-with-dependencies.jar bench/CompileBench.java [sections] [runs]
+ *
+ * The classes of the jar are loaded by a different class loader than this one,
+ *  so the methods that are not public are called by reflection.
+ *
+ * @author dan
+ */
+public class CompileBench {
+
+    private static final String PACKAGE = "com.dmcd.amazonlogger.";
+
+    // writes the script to compile (each section is 6 lines)
+    private static File writeScript (int sections) throws IOException {
+        File dir = new File("logs");
+        dir.mkdirs();
+        File script = new File(dir, "compilebench.scr");
+        try (PrintWriter out = new PrintWriter(script)) {
+            out.println("STARTUP");
+            out.println("  TESTPATH .");
+            out.println("  LOGFILE 0x03 logs/<$SCRIPTNAME>.log");
+            out.println("ENDSTARTUP");
+            out.println("ALLOCATE GLOBAL Integer { Count }");
+            out.println("ALLOCATE GLOBAL String { Name }");
+            out.println("Count = 0");
+            for (int ix = 0; ix < sections; ix++) {
+                out.println("Count = $Count + " + ix + " * 2 ## add");
+                out.println("IF $Count > " + (ix * 7));
+                out.println("  Name = \"v <$Count>\"");
+                out.println("ENDIF");
+                out.println("# comment");
+                out.println();
+            }
+            out.println("ENDMAIN");
+        }
+        return script;
+    }
+
+    public static void main (String[] args) throws Exception {
+        int sections = (args.length > 0) ? Integer.parseInt(args[0]) : 3000;
+        int runs     = (args.length > 1) ? Integer.parseInt(args[1]) : 30;
+        File script = writeScript (sections);
+
+        // set up the log panel and error label without creating the GUI frame,
+        //  so this can also be run on a system without a display
+        Class<?> reader = Class.forName(PACKAGE + "AmazonReader");
+        Class<?> guiMain = Class.forName(PACKAGE + "GUIMain");
+        Constructor<?> logPanel = Class.forName(PACKAGE + "GUILogPanel").getDeclaredConstructor(JTextPane.class);
+        logPanel.setAccessible(true);
+        logPanel.newInstance(new JTextPane());
+        Field errorMsg = guiMain.getDeclaredField("lbl_error_msg");
+        errorMsg.setAccessible(true);
+        errorMsg.set(null, new JLabel());
+        Constructor<?> props = Class.forName(PACKAGE + "PropertiesFile").getDeclaredConstructor();
+        props.setAccessible(true);
+        props.newInstance();
+        guiMain.getMethod("setDefaultStatus").invoke(null);
+        Class<?> opMode = Class.forName(PACKAGE + "AmazonReader$OperatingMode");
+        Method setOpMode = reader.getDeclaredMethod("setOpMode", opMode);
+        setOpMode.setAccessible(true);
+        for (Object mode : opMode.getEnumConstants()) {
+            if (mode.toString().equals("SCRIPT")) {
+                setOpMode.invoke(null, mode);
+            }
+        }
+        try {
+            Class.forName(PACKAGE + "ScriptCache").getMethod("setEnable", boolean.class).invoke(null, false);
+        } catch (ClassNotFoundException exMsg) {
+            // (the builds before the compiled script cache was added)
+        }
+
+        reader.getMethod("selectScriptFile", String.class).invoke(null, script.getAbsolutePath());
+        Method compile = reader.getMethod("compileScript");
+
+        // the first runs are the warmup for the JIT
+        long best = Long.MAX_VALUE;
+        for (int run = 1; run <= runs; run++) {
+            long start = System.nanoTime();
+            compile.invoke(null);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            System.out.printf("run %d: %.1f ms%n", run, elapsed / 1e6);
+        }
+        System.out.printf("best compile of %d lines: %.1f ms%n", (sections * 6) + 8, best / 1e6);
+        System.exit(0);
+    }
+
+}
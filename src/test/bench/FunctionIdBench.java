@@ -0,0 +1,67 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+/**
+ * Timing loop for the cost of building a function identifier for error messages.
+ *
+ * This compares the StackWalker lookup of the method name that was used by
+ *  Utils.getCurrentMethodName with the constant CLASS_NAME + ".method: " prefix
+ *  that replaced it. It has no dependencies, so it can be run from the source
+ *  file with:
+ *
+ *      java src/test/bench/FunctionIdBench.java [calls]
+ *
+ * @author dan
+ */
+public class FunctionIdBench {
+
+    private static final String CLASS_NAME = "FunctionIdBench";
+    private static final int    ROUNDS = 5;
+
+    // the function identifier built the way it was before
+    private static int walkedId (int value) {
+        String functionId = CLASS_NAME + "." + getCurrentMethodName() + ": ";
+        return functionId.length() + value;
+    }
+
+    // the function identifier built the way it is now
+    private static int constantId (int value) {
+        String functionId = CLASS_NAME + ".constantId: ";
+        return functionId.length() + value;
+    }
+
+    // this is the same lookup as the removed Utils.getCurrentMethodName
+    private static String getCurrentMethodName () {
+        return StackWalker.getInstance()
+                .walk(s -> s.skip(1).findFirst())
+                .get()
+                .getMethodName();
+    }
+
+    public static void main (String[] args) {
+        int calls = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        long check = 0;
+
+        // the first rounds are the warmup for the JIT
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int ix = 0; ix < calls; ix++) {
+                check += walkedId (ix);
+            }
+            long walked = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int ix = 0; ix < calls; ix++) {
+                check += constantId (ix);
+            }
+            long constant = System.nanoTime() - start;
+
+            System.out.printf("round %d: StackWalker %.1f ns/call, constant %.2f ns/call%n",
+                    round, (double) walked / calls, (double) constant / calls);
+        }
+        System.out.println("(check " + check + ")");
+    }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import javax.swing.JLabel;
+import javax.swing.JTextPane;
+
+/**
+ * Check and timing of the incremental compile used in network mode.
+ *
+ * This writes a script whose MAIN section calls a number of subroutines that
+ *  each have an IF/ELSE and a FOR loop, and an edited copy of it that changes
+ *  one subroutine in the middle (a different value and an added command), so
+ *  the subroutines after it are moved to new lines and command indices.
+ *  The original script is compiled and run, and then the edited one is compiled
+ *  in network mode, which only compiles the edited subroutine again. This is
+ *  then compared to a full compile of the edited script:
+ *
+ *   - the commands must be the same, with the same line numbers, IF and loop
+ *      jump targets and subroutine entry indices.
+ *   - running them must produce the same output.
+ *
+ * and the times for the incremental and the full compiles are shown, along with
+ *  the best of each. It exits with a status of 1 if the check fails.
+ *  The scripts are written to the logs directory. It runs against the built jar
+ *  from the src/test directory (the same as runtests.sh), with:
+ *
+ *      java -Djava.awt.headless=true -cp ../../target/AmazonReader-1.3-jar-with-dependencies.jar bench/IncrementalBench.java [subs] [runs]
+ *
+ * The classes of the jar are loaded by a different class loader than this one,
+ *  so the methods that are not public are called by reflection.
+ *
+ * @author dan
+ */
+public class IncrementalBench {
+
+    private static final String PACKAGE = "com.dmcd.amazonlogger.";
+
+    private static Class<?> reader;
+    private static Class<?> compiler;
+    private static Method   setOpMode;
+    private static Object   modeScript;
+    private static Object   modeNetwork;
+
+    // writes the script to run (with the subroutine in the middle changed if edited)
+    private static void writeScript (File script, int subs, boolean bEdited) throws IOException {
+        int edit = subs / 2;
+        try (PrintWriter out = new PrintWriter(script)) {
+            out.println("STARTUP");
+            out.println("  TESTPATH .");
+            out.println("  LOGFILE 0x00 logs/<$SCRIPTNAME>.log");
+            out.println("ENDSTARTUP");
+            out.println("ALLOCATE GLOBAL Integer  { Total, Calls }");
+            out.println("ALLOCATE GLOBAL IntArray { Trace }");
+            out.println("Total = 0");
+            out.println("Calls = 0");
+            out.println("FOR Pass = 1 TO 2");
+            for (int ix = 0; ix < subs; ix++) {
+                out.println("  GOSUB Sub" + ix);
+            }
+            out.println("NEXT");
+            out.println("PRINT \"Total = \" + $Total + \", Calls = \" + $Calls");
+            out.println("PRINT $Trace");
+            out.println("ENDMAIN");
+            for (int ix = 0; ix < subs; ix++) {
+                int value = (bEdited && ix == edit) ? ix * 10 : ix;
+                out.println();
+                out.println("SUB Sub" + ix);
+                out.println("  Calls = $Calls + 1");
+                out.println("  IF $Calls > " + subs);
+                out.println("    Total = $Total + " + value);
+                out.println("  ELSE");
+                out.println("    Total = $Total + 1");
+                if (bEdited && ix == edit) {
+                    out.println("    APPEND Trace " + value);
+                }
+                out.println("  ENDIF");
+                out.println("  FOR LoopIx = 1 TO 2");
+                out.println("    Total = $Total + $LoopIx");
+                out.println("  NEXT");
+                out.println("  APPEND Trace $Total");
+                out.println("ENDSUB");
+            }
+        }
+    }
+
+    // calls a method of the program classes that may not be public
+    private static Object call (Object obj, String name) throws Exception {
+        Method method = obj.getClass().getDeclaredMethod(name);
+        method.setAccessible(true);
+        return method.invoke(obj);
+    }
+
+    private static Object getField (Object obj, String name) throws Exception {
+        Field field = obj.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(obj);
+    }
+
+    // compiles the script in the specified mode and returns the time it took
+    private static long compile (Object mode) throws Exception {
+        setOpMode.invoke(null, mode);
+        long start = System.nanoTime();
+        reader.getMethod("compileScript").invoke(null);
+        long elapsed = System.nanoTime() - start;
+        setOpMode.invoke(null, modeScript);
+        return elapsed;
+    }
+
+    // lists the commands of the compiled program with their lines and jump targets
+    private static ArrayList<String> dumpProgram () throws Exception {
+        ArrayList<String> dump = new ArrayList<>();
+        int size = (Integer) compiler.getMethod("getCompiledSize").invoke(null);
+        Method getCommand = compiler.getMethod("getExecCommand", int.class);
+        for (int ix = 0; ix < size; ix++) {
+            Object cmd = getCommand.invoke(null, ix);
+            StringBuilder entry = new StringBuilder();
+            entry.append(ix).append(": ").append(call(cmd, "getCommand"))
+                 .append(" line ").append(call(cmd, "getLine"));
+            switch (call(cmd, "getCommand").toString()) {
+                case "IF", "ELSEIF", "ELSE", "ENDIF" ->
+                    entry.append(" else ").append(call(cmd, "getElseIndex"))
+                         .append(" endif ").append(call(cmd, "getEndIfIndex"));
+                default -> {  }
+            }
+            Object loop = call(cmd, "getLoopInfo");
+            if (loop != null) {
+                entry.append(" loop ").append(call(call(loop, "getLoopId"), "getIndex"))
+                     .append(" end ").append(getField(loop, "ixEnd"));
+            }
+            Object sub = call(cmd, "getSubInfo");
+            if (sub != null) {
+                entry.append(" entry ").append(call(sub, "getEntryIndex"));
+            }
+            dump.add(entry.toString());
+        }
+        return dump;
+    }
+
+    // runs the compiled program and returns what it printed
+    private static String runProgram (File script) throws Exception {
+        Constructor<?> ctor = Class.forName(PACKAGE + "ScriptExecute").getDeclaredConstructor(String.class, int.class);
+        ctor.setAccessible(true);
+        Object exec = ctor.newInstance(script.getAbsolutePath(), compiler.getMethod("getMaxLines").invoke(null));
+        Method execute = exec.getClass().getMethod("executeProgramCommand", int.class, Class.forName(PACKAGE + "CommandStruct"));
+        Method getCommand = compiler.getMethod("getExecCommand", int.class);
+        int size = (Integer) compiler.getMethod("getCompiledSize").invoke(null);
+
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true));
+        try {
+            int cmdIndex = 0;
+            while (cmdIndex >= 0 && cmdIndex < size) {
+                cmdIndex = (Integer) execute.invoke(exec, cmdIndex, getCommand.invoke(null, cmdIndex));
+            }
+        } finally {
+            System.setOut(stdout);
+        }
+        return output.toString();
+    }
+
+    // shows the 1st line that is different
+    private static void showDifference (ArrayList<String> incremental, ArrayList<String> full) {
+        int size = Math.max(incremental.size(), full.size());
+        for (int ix = 0; ix < size; ix++) {
+            String inc = (ix < incremental.size()) ? incremental.get(ix) : "(none)";
+            String all = (ix < full.size()) ? full.get(ix) : "(none)";
+            if (! inc.equals(all)) {
+                System.out.println("  incremental: " + inc);
+                System.out.println("  full:        " + all);
+                return;
+            }
+        }
+    }
+
+    public static void main (String[] args) throws Exception {
+        int subs = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+        int runs = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+        File dir = new File("logs");
+        dir.mkdirs();
+        File script = new File(dir, "incbench.scr");
+
+        // set up the log panel and error label without creating the GUI frame,
+        //  so this can also be run on a system without a display
+        reader = Class.forName(PACKAGE + "AmazonReader");
+        compiler = Class.forName(PACKAGE + "ScriptCompile");
+        Class<?> guiMain = Class.forName(PACKAGE + "GUIMain");
+        Constructor<?> logPanel = Class.forName(PACKAGE + "GUILogPanel").getDeclaredConstructor(JTextPane.class);
+        logPanel.setAccessible(true);
+        logPanel.newInstance(new JTextPane());
+        Field errorMsg = guiMain.getDeclaredField("lbl_error_msg");
+        errorMsg.setAccessible(true);
+        errorMsg.set(null, new JLabel());
+        Constructor<?> props = Class.forName(PACKAGE + "PropertiesFile").getDeclaredConstructor();
+        props.setAccessible(true);
+        props.newInstance();
+        guiMain.getMethod("setDefaultStatus").invoke(null);
+        Class<?> opMode = Class.forName(PACKAGE + "AmazonReader$OperatingMode");
+        setOpMode = reader.getDeclaredMethod("setOpMode", opMode);
+        setOpMode.setAccessible(true);
+        for (Object mode : opMode.getEnumConstants()) {
+            if (mode.toString().equals("SCRIPT")) {
+                modeScript = mode;
+            } else if (mode.toString().equals("NETWORK")) {
+                modeNetwork = mode;
+            }
+        }
+        setOpMode.invoke(null, modeScript);
+        Class.forName(PACKAGE + "ScriptCache").getMethod("setEnable", boolean.class).invoke(null, false);
+        writeScript (script, subs, false);
+        reader.getMethod("selectScriptFile", String.class).invoke(null, script.getAbsolutePath());
+
+        // the first runs are the warmup for the JIT
+        long bestInc  = Long.MAX_VALUE;
+        long bestFull = Long.MAX_VALUE;
+        boolean bPassed = true;
+        try {
+            for (int ix = 1; ix <= runs; ix++) {
+                // compile and run the original script, which leaves its run state behind
+                writeScript (script, subs, false);
+                compile (modeScript);
+                runProgram (script);
+
+                // edit it and compile again in network mode, which only compiles the edited subroutine
+                writeScript (script, subs, true);
+                Object firstCmd = compiler.getMethod("getExecCommand", int.class).invoke(null, 0);
+                long incTime = compile (modeNetwork);
+                if (compiler.getMethod("getExecCommand", int.class).invoke(null, 0) != firstCmd) {
+                    System.out.println("FAIL: the network mode compile was not incremental");
+                    bPassed = false;
+                    break;
+                }
+                ArrayList<String> incProgram = dumpProgram();
+                String incOutput = runProgram (script);
+
+                // compile the whole edited script and compare
+                long fullTime = compile (modeScript);
+                ArrayList<String> fullProgram = dumpProgram();
+                String fullOutput = runProgram (script);
+
+                bestInc  = Math.min(bestInc, incTime);
+                bestFull = Math.min(bestFull, fullTime);
+                System.out.printf("run %d: incremental %.2f ms, full %.2f ms%n", ix, incTime / 1e6, fullTime / 1e6);
+                if (! incProgram.equals(fullProgram)) {
+                    System.out.println("FAIL: the incremental compile has different commands than the full compile:");
+                    showDifference (incProgram, fullProgram);
+                    bPassed = false;
+                    break;
+                }
+                if (! incOutput.equals(fullOutput)) {
+                    System.out.println("FAIL: the incremental compile has different output than the full compile:");
+                    showDifference (new ArrayList<>(incOutput.lines().toList()), new ArrayList<>(fullOutput.lines().toList()));
+                    bPassed = false;
+                    break;
+                }
+                if (ix == 1) {
+                    System.out.println("output: " + fullOutput.lines().findFirst().orElse(""));
+                }
+            }
+        } catch (InvocationTargetException exMsg) {
+            System.out.println("FAIL: " + exMsg.getCause().getMessage());
+            bPassed = false;
+        }
+        if (bPassed) {
+            System.out.printf("PASS: %d commands, best incremental %.2f ms, best full %.2f ms%n",
+                    compiler.getMethod("getCompiledSize").invoke(null), bestInc / 1e6, bestFull / 1e6);
+        }
+        System.exit(bPassed ? 0 : 1);
+    }
+
+}
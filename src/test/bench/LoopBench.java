@@ -0,0 +1,126 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import javax.swing.JLabel;
+import javax.swing.JTextPane;
+
+/**
+ * Timing loop for running the loops of a script with the logging off.
+ *
+ * This writes a script with the same kind of loops as scripts/looptest.scr
+ *  (FOR with a range, FOR EVER with BREAKIF) whose bodies do Integer SETs,
+ *  an IF/ELSE, a SKIPIF and a String SET, and runs them for the specified
+ *  number of passes. The script is compiled before each run (without the
+ *  compiled script cache), and only the time to run it is shown, along with
+ *  the best one. The script is written to the logs directory. It runs against
+ *  the built jar from the src/test directory (the same as runtests.sh), with:
+ *
+ *      java -Djava.awt.headless=true -cp ../../target/AmazonReader-1.3-jar-with-dependencies.jar bench/LoopBench.java [passes] [runs]
+ *
+ * The classes of the jar are loaded by a different class loader than this one,
+ *  so the methods that are not public are called by reflection.
+ *
+ * @author dan
+ */
+public class LoopBench {
+
+    private static final String PACKAGE = "com.dmcd.amazonlogger.";
+
+    // writes the script to run
+    private static File writeScript (int passes) throws IOException {
+        File dir = new File("logs");
+        dir.mkdirs();
+        File script = new File(dir, "loopbench.scr");
+        try (PrintWriter out = new PrintWriter(script)) {
+            out.println("STARTUP");
+            out.println("  TESTPATH .");
+            out.println("  LOGFILE 0x00 logs/<$SCRIPTNAME>.log");
+            out.println("ENDSTARTUP");
+            out.println("ALLOCATE GLOBAL Integer  { Count, Total, Small, Large }");
+            out.println("ALLOCATE GLOBAL Unsigned { Index }");
+            out.println("ALLOCATE GLOBAL String   { Name }");
+            out.println("Count = " + passes);
+            out.println("Total = 0");
+            out.println("Small = 0");
+            out.println("Large = 0");
+            out.println("FOR LoopIx = 1 TO $Count");
+            out.println("  Total = $Total + $LoopIx");
+            out.println("  IF $LoopIx > 10");
+            out.println("    Large += 1");
+            out.println("  ELSE");
+            out.println("    Small = $Small + 2");
+            out.println("  ENDIF");
+            out.println("  SKIPIF $Total < 0");
+            out.println("  Name = \"pass <$LoopIx>\"");
+            out.println("NEXT");
+            out.println("Index = 0");
+            out.println("FOR EVER " + (passes + 1));
+            out.println("  Index += 1");
+            out.println("  BREAKIF $Index >= $Count");
+            out.println("NEXT");
+            out.println("PRINT \"Total = \" + $Total + \", Small = \" + $Small + \", Large = \" + $Large + \", Index = \" + $Index + \", \" + $Name");
+            out.println("ENDMAIN");
+        }
+        return script;
+    }
+
+    public static void main (String[] args) throws Exception {
+        int passes = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+        int runs   = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+        File script = writeScript (passes);
+
+        // set up the log panel and error label without creating the GUI frame,
+        //  so this can also be run on a system without a display
+        Class<?> reader = Class.forName(PACKAGE + "AmazonReader");
+        Class<?> guiMain = Class.forName(PACKAGE + "GUIMain");
+        Constructor<?> logPanel = Class.forName(PACKAGE + "GUILogPanel").getDeclaredConstructor(JTextPane.class);
+        logPanel.setAccessible(true);
+        logPanel.newInstance(new JTextPane());
+        Field errorMsg = guiMain.getDeclaredField("lbl_error_msg");
+        errorMsg.setAccessible(true);
+        errorMsg.set(null, new JLabel());
+        Constructor<?> props = Class.forName(PACKAGE + "PropertiesFile").getDeclaredConstructor();
+        props.setAccessible(true);
+        props.newInstance();
+        guiMain.getMethod("setDefaultStatus").invoke(null);
+        Class<?> opMode = Class.forName(PACKAGE + "AmazonReader$OperatingMode");
+        Method setOpMode = reader.getDeclaredMethod("setOpMode", opMode);
+        setOpMode.setAccessible(true);
+        for (Object mode : opMode.getEnumConstants()) {
+            if (mode.toString().equals("SCRIPT")) {
+                setOpMode.invoke(null, mode);
+            }
+        }
+        try {
+            Class.forName(PACKAGE + "ScriptCache").getMethod("setEnable", boolean.class).invoke(null, false);
+        } catch (ClassNotFoundException exMsg) {
+            // (the builds before the compiled script cache was added)
+        }
+
+        reader.getMethod("selectScriptFile", String.class).invoke(null, script.getAbsolutePath());
+        Method compile = reader.getMethod("compileScript");
+        Method run = reader.getMethod("runScript");
+
+        // the first runs are the warmup for the JIT
+        long best = Long.MAX_VALUE;
+        for (int ix = 1; ix <= runs; ix++) {
+            compile.invoke(null);
+            long start = System.nanoTime();
+            run.invoke(null);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            System.out.printf("run %d: %.1f ms%n", ix, elapsed / 1e6);
+        }
+        System.out.printf("best run of %d passes: %.1f ms (%.0f ns per pass)%n", passes, best / 1e6, (double) best / passes);
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,29 @@
+#!/bin/bash
+
+# times the bracketed array formulas of scripts/brackets.scr, which are
+#  repeated in a loop by calcbench.scr.
+# The script is run several times and the time of each run is shown, along
+#  with the best one. It uses the same jar as runtests.sh, so build it first.
+#
+#   usage: ./calcbench.sh [runs]
+
+set -o nounset
+set -o errexit
+
+runs=${1:-5}
+best=0
+
+cd "$(dirname "$0")"
+mkdir -p logs
+
+for (( run = 1; run <= runs; run++ ))
+do
+    start=$(date +%s%N)
+    java -jar ../../../target/AmazonReader-1.3.jar -script calcbench.scr > logs/calcbench_out.txt
+    msec=$(( ($(date +%s%N) - start) / 1000000 ))
+    echo "run ${run}: ${msec} ms"
+    if (( best == 0 || msec < best )); then
+        best=${msec}
+    fi
+done
+echo "best: ${best} ms"
@@ -7,7 +7,7 @@ rm -rf logs
 mkdir logs
 mkdir logs/output
 
-declare -a testList=("brackets" "looptest" "subroutines" "filetest" "spreadsheet" "colortest" "misc" "ocrtest")
+declare -a testList=("brackets" "looptest" "subroutines" "filetest" "spreadsheet" "colortest" "misc" "ocrtest" "inserttest" "recursion" "intarraytest" "strarraytest")
 
 for test in "${testList[@]}"
 do